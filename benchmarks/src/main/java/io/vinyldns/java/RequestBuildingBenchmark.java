@@ -0,0 +1,118 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.Request;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.Signer;
+import com.amazonaws.util.SdkHttpUtils;
+import com.google.gson.Gson;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Request construction, query parameter encoding and signing, without any I/O. Lives in {@code
+ * io.vinyldns.java} to reach the package-private {@link VinylDNSRequestFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestBuildingBenchmark {
+  private static final String BASE_URL = "https://vinyldns.example.com:9443";
+
+  /** Number of changes in the batch submitted by {@link #signBatchChange()}. */
+  @Param({"100"})
+  public int batchSize;
+
+  /** The SDK's SigV4 signer or the client's own one. */
+  @Param({"sdk", "native"})
+  public String signerType;
+
+  private Gson gson;
+  private Signer signer;
+  private BasicAWSCredentials credentials;
+  private ListRecordSetsRequest listRecordSetsRequest;
+  private CreateBatchRequest createBatchRequest;
+
+  @Setup
+  public void setUp() {
+    gson = SerializationFactory.createGson();
+    if ("sdk".equals(signerType)) {
+      AWS4Signer sdkSigner = new AWS4Signer();
+      sdkSigner.setServiceName("VinylDNS");
+      sdkSigner.setRegionName("us-east-1");
+      signer = sdkSigner;
+    } else {
+      signer = new VinylDNSSigner();
+    }
+    credentials = new BasicAWSCredentials("access-key", "secret-key");
+
+    listRecordSetsRequest =
+        new ListRecordSetsRequest("zone-id", "www*", "start from/with spaces", 100);
+
+    List<ChangeInput> changes = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      changes.add(
+          new AddChangeInput(
+              "host-" + i + ".example.com.", RecordType.A, 300L, new AData("10.0.0." + i % 256)));
+    }
+    createBatchRequest = new CreateBatchRequest("benchmark", changes, "owner-group");
+  }
+
+  @Benchmark
+  public VinylDNSRequest<Void> buildListRecordSets() {
+    return VinylDNSRequestFactory.listRecordSets(BASE_URL, listRecordSetsRequest);
+  }
+
+  @Benchmark
+  public String encodeListRecordSets() {
+    Request<String> request =
+        VinylDNSRequestFactory.toSignableRequest(
+            VinylDNSRequestFactory.listRecordSets(BASE_URL, listRecordSetsRequest), gson);
+    return SdkHttpUtils.appendUri(request.getEndpoint().toString(), request.getResourcePath(), true)
+        + "?"
+        + SdkHttpUtils.encodeParameters(request);
+  }
+
+  @Benchmark
+  public Request<String> signListRecordSets() {
+    Request<String> request =
+        VinylDNSRequestFactory.toSignableRequest(
+            VinylDNSRequestFactory.listRecordSets(BASE_URL, listRecordSetsRequest), gson);
+    signer.sign(request, credentials);
+    return request;
+  }
+
+  @Benchmark
+  public Request<String> signBatchChange() {
+    Request<String> request =
+        VinylDNSRequestFactory.toSignableRequest(
+            VinylDNSRequestFactory.createBatchChanges(BASE_URL, createBatchRequest), gson);
+    signer.sign(request, credentials);
+    return request;
+  }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.vinyldns.java.VinylDNSClientConfig;
+import io.vinyldns.java.VinylDNSClientImpl;
+import io.vinyldns.java.jdk.JdkHttpTransport;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.zone.GetZoneResponse;
+import io.vinyldns.java.model.zone.ZoneRequest;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The whole blocking request path (build, sign, send, read, deserialize) against an in-process HTTP
+ * server that returns canned responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecuteRequestBenchmark {
+  static {
+    // Without this the stub's separate header and body writes stall on Nagle's algorithm.
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  /** Number of record sets in the list page and of changes in the submitted batch. */
+  @Param({"100", "1000"})
+  public int size;
+
+  @Param({"false", "true"})
+  public boolean retainResponseBody;
+
+  /** The HTTP engine: the default AWS SDK one, or the JDK's HttpClient. */
+  @Param({"aws", "jdk"})
+  public String transport;
+
+  private HttpServer server;
+  private VinylDNSClientImpl client;
+  private CreateBatchRequest createBatchRequest;
+
+  @Setup
+  public void setUp() throws IOException {
+    Gson gson = SerializationFactory.createGson();
+    byte[] zone =
+        gson.toJson(new GetZoneResponse(Fixtures.zone())).getBytes(StandardCharsets.UTF_8);
+    byte[] recordSets =
+        gson.toJson(Fixtures.listRecordSetsResponse(size)).getBytes(StandardCharsets.UTF_8);
+    byte[] batch = gson.toJson(Fixtures.batchResponse(size)).getBytes(StandardCharsets.UTF_8);
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/zones/zone-id/recordsets", exchange -> respond(exchange, 200, recordSets));
+    server.createContext("/zones/zone-id", exchange -> respond(exchange, 200, zone));
+    server.createContext("/zones/batchrecordchanges", exchange -> respond(exchange, 202, batch));
+    server.start();
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://127.0.0.1:" + server.getAddress().getPort(),
+            new BasicAWSCredentials("access-key", "secret-key"));
+    config.setRetainResponseBody(retainResponseBody);
+    if ("jdk".equals(transport)) {
+      config.setTransport(new JdkHttpTransport());
+    }
+    client = new VinylDNSClientImpl(config);
+
+    List<ChangeInput> changes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      changes.add(
+          new AddChangeInput(
+              "host-" + i + ".example.com.", RecordType.A, 300L, new AData("10.0.0." + i % 256)));
+    }
+    createBatchRequest = new CreateBatchRequest("benchmark", changes, "owner-group");
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Benchmark
+  public VinylDNSResponse<GetZoneResponse> getZone() {
+    return client.getZone(new ZoneRequest("zone-id"));
+  }
+
+  @Benchmark
+  public VinylDNSResponse<ListRecordSetsResponse> listRecordSets() {
+    return client.listRecordSets(new ListRecordSetsRequest("zone-id"));
+  }
+
+  @Benchmark
+  public VinylDNSResponse<BatchResponse> createBatchChanges() {
+    return client.createBatchChanges(createBatchRequest);
+  }
+
+  private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] buffer = new byte[8192];
+      while (in.read(buffer) != -1) {
+        // drain the request so the connection can be reused
+      }
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import io.vinyldns.java.model.acl.ACLRule;
+import io.vinyldns.java.model.acl.AccessLevel;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.BatchChangeStatus;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.batch.SingleChangeStatus;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.model.zone.ZoneACL;
+import io.vinyldns.java.model.zone.ZoneConnection;
+import io.vinyldns.java.model.zone.ZoneStatus;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/** Model objects shaped like real API responses, used as benchmark input. */
+public final class Fixtures {
+  private static final DateTime CREATED = new DateTime(2019, 1, 1, 0, 0, DateTimeZone.UTC);
+
+  /**
+   * Record types the generated record sets cycle through. SSHFP is left out because the legacy
+   * adapters in {@link TypeAdapterBenchmark} cannot read it back.
+   */
+  private static final RecordType[] TYPES = {
+    RecordType.A,
+    RecordType.AAAA,
+    RecordType.CNAME,
+    RecordType.PTR,
+    RecordType.MX,
+    RecordType.NS,
+    RecordType.SOA,
+    RecordType.SRV,
+    RecordType.TXT,
+    RecordType.SPF,
+    RecordType.UNKNOWN
+  };
+
+  private Fixtures() {}
+
+  /** A record set with one or two records, cycling through the record types. */
+  public static RecordSet recordSet(int i) {
+    RecordType type = TYPES[i % TYPES.length];
+    return new RecordSet(
+        "zone-id",
+        "record-" + i,
+        type,
+        300,
+        records(type, i),
+        "recordset-" + i,
+        "owner-group",
+        RecordSetStatus.Active,
+        CREATED,
+        CREATED);
+  }
+
+  /** A shared zone with connections and a handful of ACL rules. */
+  public static Zone zone() {
+    Set<ACLRule> rules = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      rules.add(
+          new ACLRule(
+              AccessLevel.Write,
+              "rule " + i,
+              null,
+              "group-" + i,
+              "app-" + i + ".*",
+              EnumSet.of(RecordType.A, RecordType.AAAA, RecordType.CNAME)));
+    }
+
+    return new Zone(
+        "zone-id",
+        "example.com.",
+        "admin@example.com",
+        ZoneStatus.Active,
+        CREATED,
+        CREATED,
+        new ZoneConnection("example.com.", "key-name", "secret", "10.0.0.1"),
+        new ZoneConnection("example.com.", "key-name", "secret", "10.0.0.2"),
+        true,
+        new ZoneACL(rules),
+        "admin-group",
+        CREATED,
+        false,
+        "default");
+  }
+
+  public static ListRecordSetsResponse listRecordSetsResponse(int size) {
+    List<RecordSet> recordSets = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      recordSets.add(recordSet(i));
+    }
+    return new ListRecordSetsResponse(recordSets, null, "next-id", size, null);
+  }
+
+  public static BatchResponse batchResponse(int size) {
+    List<SingleChange> changes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      changes.add(i % 4 == 3 ? deleteChange(i) : addChange(i));
+    }
+
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batch-id");
+    batchResponse.setUserId("user-id");
+    batchResponse.setUserName("user");
+    batchResponse.setComments("benchmark");
+    batchResponse.setCreatedTimestamp(new Date(0));
+    batchResponse.setStatus(BatchChangeStatus.Complete);
+    batchResponse.setOwnerGroupId("owner-group");
+    batchResponse.setChanges(changes);
+    return batchResponse;
+  }
+
+  private static AddSingleChange addChange(int i) {
+    AddSingleChange change = new AddSingleChange();
+    change.setId("change-" + i);
+    change.setChangeType(ChangeInputType.Add);
+    change.setZoneId("zone-id");
+    change.setZoneName("example.com.");
+    change.setRecordName("record-" + i);
+    change.setInputName("record-" + i + ".example.com.");
+    change.setType(i % 2 == 0 ? RecordType.A : RecordType.TXT);
+    change.setRecord(i % 2 == 0 ? new AData(address(i)) : new TXTData("text " + i));
+    change.setTtl(300L);
+    change.setStatus(SingleChangeStatus.Complete);
+    change.setRecordChangeId("record-change-" + i);
+    change.setRecordSetId("recordset-" + i);
+    change.setValidationErrors(Collections.emptyList());
+    return change;
+  }
+
+  private static DeleteRecordSetSingleChange deleteChange(int i) {
+    DeleteRecordSetSingleChange change = new DeleteRecordSetSingleChange();
+    change.setId("change-" + i);
+    change.setChangeType(ChangeInputType.DeleteRecordSet);
+    change.setZoneId("zone-id");
+    change.setZoneName("example.com.");
+    change.setRecordName("record-" + i);
+    change.setInputName("record-" + i + ".example.com.");
+    change.setType(RecordType.CNAME);
+    change.setStatus(SingleChangeStatus.Complete);
+    change.setRecordChangeId("record-change-" + i);
+    change.setRecordSetId("recordset-" + i);
+    change.setValidationErrors(Collections.emptyList());
+    return change;
+  }
+
+  private static List<RecordData> records(RecordType type, int i) {
+    switch (type) {
+      case A:
+        return Arrays.asList(new AData(address(i)), new AData(address(i + 1)));
+      case AAAA:
+        return Collections.singletonList(new AAAAData("2001:db8::" + Integer.toHexString(i)));
+      case CNAME:
+        return Collections.singletonList(new CNAMEData("target-" + i + ".example.com."));
+      case PTR:
+        return Collections.singletonList(new PTRData("host-" + i + ".example.com."));
+      case MX:
+        return Arrays.asList(
+            new MXData(10, "mx1.example.com."), new MXData(20, "mx2.example.com."));
+      case NS:
+        return Arrays.asList(new NSData("ns1.example.com."), new NSData("ns2.example.com."));
+      case SOA:
+        return Collections.singletonList(
+            new SOAData(
+                "ns1.example.com.", "admin.example.com.", (long) i, 7200L, 3600L, 1209600L, 300L));
+      case SRV:
+        return Collections.singletonList(new SRVData(10, 5, 5060, "sip.example.com."));
+      case TXT:
+        return Collections.singletonList(new TXTData("v=spf1 include:example.com ~all " + i));
+      case SSHFP:
+        return Collections.singletonList(
+            new SSHFPData(1, 1, "123456789abcdef67890123456789abcdef67890"));
+      case SPF:
+        return Collections.singletonList(new SPFData("v=spf1 -all"));
+      default:
+        return Collections.singletonList(new UNKNOWNData("raw " + i));
+    }
+  }
+
+  private static String address(int i) {
+    return "10." + ((i >> 16) & 0xff) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import io.vinyldns.java.VinylDNSReconciler;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.Zone;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Planning {@link VinylDNSReconciler} changes for a zone where one record in a hundred differs;
+ * reports record sets per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReconcileBenchmark {
+  private static final int RECORD_SETS = 100_000;
+
+  private final VinylDNSReconciler reconciler = new VinylDNSReconciler(null, 1);
+  private Zone zone;
+  private List<AddChangeInput> desired;
+  private List<RecordSet> live;
+
+  @Setup
+  public void setUp() {
+    zone = new Zone();
+    zone.setId("zoneId");
+    zone.setName("example.com.");
+    desired = new ArrayList<>(RECORD_SETS);
+    live = new ArrayList<>(RECORD_SETS);
+    for (int i = 0; i < RECORD_SETS; i++) {
+      String address = "10.0." + (i / 256 % 256) + "." + (i % 256);
+      desired.add(
+          new AddChangeInput(
+              "host" + i + ".example.com.",
+              RecordType.A,
+              300L,
+              new AData(i % 100 == 0 ? "192.0.2.1" : address)));
+      List<RecordData> records = Collections.singletonList(new AData(address));
+      live.add(
+          new RecordSet(
+              "zoneId",
+              "host" + i,
+              RecordType.A,
+              300,
+              records,
+              "id" + i,
+              null,
+              RecordSetStatus.Active,
+              null,
+              null));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORD_SETS)
+  public VinylDNSReconciler.Plan plan() {
+    return reconciler.plan(zone, desired, live);
+  }
+}
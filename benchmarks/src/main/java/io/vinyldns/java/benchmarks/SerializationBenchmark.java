@@ -0,0 +1,71 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import com.google.gson.Gson;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** JSON round trips through {@link SerializationFactory#createGson()} for the common payloads. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+  /** Number of record sets in a list page and of single changes in a batch. */
+  @Param({"100", "1000"})
+  public int size;
+
+  private Gson gson;
+  private RecordSet recordSet;
+  private Zone zone;
+  private BatchResponse batchResponse;
+  private ListRecordSetsResponse listRecordSetsResponse;
+
+  @Setup
+  public void setUp() {
+    gson = SerializationFactory.createGson();
+    recordSet = Fixtures.recordSet(0);
+    zone = Fixtures.zone();
+    batchResponse = Fixtures.batchResponse(size);
+    listRecordSetsResponse = Fixtures.listRecordSetsResponse(size);
+  }
+
+  @Benchmark
+  public RecordSet recordSet() {
+    return gson.fromJson(gson.toJson(recordSet), RecordSet.class);
+  }
+
+  @Benchmark
+  public Zone zone() {
+    return gson.fromJson(gson.toJson(zone), Zone.class);
+  }
+
+  @Benchmark
+  public BatchResponse batchResponse() {
+    return gson.fromJson(gson.toJson(batchResponse), BatchResponse.class);
+  }
+
+  @Benchmark
+  public ListRecordSetsResponse listRecordSetsResponse() {
+    return gson.fromJson(gson.toJson(listRecordSetsResponse), ListRecordSetsResponse.class);
+  }
+}
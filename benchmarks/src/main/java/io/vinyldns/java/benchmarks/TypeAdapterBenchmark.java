@@ -0,0 +1,86 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.serializers.ChangeInputDeserializer;
+import io.vinyldns.java.serializers.DateTimeSerializer;
+import io.vinyldns.java.serializers.InstantSerializer;
+import io.vinyldns.java.serializers.RecordDataDeserializer;
+import io.vinyldns.java.serializers.RecordSetTypeAdapterFactory;
+import io.vinyldns.java.serializers.SerializationFactory;
+import io.vinyldns.java.serializers.SingleChangeAdapterFactory;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the streaming type adapters used by {@link SerializationFactory#createGson()} with the
+ * tree-based, {@code Class.forName} adapters they replaced, on large list and batch responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeAdapterBenchmark {
+  @Param({"streaming", "legacy"})
+  public String adapters;
+
+  @Param({"5000"})
+  public int size;
+
+  private Gson gson;
+  private String recordSetsJson;
+  private String batchResponseJson;
+
+  @Setup
+  public void setUp() {
+    gson = "legacy".equals(adapters) ? legacyGson() : SerializationFactory.createGson();
+
+    Gson writer = SerializationFactory.createGson();
+    recordSetsJson = writer.toJson(Fixtures.listRecordSetsResponse(size));
+    batchResponseJson = writer.toJson(Fixtures.batchResponse(size));
+  }
+
+  @Benchmark
+  public ListRecordSetsResponse readListRecordSetsResponse() {
+    return gson.fromJson(recordSetsJson, ListRecordSetsResponse.class);
+  }
+
+  @Benchmark
+  public BatchResponse readBatchResponse() {
+    return gson.fromJson(batchResponseJson, BatchResponse.class);
+  }
+
+  /** The serializer setup {@link SerializationFactory} used before the streaming adapters. */
+  @SuppressWarnings("deprecation")
+  static Gson legacyGson() {
+    GsonBuilder gsonBuilder = new GsonBuilder();
+    gsonBuilder.registerTypeAdapterFactory(new RecordSetTypeAdapterFactory());
+    gsonBuilder.registerTypeAdapterFactory(new SingleChangeAdapterFactory());
+    gsonBuilder.registerTypeAdapter(RecordData.class, new RecordDataDeserializer());
+    gsonBuilder.registerTypeAdapter(DateTime.class, new DateTimeSerializer());
+    gsonBuilder.registerTypeAdapter(SingleChange.class, new ChangeInputDeserializer());
+    gsonBuilder.registerTypeAdapter(Instant.class, new InstantSerializer());
+    return gsonBuilder.create();
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.benchmarks;
+
+import io.vinyldns.java.VinylDNSZoneFileReader;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing an in-memory zone file with {@link VinylDNSZoneFileReader}; reports records per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZoneFileBenchmark {
+  private static final int RECORDS = 100_000;
+
+  private char[] zone;
+
+  @Setup
+  public void setUp() {
+    StringBuilder sb = new StringBuilder("$ORIGIN example.com.\n$TTL 3600\n");
+    for (int i = 0; i < RECORDS; i++) {
+      switch (i % 4) {
+        case 0:
+          sb.append("host").append(i).append(" IN A 10.0.").append(i / 256 % 256).append('.');
+          sb.append(i % 256).append('\n');
+          break;
+        case 1:
+          sb.append("host").append(i).append(" 300 IN AAAA 2001:db8::").append(i).append('\n');
+          break;
+        case 2:
+          sb.append("alias").append(i).append(" CNAME host").append(i - 2).append('\n');
+          break;
+        default:
+          sb.append("txt").append(i).append(" TXT \"v=spf1 include:_spf.example.com ~all\"\n");
+      }
+    }
+    zone = sb.toString().toCharArray();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(RECORDS)
+  public void read(Blackhole blackhole) throws IOException {
+    try (VinylDNSZoneFileReader reader =
+        new VinylDNSZoneFileReader(new CharArrayReader(zone), null)) {
+      Object record;
+      while ((record = reader.next()) != null) {
+        blackhole.consume(record);
+      }
+    }
+  }
+}
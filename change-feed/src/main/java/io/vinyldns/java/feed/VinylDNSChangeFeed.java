@@ -0,0 +1,626 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.feed;
+
+import io.vinyldns.java.VinylDNSClient;
+import io.vinyldns.java.VinylDNSException;
+import io.vinyldns.java.model.membership.GroupChange;
+import io.vinyldns.java.model.membership.ListGroupActivityRequest;
+import io.vinyldns.java.model.membership.ListGroupActivityResponse;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesRequest;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesResponse;
+import io.vinyldns.java.model.record.set.RecordSetChange;
+import io.vinyldns.java.model.record.set.RecordSetChangeStatus;
+import io.vinyldns.java.model.zone.ListZoneChangesRequest;
+import io.vinyldns.java.model.zone.ListZoneChangesResponse;
+import io.vinyldns.java.model.zone.ZoneChangeStatus;
+import io.vinyldns.java.model.zone.ZoneResponse;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tails the change history of many zones and groups and publishes new changes to {@link
+ * Flow.Subscriber}s.
+ *
+ * <p>One scheduler thread sends at most {@code requestsPerSecond} requests on average, whatever the
+ * number of tracked zones: each request reads a page of {@link
+ * VinylDNSClient#listRecordSetChanges}, {@link VinylDNSClient#listZoneChanges} or {@link
+ * VinylDNSClient#listGroupActivity} for the feed that has waited longest, and no feed is read more
+ * often than {@link #setPollIntervalMillis the poll interval}. A feed is read newest first until
+ * its checkpoint and its new changes are published oldest first, once they are complete or have
+ * failed. Changes still in progress hold the checkpoint back and are published when they finish;
+ * changes read twice are published once.
+ *
+ * <p>Feeds whose publisher has no subscribers are not read, and a feed is skipped while a
+ * subscriber has less than a page of buffer left, so a slow subscriber slows polling down instead
+ * of losing changes. Changes read while catching up are handed to the publisher only as its
+ * subscribers make room, and the feed is not read again until all of them are out. Checkpoints are
+ * saved to {@code checkpointFile} once every subscriber has taken the changes before them; after a
+ * restart, changes published but not yet taken are published again. A zone or group tracked without
+ * a checkpoint starts at its newest change.
+ */
+public class VinylDNSChangeFeed implements AutoCloseable {
+  private static final int PAGE_SIZE = 100;
+  private static final long SAVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final VinylDNSClient client;
+  private final Path checkpointFile;
+  private final ScheduledExecutorService scheduler;
+  private final CountingPublisher<RecordSetChange> recordSetChanges = new CountingPublisher<>();
+  private final CountingPublisher<ZoneResponse> zoneChanges = new CountingPublisher<>();
+  private final CountingPublisher<GroupChange> groupActivity = new CountingPublisher<>();
+  private final Properties checkpoints = new Properties();
+  private final Map<String, Source<?>> sources = new ConcurrentHashMap<>();
+  private final PriorityQueue<Source<?>> queue =
+      new PriorityQueue<>(Comparator.comparingLong(source -> source.nextPoll));
+  private final Set<Source<?>> uncommitted = new LinkedHashSet<>();
+  private final Set<Source<?>> draining = new LinkedHashSet<>();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong failedPolls = new AtomicLong();
+  private volatile long pollIntervalMillis = 10_000;
+  private boolean dirty;
+  private long lastSave = System.nanoTime();
+
+  /**
+   * Loads the checkpoints in {@code checkpointFile}, if it exists, and starts polling. A null file
+   * keeps checkpoints in memory only.
+   */
+  public VinylDNSChangeFeed(VinylDNSClient client, Path checkpointFile, double requestsPerSecond)
+      throws IOException {
+    if (!(requestsPerSecond > 0)) {
+      throw new IllegalArgumentException("requestsPerSecond must be positive");
+    }
+    this.client = client;
+    this.checkpointFile = checkpointFile;
+    if (checkpointFile != null) {
+      try (InputStream in = Files.newInputStream(checkpointFile)) {
+        checkpoints.load(in);
+      } catch (NoSuchFileException e) {
+        // first run
+      }
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "vinyldns-change-feed");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long period = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+    scheduler.scheduleAtFixedRate(this::tick, period, period, TimeUnit.NANOSECONDS);
+  }
+
+  /** Record set changes of the tracked zones. */
+  public Flow.Publisher<RecordSetChange> recordSetChanges() {
+    return recordSetChanges;
+  }
+
+  /** Zone changes of the tracked zones. */
+  public Flow.Publisher<ZoneResponse> zoneChanges() {
+    return zoneChanges;
+  }
+
+  /** Activity of the tracked groups. */
+  public Flow.Publisher<GroupChange> groupActivity() {
+    return groupActivity;
+  }
+
+  public long getPollIntervalMillis() {
+    return pollIntervalMillis;
+  }
+
+  /** Sets the minimum time between two reads of the same feed; the default is 10 seconds. */
+  public void setPollIntervalMillis(long pollIntervalMillis) {
+    this.pollIntervalMillis = pollIntervalMillis;
+  }
+
+  /** Number of requests sent so far. */
+  public long getRequestCount() {
+    return requests.get();
+  }
+
+  /** Number of requests that failed; the feed is read again after the poll interval. */
+  public long getFailedPolls() {
+    return failedPolls.get();
+  }
+
+  /** Tails the record set changes and zone changes of a zone. */
+  public void trackZone(String zoneId) {
+    track(new RecordSetSource(zoneId));
+    track(new ZoneSource(zoneId));
+  }
+
+  /** Stops tailing a zone and forgets its checkpoints. */
+  public void untrackZone(String zoneId) {
+    untrack("recordsets." + zoneId);
+    untrack("zones." + zoneId);
+  }
+
+  /** Tails the activity of a group. */
+  public void trackGroup(String groupId) {
+    track(new GroupSource(groupId));
+  }
+
+  /** Stops tailing a group and forgets its checkpoint. */
+  public void untrackGroup(String groupId) {
+    untrack("groups." + groupId);
+  }
+
+  /**
+   * Stops polling, saves the checkpoints of the changes subscribers have taken and completes the
+   * publishers once their buffers are drained.
+   */
+  @Override
+  public void close() throws IOException {
+    scheduler.shutdown();
+    try {
+      scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      commit();
+      if (dirty) {
+        save();
+      }
+    }
+    recordSetChanges.close();
+    zoneChanges.close();
+    groupActivity.close();
+  }
+
+  private synchronized void track(Source<?> source) {
+    if (sources.putIfAbsent(source.key, source) == null) {
+      source.checkpoint = checkpoints.getProperty(source.key);
+      source.started = source.checkpoint != null;
+      source.nextPoll = System.nanoTime();
+      queue.add(source);
+    }
+  }
+
+  private synchronized void untrack(String key) {
+    Source<?> source = sources.remove(key);
+    if (source != null) {
+      queue.remove(source);
+      uncommitted.remove(source);
+      draining.remove(source);
+      dirty |= checkpoints.remove(key) != null;
+    }
+  }
+
+  /** Sends at most one request, to the feed that has waited longest. */
+  private void tick() {
+    try {
+      synchronized (this) {
+        draining.removeIf(
+            source -> {
+              boolean drained = source.drain();
+              if (drained) {
+                markUncommitted(source);
+              }
+              return drained;
+            });
+      }
+      Source<?> source = next();
+      if (source != null) {
+        boolean more = false;
+        try {
+          requests.incrementAndGet();
+          more = source.poll();
+        } catch (RuntimeException e) {
+          failedPolls.incrementAndGet();
+          source.reset();
+        }
+        synchronized (this) {
+          if (sources.get(source.key) == source) {
+            source.nextPoll =
+                System.nanoTime() + (more ? 0 : TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis));
+            queue.add(source);
+            if (source.hasPending()) {
+              draining.add(source);
+            } else {
+              markUncommitted(source);
+            }
+          }
+        }
+      }
+      synchronized (this) {
+        commit();
+        if (dirty && System.nanoTime() - lastSave >= SAVE_INTERVAL_NANOS) {
+          save();
+        }
+      }
+    } catch (IOException e) {
+      // still dirty, saved again on a later tick
+    } catch (RuntimeException e) {
+      // an exception would cancel the fixed-rate task and stop the feed; try again next tick
+    }
+  }
+
+  /** Marks the checkpoint of {@code source} for saving once its changes are taken. */
+  private void markUncommitted(Source<?> source) {
+    if (source.hasMarks()) {
+      uncommitted.add(source);
+    }
+  }
+
+  /** Takes the first due feed whose subscribers have room; feeds skipped are polled later. */
+  private synchronized Source<?> next() {
+    long now = System.nanoTime();
+    List<Source<?>> skipped = new ArrayList<>();
+    try {
+      while (!queue.isEmpty() && queue.peek().nextPoll - now <= 0) {
+        Source<?> source = queue.poll();
+        SubmissionPublisher<?> publisher = source.publisher;
+        if (!source.hasPending()
+            && publisher.hasSubscribers()
+            && publisher.estimateMaximumLag() + PAGE_SIZE <= publisher.getMaxBufferCapacity()) {
+          return source;
+        }
+        skipped.add(source);
+      }
+      return null;
+    } finally {
+      long later = now + TimeUnit.MILLISECONDS.toNanos(Math.min(pollIntervalMillis, 1000));
+      for (Source<?> source : skipped) {
+        source.nextPoll = later;
+        queue.add(source);
+      }
+    }
+  }
+
+  /**
+   * Commits, for every feed, the newest checkpoint whose changes every subscriber has taken, so a
+   * subscriber that is always a little behind still lets checkpoints advance.
+   */
+  private void commit() {
+    uncommitted.removeIf(
+        source -> {
+          String taken = source.takenCheckpoint();
+          if (taken != null && !taken.equals(source.committed)) {
+            source.committed = taken;
+            checkpoints.setProperty(source.key, taken);
+            dirty = true;
+          }
+          return !source.hasMarks();
+        });
+  }
+
+  private void save() throws IOException {
+    lastSave = System.nanoTime();
+    if (checkpointFile == null) {
+      dirty = false;
+      return;
+    }
+    Path temp =
+        Files.createTempFile(
+            checkpointFile.toAbsolutePath().getParent(),
+            checkpointFile.getFileName() + ".",
+            ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        checkpoints.store(out, "VinylDNS change feed checkpoints");
+      }
+      Files.move(
+          temp,
+          checkpointFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      dirty = false;
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static <P> P value(VinylDNSResponse<P> response) {
+    if (!(response instanceof ResponseMarker.Success)) {
+      throw new VinylDNSException(response);
+    }
+    return response.getValue();
+  }
+
+  /** One change history, read a page per request. Only touched by the scheduler thread. */
+  private abstract static class Source<T> {
+    final String key;
+    final CountingPublisher<T> publisher;
+    long nextPoll;
+    String checkpoint;
+    String committed;
+    boolean started;
+
+    // state of a read that spans several pages
+    private String cursor;
+    private final List<T> read = new ArrayList<>();
+    private String newCheckpoint;
+    private boolean searching = true;
+    private Set<String> published = new HashSet<>();
+
+    // changes read but not yet published, oldest first, and the checkpoint after them
+    private final Deque<T> pending = new ArrayDeque<>();
+    private String pendingCheckpoint;
+
+    // checkpoints not yet committed, each with the number of changes published before it
+    private final Deque<Mark> marks = new ArrayDeque<>();
+
+    Source(String key, CountingPublisher<T> publisher) {
+      this.key = key;
+      this.publisher = publisher;
+    }
+
+    /** Fetches a page, newest first; sets {@code nextId} if there is an older page. */
+    abstract Page<T> fetch(String startFrom, int maxItems);
+
+    abstract String id(T change);
+
+    abstract boolean isFinal(T change);
+
+    /** Reads the next page; returns true if older pages are still to be read. */
+    boolean poll() {
+      boolean fresh = !started;
+      if (cursor == null) {
+        newCheckpoint = checkpoint;
+        searching = true;
+      }
+      Page<T> page = fetch(cursor, PAGE_SIZE);
+      boolean reached = false;
+      for (T change : page.changes) {
+        String id = id(change);
+        if (id.equals(checkpoint)) {
+          reached = true;
+          break;
+        }
+        read.add(change);
+        if (!isFinal(change)) {
+          newCheckpoint = checkpoint;
+          searching = true;
+        } else if (searching) {
+          newCheckpoint = id;
+          searching = false;
+          if (fresh) {
+            reached = true;
+            break;
+          }
+        }
+      }
+      if (!reached && page.nextId != null) {
+        cursor = page.nextId;
+        return true;
+      }
+
+      if (!fresh) {
+        publish();
+      }
+      pendingCheckpoint = newCheckpoint;
+      started = true;
+      reset();
+      drain();
+      return false;
+    }
+
+    boolean hasPending() {
+      return !pending.isEmpty();
+    }
+
+    /**
+     * Hands pending changes to the publisher while every subscriber has room, so the scheduler
+     * thread never blocks; returns true, and moves the checkpoint past them, once all are out.
+     */
+    boolean drain() {
+      while (!pending.isEmpty()
+          && publisher.estimateMaximumLag() < publisher.getMaxBufferCapacity()) {
+        publisher.publish(pending.poll());
+      }
+      if (!pending.isEmpty()) {
+        return false;
+      }
+      checkpoint = pendingCheckpoint;
+      if (checkpoint != null && !checkpoint.equals(committed)) {
+        Mark last = marks.peekLast();
+        if (last != null && last.published == publisher.published()) {
+          last.checkpoint = checkpoint;
+        } else {
+          marks.add(new Mark(publisher.published(), checkpoint));
+        }
+      }
+      return true;
+    }
+
+    boolean hasMarks() {
+      return !marks.isEmpty();
+    }
+
+    /** The newest checkpoint whose changes every subscriber has taken, or null. */
+    String takenCheckpoint() {
+      long taken = publisher.taken();
+      String checkpoint = null;
+      while (!marks.isEmpty() && marks.peekFirst().published <= taken) {
+        checkpoint = marks.pollFirst().checkpoint;
+      }
+      return checkpoint;
+    }
+
+    /** Queues the finished changes not published before, oldest first. */
+    private void publish() {
+      Set<String> kept = new HashSet<>();
+      boolean newer = true;
+      for (T change : read) {
+        String id = id(change);
+        newer &= !id.equals(newCheckpoint);
+        if (newer && isFinal(change)) {
+          kept.add(id);
+        }
+      }
+      for (int i = read.size() - 1; i >= 0; i--) {
+        T change = read.get(i);
+        if (isFinal(change) && !published.contains(id(change))) {
+          pending.add(change);
+        }
+      }
+      // changes newer than the new checkpoint are read again, remember that they were published
+      published = kept;
+    }
+
+    void reset() {
+      cursor = null;
+      read.clear();
+    }
+  }
+
+  private static final class Mark {
+    final long published;
+    String checkpoint;
+
+    Mark(long published, String checkpoint) {
+      this.published = published;
+      this.checkpoint = checkpoint;
+    }
+  }
+
+  /** Publishes changes without blocking and counts them, so it can tell how many were taken. */
+  private static final class CountingPublisher<T> extends SubmissionPublisher<T> {
+    private final AtomicLong published = new AtomicLong();
+
+    void publish(T change) {
+      published.incrementAndGet();
+      offer(change, (subscriber, dropped) -> false);
+    }
+
+    long published() {
+      return published.get();
+    }
+
+    /** Number of changes, in publishing order, that every subscriber has taken. */
+    long taken() {
+      return published.get() - estimateMaximumLag();
+    }
+  }
+
+  private static final class Page<T> {
+    final Collection<T> changes;
+    final String nextId;
+
+    Page(Collection<T> changes, String nextId) {
+      this.changes = changes == null ? new ArrayList<>() : changes;
+      this.nextId = nextId;
+    }
+  }
+
+  private final class RecordSetSource extends Source<RecordSetChange> {
+    private final String zoneId;
+
+    RecordSetSource(String zoneId) {
+      super("recordsets." + zoneId, recordSetChanges);
+      this.zoneId = zoneId;
+    }
+
+    @Override
+    Page<RecordSetChange> fetch(String startFrom, int maxItems) {
+      ListRecordSetChangesResponse response =
+          value(
+              client.listRecordSetChanges(
+                  new ListRecordSetChangesRequest(zoneId, startFrom, maxItems)));
+      return new Page<>(response.getRecordSetChanges(), response.getNextId());
+    }
+
+    @Override
+    String id(RecordSetChange change) {
+      return change.getId();
+    }
+
+    @Override
+    boolean isFinal(RecordSetChange change) {
+      return change.getStatus() == RecordSetChangeStatus.Complete
+          || change.getStatus() == RecordSetChangeStatus.Failed;
+    }
+  }
+
+  private final class ZoneSource extends Source<ZoneResponse> {
+    private final String zoneId;
+
+    ZoneSource(String zoneId) {
+      super("zones." + zoneId, zoneChanges);
+      this.zoneId = zoneId;
+    }
+
+    @Override
+    Page<ZoneResponse> fetch(String startFrom, int maxItems) {
+      ListZoneChangesResponse response =
+          value(client.listZoneChanges(new ListZoneChangesRequest(zoneId, startFrom, maxItems)));
+      return new Page<>(response.getZoneChanges(), response.getNextId());
+    }
+
+    @Override
+    String id(ZoneResponse change) {
+      return change.getId();
+    }
+
+    @Override
+    boolean isFinal(ZoneResponse change) {
+      return change.getStatus() != ZoneChangeStatus.Pending;
+    }
+  }
+
+  private final class GroupSource extends Source<GroupChange> {
+    private final String groupId;
+
+    GroupSource(String groupId) {
+      super("groups." + groupId, groupActivity);
+      this.groupId = groupId;
+    }
+
+    @Override
+    Page<GroupChange> fetch(String startFrom, int maxItems) {
+      ListGroupActivityResponse response =
+          value(
+              client.listGroupActivity(new ListGroupActivityRequest(groupId, startFrom, maxItems)));
+      return new Page<>(response.getChanges(), response.getNextId());
+    }
+
+    @Override
+    String id(GroupChange change) {
+      return change.getId();
+    }
+
+    @Override
+    boolean isFinal(GroupChange change) {
+      return true;
+    }
+  }
+}
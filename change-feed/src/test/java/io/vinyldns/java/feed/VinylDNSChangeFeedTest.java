@@ -0,0 +1,425 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.feed;
+
+import static org.testng.Assert.*;
+
+import io.vinyldns.java.VinylDNSClient;
+import io.vinyldns.java.model.membership.GroupChange;
+import io.vinyldns.java.model.membership.GroupChangeType;
+import io.vinyldns.java.model.membership.ListGroupActivityRequest;
+import io.vinyldns.java.model.membership.ListGroupActivityResponse;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesRequest;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesResponse;
+import io.vinyldns.java.model.record.set.RecordSetChange;
+import io.vinyldns.java.model.record.set.RecordSetChangeStatus;
+import io.vinyldns.java.model.record.set.RecordSetChangeType;
+import io.vinyldns.java.model.zone.ListZoneChangesRequest;
+import io.vinyldns.java.model.zone.ListZoneChangesResponse;
+import io.vinyldns.java.responses.VinylDNSSuccessResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class VinylDNSChangeFeedTest {
+  private final Map<String, List<RecordSetChange>> recordSetHistory = new ConcurrentHashMap<>();
+  private final Map<String, List<GroupChange>> groupHistory = new ConcurrentHashMap<>();
+  private final AtomicInteger requests = new AtomicInteger();
+  private VinylDNSClient client;
+  private Path checkpointFile;
+
+  @BeforeMethod
+  public void beforeEach() throws IOException {
+    recordSetHistory.clear();
+    groupHistory.clear();
+    requests.set(0);
+    client = fakeClient();
+    checkpointFile = Files.createTempDirectory("feed").resolve("checkpoints.properties");
+  }
+
+  @AfterMethod
+  public void afterEach() throws IOException {
+    Files.deleteIfExists(checkpointFile);
+    Files.deleteIfExists(checkpointFile.getParent());
+  }
+
+  @Test
+  public void publishesFinishedChangesOnceInOrder() throws IOException {
+    history("z1", change("c1"));
+    Collector<RecordSetChange> collector = new Collector<>(Long.MAX_VALUE);
+    VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500);
+    feed.setPollIntervalMillis(10);
+    feed.recordSetChanges().subscribe(collector);
+    feed.trackZone("z1");
+    await(() -> requests.get() >= 2);
+
+    RecordSetChange pending = change("c2");
+    pending.setStatus(RecordSetChangeStatus.Pending);
+    history("z1", change("c3"), pending, change("c1"));
+    await(() -> collector.items.size() == 1);
+    pending.setStatus(RecordSetChangeStatus.Complete);
+    await(() -> collector.items.size() == 2);
+    int seen = requests.get();
+    await(() -> requests.get() >= seen + 5);
+    feed.close();
+    await(() -> collector.completed);
+
+    assertEquals(ids(collector.items), List.of("c3", "c2"));
+    assertEquals(load().getProperty("recordsets.z1"), "c3");
+    assertEquals(feed.getFailedPolls(), 0);
+  }
+
+  @Test
+  public void resumesFromSavedCheckpoint() throws IOException {
+    save("recordsets.z1", "c1");
+    history("z1", change("c3"), change("c2"), change("c1"), change("c0"));
+    Collector<RecordSetChange> collector = new Collector<>(Long.MAX_VALUE);
+
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500)) {
+      feed.recordSetChanges().subscribe(collector);
+      feed.trackZone("z1");
+      await(() -> collector.items.size() == 2);
+    }
+
+    assertEquals(ids(collector.items), List.of("c2", "c3"));
+    assertEquals(load().getProperty("recordsets.z1"), "c3");
+  }
+
+  @Test
+  public void slowSubscriberHoldsCheckpointBack() throws IOException {
+    save("recordsets.z1", "c0");
+    history(
+        "z1", change("c5"), change("c4"), change("c3"), change("c2"), change("c1"), change("c0"));
+    Collector<RecordSetChange> collector = new Collector<>(2);
+
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500)) {
+      feed.setPollIntervalMillis(10);
+      feed.recordSetChanges().subscribe(collector);
+      feed.trackZone("z1");
+      await(() -> collector.items.size() == 2);
+      int seen = requests.get();
+      await(() -> requests.get() >= seen + 3);
+      assertEquals(collector.items.size(), 2);
+      assertNotEquals(load().getProperty("recordsets.z1"), "c5");
+
+      collector.subscription.request(Long.MAX_VALUE);
+      await(() -> collector.items.size() == 5);
+    }
+
+    assertEquals(ids(collector.items), List.of("c1", "c2", "c3", "c4", "c5"));
+    assertEquals(load().getProperty("recordsets.z1"), "c5");
+  }
+
+  @Test
+  public void backlogLargerThanBufferDoesNotStallOtherFeeds() throws IOException {
+    save("recordsets.z1", "c0");
+    RecordSetChange[] backlog = new RecordSetChange[1001];
+    for (int i = 0; i <= 1000; i++) {
+      backlog[i] = change("c" + (1000 - i));
+    }
+    history("z1", backlog);
+    Collector<RecordSetChange> slow = new Collector<>(1);
+    Collector<GroupChange> groups = new Collector<>(Long.MAX_VALUE);
+
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500)) {
+      feed.setPollIntervalMillis(10);
+      feed.recordSetChanges().subscribe(slow);
+      feed.groupActivity().subscribe(groups);
+      feed.trackZone("z1");
+      feed.trackGroup("g1");
+      await(() -> requests.get() >= 15);
+
+      groupHistory.put("g1", List.of(groupChange("g2"), groupChange("g1")));
+      await(() -> groups.items.size() == 2);
+      assertEquals(slow.items.size(), 1);
+      assertNotEquals(load().getProperty("recordsets.z1"), "c1000");
+
+      slow.subscription.request(Long.MAX_VALUE);
+      await(() -> slow.items.size() == 1000);
+    }
+
+    List<String> expected = new ArrayList<>();
+    for (int i = 1; i <= 1000; i++) {
+      expected.add("c" + i);
+    }
+    assertEquals(ids(slow.items), expected);
+    assertEquals(load().getProperty("recordsets.z1"), "c1000");
+  }
+
+  @Test
+  public void checkpointAdvancesWhileSubscriberLags() throws IOException {
+    save("recordsets.z1", "c0");
+    history("z1", change("c3"), change("c2"), change("c1"), change("c0"));
+    Collector<RecordSetChange> collector = new Collector<>(2);
+
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500)) {
+      feed.setPollIntervalMillis(10);
+      feed.recordSetChanges().subscribe(collector);
+      feed.trackZone("z1");
+      await(() -> collector.items.size() == 2);
+      int seen = requests.get();
+      await(() -> requests.get() >= seen + 3);
+
+      history(
+          "z1",
+          change("c6"),
+          change("c5"),
+          change("c4"),
+          change("c3"),
+          change("c2"),
+          change("c1"),
+          change("c0"));
+      int seenAgain = requests.get();
+      await(() -> requests.get() >= seenAgain + 3);
+
+      // the subscriber takes c3 but stays behind, so the publisher's lag never drops to zero
+      collector.subscription.request(2);
+      await(() -> collector.items.size() == 4);
+      await(() -> "c3".equals(savedCheckpoint("recordsets.z1")));
+    }
+  }
+
+  @Test
+  public void boundsRequestRateAcrossZones() throws Exception {
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, null, 40)) {
+      for (int i = 0; i < 200; i++) {
+        feed.trackZone("zone" + i);
+      }
+      Thread.sleep(200);
+      assertEquals(requests.get(), 0, "no requests without subscribers");
+
+      feed.recordSetChanges().subscribe(new Collector<>(Long.MAX_VALUE));
+      feed.zoneChanges().subscribe(new Collector<>(Long.MAX_VALUE));
+      long start = System.nanoTime();
+      Thread.sleep(1500);
+      feed.close();
+      int sent = requests.get();
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      assertTrue(sent > 0);
+      assertTrue(sent <= 40 * seconds + 2, sent + " requests in " + seconds + "s");
+      assertEquals(feed.getRequestCount(), sent);
+    }
+  }
+
+  @Test
+  public void publishesGroupActivity() throws IOException {
+    save("groups.g1", "g0");
+    groupHistory.put("g1", List.of(groupChange("g2"), groupChange("g1"), groupChange("g0")));
+    Collector<GroupChange> collector = new Collector<>(Long.MAX_VALUE);
+
+    try (VinylDNSChangeFeed feed = new VinylDNSChangeFeed(client, checkpointFile, 500)) {
+      feed.groupActivity().subscribe(collector);
+      feed.trackGroup("g1");
+      await(() -> collector.items.size() == 2);
+      feed.untrackGroup("g1");
+    }
+
+    assertEquals(collector.items.get(0).getId(), "g1");
+    assertEquals(collector.items.get(1).getId(), "g2");
+    assertNull(load().getProperty("groups.g1"));
+  }
+
+  private VinylDNSClient fakeClient() {
+    return (VinylDNSClient)
+        Proxy.newProxyInstance(
+            VinylDNSClient.class.getClassLoader(),
+            new Class<?>[] {VinylDNSClient.class},
+            (proxy, method, args) -> {
+              requests.incrementAndGet();
+              switch (method.getName()) {
+                case "listRecordSetChanges":
+                  {
+                    ListRecordSetChangesRequest request = (ListRecordSetChangesRequest) args[0];
+                    List<RecordSetChange> history =
+                        recordSetHistory.getOrDefault(request.getZoneId(), List.of());
+                    int from = page(request.getStartFrom());
+                    int to = Math.min(history.size(), from + request.getMaxItems());
+                    return new VinylDNSSuccessResponse<>(
+                        new ListRecordSetChangesResponse(
+                            request.getZoneId(),
+                            new ArrayList<>(history.subList(from, to)),
+                            to < history.size() ? String.valueOf(to) : null,
+                            request.getStartFrom(),
+                            request.getMaxItems()),
+                        "",
+                        200);
+                  }
+                case "listZoneChanges":
+                  {
+                    ListZoneChangesRequest request = (ListZoneChangesRequest) args[0];
+                    return new VinylDNSSuccessResponse<>(
+                        new ListZoneChangesResponse(Collections.emptyList(), request.getMaxItems()),
+                        "",
+                        200);
+                  }
+                case "listGroupActivity":
+                  {
+                    ListGroupActivityRequest request = (ListGroupActivityRequest) args[0];
+                    List<GroupChange> history =
+                        groupHistory.getOrDefault(request.getGroupId(), List.of());
+                    int from = page(request.getStartFrom());
+                    int to = Math.min(history.size(), from + request.getMaxItems());
+                    return new VinylDNSSuccessResponse<>(
+                        new ListGroupActivityResponse(
+                            listSet(history.subList(from, to)),
+                            request.getStartFrom(),
+                            to < history.size() ? String.valueOf(to) : null,
+                            request.getMaxItems()),
+                        "",
+                        200);
+                  }
+                default:
+                  throw new UnsupportedOperationException(method.getName());
+              }
+            });
+  }
+
+  /** An ordered set that does not hash its elements, which have no ids or timestamps here. */
+  private static <T> Set<T> listSet(List<T> list) {
+    List<T> copy = new ArrayList<>(list);
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return copy.iterator();
+      }
+
+      @Override
+      public int size() {
+        return copy.size();
+      }
+    };
+  }
+
+  private static int page(String startFrom) {
+    return startFrom == null ? 0 : Integer.parseInt(startFrom);
+  }
+
+  private void history(String zoneId, RecordSetChange... newestFirst) {
+    recordSetHistory.put(zoneId, new CopyOnWriteArrayList<>(newestFirst));
+  }
+
+  private void save(String key, String checkpoint) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty(key, checkpoint);
+    try (OutputStream out = Files.newOutputStream(checkpointFile)) {
+      properties.store(out, null);
+    }
+  }
+
+  private String savedCheckpoint(String key) {
+    try {
+      return load().getProperty(key);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Properties load() throws IOException {
+    Properties properties = new Properties();
+    if (Files.exists(checkpointFile)) {
+      try (InputStream in = Files.newInputStream(checkpointFile)) {
+        properties.load(in);
+      }
+    }
+    return properties;
+  }
+
+  private static RecordSetChange change(String id) {
+    return new RecordSetChange(
+        id,
+        null,
+        null,
+        "user",
+        RecordSetChangeType.Create,
+        RecordSetChangeStatus.Complete,
+        null,
+        null,
+        null);
+  }
+
+  private static GroupChange groupChange(String id) {
+    return new GroupChange(id, null, null, null, "user", GroupChangeType.Update);
+  }
+
+  private static List<String> ids(List<RecordSetChange> changes) {
+    List<String> ids = new ArrayList<>();
+    for (RecordSetChange change : changes) {
+      ids.add(change.getId());
+    }
+    return ids;
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "timed out");
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+
+  private static final class Collector<T> implements Flow.Subscriber<T> {
+    private final long initialDemand;
+    private final List<T> items = new CopyOnWriteArrayList<>();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean completed;
+
+    Collector(long initialDemand) {
+      this.initialDemand = initialDemand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialDemand);
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {}
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.jdk;
+
+import io.vinyldns.java.VinylDNSTransportConfig;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSHttpResponse;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A {@link VinylDNSTransport} on the JDK's {@link HttpClient}. It negotiates HTTP/2 where the API
+ * supports it, so concurrent requests share a few multiplexed connections instead of one pooled
+ * connection each.
+ *
+ * <pre>{@code
+ * JdkHttpTransport transport = new JdkHttpTransport(config.getTransportConfig());
+ * config.setTransport(transport);
+ * }</pre>
+ */
+public class JdkHttpTransport implements VinylDNSTransport {
+  /** Headers the JDK client sets itself and refuses to take from the caller. */
+  private static final Set<String> RESTRICTED_HEADERS =
+      new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  static {
+    RESTRICTED_HEADERS.addAll(
+        Arrays.asList("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+  }
+
+  private final HttpClient client;
+
+  private final Duration requestTimeout;
+
+  /** Uses the default {@link VinylDNSTransportConfig} timeouts. */
+  public JdkHttpTransport() {
+    this(new VinylDNSTransportConfig());
+  }
+
+  /**
+   * Takes the connection and request timeouts from {@code config}. The pool settings do not apply:
+   * the JDK client manages its own connections.
+   */
+  public JdkHttpTransport(VinylDNSTransportConfig config) {
+    HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2);
+    if (config.getConnectionTimeoutMillis() > 0) {
+      builder.connectTimeout(Duration.ofMillis(config.getConnectionTimeoutMillis()));
+    }
+
+    this.client = builder.build();
+    this.requestTimeout =
+        config.getRequestTimeoutMillis() > 0
+            ? Duration.ofMillis(config.getRequestTimeoutMillis())
+            : null;
+  }
+
+  /** Sends requests through {@code client}, without a request timeout. */
+  public JdkHttpTransport(HttpClient client) {
+    this.client = client;
+    this.requestTimeout = null;
+  }
+
+  @Override
+  public VinylDNSHttpResponse execute(VinylDNSHttpRequest request) throws IOException {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(request.getUri())
+            .method(
+                request.getMethod(),
+                request.getBody() == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(
+                        request.getBody(), 0, request.getBodyLength()));
+
+    for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+      if (!RESTRICTED_HEADERS.contains(header.getKey())) {
+        builder.header(header.getKey(), header.getValue());
+      }
+    }
+    if (requestTimeout != null) {
+      builder.timeout(requestTimeout);
+    }
+
+    try {
+      return new Response(client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      InterruptedIOException error = new InterruptedIOException("request interrupted");
+      error.initCause(e);
+      throw error;
+    }
+  }
+
+  /** The JDK client has no close method before Java 21; its threads end once it is unreachable. */
+  @Override
+  public void close() {}
+
+  private static class Response implements VinylDNSHttpResponse {
+    private final HttpResponse<InputStream> response;
+
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    Response(HttpResponse<InputStream> response) {
+      this.response = response;
+      for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+        if (!header.getValue().isEmpty()) {
+          headers.put(header.getKey(), header.getValue().get(0));
+        }
+      }
+    }
+
+    @Override
+    public int getStatusCode() {
+      return response.statusCode();
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+      return Collections.unmodifiableMap(headers);
+    }
+
+    @Override
+    public InputStream getContent() {
+      return response.body();
+    }
+
+    @Override
+    public void close() throws IOException {
+      response.body().close();
+    }
+  }
+}
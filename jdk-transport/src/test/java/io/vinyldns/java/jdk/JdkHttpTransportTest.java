@@ -0,0 +1,121 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.jdk;
+
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.vinyldns.java.GetGroupRequest;
+import io.vinyldns.java.VinylDNSClientConfig;
+import io.vinyldns.java.VinylDNSClientImpl;
+import io.vinyldns.java.VinylDNSRetryPolicy;
+import io.vinyldns.java.model.membership.CreateGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class JdkHttpTransportTest {
+  private HttpServer server;
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  private VinylDNSClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/groups", this::handle);
+    server.start();
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + server.getAddress().getPort(),
+            new BasicAWSCredentials("fake", "fake"));
+    config.setRetryPolicy(VinylDNSRetryPolicy.none());
+    config.setTransport(new JdkHttpTransport());
+    client = new VinylDNSClientImpl(config);
+  }
+
+  @AfterClass
+  public void afterAll() {
+    server.stop(0);
+  }
+
+  @Test
+  public void getsGroup() {
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getStatusCode(), 200);
+    assertEquals(response.getValue().getId(), "groupId");
+  }
+
+  @Test
+  public void postsSignedBody() {
+    VinylDNSResponse<Group> response =
+        client.createGroup(
+            new CreateGroupRequest(
+                "ok", "ok@example.com", Collections.emptySet(), Collections.emptySet()));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertTrue(
+        requests
+            .stream()
+            .anyMatch(r -> r.startsWith("POST /groups AWS4-HMAC-SHA256 {\"name\":\"ok\"")));
+  }
+
+  @Test
+  public void returnsFailureBody() {
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("missing"));
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(response.getStatusCode(), 404);
+    assertEquals(response.getMessageBody(), "group not found");
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+    requests.add(
+        exchange.getRequestMethod()
+            + " "
+            + exchange.getRequestURI().getPath()
+            + " "
+            + authorization.substring(0, authorization.indexOf(' '))
+            + " "
+            + body);
+
+    boolean missing = exchange.getRequestURI().getPath().endsWith("/missing");
+    byte[] response =
+        (missing ? "group not found" : "{\"id\":\"groupId\",\"name\":\"ok\"}")
+            .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(missing ? 404 : 200, response.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(response);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.vinyldns.java.metrics.RequestMetrics;
+import io.vinyldns.java.metrics.VinylDNSInstrumentation;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes {@link RequestMetrics} to a Micrometer {@link MeterRegistry}:
+ *
+ * <ul>
+ *   <li>{@code vinyldns.client.requests}: latency per operation, method, status and exception, with
+ *       a percentile histogram
+ *   <li>{@code vinyldns.client.requests.phase}: time spent per operation in each of the {@code
+ *       serialize}, {@code sign}, {@code wire} and {@code deserialize} phases
+ *   <li>{@code vinyldns.client.request.size} and {@code vinyldns.client.response.size}: payload
+ *       bytes per operation
+ *   <li>{@code vinyldns.client.pool.leased}, {@code .available}, {@code .pending} and {@code .max}:
+ *       connection pool usage as of the latest request
+ * </ul>
+ *
+ * <pre>{@code
+ * config.setInstrumentation(new MicrometerInstrumentation(registry));
+ * }</pre>
+ */
+public class MicrometerInstrumentation implements VinylDNSInstrumentation {
+  private final MeterRegistry registry;
+
+  private final Tags tags;
+
+  private final ConcurrentMap<String, OperationMeters> operations = new ConcurrentHashMap<>();
+
+  private final AtomicInteger poolLeased = new AtomicInteger();
+
+  private final AtomicInteger poolAvailable = new AtomicInteger();
+
+  private final AtomicInteger poolPending = new AtomicInteger();
+
+  private final AtomicInteger poolMax = new AtomicInteger();
+
+  public MicrometerInstrumentation(MeterRegistry registry) {
+    this(registry, Tags.empty());
+  }
+
+  /** @param tags added to every meter, for example to tell several clients apart */
+  public MicrometerInstrumentation(MeterRegistry registry, Iterable<Tag> tags) {
+    this.registry = registry;
+    this.tags = Tags.of(tags);
+
+    gauge("vinyldns.client.pool.leased", poolLeased, "Connections in use");
+    gauge("vinyldns.client.pool.available", poolAvailable, "Idle pooled connections");
+    gauge("vinyldns.client.pool.pending", poolPending, "Requests waiting for a connection");
+    gauge("vinyldns.client.pool.max", poolMax, "Maximum number of connections");
+  }
+
+  @Override
+  public void requestCompleted(RequestMetrics metrics) {
+    String operation = metrics.getOperation() == null ? "unknown" : metrics.getOperation();
+
+    Timer.builder("vinyldns.client.requests")
+        .description("VinylDNS API request latency")
+        .tags(tags)
+        .tag("operation", operation)
+        .tag("method", String.valueOf(metrics.getHttpMethod()))
+        .tag(
+            "status",
+            metrics.getStatusCode() == 0 ? "none" : String.valueOf(metrics.getStatusCode()))
+        .tag(
+            "exception",
+            metrics.getError() == null ? "none" : metrics.getError().getClass().getSimpleName())
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(metrics.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+    OperationMeters meters = operations.computeIfAbsent(operation, OperationMeters::new);
+    meters.serialize.record(metrics.getSerializeNanos(), TimeUnit.NANOSECONDS);
+    meters.sign.record(metrics.getSignNanos(), TimeUnit.NANOSECONDS);
+    meters.wire.record(metrics.getWireNanos(), TimeUnit.NANOSECONDS);
+    meters.deserialize.record(metrics.getDeserializeNanos(), TimeUnit.NANOSECONDS);
+
+    if (metrics.getRequestBytes() >= 0) {
+      meters.requestSize.record(metrics.getRequestBytes());
+    }
+    if (metrics.getResponseBytes() >= 0) {
+      meters.responseSize.record(metrics.getResponseBytes());
+    }
+
+    if (metrics.getPoolLeased() >= 0) {
+      poolLeased.set(metrics.getPoolLeased());
+      poolAvailable.set(metrics.getPoolAvailable());
+      poolPending.set(metrics.getPoolPending());
+    }
+    if (metrics.getPoolMax() >= 0) {
+      poolMax.set(metrics.getPoolMax());
+    }
+  }
+
+  private void gauge(String name, AtomicInteger value, String description) {
+    Gauge.builder(name, value, AtomicInteger::get)
+        .description(description)
+        .tags(tags)
+        .register(registry);
+  }
+
+  /** Meters whose tags depend only on the operation, looked up once per operation. */
+  private class OperationMeters {
+    private final Timer serialize;
+    private final Timer sign;
+    private final Timer wire;
+    private final Timer deserialize;
+    private final DistributionSummary requestSize;
+    private final DistributionSummary responseSize;
+
+    OperationMeters(String operation) {
+      serialize = phase(operation, "serialize");
+      sign = phase(operation, "sign");
+      wire = phase(operation, "wire");
+      deserialize = phase(operation, "deserialize");
+      requestSize = size("vinyldns.client.request.size", operation, "Request payload size");
+      responseSize = size("vinyldns.client.response.size", operation, "Response body size");
+    }
+
+    private Timer phase(String operation, String phase) {
+      return Timer.builder("vinyldns.client.requests.phase")
+          .description("Time spent in one phase of a VinylDNS API request")
+          .tags(tags)
+          .tag("operation", operation)
+          .tag("phase", phase)
+          .register(registry);
+    }
+
+    private DistributionSummary size(String name, String operation, String description) {
+      return DistributionSummary.builder(name)
+          .description(description)
+          .baseUnit("bytes")
+          .tags(tags)
+          .tag("operation", operation)
+          .register(registry);
+    }
+  }
+}
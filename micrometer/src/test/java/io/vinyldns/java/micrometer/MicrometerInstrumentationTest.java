@@ -0,0 +1,103 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.micrometer;
+
+import static org.testng.Assert.*;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vinyldns.java.metrics.RequestMetrics;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+public class MicrometerInstrumentationTest {
+  @Test
+  public void publishesLatencySizesAndPool() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    MicrometerInstrumentation instrumentation =
+        new MicrometerInstrumentation(registry, Tags.of("client", "test"));
+
+    instrumentation.requestCompleted(
+        new RequestMetrics(
+            "listZones", "GET", 200, null, 0, 512, 10, 20, 1_000, 300, 1_400, 3, 7, 1, 50));
+    instrumentation.requestCompleted(
+        new RequestMetrics(
+            "listZones", "GET", 500, null, 0, 12, 10, 20, 2_000, 30, 2_100, -1, -1, -1, 50));
+
+    Timer ok =
+        registry
+            .get("vinyldns.client.requests")
+            .tags("client", "test", "operation", "listZones", "status", "200")
+            .timer();
+    assertEquals(ok.count(), 1);
+    assertEquals(ok.totalTime(TimeUnit.NANOSECONDS), 1_400.0);
+
+    assertEquals(registry.get("vinyldns.client.requests").tags("status", "500").timer().count(), 1);
+
+    Timer wire =
+        registry
+            .get("vinyldns.client.requests.phase")
+            .tags("operation", "listZones", "phase", "wire")
+            .timer();
+    assertEquals(wire.count(), 2);
+    assertEquals(wire.totalTime(TimeUnit.NANOSECONDS), 3_000.0);
+
+    DistributionSummary responseSize =
+        registry.get("vinyldns.client.response.size").tags("operation", "listZones").summary();
+    assertEquals(responseSize.totalAmount(), 524.0);
+
+    // the second sample carries no pool statistics, so the gauges keep the first one
+    assertEquals(registry.get("vinyldns.client.pool.leased").gauge().value(), 3.0);
+    assertEquals(registry.get("vinyldns.client.pool.available").gauge().value(), 7.0);
+    assertEquals(registry.get("vinyldns.client.pool.pending").gauge().value(), 1.0);
+    assertEquals(registry.get("vinyldns.client.pool.max").gauge().value(), 50.0);
+  }
+
+  @Test
+  public void tagsErrorsByExceptionType() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    new MicrometerInstrumentation(registry)
+        .requestCompleted(
+            new RequestMetrics(
+                "createRecordSet",
+                "POST",
+                0,
+                new IOException("reset"),
+                120,
+                -1,
+                10,
+                20,
+                1_000,
+                0,
+                1_030,
+                -1,
+                -1,
+                -1,
+                50));
+
+    assertEquals(
+        registry
+            .get("vinyldns.client.requests")
+            .tags("operation", "createRecordSet", "status", "none", "exception", "IOException")
+            .timer()
+            .count(),
+        1);
+    assertEquals(registry.get("vinyldns.client.request.size").summary().totalAmount(), 120.0);
+    assertTrue(registry.find("vinyldns.client.response.size").summary().count() == 0);
+  }
+}
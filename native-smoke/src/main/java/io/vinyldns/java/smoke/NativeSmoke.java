@@ -0,0 +1,216 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.smoke;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.vinyldns.java.VinylDNSClientConfig;
+import io.vinyldns.java.VinylDNSClientImpl;
+import io.vinyldns.java.VinylDNSRetryPolicy;
+import io.vinyldns.java.jdk.JdkHttpTransport;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.batch.DeleteRecordSetChangeInput;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.model.zone.ListZonesResponse;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.model.zone.ZoneStatus;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Exercises the client the way a short-lived tool would: starts a stub API, then lists zones and
+ * record sets of every type and submits a batch change through {@link JdkHttpTransport}. Built as a
+ * native image by the {@code native} profile, it shows that the shipped metadata covers everything
+ * the client reflects over.
+ */
+public final class NativeSmoke {
+  private static final Gson GSON = SerializationFactory.createGson();
+
+  private NativeSmoke() {}
+
+  public static void main(String[] args) throws IOException {
+    long start = System.nanoTime();
+    run();
+    System.out.println(
+        "vinyldns native smoke ok in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+  }
+
+  /** Runs every check, throwing {@link IllegalStateException} on the first mismatch. */
+  public static void run() throws IOException {
+    ListZonesResponse zones = zones();
+    ListRecordSetsResponse recordSets = recordSets();
+    BatchResponse batch = batch();
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/zones", exchange -> respond(exchange, zones));
+    server.createContext("/zones/zoneId/recordsets", exchange -> respond(exchange, recordSets));
+    server.createContext("/zones/batchrecordchanges", exchange -> respond(exchange, batch));
+    server.start();
+
+    try {
+      VinylDNSClientConfig config =
+          new VinylDNSClientConfig(
+              "http://localhost:" + server.getAddress().getPort(),
+              new BasicAWSCredentials("fake", "fake"));
+      config.setRetryPolicy(VinylDNSRetryPolicy.none());
+      config.setTransport(new JdkHttpTransport());
+      VinylDNSClientImpl client = new VinylDNSClientImpl(config);
+
+      check("listZones", client.listZones(new ListZonesRequest()), zones);
+      check(
+          "listRecordSets", client.listRecordSets(new ListRecordSetsRequest("zoneId")), recordSets);
+      check("createBatchChanges", client.createBatchChanges(batchRequest()), batch);
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static void check(String operation, VinylDNSResponse<?> response, Object expected) {
+    if (!(response instanceof ResponseMarker.Success)) {
+      throw new IllegalStateException(operation + " failed: " + response);
+    }
+    if (!GSON.toJson(response.getValue()).equals(GSON.toJson(expected))) {
+      throw new IllegalStateException(operation + " returned " + response.getValue());
+    }
+  }
+
+  private static void respond(HttpExchange exchange, Object body) throws IOException {
+    if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+      exchange.sendResponseHeaders(401, -1);
+      exchange.close();
+      return;
+    }
+
+    byte[] bytes = GSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static ListZonesResponse zones() {
+    Zone zone = new Zone();
+    zone.setId("zoneId");
+    zone.setName("example.com.");
+    zone.setEmail("admin@example.com");
+    zone.setStatus(ZoneStatus.Active);
+    zone.setCreated(new DateTime(2024, 1, 1, 0, 0, DateTimeZone.UTC));
+    zone.setAdminGroupId("groupId");
+    return new ListZonesResponse(Collections.singletonList(zone), null, null, 100, null);
+  }
+
+  private static ListRecordSetsResponse recordSets() {
+    List<RecordData> data =
+        Arrays.asList(
+            new AData("192.0.2.1"),
+            new AAAAData("2001:db8::1"),
+            new CNAMEData("target.example.com."),
+            new MXData(10, "mx.example.com."),
+            new NSData("ns.example.com."),
+            new PTRData("host.example.com."),
+            new SOAData("ns.example.com.", "admin.example.com.", 1L, 2L, 3L, 4L, 5L),
+            new SPFData("v=spf1 -all"),
+            new SRVData(1, 2, 53, "dns.example.com."),
+            new SSHFPData(1, 2, "abcdef"),
+            new TXTData("hello"),
+            new UNKNOWNData("raw"));
+    List<RecordType> types =
+        Arrays.asList(
+            RecordType.A,
+            RecordType.AAAA,
+            RecordType.CNAME,
+            RecordType.MX,
+            RecordType.NS,
+            RecordType.PTR,
+            RecordType.SOA,
+            RecordType.SPF,
+            RecordType.SRV,
+            RecordType.SSHFP,
+            RecordType.TXT,
+            RecordType.UNKNOWN);
+
+    List<RecordSet> recordSets = new ArrayList<>();
+    for (int i = 0; i < types.size(); i++) {
+      recordSets.add(
+          new RecordSet(
+              "zoneId",
+              "record" + i,
+              types.get(i),
+              300,
+              Collections.singletonList(data.get(i)),
+              "recordSet" + i,
+              "groupId",
+              RecordSetStatus.Active,
+              new DateTime(2024, 1, 1, 0, 0, DateTimeZone.UTC),
+              null));
+    }
+    return new ListRecordSetsResponse(recordSets, null, null, 100, null);
+  }
+
+  private static CreateBatchRequest batchRequest() {
+    List<ChangeInput> changes =
+        Arrays.asList(
+            new AddChangeInput("www.example.com.", RecordType.A, 300L, new AData("192.0.2.1")),
+            new DeleteRecordSetChangeInput("old.example.com.", RecordType.TXT));
+    return new CreateBatchRequest(changes);
+  }
+
+  private static BatchResponse batch() {
+    AddSingleChange add = new AddSingleChange();
+    add.setId("add");
+    add.setChangeType(ChangeInputType.Add);
+    add.setType(RecordType.A);
+    add.setInputName("www.example.com.");
+    add.setRecord(new AData("192.0.2.1"));
+    add.setTtl(300L);
+
+    DeleteRecordSetSingleChange delete = new DeleteRecordSetSingleChange();
+    delete.setId("delete");
+    delete.setChangeType(ChangeInputType.DeleteRecordSet);
+    delete.setType(RecordType.TXT);
+    delete.setInputName("old.example.com.");
+
+    BatchResponse batch = new BatchResponse();
+    batch.setId("batchId");
+    batch.setChanges(Arrays.<SingleChange>asList(add, delete));
+    return batch;
+  }
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.smoke;
+
+import static org.testng.Assert.*;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+/** Runs the binary built by the {@code native} profile. */
+public class NativeSmokeIT {
+
+  @Test
+  public void nativeBinaryPasses() throws Exception {
+    String image = System.getProperty("native.image");
+    assertNotNull(image, "native.image is only set by the native profile");
+    assertTrue(new File(image).canExecute(), image);
+
+    Process process = new ProcessBuilder(image).redirectErrorStream(true).start();
+    assertTrue(process.waitFor(30, TimeUnit.SECONDS), "smoke binary did not exit");
+    String output;
+    try (InputStream in = process.getInputStream()) {
+      output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    assertEquals(process.exitValue(), 0, output);
+    assertTrue(output.contains("vinyldns native smoke ok"), output);
+  }
+}
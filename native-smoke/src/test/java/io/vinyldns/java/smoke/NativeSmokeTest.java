@@ -11,20 +11,15 @@
  * express or implied. See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package io.vinyldns.java.handlers;
+package io.vinyldns.java.smoke;
 
-import com.amazonaws.http.HttpResponse;
-import com.amazonaws.http.HttpResponseHandler;
-import com.amazonaws.util.IOUtils;
+import org.testng.annotations.Test;
 
-public class StringResponseHandler implements HttpResponseHandler<String> {
-  @Override
-  public String handle(HttpResponse response) throws Exception {
-    return IOUtils.toString(response.getContent());
-  }
+public class NativeSmokeTest {
 
-  @Override
-  public boolean needsConnectionLeftOpen() {
-    return false;
+  /** The same checks on the JVM, so a broken smoke shows up without GraalVM. */
+  @Test
+  public void passesOnTheJvm() throws Exception {
+    NativeSmoke.run();
   }
 }
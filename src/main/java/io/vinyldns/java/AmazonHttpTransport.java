@@ -0,0 +1,183 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.http.AmazonHttpClient;
+import com.amazonaws.http.ExecutionContext;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.http.HttpResponseHandler;
+import io.vinyldns.java.handlers.ErrorResponseHandler;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSHttpResponse;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** The default {@link VinylDNSTransport}, on the AWS SDK's pooled Apache HttpClient. */
+final class AmazonHttpTransport implements VinylDNSTransport {
+  private final AmazonHttpClient client;
+
+  AmazonHttpTransport(VinylDNSTransportConfig config) {
+    this.client = new AmazonHttpClient(config.toClientConfiguration());
+  }
+
+  @Override
+  public VinylDNSHttpResponse execute(VinylDNSHttpRequest request) {
+    return execute(request, null);
+  }
+
+  /**
+   * Sends the request; a non-null {@code context} collects connection pool statistics for {@link
+   * MetricsRecorder}. I/O errors are thrown as the SDK's {@link com.amazonaws.SdkClientException}.
+   */
+  VinylDNSHttpResponse execute(VinylDNSHttpRequest request, ExecutionContext context) {
+    AmazonHttpClient.RequestExecutionBuilder builder =
+        client
+            .requestExecutionBuilder()
+            .errorResponseHandler(new ErrorResponseHandler())
+            .request(toAwsRequest(request));
+    if (context != null) {
+      builder.executionContext(context);
+    }
+
+    try {
+      return builder.execute(new StreamingResponseHandler()).getAwsResponse();
+    } catch (AmazonServiceException e) {
+      // error bodies are small and the SDK has already read them
+      String content = e.getRawResponseContent();
+      return new Response(
+          e.getStatusCode(),
+          e.getHttpHeaders(),
+          content == null
+              ? null
+              : new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
+  @Override
+  public void close() {
+    client.shutdown();
+  }
+
+  private static Request<Void> toAwsRequest(VinylDNSHttpRequest request) {
+    URI uri = request.getUri();
+    Request<Void> awsRequest = new DefaultRequest<>("VinylDNS");
+    awsRequest.setHttpMethod(HttpMethodName.fromValue(request.getMethod()));
+    awsRequest.setEndpoint(URI.create(uri.getScheme() + "://" + uri.getRawAuthority()));
+    awsRequest.setResourcePath(uri.getRawPath());
+
+    // the SDK encodes the parameters again, exactly as they were encoded for the URI
+    if (uri.getRawQuery() != null) {
+      for (String parameter : uri.getRawQuery().split("&")) {
+        int eq = parameter.indexOf('=');
+        awsRequest.addParameter(
+            decode(eq < 0 ? parameter : parameter.substring(0, eq)),
+            eq < 0 ? null : decode(parameter.substring(eq + 1)));
+      }
+    }
+
+    awsRequest.setHeaders(request.getHeaders());
+    if (request.getBody() != null) {
+      awsRequest.addHeader("Content-Length", String.valueOf(request.getBodyLength()));
+      awsRequest.setContent(
+          new ByteArrayInputStream(request.getBody(), 0, request.getBodyLength()));
+    }
+
+    return awsRequest;
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Hands the open response to the caller, who closes it to release the connection. */
+  private static class StreamingResponseHandler
+      implements HttpResponseHandler<VinylDNSHttpResponse> {
+    @Override
+    public VinylDNSHttpResponse handle(HttpResponse response) {
+      return new Response(
+          response.getStatusCode(), firstValues(response.getAllHeaders()), response.getContent());
+    }
+
+    private static Map<String, String> firstValues(Map<String, List<String>> headers) {
+      Map<String, String> first = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+        if (!header.getValue().isEmpty()) {
+          first.putIfAbsent(header.getKey(), header.getValue().get(0));
+        }
+      }
+      return first;
+    }
+
+    @Override
+    public boolean needsConnectionLeftOpen() {
+      return true;
+    }
+  }
+
+  private static class Response implements VinylDNSHttpResponse {
+    private final int statusCode;
+
+    private final Map<String, String> headers;
+
+    private final InputStream content;
+
+    Response(int statusCode, Map<String, String> headers, InputStream content) {
+      this.statusCode = statusCode;
+      this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      if (headers != null) {
+        this.headers.putAll(headers);
+      }
+      this.content = content;
+    }
+
+    @Override
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public InputStream getContent() {
+      return content;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (content != null) {
+        content.close();
+      }
+    }
+  }
+}
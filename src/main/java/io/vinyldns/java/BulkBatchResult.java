@@ -0,0 +1,130 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Outcome of {@link VinylDNSBatchSubmitter#submit}: one entry per batch, in submission order. */
+public class BulkBatchResult {
+  private final List<Entry> entries;
+
+  BulkBatchResult(List<Entry> entries) {
+    this.entries = Collections.unmodifiableList(entries);
+  }
+
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /** Whether every batch was accepted by the API. */
+  public boolean isSuccess() {
+    for (Entry entry : entries) {
+      if (!entry.isSuccess()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The batch changes created by the API. */
+  public List<BatchResponse> getBatchResponses() {
+    List<BatchResponse> batchResponses = new ArrayList<>();
+    for (Entry entry : entries) {
+      if (entry.isSuccess()) {
+        batchResponses.add(entry.getResponse().getValue());
+      }
+    }
+    return batchResponses;
+  }
+
+  /** Every single change of every created batch change. */
+  public List<SingleChange> getChanges() {
+    List<SingleChange> changes = new ArrayList<>();
+    for (BatchResponse batchResponse : getBatchResponses()) {
+      if (batchResponse.getChanges() != null) {
+        changes.addAll(batchResponse.getChanges());
+      }
+    }
+    return changes;
+  }
+
+  /** The batches that were rejected or could not be sent. */
+  public List<Entry> getFailures() {
+    List<Entry> failures = new ArrayList<>();
+    for (Entry entry : entries) {
+      if (!entry.isSuccess()) {
+        failures.add(entry);
+      }
+    }
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkBatchResult{"
+        + "batches="
+        + entries.size()
+        + ", failures="
+        + getFailures().size()
+        + '}';
+  }
+
+  /** A submitted batch and what came back for it. */
+  public static class Entry {
+    private final CreateBatchRequest request;
+    volatile VinylDNSResponse<BatchResponse> response;
+    volatile RuntimeException error;
+
+    Entry(CreateBatchRequest request) {
+      this.request = request;
+    }
+
+    public CreateBatchRequest getRequest() {
+      return request;
+    }
+
+    /** The API response, or null if the request could not be sent. */
+    public VinylDNSResponse<BatchResponse> getResponse() {
+      return response;
+    }
+
+    /** The exception thrown while sending the request, if any. */
+    public RuntimeException getError() {
+      return error;
+    }
+
+    public boolean isSuccess() {
+      return response instanceof ResponseMarker.Success;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "changes="
+          + request.getChanges().size()
+          + ", response="
+          + response
+          + ", error="
+          + error
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,332 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.*;
+import io.vinyldns.java.model.membership.*;
+import io.vinyldns.java.model.record.set.*;
+import io.vinyldns.java.model.zone.*;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link VinylDNSClient} decorator that keeps successful {@link #getZone(ZoneRequest)}, {@link
+ * #getZoneByName(String)} and {@link #getGroup(GetGroupRequest)} responses in memory. Each of the
+ * three lookups has its own cache holding at most {@code maximumSize} entries; the least recently
+ * used entry is dropped when it is full, and entries expire {@code ttl} after they were fetched.
+ *
+ * <p>{@link #updateZone(Zone)}, {@link #deleteZone(ZoneRequest)}, {@link #syncZone(ZoneRequest)},
+ * {@link #updateGroup(UpdateGroupRequest)} and {@link #deleteGroup(DeleteGroupRequest)} drop the
+ * matching entries, and a lookup that was loading while they ran does not put its possibly older
+ * response back. Changes made by other clients are only seen once the entry expires or is
+ * invalidated explicitly.
+ *
+ * <p>Cached responses are shared between callers and should not be modified.
+ */
+public class CachingVinylDNSClient implements VinylDNSClient {
+  private final VinylDNSClient delegate;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private final ResponseCache<String, VinylDNSResponse<GetZoneResponse>> zonesById;
+  private final ResponseCache<String, VinylDNSResponse<GetZoneResponse>> zonesByName;
+  private final ResponseCache<String, VinylDNSResponse<Group>> groupsById;
+
+  public CachingVinylDNSClient(
+      VinylDNSClient delegate, int maximumSize, long ttl, TimeUnit ttlUnit) {
+    this(delegate, maximumSize, ttlUnit.toNanos(ttl), System::nanoTime);
+  }
+
+  CachingVinylDNSClient(
+      VinylDNSClient delegate, int maximumSize, long ttlNanos, LongSupplier ticker) {
+    this.delegate = delegate;
+    this.zonesById = new ResponseCache<>(maximumSize, ttlNanos, ticker, evictions);
+    this.zonesByName = new ResponseCache<>(maximumSize, ttlNanos, ticker, evictions);
+    this.groupsById = new ResponseCache<>(maximumSize, ttlNanos, ticker, evictions);
+  }
+
+  /** Number of lookups answered from the cache. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** Number of lookups that had to call the API. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Number of entries dropped because they expired or the cache was full. */
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /** Number of entries currently held across all three caches. */
+  public int size() {
+    return zonesById.size() + zonesByName.size() + groupsById.size();
+  }
+
+  /** Drops the cached zone with the given ID, whether it was looked up by ID or by name. */
+  public void invalidateZone(String zoneId) {
+    zonesById.remove(zoneId);
+    zonesByName.removeIf(response -> zoneId.equals(zoneIdOf(response)));
+  }
+
+  /** Drops the cached zone with the given name, whether it was looked up by ID or by name. */
+  public void invalidateZoneByName(String zoneName) {
+    VinylDNSResponse<GetZoneResponse> cached = zonesByName.get(zoneName);
+    zonesByName.remove(zoneName);
+    if (cached != null && zoneIdOf(cached) != null) {
+      invalidateZone(zoneIdOf(cached));
+    }
+  }
+
+  public void invalidateGroup(String groupId) {
+    groupsById.remove(groupId);
+  }
+
+  public void invalidateAll() {
+    zonesById.clear();
+    zonesByName.clear();
+    groupsById.clear();
+  }
+
+  // Zone
+  @Override
+  public VinylDNSResponse<ListZonesResponse> listZones(ListZonesRequest request) {
+    return delegate.listZones(request);
+  }
+
+  @Override
+  public VinylDNSResponse<ZoneResponse> createZone(Zone zone) {
+    return delegate.createZone(zone);
+  }
+
+  @Override
+  public VinylDNSResponse<GetZoneResponse> getZone(ZoneRequest request) {
+    return lookup(zonesById, request.getZoneId(), id -> delegate.getZone(request));
+  }
+
+  @Override
+  public VinylDNSResponse<GetZoneResponse> getZoneByName(String zoneName) {
+    return lookup(zonesByName, zoneName, delegate::getZoneByName);
+  }
+
+  @Override
+  public VinylDNSResponse<ZoneResponse> updateZone(Zone zone) {
+    try {
+      return delegate.updateZone(zone);
+    } finally {
+      if (zone.getId() != null) {
+        invalidateZone(zone.getId());
+      }
+      if (zone.getName() != null) {
+        invalidateZoneByName(zone.getName());
+      }
+    }
+  }
+
+  @Override
+  public VinylDNSResponse<ZoneResponse> deleteZone(ZoneRequest request) {
+    try {
+      return delegate.deleteZone(request);
+    } finally {
+      invalidateZone(request.getZoneId());
+    }
+  }
+
+  @Override
+  public VinylDNSResponse<ListZoneChangesResponse> listZoneChanges(ListZoneChangesRequest request) {
+    return delegate.listZoneChanges(request);
+  }
+
+  @Override
+  public VinylDNSResponse<ZoneResponse> syncZone(ZoneRequest request) {
+    try {
+      return delegate.syncZone(request);
+    } finally {
+      invalidateZone(request.getZoneId());
+    }
+  }
+
+  // RecordSet
+  @Override
+  public VinylDNSResponse<ListRecordSetsResponse> listRecordSets(ListRecordSetsRequest request) {
+    return delegate.listRecordSets(request);
+  }
+
+  @Override
+  public VinylDNSResponse<GetRecordSetResponse> getRecordSet(GetRecordSetRequest request) {
+    return delegate.getRecordSet(request);
+  }
+
+  @Override
+  public VinylDNSResponse<RecordSetChange> createRecordSet(CreateRecordSetRequest request) {
+    return delegate.createRecordSet(request);
+  }
+
+  @Override
+  public VinylDNSResponse<RecordSetChange> updateRecordSet(UpdateRecordSetRequest request) {
+    return delegate.updateRecordSet(request);
+  }
+
+  @Override
+  public VinylDNSResponse<RecordSetChange> deleteRecordSet(DeleteRecordSetRequest request) {
+    return delegate.deleteRecordSet(request);
+  }
+
+  @Override
+  public VinylDNSResponse<ListRecordSetChangesResponse> listRecordSetChanges(
+      ListRecordSetChangesRequest request) {
+    return delegate.listRecordSetChanges(request);
+  }
+
+  @Override
+  public VinylDNSResponse<RecordSetChange> getRecordSetChange(GetRecordSetChangeRequest request) {
+    return delegate.getRecordSetChange(request);
+  }
+
+  // Groups
+  @Override
+  public VinylDNSResponse<Group> getGroup(GetGroupRequest request) {
+    return lookup(groupsById, request.getId(), id -> delegate.getGroup(request));
+  }
+
+  @Override
+  public VinylDNSResponse<Group> createGroup(CreateGroupRequest request) {
+    return delegate.createGroup(request);
+  }
+
+  @Override
+  public VinylDNSResponse<Group> updateGroup(UpdateGroupRequest request) {
+    try {
+      return delegate.updateGroup(request);
+    } finally {
+      if (request.getGroupId() != null) {
+        invalidateGroup(request.getGroupId());
+      }
+      if (request.getId() != null) {
+        invalidateGroup(request.getId());
+      }
+    }
+  }
+
+  @Override
+  public VinylDNSResponse<Group> deleteGroup(DeleteGroupRequest request) {
+    try {
+      return delegate.deleteGroup(request);
+    } finally {
+      invalidateGroup(request.getId());
+    }
+  }
+
+  @Override
+  public VinylDNSResponse<ListGroupsResponse> listGroups(ListGroupsRequest request) {
+    return delegate.listGroups(request);
+  }
+
+  @Override
+  public VinylDNSResponse<ListAdminsResponse> listAdmins(String groupId) {
+    return delegate.listAdmins(groupId);
+  }
+
+  @Override
+  public VinylDNSResponse<ListMembersResponse> listMembers(ListMembersRequest request) {
+    return delegate.listMembers(request);
+  }
+
+  @Override
+  public VinylDNSResponse<ListGroupActivityResponse> listGroupActivity(
+      ListGroupActivityRequest request) {
+    return delegate.listGroupActivity(request);
+  }
+
+  // Batch
+  @Override
+  public VinylDNSResponse<ListBatchChangesResponse> listBatchChanges(
+      ListBatchChangesRequest request) {
+    return delegate.listBatchChanges(request);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> getBatchChanges(String id) {
+    return delegate.getBatchChanges(id);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> createBatchChanges(CreateBatchRequest request) {
+    return delegate.createBatchChanges(request);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> approveBatchChanges(String id) {
+    return delegate.approveBatchChanges(id);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> approveBatchChanges(String id, String reviewComment) {
+    return delegate.approveBatchChanges(id, reviewComment);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> rejectBatchChanges(String id) {
+    return delegate.rejectBatchChanges(id);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> rejectBatchChanges(String id, String reviewComment) {
+    return delegate.rejectBatchChanges(id, reviewComment);
+  }
+
+  @Override
+  public VinylDNSResponse<BatchResponse> cancelBatchChanges(String id) {
+    return delegate.cancelBatchChanges(id);
+  }
+
+  @Override
+  public VinylDNSResponse<SearchRecordSetsResponse> searchRecordSets(
+      SearchRecordSetsRequest request) {
+    return delegate.searchRecordSets(request);
+  }
+
+  private <T> VinylDNSResponse<T> lookup(
+      ResponseCache<String, VinylDNSResponse<T>> cache,
+      String key,
+      Function<String, VinylDNSResponse<T>> load) {
+    VinylDNSResponse<T> cached = cache.get(key);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return cached;
+    }
+
+    misses.incrementAndGet();
+    // a lookup racing an update may load the old value; it is dropped if invalidated meanwhile
+    long generation = cache.generation();
+    VinylDNSResponse<T> response = load.apply(key);
+    if (response instanceof ResponseMarker.Success && response.getValue() != null) {
+      cache.put(key, response, generation);
+    }
+    return response;
+  }
+
+  private static String zoneIdOf(VinylDNSResponse<GetZoneResponse> response) {
+    Zone zone = response.getValue().getZone();
+    return zone == null ? null : zone.getId();
+  }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.VinylDNSCircuitBreakerPolicy.State;
+import io.vinyldns.java.responses.VinylDNSFailureResponse;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/** The {@link VinylDNSCircuitBreakerPolicy circuit breakers} of one client. */
+final class CircuitBreakers {
+  /** Status of the failure response returned while a breaker is open. */
+  static final int OPEN_STATUS = 503;
+
+  private static final Breaker DISABLED = new Breaker(null, null);
+
+  private final VinylDNSCircuitBreakerPolicy policy;
+
+  private final ConcurrentMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+  CircuitBreakers(VinylDNSCircuitBreakerPolicy policy) {
+    this.policy = policy;
+  }
+
+  /** The breaker guarding an attempt to send {@code request} to {@code endpoint}. */
+  Breaker get(VinylDNSRequest<?> request, Endpoints.Endpoint endpoint) {
+    if (policy == null) {
+      return DISABLED;
+    }
+
+    String name =
+        policy.getScope() == VinylDNSCircuitBreakerPolicy.Scope.OPERATION
+            ? String.valueOf(request.getOperation())
+            : String.valueOf(endpoint.getUri());
+    return breakers.computeIfAbsent(name, n -> new Breaker(n, policy));
+  }
+
+  static <R> VinylDNSResponse<R> open(Breaker breaker) {
+    return new VinylDNSFailureResponse<>(
+        "Circuit breaker open for " + breaker.getName(), OPEN_STATUS);
+  }
+
+  static final class Breaker {
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+
+    private final VinylDNSCircuitBreakerPolicy policy;
+
+    /** Outcomes of the last calls while closed, or of the trial calls while half-open. */
+    private final byte[] outcomes;
+
+    /**
+     * The policy's call counts, capped at the window size, which {@code recorded} never exceeds.
+     */
+    private final int minimumCalls;
+
+    private final int halfOpenCalls;
+
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+
+    private long openedAt;
+
+    /** Trial calls let through while half-open. */
+    private int trials;
+
+    private Breaker(String name, VinylDNSCircuitBreakerPolicy policy) {
+      this.name = name;
+      this.policy = policy;
+      this.outcomes = policy == null ? null : new byte[Math.max(1, policy.getWindowSize())];
+      this.minimumCalls = policy == null ? 0 : Math.min(policy.getMinimumCalls(), outcomes.length);
+      this.halfOpenCalls =
+          policy == null ? 0 : Math.max(1, Math.min(policy.getHalfOpenCalls(), outcomes.length));
+    }
+
+    String getName() {
+      return name;
+    }
+
+    synchronized State getState() {
+      return state;
+    }
+
+    /**
+     * Whether a request may be sent. Every permitted request must be followed by {@link #record} or
+     * {@link #cancel}.
+     */
+    boolean tryAcquire() {
+      if (policy == null) {
+        return true;
+      }
+
+      State from;
+      State to;
+      synchronized (this) {
+        from = state;
+        if (state == State.OPEN) {
+          if (System.nanoTime() - openedAt
+              < TimeUnit.MILLISECONDS.toNanos(policy.getOpenMillis())) {
+            return false;
+          }
+          moveTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+          if (trials >= halfOpenCalls) {
+            return false;
+          }
+          trials++;
+        }
+        to = state;
+      }
+
+      notifyListener(from, to);
+      return true;
+    }
+
+    /** Records the outcome of a permitted request. */
+    void record(boolean failed, long durationNanos) {
+      if (policy == null) {
+        return;
+      }
+
+      State from;
+      State to;
+      synchronized (this) {
+        from = state;
+        if (state == State.OPEN) {
+          // sent before the breaker opened
+          return;
+        }
+
+        boolean slow =
+            durationNanos >= TimeUnit.MILLISECONDS.toNanos(policy.getSlowCallDurationMillis());
+        add((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+
+        if (state == State.HALF_OPEN) {
+          if (recorded >= halfOpenCalls) {
+            moveTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+          }
+        } else if (recorded >= minimumCalls && exceedsThresholds()) {
+          moveTo(State.OPEN);
+        }
+        to = state;
+      }
+
+      notifyListener(from, to);
+    }
+
+    /** Gives back the permit of a request that was not sent or whose outcome is unknown. */
+    synchronized void cancel() {
+      if (policy != null && state == State.HALF_OPEN && trials > recorded) {
+        trials--;
+      }
+    }
+
+    private void add(byte outcome) {
+      if (recorded == outcomes.length) {
+        byte evicted = outcomes[next];
+        failures -= evicted & FAILED;
+        slowCalls -= (evicted & SLOW) >> 1;
+      } else {
+        recorded++;
+      }
+
+      outcomes[next] = outcome;
+      next = (next + 1) % outcomes.length;
+      failures += outcome & FAILED;
+      slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    private boolean exceedsThresholds() {
+      return failures >= policy.getFailureRateThreshold() * recorded
+          || slowCalls >= policy.getSlowCallRateThreshold() * recorded;
+    }
+
+    private void moveTo(State to) {
+      state = to;
+      next = 0;
+      recorded = 0;
+      failures = 0;
+      slowCalls = 0;
+      trials = 0;
+      if (to == State.OPEN) {
+        openedAt = System.nanoTime();
+      }
+    }
+
+    private void notifyListener(State from, State to) {
+      if (from != to && policy.getListener() != null) {
+        try {
+          policy.getListener().stateChanged(name, from, to);
+        } catch (RuntimeException e) {
+          // a misbehaving listener must not fail the request
+        }
+      }
+    }
+  }
+}
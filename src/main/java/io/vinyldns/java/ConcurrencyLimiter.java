@@ -0,0 +1,221 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.responses.VinylDNSFailureResponse;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/** Applies a {@link VinylDNSConcurrencyLimit}; one instance per client. */
+final class ConcurrencyLimiter {
+  enum Admission {
+    GRANTED,
+    QUEUED,
+    SHED
+  }
+
+  /** Status of the failure response returned when a request is shed. */
+  static final int SHED_STATUS = 503;
+
+  /** Round trips of an operation to average before its latency counts as a sign of overload. */
+  private static final int WARM_UP = 10;
+
+  private final VinylDNSConcurrencyLimit settings;
+
+  private final Deque<Runnable> queue = new ArrayDeque<>();
+
+  private double limit;
+
+  private int inFlight;
+
+  /** Round trip baselines by operation, since a listing is slower than a get by nature. */
+  private final Map<String, Baseline> baselines = new HashMap<>();
+
+  ConcurrencyLimiter(VinylDNSConcurrencyLimit settings) {
+    this.settings = settings;
+    this.limit = settings == null ? 0 : settings.getInitialLimit();
+  }
+
+  boolean isEnabled() {
+    return settings != null;
+  }
+
+  /** Waits for a permit; false if the request is shed or the thread interrupted. */
+  boolean acquire() {
+    if (!isEnabled()) {
+      return true;
+    }
+
+    CountDownLatch granted = new CountDownLatch(1);
+    Runnable waiter = granted::countDown;
+    Admission admission = acquire(waiter);
+    if (admission != Admission.QUEUED) {
+      return admission == Admission.GRANTED;
+    }
+
+    try {
+      long timeout = settings.getQueueTimeoutMillis();
+      if (timeout < 0) {
+        granted.await();
+        return true;
+      }
+      if (granted.await(timeout, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // the permit may have been granted while we gave up
+    if (cancel(waiter)) {
+      return false;
+    }
+    release();
+    return false;
+  }
+
+  /**
+   * Runs {@code onPermit} once a permit is free: on this thread before returning {@link
+   * Admission#GRANTED}, or later on the thread that releases a permit if {@link Admission#QUEUED}.
+   */
+  Admission acquire(Runnable onPermit) {
+    if (isEnabled()) {
+      synchronized (this) {
+        if (inFlight >= (int) limit || !queue.isEmpty()) {
+          if (queue.size() >= settings.getMaxQueueSize() || settings.getQueueTimeoutMillis() == 0) {
+            return Admission.SHED;
+          }
+          queue.addLast(onPermit);
+          return Admission.QUEUED;
+        }
+        inFlight++;
+      }
+    }
+
+    onPermit.run();
+    return Admission.GRANTED;
+  }
+
+  /** Removes a waiter that has not been granted a permit yet; false if it already was. */
+  synchronized boolean cancel(Runnable onPermit) {
+    return queue.remove(onPermit);
+  }
+
+  /** Returns a permit without adjusting the limit, for requests that were never sent. */
+  void release() {
+    if (isEnabled()) {
+      grant(finish());
+    }
+  }
+
+  /** Returns a permit and adjusts the limit from the outcome of a request of {@code operation}. */
+  void release(String operation, long rttNanos, boolean overloaded) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    List<Runnable> granted;
+    synchronized (this) {
+      boolean saturated = inFlight * 2 >= limit;
+      Baseline baseline = baselines.computeIfAbsent(operation, key -> new Baseline());
+      boolean slow =
+          baseline.samples >= WARM_UP
+              && rttNanos > baseline.averageRttNanos * settings.getRttTolerance();
+      baseline.sample(rttNanos, settings.getRttWindow());
+
+      if (overloaded || slow) {
+        limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+      } else if (saturated) {
+        limit = Math.min(settings.getMaxLimit(), limit + 1);
+      }
+
+      granted = finish();
+    }
+    grant(granted);
+  }
+
+  /** How long a queued request may wait, or -1 to wait as long as necessary. */
+  long getQueueTimeoutMillis() {
+    return isEnabled() ? settings.getQueueTimeoutMillis() : -1;
+  }
+
+  synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  /** Whether a failed attempt indicates that the server is overloaded. */
+  static boolean isOverload(int statusCode, Throwable error) {
+    if (error != null) {
+      for (Throwable t = error; t != null; t = t.getCause()) {
+        if (t instanceof IOException) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return statusCode == 429 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+  }
+
+  static <R> VinylDNSResponse<R> shed() {
+    return new VinylDNSFailureResponse<>("Client concurrency limit exceeded", SHED_STATUS);
+  }
+
+  /** Frees one permit and hands out as many as the limit allows. */
+  private synchronized List<Runnable> finish() {
+    inFlight--;
+
+    List<Runnable> granted = null;
+    while (inFlight < (int) limit && !queue.isEmpty()) {
+      if (granted == null) {
+        granted = new ArrayList<>();
+      }
+      granted.add(queue.pollFirst());
+      inFlight++;
+    }
+    return granted;
+  }
+
+  private static void grant(List<Runnable> granted) {
+    if (granted != null) {
+      for (Runnable onPermit : granted) {
+        onPermit.run();
+      }
+    }
+  }
+
+  /** Exponential moving average over roughly the last rttWindow round trips of one operation. */
+  private static final class Baseline {
+    private double averageRttNanos;
+
+    private int samples;
+
+    void sample(long rttNanos, int rttWindow) {
+      samples++;
+      double weight = 1.0 / Math.min(samples, Math.max(1, rttWindow));
+      averageRttNanos += (rttNanos - averageRttNanos) * weight;
+    }
+  }
+}
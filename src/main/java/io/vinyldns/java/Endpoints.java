@@ -0,0 +1,206 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Chooses an endpoint per attempt and tracks endpoint health; one instance per client. */
+final class Endpoints {
+  static final class Endpoint {
+    private final URI uri;
+
+    private int outstanding;
+
+    private int consecutiveFailures;
+
+    /** System.nanoTime() until which the endpoint is ejected; only valid while ejected. */
+    private long ejectedUntil;
+
+    private boolean ejected;
+
+    private boolean probing;
+
+    Endpoint(String baseUrl) {
+      // a missing URL fails when the request is built, as it did before endpoints were tracked
+      this.uri =
+          baseUrl == null ? null : URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+    }
+
+    URI getUri() {
+      return uri;
+    }
+
+    @Override
+    public String toString() {
+      return uri.toString();
+    }
+  }
+
+  private final List<Endpoint> endpoints;
+
+  private final VinylDNSLoadBalancingPolicy policy;
+
+  Endpoints(List<String> baseUrls, VinylDNSLoadBalancingPolicy policy) {
+    List<Endpoint> endpoints = new ArrayList<>(baseUrls.size());
+    for (String baseUrl : baseUrls) {
+      endpoints.add(new Endpoint(baseUrl));
+    }
+    this.endpoints = Collections.unmodifiableList(endpoints);
+    this.policy = policy == null ? new VinylDNSLoadBalancingPolicy() : policy;
+  }
+
+  List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Chooses the endpoint for the next attempt, preferring healthy endpoints not in {@code tried}.
+   * Every endpoint returned must be passed to {@link #release} or {@link #cancel} once the attempt
+   * is over.
+   */
+  synchronized Endpoint acquire(Set<Endpoint> tried) {
+    Endpoint chosen;
+    if (endpoints.size() == 1) {
+      chosen = endpoints.get(0);
+    } else {
+      long now = System.nanoTime();
+      List<Endpoint> candidates = available(tried, now);
+      if (candidates.isEmpty()) {
+        candidates = available(Collections.emptySet(), now);
+      }
+
+      // with every endpoint ejected, use the one that should recover soonest
+      chosen = candidates.isEmpty() ? soonestAvailable() : choose(candidates);
+
+      if (chosen.ejected && now - chosen.ejectedUntil >= 0) {
+        chosen.probing = true;
+      }
+    }
+
+    chosen.outstanding++;
+    return chosen;
+  }
+
+  /**
+   * Ends an attempt on {@code endpoint}.
+   *
+   * @param failed whether the endpoint answered with a 5xx or the attempt failed with an I/O error
+   */
+  synchronized void release(Endpoint endpoint, boolean failed) {
+    endpoint.outstanding--;
+
+    if (!failed) {
+      endpoint.consecutiveFailures = 0;
+      endpoint.ejected = false;
+      endpoint.probing = false;
+    } else if (endpoint.probing || ++endpoint.consecutiveFailures >= policy.getFailuresToEject()) {
+      endpoint.ejected = true;
+      endpoint.probing = false;
+      endpoint.ejectedUntil =
+          System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.getEjectionMillis());
+    }
+  }
+
+  /**
+   * Ends an attempt on {@code endpoint} that saw no response, such as one stopped by an open
+   * circuit or cancelled; its health is left as it was and a probe may be sent again.
+   */
+  synchronized void cancel(Endpoint endpoint) {
+    endpoint.outstanding--;
+    endpoint.probing = false;
+  }
+
+  /** Whether a failed request may be sent again right away to an endpoint not yet tried. */
+  synchronized boolean canFailover(Set<Endpoint> tried) {
+    if (!policy.isFailover() || endpoints.size() == 1) {
+      return false;
+    }
+
+    return !available(tried, System.nanoTime()).isEmpty();
+  }
+
+  synchronized boolean isEjected(Endpoint endpoint) {
+    return endpoint.ejected;
+  }
+
+  /** Whether an attempt's outcome counts against the endpoint's health. */
+  static boolean isFailure(int statusCode, Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof IOException) {
+        return true;
+      }
+    }
+    return error == null && statusCode >= 500;
+  }
+
+  private List<Endpoint> available(Set<Endpoint> tried, long now) {
+    List<Endpoint> available = new ArrayList<>(endpoints.size());
+    for (Endpoint endpoint : endpoints) {
+      if (!tried.contains(endpoint) && isAvailable(endpoint, now)) {
+        available.add(endpoint);
+      }
+    }
+    return available;
+  }
+
+  private static boolean isAvailable(Endpoint endpoint, long now) {
+    return !endpoint.ejected || (!endpoint.probing && now - endpoint.ejectedUntil >= 0);
+  }
+
+  private Endpoint choose(List<Endpoint> candidates) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (candidates.size() == 1) {
+      return candidates.get(0);
+    }
+
+    if (policy.getStrategy() == VinylDNSLoadBalancingPolicy.Strategy.POWER_OF_TWO_CHOICES) {
+      int first = random.nextInt(candidates.size());
+      int second = random.nextInt(candidates.size() - 1);
+      if (second >= first) {
+        second++;
+      }
+      Endpoint a = candidates.get(first);
+      Endpoint b = candidates.get(second);
+      return b.outstanding < a.outstanding ? b : a;
+    }
+
+    // least outstanding, starting at a random index so that ties are spread evenly
+    int start = random.nextInt(candidates.size());
+    Endpoint best = null;
+    for (int i = 0; i < candidates.size(); i++) {
+      Endpoint candidate = candidates.get((start + i) % candidates.size());
+      if (best == null || candidate.outstanding < best.outstanding) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  private Endpoint soonestAvailable() {
+    Endpoint best = endpoints.get(0);
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.ejectedUntil - best.ejectedUntil < 0) {
+        best = endpoint;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.http.HttpMethodName;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/** Applies a {@link VinylDNSHedgingPolicy}; one instance per client. */
+final class Hedging {
+  /** Latencies kept per operation. */
+  private static final int WINDOW = 256;
+
+  /** New samples after which an operation's percentile is recomputed. */
+  private static final int RECOMPUTE_EVERY = 16;
+
+  /** Most hedges that can be saved up while requests are fast. */
+  private static final double MAX_BUDGET = 10;
+
+  private final VinylDNSHedgingPolicy policy;
+
+  private final ConcurrentMap<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+  private double budget;
+
+  Hedging(VinylDNSHedgingPolicy policy) {
+    this.policy = policy;
+  }
+
+  boolean isHedged(VinylDNSRequest<?> request) {
+    return policy != null
+        && request.getHttpMethod() == HttpMethodName.GET
+        && request.getOperation() != null
+        && (policy.getOperations().isEmpty()
+            || policy.getOperations().contains(request.getOperation()));
+  }
+
+  /**
+   * Called once per hedged-operation request.
+   *
+   * @return nanoseconds after which to send a hedge, or -1 while too few latencies are known
+   */
+  long delayNanos(String operation) {
+    synchronized (this) {
+      budget = Math.min(MAX_BUDGET, budget + policy.getMaxHedgeRate());
+    }
+
+    Latencies recent = latencies.get(operation);
+    long percentile = recent == null ? -1 : recent.percentile();
+    if (percentile < 0) {
+      return -1;
+    }
+    return Math.max(percentile, TimeUnit.MILLISECONDS.toNanos(policy.getMinDelayMillis()));
+  }
+
+  /** Takes one hedge from the budget; false if the hedge rate is used up. */
+  synchronized boolean tryHedge() {
+    if (budget < 1) {
+      return false;
+    }
+    budget -= 1;
+    return true;
+  }
+
+  /** Records the latency of a successful request. */
+  void record(String operation, long nanos) {
+    latencies.computeIfAbsent(operation, op -> new Latencies()).add(nanos);
+  }
+
+  /** A ring of recent latencies with a cached percentile. */
+  private class Latencies {
+    private final long[] samples = new long[WINDOW];
+
+    private int count;
+
+    private volatile long percentile = -1;
+
+    synchronized void add(long nanos) {
+      samples[count % WINDOW] = nanos;
+      count++;
+
+      if (count >= policy.getMinSamples() && (percentile < 0 || count % RECOMPUTE_EVERY == 0)) {
+        long[] sorted = Arrays.copyOf(samples, Math.min(count, WINDOW));
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(policy.getPercentile() * sorted.length) - 1;
+        percentile = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+      }
+    }
+
+    long percentile() {
+      return percentile;
+    }
+  }
+}
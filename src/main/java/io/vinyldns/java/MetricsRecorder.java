@@ -0,0 +1,204 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.Request;
+import com.amazonaws.http.ExecutionContext;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.TimingInfo;
+import io.vinyldns.java.metrics.RequestMetrics;
+import io.vinyldns.java.metrics.VinylDNSInstrumentation;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Collects the timings of one request for {@link VinylDNSInstrumentation}. When no instrumentation
+ * is configured the shared disabled instance is used and every call is a no-op.
+ */
+final class MetricsRecorder {
+  private static final MetricsRecorder DISABLED = new MetricsRecorder(null, null, null, -1);
+
+  private final VinylDNSInstrumentation instrumentation;
+  private final String operation;
+  private final String httpMethod;
+  private final int poolMax;
+  private final long startedAt;
+
+  private long serializedAt;
+  private long signedAt;
+  private long deserializeNanos;
+  private long requestBytes = -1;
+  private long responseBytes = -1;
+  private int poolLeased = -1;
+  private int poolAvailable = -1;
+  private int poolPending = -1;
+
+  private MetricsRecorder(
+      VinylDNSInstrumentation instrumentation, String operation, String httpMethod, int poolMax) {
+    this.instrumentation = instrumentation;
+    this.operation = operation;
+    this.httpMethod = httpMethod;
+    this.poolMax = poolMax;
+    this.startedAt = instrumentation == null ? 0 : System.nanoTime();
+  }
+
+  static MetricsRecorder start(VinylDNSClientConfig config, VinylDNSRequest<?> request) {
+    if (config.getInstrumentation() == null) {
+      return DISABLED;
+    }
+
+    return new MetricsRecorder(
+        config.getInstrumentation(),
+        request.getOperation(),
+        request.getHttpMethod().name(),
+        config.getTransportConfig().getMaxConnections());
+  }
+
+  boolean isEnabled() {
+    return instrumentation != null;
+  }
+
+  /** Marks the end of payload serialization. */
+  void serialized(Request<?> request) {
+    if (isEnabled()) {
+      serializedAt = System.nanoTime();
+      // the content is always a ByteArrayInputStream, so available() is its length
+      requestBytes = request.getContent() == null ? 0 : available(request.getContent());
+    }
+  }
+
+  void signed() {
+    if (isEnabled()) {
+      signedAt = System.nanoTime();
+    }
+  }
+
+  /** An execution context that makes the SDK capture connection pool statistics, or null. */
+  ExecutionContext executionContext() {
+    return isEnabled() ? new ExecutionContext(true) : null;
+  }
+
+  void poolStatistics(ExecutionContext context) {
+    if (context == null) {
+      return;
+    }
+
+    TimingInfo timing = context.getAwsRequestMetrics().getTimingInfo();
+    poolLeased = counter(timing, Field.HttpClientPoolLeasedCount);
+    poolAvailable = counter(timing, Field.HttpClientPoolAvailableCount);
+    poolPending = counter(timing, Field.HttpClientPoolPendingCount);
+  }
+
+  /** Counts the bytes read from a response body. */
+  InputStream measure(InputStream content) {
+    if (!isEnabled() || content == null) {
+      return content;
+    }
+
+    responseBytes = 0;
+    return new FilterInputStream(content) {
+      @Override
+      public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+          responseBytes++;
+        }
+        return b;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+          responseBytes += n;
+        }
+        return n;
+      }
+    };
+  }
+
+  /** Returns the current time if enabled, to be passed to {@link #deserialized(long)}. */
+  long deserializing() {
+    return isEnabled() ? System.nanoTime() : 0;
+  }
+
+  void deserialized(long startedAt) {
+    if (isEnabled()) {
+      deserializeNanos += System.nanoTime() - startedAt;
+    }
+  }
+
+  <R> VinylDNSResponse<R> completed(VinylDNSResponse<R> response) {
+    completed(response.getStatusCode());
+    return response;
+  }
+
+  void completed(int statusCode) {
+    if (isEnabled()) {
+      report(statusCode, null);
+    }
+  }
+
+  void failed(Throwable error) {
+    if (isEnabled()) {
+      report(0, error);
+    }
+  }
+
+  private void report(int statusCode, Throwable error) {
+    long now = System.nanoTime();
+    long serializeNanos = serializedAt == 0 ? 0 : serializedAt - startedAt;
+    long signNanos = signedAt == 0 ? 0 : signedAt - serializedAt;
+    long wireNanos = signedAt == 0 ? 0 : Math.max(0, now - signedAt - deserializeNanos);
+
+    RequestMetrics metrics =
+        new RequestMetrics(
+            operation,
+            httpMethod,
+            statusCode,
+            error,
+            requestBytes,
+            responseBytes,
+            serializeNanos,
+            signNanos,
+            wireNanos,
+            deserializeNanos,
+            now - startedAt,
+            poolLeased,
+            poolAvailable,
+            poolPending,
+            poolMax);
+
+    try {
+      instrumentation.requestCompleted(metrics);
+    } catch (RuntimeException e) {
+      // a broken metrics binding must not fail the request it is observing
+    }
+  }
+
+  private static long available(InputStream content) {
+    try {
+      return content.available();
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  private static int counter(TimingInfo timing, Field field) {
+    Number value = timing.getCounter(field.name());
+    return value == null ? -1 : value.intValue();
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.responses.VinylDNSFailureResponse;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Applies the {@link VinylDNSRateLimiter}s configured per {@link VinylDNSOperationClass}. */
+final class RateLimits {
+  /** Status of the failure response returned when a request is rejected locally. */
+  static final int REJECTED_STATUS = 429;
+
+  private final Map<VinylDNSOperationClass, VinylDNSRateLimiter> limiters;
+
+  private final long maxWaitNanos;
+
+  RateLimits(VinylDNSClientConfig config) {
+    this.limiters =
+        config.getRateLimiters().isEmpty()
+            ? new EnumMap<>(VinylDNSOperationClass.class)
+            : new EnumMap<>(config.getRateLimiters());
+    this.maxWaitNanos =
+        config.getRateLimitTimeoutMillis() < 0
+            ? Long.MAX_VALUE
+            : TimeUnit.MILLISECONDS.toNanos(config.getRateLimitTimeoutMillis());
+  }
+
+  /**
+   * Reserves a permit for {@code request}.
+   *
+   * @return nanoseconds to wait before sending it, or -1 if it has to be rejected
+   */
+  long reserve(VinylDNSRequest<?> request) {
+    if (limiters.isEmpty()) {
+      return 0;
+    }
+
+    VinylDNSRateLimiter limiter = limiters.get(VinylDNSOperationClass.of(request));
+    return limiter == null ? 0 : limiter.reserve(maxWaitNanos);
+  }
+
+  /** Reserves a permit and waits for it; false if the request has to be rejected. */
+  boolean acquire(VinylDNSRequest<?> request) {
+    long wait = reserve(request);
+    if (wait <= 0) {
+      return wait == 0;
+    }
+
+    try {
+      TimeUnit.NANOSECONDS.sleep(wait);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  static <R> VinylDNSResponse<R> rejected(VinylDNSRequest<?> request) {
+    return new VinylDNSFailureResponse<>(
+        "Client rate limit exceeded for " + VinylDNSOperationClass.of(request), REJECTED_STATUS);
+  }
+}
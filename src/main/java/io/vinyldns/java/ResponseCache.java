@@ -0,0 +1,111 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded LRU map whose entries expire a fixed time after they are written. Every removal moves the
+ * cache to a new generation, so a value loaded before an invalidation is not stored after it.
+ */
+final class ResponseCache<K, V> {
+  private final int maximumSize;
+  private final long ttlNanos;
+  private final LongSupplier ticker;
+  private final AtomicLong evictions;
+  private final LinkedHashMap<K, Entry<V>> entries;
+  private long generation;
+
+  ResponseCache(int maximumSize, long ttlNanos, LongSupplier ticker, AtomicLong evictions) {
+    this.maximumSize = maximumSize;
+    this.ttlNanos = ttlNanos;
+    this.ticker = ticker;
+    this.evictions = evictions;
+    this.entries =
+        new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > ResponseCache.this.maximumSize) {
+              ResponseCache.this.evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  synchronized V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (ticker.getAsLong() - entry.writtenAt >= ttlNanos) {
+      entries.remove(key);
+      evictions.incrementAndGet();
+      return null;
+    }
+    return entry.value;
+  }
+
+  /** Stamp to take before loading a value and to pass to {@link #put}. */
+  synchronized long generation() {
+    return generation;
+  }
+
+  /** Stores the value unless an entry was removed since {@code generation} was taken. */
+  synchronized void put(K key, V value, long generation) {
+    if (maximumSize > 0 && generation == this.generation) {
+      entries.put(key, new Entry<>(value, ticker.getAsLong()));
+    }
+  }
+
+  synchronized void remove(K key) {
+    generation++;
+    entries.remove(key);
+  }
+
+  synchronized void removeIf(Predicate<V> predicate) {
+    generation++;
+    Iterator<Entry<V>> it = entries.values().iterator();
+    while (it.hasNext()) {
+      if (predicate.test(it.next().value)) {
+        it.remove();
+      }
+    }
+  }
+
+  synchronized void clear() {
+    generation++;
+    entries.clear();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long writtenAt;
+
+    private Entry(V value, long writtenAt) {
+      this.value = value;
+      this.writtenAt = writtenAt;
+    }
+  }
+}
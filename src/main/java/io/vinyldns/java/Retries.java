@@ -0,0 +1,161 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.http.HttpMethodName;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Applies a {@link VinylDNSRetryPolicy} and holds the retry budget of one client. */
+final class Retries {
+  /** Returned by {@link #delayBeforeRetry} when the request must not be retried. */
+  static final long NO_RETRY = -1;
+
+  private final VinylDNSRetryPolicy policy;
+
+  private final AtomicInteger tokens;
+
+  Retries(VinylDNSRetryPolicy policy) {
+    this.policy = policy == null ? VinylDNSRetryPolicy.none() : policy;
+    this.tokens = new AtomicInteger(this.policy.getBudgetCapacity());
+  }
+
+  boolean isEnabled() {
+    return policy.getMaxAttempts() > 1;
+  }
+
+  /**
+   * Decides whether attempt number {@code attempt} (starting at 1) of {@code request} is retried.
+   *
+   * @param statusCode status of the failed response, or 0 if the request failed with {@code error}
+   * @param retryAfter the response's {@code Retry-After} header, may be null
+   * @return milliseconds to wait before the next attempt, or {@link #NO_RETRY}
+   */
+  long delayBeforeRetry(
+      VinylDNSRequest<?> request, int attempt, int statusCode, String retryAfter, Throwable error) {
+    if (attempt >= policy.getMaxAttempts() || !isRetryable(request, statusCode, error)) {
+      return NO_RETRY;
+    }
+
+    long delay = parseRetryAfter(retryAfter);
+    if (delay > policy.getMaxDelayMillis()) {
+      return NO_RETRY;
+    }
+    if (delay < 0) {
+      delay = backoff(attempt);
+    }
+
+    return withdraw() ? delay : NO_RETRY;
+  }
+
+  /** Puts one token back into the budget after a successful attempt. */
+  void succeeded() {
+    int capacity = policy.getBudgetCapacity();
+    int current;
+    do {
+      current = tokens.get();
+      if (current >= capacity) {
+        return;
+      }
+    } while (!tokens.compareAndSet(current, current + 1));
+  }
+
+  int getAvailableTokens() {
+    return tokens.get();
+  }
+
+  /** Whether the request may be sent more than once: not a POST, or a POST the policy allows. */
+  boolean isResendable(VinylDNSRequest<?> request) {
+    return request.getHttpMethod() != HttpMethodName.POST
+        || policy.getRetryNonIdempotentOperations().contains(request.getOperation());
+  }
+
+  private boolean isRetryable(VinylDNSRequest<?> request, int statusCode, Throwable error) {
+    if (!isResendable(request)) {
+      return false;
+    }
+
+    return error == null ? policy.getRetryableStatusCodes().contains(statusCode) : isIOError(error);
+  }
+
+  private static boolean isIOError(Throwable error) {
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof IOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Full jitter: a uniformly random delay up to the exponential backoff ceiling. */
+  private long backoff(int attempt) {
+    long ceiling = policy.getBaseDelayMillis() << Math.min(attempt - 1, 30);
+    if (ceiling <= 0 || ceiling > policy.getMaxDelayMillis()) {
+      ceiling = policy.getMaxDelayMillis();
+    }
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  private boolean withdraw() {
+    int cost = policy.getRetryCost();
+    int current;
+    do {
+      current = tokens.get();
+      if (current < cost) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - cost));
+    return true;
+  }
+
+  /** Milliseconds requested by a delta-seconds or HTTP-date {@code Retry-After}, or -1. */
+  static long parseRetryAfter(String retryAfter) {
+    if (retryAfter == null || retryAfter.trim().isEmpty()) {
+      return -1;
+    }
+
+    String value = retryAfter.trim();
+    try {
+      return Math.max(0, Long.parseLong(value) * 1000);
+    } catch (NumberFormatException e) {
+      // not delta-seconds, try an HTTP-date
+    }
+
+    try {
+      ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+    } catch (DateTimeParseException e) {
+      return -1;
+    }
+  }
+
+  /** Case-insensitive lookup of {@code Retry-After}. */
+  static String retryAfter(Map<String, String> headers) {
+    if (headers == null) {
+      return null;
+    }
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      if ("Retry-After".equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request body serialized straight into a pooled buffer, hashed with SHA-256 as it is written.
+ * The signer takes the hash from here instead of reading the body again, and transports send the
+ * buffer as it is.
+ *
+ * <p>The buffer goes back to the pool on {@link #release()}, once the exchange has finished; the
+ * payload must not be used after that. A cancelled request is never released, since a transport
+ * may still be writing it.
+ */
+final class SerializedPayload extends ByteArrayInputStream {
+  /** Buffers kept for reuse; each holds at most {@link #MAX_POOLED_CAPACITY} bytes. */
+  private static final int POOL_SIZE = 8;
+
+  private static final int MAX_POOLED_CAPACITY = 2 * 1024 * 1024;
+
+  private static final int INITIAL_CAPACITY = 4096;
+
+  private static final Queue<Buffer> POOL = new ConcurrentLinkedQueue<>();
+
+  private static final AtomicInteger POOLED = new AtomicInteger();
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Buffer buffer;
+
+  private final String sha256;
+
+  private boolean released;
+
+  private SerializedPayload(Buffer buffer, String sha256) {
+    super(buffer.bytes, 0, buffer.count);
+    this.buffer = buffer;
+    this.sha256 = sha256;
+  }
+
+  static SerializedPayload serialize(Gson gson, Object payload) {
+    Buffer buffer = POOL.poll();
+    if (buffer == null) {
+      buffer = new Buffer();
+    } else {
+      POOLED.decrementAndGet();
+    }
+
+    buffer.reset();
+    try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+      gson.toJson(payload, writer);
+    } catch (IOException e) {
+      // the buffer never fails to write
+      throw new IllegalStateException(e);
+    }
+
+    return new SerializedPayload(buffer, hex(buffer.digest.digest()));
+  }
+
+  /** The array holding the body; only the first {@link #length()} bytes belong to it. */
+  byte[] array() {
+    return buf;
+  }
+
+  int length() {
+    return count;
+  }
+
+  /** Lower-case hex SHA-256 of the body. */
+  String sha256() {
+    return sha256;
+  }
+
+  /** Returns the buffer to the pool. Further calls do nothing. */
+  synchronized void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+
+    if (buffer.bytes.length <= MAX_POOLED_CAPACITY && POOLED.incrementAndGet() <= POOL_SIZE) {
+      POOL.offer(buffer);
+    } else {
+      POOLED.decrementAndGet();
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+  /** A growable byte array that feeds everything written to it into a SHA-256 digest. */
+  private static final class Buffer extends OutputStream {
+    private final MessageDigest digest;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    private int count;
+
+    Buffer() {
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    void reset() {
+      count = 0;
+      digest.reset();
+    }
+
+    @Override
+    public void write(int b) {
+      ensureCapacity(count + 1);
+      bytes[count++] = (byte) b;
+      digest.update((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      ensureCapacity(count + len);
+      System.arraycopy(b, off, bytes, count, len);
+      count += len;
+      digest.update(b, off, len);
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+      }
+    }
+  }
+}
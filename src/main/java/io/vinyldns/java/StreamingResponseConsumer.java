@@ -0,0 +1,197 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Hands a response to {@code onResponse} on {@code executor} as soon as its head has arrived, with
+ * the body streamed through a buffer of {@link #BUFFER_SIZE} bytes. The I/O thread stops reading
+ * the connection while the buffer is full, so decoding a large page neither holds the whole body in
+ * memory nor blocks the other connections of the I/O reactor.
+ */
+final class StreamingResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Executor executor;
+  private final Consumer<HttpResponse> onResponse;
+  private volatile HttpResponse response;
+  private volatile Pipe pipe;
+
+  StreamingResponseConsumer(Executor executor, Consumer<HttpResponse> onResponse) {
+    this.executor = executor;
+    this.onResponse = onResponse;
+  }
+
+  @Override
+  protected void onResponseReceived(HttpResponse response) throws IOException {
+    this.response = response;
+    if (response.getEntity() == null) {
+      dispatch();
+    }
+  }
+
+  @Override
+  protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+    pipe = new Pipe();
+    BasicHttpEntity streamed = new BasicHttpEntity();
+    streamed.setContent(pipe);
+    streamed.setContentLength(entity.getContentLength());
+    streamed.setContentType(entity.getContentType());
+    streamed.setContentEncoding(entity.getContentEncoding());
+    response.setEntity(streamed);
+    dispatch();
+  }
+
+  @Override
+  protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+    pipe.fill(decoder, ioControl);
+  }
+
+  @Override
+  protected HttpResponse buildResult(HttpContext context) {
+    return response;
+  }
+
+  @Override
+  protected void releaseResources() {
+    Pipe current = pipe;
+    if (current != null) {
+      Exception error = getException();
+      current.close(error != null ? error : new IOException("Response cancelled"));
+    }
+  }
+
+  private void dispatch() throws IOException {
+    HttpResponse current = response;
+    try {
+      executor.execute(() -> onResponse.accept(current));
+    } catch (RejectedExecutionException e) {
+      throw new IOException("client is closed", e);
+    }
+  }
+
+  /** The body as the decoding thread sees it; filled by the I/O thread. */
+  private static final class Pipe extends InputStream {
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private IOControl suspended;
+    private boolean ended;
+    private boolean abandoned;
+    private Exception error;
+
+    synchronized void fill(ContentDecoder decoder, IOControl ioControl) throws IOException {
+      if (abandoned) {
+        // nobody reads any more: drop the rest as it arrives so the connection can be reused
+        do {
+          buffer.clear();
+        } while (decoder.read(buffer) > 0);
+        ended |= decoder.isCompleted();
+        return;
+      }
+      while (buffer.hasRemaining()) {
+        int read = decoder.read(buffer);
+        if (read <= 0) {
+          break;
+        }
+      }
+      if (decoder.isCompleted()) {
+        ended = true;
+      } else if (!buffer.hasRemaining()) {
+        ioControl.suspendInput();
+        suspended = ioControl;
+      }
+      notifyAll();
+    }
+
+    /** Ends the body; reads fail with {@code error} unless the whole body has arrived. */
+    synchronized void close(Exception error) {
+      if (!ended) {
+        this.error = error;
+        ended = true;
+      }
+      notifyAll();
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+      byte[] one = new byte[1];
+      return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      while (buffer.position() == 0 && !ended) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while reading the response");
+        }
+      }
+      if (error != null) {
+        throw error instanceof IOException ? (IOException) error : new IOException(error);
+      }
+      if (buffer.position() == 0) {
+        return -1;
+      }
+
+      buffer.flip();
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      buffer.compact();
+      resume();
+      return count;
+    }
+
+    @Override
+    public synchronized int available() {
+      return buffer.position();
+    }
+
+    /**
+     * Stops the decoding side. The I/O thread then reads the rest of the body and drops it without
+     * ever suspending input, since nobody is left to resume it.
+     */
+    @Override
+    public synchronized void close() {
+      abandoned = true;
+      buffer.clear();
+      resume();
+    }
+
+    private void resume() {
+      if (suspended != null) {
+        suspended.requestInput();
+        suspended = null;
+      }
+    }
+  }
+}
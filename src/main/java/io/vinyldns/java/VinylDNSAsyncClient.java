@@ -0,0 +1,352 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.*;
+import io.vinyldns.java.model.membership.*;
+import io.vinyldns.java.model.record.set.*;
+import io.vinyldns.java.model.zone.*;
+import io.vinyldns.java.responses.VinylDNSFailureResponse;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.responses.VinylDNSSuccessResponse;
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link VinylDNSClient}. Every operation returns immediately with a {@link
+ * CompletableFuture} that is completed from the HTTP I/O threads once the response arrives, so a
+ * small number of threads can keep many requests in flight. Transport errors complete the future
+ * exceptionally; HTTP error statuses complete it with a {@link VinylDNSFailureResponse}.
+ *
+ * <p>Instances hold an I/O reactor and a connection pool and must be closed when no longer needed.
+ */
+public interface VinylDNSAsyncClient extends Closeable {
+  // Zone
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listZones(ListZonesRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListZonesResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListZonesResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListZonesResponse>> listZones(ListZonesRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#createZone(Zone)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<ZoneResponse>> createZone(Zone zone);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#getZone(ZoneRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;GetZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;GetZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<GetZoneResponse>> getZone(ZoneRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#getZoneByName(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;GetZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;GetZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<GetZoneResponse>> getZoneByName(String zoneName);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#updateZone(Zone)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<ZoneResponse>> updateZone(Zone zone);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#deleteZone(ZoneRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<ZoneResponse>> deleteZone(ZoneRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listZoneChanges(ListZoneChangesRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListZoneChangesResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListZoneChangesResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListZoneChangesResponse>> listZoneChanges(
+      ListZoneChangesRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#syncZone(ZoneRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ZoneResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ZoneResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<ZoneResponse>> syncZone(ZoneRequest request);
+
+  // RecordSet
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listRecordSets(ListRecordSetsRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListRecordSetsResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListRecordSetsResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListRecordSetsResponse>> listRecordSets(
+      ListRecordSetsRequest request);
+
+  // Groups
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#getGroup(GetGroupRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;Group&gt;} in case of success and {@link VinylDNSFailureResponse
+   *     VinylDNSFailureResponse&lt;Group&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<Group>> getGroup(GetGroupRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#createGroup(CreateGroupRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;Group&gt;} in case of success and {@link VinylDNSFailureResponse
+   *     VinylDNSFailureResponse&lt;Group&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<Group>> createGroup(CreateGroupRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#updateGroup(UpdateGroupRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;Group&gt;} in case of success and {@link VinylDNSFailureResponse
+   *     VinylDNSFailureResponse&lt;Group&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<Group>> updateGroup(UpdateGroupRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#deleteGroup(DeleteGroupRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;Group&gt;} in case of success and {@link VinylDNSFailureResponse
+   *     VinylDNSFailureResponse&lt;Group&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<Group>> deleteGroup(DeleteGroupRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listGroups(ListGroupsRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListGroupsResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListGroupsResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListGroupsResponse>> listGroups(ListGroupsRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listAdmins(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListAdminsResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListAdminsResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListAdminsResponse>> listAdmins(String groupId);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listMembers(ListMembersRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListMembersResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListMembersResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListMembersResponse>> listMembers(ListMembersRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listGroupActivity(ListGroupActivityRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListGroupActivityResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListGroupActivityResponse&gt;} in case
+   *     of failure
+   */
+  CompletableFuture<VinylDNSResponse<ListGroupActivityResponse>> listGroupActivity(
+      ListGroupActivityRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#createRecordSet(CreateRecordSetRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;RecordSetChange&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;RecordSetChange&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<RecordSetChange>> createRecordSet(
+      CreateRecordSetRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#getRecordSet(GetRecordSetRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;GetRecordSetResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;GetRecordSetResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<GetRecordSetResponse>> getRecordSet(
+      GetRecordSetRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#updateRecordSet(UpdateRecordSetRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;RecordSetChange&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;RecordSetChange&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<RecordSetChange>> updateRecordSet(
+      UpdateRecordSetRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#deleteRecordSet(DeleteRecordSetRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;RecordSetChange&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;RecordSetChange&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<RecordSetChange>> deleteRecordSet(
+      DeleteRecordSetRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link
+   * VinylDNSClient#listRecordSetChanges(ListRecordSetChangesRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListRecordSetChangesResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListRecordSetChangesResponse&gt;} in
+   *     case of failure
+   */
+  CompletableFuture<VinylDNSResponse<ListRecordSetChangesResponse>> listRecordSetChanges(
+      ListRecordSetChangesRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link
+   * VinylDNSClient#getRecordSetChange(GetRecordSetChangeRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;RecordSetChange&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;RecordSetChange&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<RecordSetChange>> getRecordSetChange(
+      GetRecordSetChangeRequest request);
+
+  // Batch
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#listBatchChanges(ListBatchChangesRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;ListBatchChangesResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;ListBatchChangesResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<ListBatchChangesResponse>> listBatchChanges(
+      ListBatchChangesRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#getBatchChanges(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> getBatchChanges(String id);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#createBatchChanges(CreateBatchRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> createBatchChanges(CreateBatchRequest request);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#approveBatchChanges(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> approveBatchChanges(String id);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#approveBatchChanges(String, String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> approveBatchChanges(
+      String id, String reviewComment);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#rejectBatchChanges(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> rejectBatchChanges(String id);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#rejectBatchChanges(String, String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> rejectBatchChanges(
+      String id, String reviewComment);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#cancelBatchChanges(String)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;BatchResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;BatchResponse&gt;} in case of failure
+   */
+  CompletableFuture<VinylDNSResponse<BatchResponse>> cancelBatchChanges(String id);
+
+  /**
+   * Asynchronous counterpart of {@link VinylDNSClient#searchRecordSets(SearchRecordSetsRequest)}.
+   *
+   * @return a future completed with {@link VinylDNSSuccessResponse
+   *     VinylDNSSuccessResponse&lt;SearchRecordSetsResponse&gt;} in case of success and {@link
+   *     VinylDNSFailureResponse VinylDNSFailureResponse&lt;SearchRecordSetsResponse&gt;} in case of
+   *     failure
+   */
+  CompletableFuture<VinylDNSResponse<SearchRecordSetsResponse>> searchRecordSets(
+      SearchRecordSetsRequest request);
+}
@@ -0,0 +1,907 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.Request;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.google.gson.Gson;
+import io.vinyldns.java.handlers.JsonResponseHandler;
+import io.vinyldns.java.model.batch.*;
+import io.vinyldns.java.model.membership.*;
+import io.vinyldns.java.model.record.set.*;
+import io.vinyldns.java.model.zone.*;
+import io.vinyldns.java.responses.VinylDNSFailureResponse;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.responses.VinylDNSSuccessResponse;
+import io.vinyldns.java.serializers.SerializationFactory;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.util.EntityUtils;
+
+public class VinylDNSAsyncClientImpl implements VinylDNSAsyncClient {
+  /** Decoder threads; each blocks while its response body is still arriving. */
+  private static final int DECODER_THREADS =
+      Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+  private VinylDNSClientConfig config;
+
+  private CloseableHttpAsyncClient client;
+
+  private Retries retries;
+
+  private RateLimits rateLimits;
+
+  private ConcurrencyLimiter concurrencyLimiter;
+
+  private Hedging hedging;
+
+  Endpoints endpoints;
+
+  private CircuitBreakers circuitBreakers;
+
+  /** Schedules retries, rate limited requests and hedges; created when first needed. */
+  private ScheduledExecutorService scheduler;
+
+  /** Reads and deserializes response bodies off the I/O threads; created when first needed. */
+  private ExecutorService decoder;
+
+  Gson gson = SerializationFactory.createGson();
+
+  public VinylDNSAsyncClientImpl(VinylDNSClientConfig config) {
+    this.config = config;
+
+    this.client = config.getTransportConfig().toAsyncClientBuilder().build();
+    this.client.start();
+    this.retries = new Retries(config.getRetryPolicy());
+    this.rateLimits = new RateLimits(config);
+    this.concurrencyLimiter = new ConcurrencyLimiter(config.getConcurrencyLimit());
+    this.hedging = new Hedging(config.getHedgingPolicy());
+    this.endpoints = new Endpoints(config.getBaseUrls(), config.getLoadBalancingPolicy());
+    this.circuitBreakers = new CircuitBreakers(config.getCircuitBreakerPolicy());
+  }
+
+  public VinylDNSAsyncClientImpl() {
+    this(
+        new VinylDNSClientConfig(
+            System.getenv("VINYLDNS_API_URL"),
+            new BasicAWSCredentials(
+                System.getenv("VINYLDNS_ACCESS_KEY_ID"),
+                System.getenv("VINYLDNS_SECRET_ACCESS_KEY")),
+            new VinylDNSSigner()));
+  }
+
+  // Zone
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListZonesResponse>> listZones(
+      ListZonesRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listZones(getBaseUrl(), request), ListZonesResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ZoneResponse>> createZone(Zone zone) {
+    return executeRequest(
+        VinylDNSRequestFactory.createZone(getBaseUrl(), zone), ZoneResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<GetZoneResponse>> getZone(ZoneRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.getZone(getBaseUrl(), request), GetZoneResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<GetZoneResponse>> getZoneByName(String zoneName) {
+    return executeRequest(
+        VinylDNSRequestFactory.getZoneByName(getBaseUrl(), zoneName), GetZoneResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ZoneResponse>> updateZone(Zone zone) {
+    return executeRequest(
+        VinylDNSRequestFactory.updateZone(getBaseUrl(), zone), ZoneResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ZoneResponse>> deleteZone(ZoneRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.deleteZone(getBaseUrl(), request), ZoneResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListZoneChangesResponse>> listZoneChanges(
+      ListZoneChangesRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listZoneChanges(getBaseUrl(), request),
+        ListZoneChangesResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ZoneResponse>> syncZone(ZoneRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.syncZone(getBaseUrl(), request), ZoneResponse.class);
+  }
+
+  // RecordSet
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListRecordSetsResponse>> listRecordSets(
+      ListRecordSetsRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listRecordSets(getBaseUrl(), request), ListRecordSetsResponse.class);
+  }
+
+  // Groups
+  @Override
+  public CompletableFuture<VinylDNSResponse<Group>> getGroup(GetGroupRequest request) {
+    return executeRequest(VinylDNSRequestFactory.getGroup(getBaseUrl(), request), Group.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<Group>> createGroup(CreateGroupRequest request) {
+    return executeRequest(VinylDNSRequestFactory.createGroup(getBaseUrl(), request), Group.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<Group>> updateGroup(UpdateGroupRequest request) {
+    return executeRequest(VinylDNSRequestFactory.updateGroup(getBaseUrl(), request), Group.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<Group>> deleteGroup(DeleteGroupRequest request) {
+    return executeRequest(VinylDNSRequestFactory.deleteGroup(getBaseUrl(), request), Group.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListGroupsResponse>> listGroups(
+      ListGroupsRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listGroups(getBaseUrl(), request), ListGroupsResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListAdminsResponse>> listAdmins(String groupId) {
+    return executeRequest(
+        VinylDNSRequestFactory.listAdmins(getBaseUrl(), groupId), ListAdminsResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListMembersResponse>> listMembers(
+      ListMembersRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listMembers(getBaseUrl(), request), ListMembersResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListGroupActivityResponse>> listGroupActivity(
+      ListGroupActivityRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listGroupActivity(getBaseUrl(), request),
+        ListGroupActivityResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<RecordSetChange>> createRecordSet(
+      CreateRecordSetRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.createRecordSet(getBaseUrl(), request), RecordSetChange.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<GetRecordSetResponse>> getRecordSet(
+      GetRecordSetRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.getRecordSet(getBaseUrl(), request), GetRecordSetResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<RecordSetChange>> updateRecordSet(
+      UpdateRecordSetRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.updateRecordSet(getBaseUrl(), request), RecordSetChange.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<RecordSetChange>> deleteRecordSet(
+      DeleteRecordSetRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.deleteRecordSet(getBaseUrl(), request), RecordSetChange.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListRecordSetChangesResponse>> listRecordSetChanges(
+      ListRecordSetChangesRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listRecordSetChanges(getBaseUrl(), request),
+        ListRecordSetChangesResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<RecordSetChange>> getRecordSetChange(
+      GetRecordSetChangeRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.getRecordSetChange(getBaseUrl(), request), RecordSetChange.class);
+  }
+
+  // Batch
+  @Override
+  public CompletableFuture<VinylDNSResponse<ListBatchChangesResponse>> listBatchChanges(
+      ListBatchChangesRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.listBatchChanges(getBaseUrl(), request),
+        ListBatchChangesResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> getBatchChanges(String id) {
+    return executeRequest(
+        VinylDNSRequestFactory.getBatchChanges(getBaseUrl(), id), BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> createBatchChanges(
+      CreateBatchRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.createBatchChanges(getBaseUrl(), request), BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> approveBatchChanges(String id) {
+    return executeRequest(
+        VinylDNSRequestFactory.approveBatchChanges(getBaseUrl(), id, null), BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> approveBatchChanges(
+      String id, String reviewComment) {
+    return executeRequest(
+        VinylDNSRequestFactory.approveBatchChanges(
+            getBaseUrl(), id, new BatchChangeReview(reviewComment)),
+        BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> rejectBatchChanges(String id) {
+    return executeRequest(
+        VinylDNSRequestFactory.rejectBatchChanges(getBaseUrl(), id, null), BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> rejectBatchChanges(
+      String id, String reviewComment) {
+    return executeRequest(
+        VinylDNSRequestFactory.rejectBatchChanges(
+            getBaseUrl(), id, new BatchChangeReview(reviewComment)),
+        BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<BatchResponse>> cancelBatchChanges(String id) {
+    return executeRequest(
+        VinylDNSRequestFactory.cancelBatchChanges(getBaseUrl(), id), BatchResponse.class);
+  }
+
+  @Override
+  public CompletableFuture<VinylDNSResponse<SearchRecordSetsResponse>> searchRecordSets(
+      SearchRecordSetsRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.searchRecordSets(getBaseUrl(), request),
+        SearchRecordSetsResponse.class);
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (scheduler != null) {
+        // retries that are already scheduled still run and fail against the closed client
+        scheduler.shutdown();
+      }
+    }
+    client.close();
+    synchronized (this) {
+      if (decoder != null) {
+        decoder.shutdown();
+      }
+    }
+  }
+
+  private <S, R> CompletableFuture<VinylDNSResponse<R>> executeRequest(
+      VinylDNSRequest<S> req, Class<R> responseType) {
+    if (!hedging.isHedged(req)) {
+      return executeWithRetries(req, responseType);
+    }
+
+    long delay = hedging.delayNanos(req.getOperation());
+    CompletableFuture<VinylDNSResponse<R>> primary = executeTimed(req, responseType);
+    if (delay < 0) {
+      return primary;
+    }
+
+    CompletableFuture<VinylDNSResponse<R>> result = new CompletableFuture<>();
+    List<CompletableFuture<VinylDNSResponse<R>>> requests = new CopyOnWriteArrayList<>();
+    AtomicInteger pending = new AtomicInteger(1);
+
+    // the first success wins; otherwise the outcome of the last one to finish
+    BiConsumer<VinylDNSResponse<R>, Throwable> onComplete =
+        (response, error) -> {
+          boolean last = pending.decrementAndGet() == 0;
+          if (error == null && response instanceof VinylDNSSuccessResponse) {
+            result.complete(response);
+          } else if (last && error != null) {
+            result.completeExceptionally(error);
+          } else if (last) {
+            result.complete(response);
+          }
+        };
+
+    requests.add(primary);
+    primary.whenComplete(onComplete);
+
+    Future<?> hedge;
+    try {
+      hedge =
+          scheduler()
+              .schedule(
+                  () -> {
+                    if (!result.isDone() && hedging.tryHedge()) {
+                      pending.incrementAndGet();
+                      CompletableFuture<VinylDNSResponse<R>> second =
+                          executeTimed(req, responseType);
+                      requests.add(second);
+                      second.whenComplete(onComplete);
+                      if (result.isDone()) {
+                        second.cancel(false);
+                      }
+                    }
+                  },
+                  delay,
+                  TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // the client was closed
+      return primary;
+    }
+
+    result.whenComplete(
+        (response, error) -> {
+          hedge.cancel(false);
+          for (CompletableFuture<VinylDNSResponse<R>> request : requests) {
+            request.cancel(false);
+          }
+        });
+
+    return result;
+  }
+
+  /** Executes the request, recording its latency for hedging if it succeeds. */
+  private <S, R> CompletableFuture<VinylDNSResponse<R>> executeTimed(
+      VinylDNSRequest<S> req, Class<R> responseType) {
+    long start = System.nanoTime();
+    CompletableFuture<VinylDNSResponse<R>> result = executeWithRetries(req, responseType);
+    result.thenAccept(
+        response -> {
+          if (response instanceof VinylDNSSuccessResponse) {
+            hedging.record(req.getOperation(), System.nanoTime() - start);
+          }
+        });
+    return result;
+  }
+
+  private <S, R> CompletableFuture<VinylDNSResponse<R>> executeWithRetries(
+      VinylDNSRequest<S> req, Class<R> responseType) {
+    Execution<S, R> execution = new Execution<>(req, responseType);
+    execution.attempt(1);
+    return execution.result;
+  }
+
+  /**
+   * One call through the retry policy, rate and concurrency limits and endpoint selection. Every
+   * step runs on the caller's thread, an I/O thread, the decoder pool or the scheduler, and only
+   * decoding blocks, on a body that is still streaming in.
+   */
+  private class Execution<S, R> {
+    private final VinylDNSRequest<S> req;
+
+    private final Class<R> responseType;
+
+    private final CompletableFuture<VinylDNSResponse<R>> result = new CompletableFuture<>();
+
+    /** The HTTP request or scheduled step to cancel when the result is cancelled. */
+    private final AtomicReference<Future<?>> inFlight = new AtomicReference<>();
+
+    private final Set<Endpoints.Endpoint> tried = ConcurrentHashMap.newKeySet();
+
+    Execution(VinylDNSRequest<S> req, Class<R> responseType) {
+      this.req = req;
+      this.responseType = responseType;
+
+      result.whenComplete(
+          (response, error) -> {
+            if (result.isCancelled()) {
+              Future<?> current = inFlight.get();
+              if (current != null) {
+                current.cancel(true);
+              }
+            }
+          });
+    }
+
+    void attempt(int attempt) {
+      if (result.isDone()) {
+        return;
+      }
+
+      long wait = rateLimits.reserve(req);
+      if (wait < 0) {
+        result.complete(RateLimits.rejected(req));
+        return;
+      }
+      if (wait > 0) {
+        // never block the caller or an I/O thread; send once the permit is due
+        if (!schedule(() -> admit(attempt), wait)) {
+          result.completeExceptionally(new IllegalStateException("client is closed"));
+        }
+        return;
+      }
+
+      admit(attempt);
+    }
+
+    /** Sends the request once the concurrency limit allows it. */
+    private void admit(int attempt) {
+      Runnable onPermit = () -> send(attempt);
+      ConcurrencyLimiter.Admission admission = concurrencyLimiter.acquire(onPermit);
+
+      if (admission == ConcurrencyLimiter.Admission.SHED) {
+        result.complete(ConcurrencyLimiter.shed());
+      } else if (admission == ConcurrencyLimiter.Admission.QUEUED
+          && concurrencyLimiter.getQueueTimeoutMillis() > 0) {
+        try {
+          scheduler()
+              .schedule(
+                  () -> {
+                    if (concurrencyLimiter.cancel(onPermit)) {
+                      result.complete(ConcurrencyLimiter.shed());
+                    }
+                  },
+                  concurrencyLimiter.getQueueTimeoutMillis(),
+                  TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+          // the client was closed; the request stays queued
+        }
+      }
+    }
+
+    private void send(int attempt) {
+      if (result.isDone()) {
+        concurrencyLimiter.release();
+        return;
+      }
+
+      Endpoints.Endpoint endpoint = endpoints.acquire(tried);
+      CircuitBreakers.Breaker breaker = circuitBreakers.get(req, endpoint);
+      if (!breaker.tryAcquire()) {
+        endpoints.cancel(endpoint);
+        concurrencyLimiter.release();
+        tried.add(endpoint);
+        if (retries.isResendable(req) && endpoints.canFailover(tried)) {
+          attempt(attempt);
+        } else {
+          result.complete(CircuitBreakers.open(breaker));
+        }
+        return;
+      }
+
+      MetricsRecorder recorder = MetricsRecorder.start(config, req);
+
+      Request<String> request = null;
+      HttpUriRequest httpRequest;
+      try {
+        request = VinylDNSRequestFactory.toSignableRequest(req, gson, endpoint.getUri());
+        recorder.serialized(request);
+        config.getSigner().sign(request, config.getCredentials());
+        recorder.signed();
+        httpRequest = toHttpRequest(request);
+      } catch (Exception e) {
+        if (request != null) {
+          VinylDNSRequestFactory.release(request);
+        }
+        breaker.cancel();
+        endpoints.cancel(endpoint);
+        concurrencyLimiter.release();
+        recorder.failed(e);
+        result.completeExceptionally(e);
+        return;
+      }
+
+      Exchange exchange = new Exchange(attempt, endpoint, breaker, recorder, request);
+      Future<HttpResponse> http;
+      try {
+        http = client.execute(HttpAsyncMethods.create(httpRequest), exchange.consumer, exchange);
+        inFlight.set(http);
+      } catch (RuntimeException e) {
+        // the request may already be queued on an I/O thread, so its payload is left to the
+        // garbage collector rather than handed back to the pool
+        if (exchange.settle()) {
+          breaker.cancel();
+          endpoints.cancel(endpoint);
+          concurrencyLimiter.release();
+          recorder.failed(e);
+          result.completeExceptionally(e);
+        }
+        return;
+      }
+
+      exchange.expire(http);
+      if (result.isCancelled()) {
+        http.cancel(true);
+      }
+    }
+
+    /**
+     * One HTTP exchange. The response is decoded on the decoder pool while its body streams in, and
+     * exactly one of the decoding, {@link #failed} and {@link #cancelled} settles the attempt.
+     */
+    private class Exchange implements FutureCallback<HttpResponse> {
+      private final int attempt;
+
+      private final Endpoints.Endpoint endpoint;
+
+      private final CircuitBreakers.Breaker breaker;
+
+      private final MetricsRecorder recorder;
+
+      private final Request<String> sentRequest;
+
+      private final long sent = System.nanoTime();
+
+      private final AtomicBoolean settled = new AtomicBoolean();
+
+      /** Fails the attempt once the request timeout elapses; null while there is none. */
+      private volatile Future<?> deadline;
+
+      final StreamingResponseConsumer consumer =
+          new StreamingResponseConsumer(decoder(), this::decode);
+
+      Exchange(
+          int attempt,
+          Endpoints.Endpoint endpoint,
+          CircuitBreakers.Breaker breaker,
+          MetricsRecorder recorder,
+          Request<String> sentRequest) {
+        this.attempt = attempt;
+        this.endpoint = endpoint;
+        this.breaker = breaker;
+        this.recorder = recorder;
+        this.sentRequest = sentRequest;
+      }
+
+      boolean settle() {
+        if (!settled.compareAndSet(false, true)) {
+          return false;
+        }
+        Future<?> current = deadline;
+        if (current != null) {
+          current.cancel(false);
+        }
+        return true;
+      }
+
+      /**
+       * Aborts the request and fails the attempt as a timeout if it has not settled within the
+       * request timeout, as the blocking client does.
+       */
+      void expire(Future<HttpResponse> http) {
+        int timeout = config.getTransportConfig().getRequestTimeoutMillis();
+        if (timeout <= 0) {
+          return;
+        }
+        try {
+          deadline =
+              scheduler()
+                  .schedule(
+                      () -> {
+                        if (settle()) {
+                          http.cancel(true);
+                          fail(
+                              new SocketTimeoutException(
+                                  "request did not complete within " + timeout + " ms"));
+                        }
+                      },
+                      timeout,
+                      TimeUnit.MILLISECONDS);
+          if (settled.get()) {
+            // settled before the deadline was set
+            deadline.cancel(false);
+          }
+        } catch (RejectedExecutionException e) {
+          // the client was closed
+        }
+      }
+
+      private void decode(HttpResponse response) {
+        VinylDNSResponse<R> vinylDNSResponse;
+        try {
+          vinylDNSResponse =
+              recorder.completed(toVinylDNSResponse(response, responseType, recorder));
+        } catch (Exception e) {
+          EntityUtils.consumeQuietly(response.getEntity());
+          Exception transportError = consumer.getException();
+          if (transportError != null) {
+            // the connection failed while the body was streaming
+            failed(transportError);
+          } else if (settle()) {
+            // an unreadable response says nothing about the endpoint's health
+            breaker.cancel();
+            endpoints.cancel(endpoint);
+            concurrencyLimiter.release();
+            recorder.failed(e);
+            result.completeExceptionally(e);
+          }
+          return;
+        }
+        // closes the body; the consumer then discards whatever the decoder left unread, so the
+        // connection goes back to the pool once the rest has arrived
+        EntityUtils.consumeQuietly(response.getEntity());
+        if (!settle()) {
+          return;
+        }
+
+        int statusCode = vinylDNSResponse.getStatusCode();
+        boolean endpointFailed = Endpoints.isFailure(statusCode, null);
+        long elapsed = System.nanoTime() - sent;
+        breaker.record(endpointFailed, elapsed);
+        endpoints.release(endpoint, endpointFailed);
+        concurrencyLimiter.release(
+            req.getOperation(), elapsed, ConcurrencyLimiter.isOverload(statusCode, null));
+
+        if (vinylDNSResponse instanceof VinylDNSSuccessResponse) {
+          retries.succeeded();
+          result.complete(vinylDNSResponse);
+          return;
+        }
+
+        Header retryAfter = response.getFirstHeader("Retry-After");
+        if (!retry(
+            attempt,
+            endpoint,
+            endpointFailed,
+            statusCode,
+            retryAfter == null ? null : retryAfter.getValue(),
+            null)) {
+          result.complete(vinylDNSResponse);
+        }
+      }
+
+      @Override
+      public void completed(HttpResponse response) {
+        // decoding was handed off when the response head arrived; the exchange is over, so the
+        // payload is no longer read
+        VinylDNSRequestFactory.release(sentRequest);
+      }
+
+      @Override
+      public void failed(Exception e) {
+        VinylDNSRequestFactory.release(sentRequest);
+        if (settle()) {
+          fail(e);
+        }
+      }
+
+      /** Records the settled attempt as failed, then retries it or fails the call. */
+      private void fail(Exception e) {
+        boolean endpointFailed = Endpoints.isFailure(0, e);
+        long elapsed = System.nanoTime() - sent;
+        breaker.record(endpointFailed, elapsed);
+        endpoints.release(endpoint, endpointFailed);
+        concurrencyLimiter.release(
+            req.getOperation(), elapsed, ConcurrencyLimiter.isOverload(0, e));
+        recorder.failed(e);
+        if (!retry(attempt, endpoint, endpointFailed, 0, null, e)) {
+          result.completeExceptionally(e);
+        }
+      }
+
+      @Override
+      public void cancelled() {
+        // the I/O thread may still be writing the payload; it is not returned to the pool
+        if (settle()) {
+          breaker.cancel();
+          endpoints.cancel(endpoint);
+          concurrencyLimiter.release();
+          result.cancel(false);
+        }
+      }
+    }
+
+    /**
+     * Fails over to another endpoint at once, or schedules the next attempt as the retry policy
+     * says; false if the failure is final.
+     */
+    private boolean retry(
+        int attempt,
+        Endpoints.Endpoint endpoint,
+        boolean endpointFailed,
+        int statusCode,
+        String retryAfter,
+        Throwable error) {
+      tried.add(endpoint);
+      if (endpointFailed && retries.isResendable(req) && endpoints.canFailover(tried)) {
+        attempt(attempt);
+        return true;
+      }
+
+      long delay = retries.delayBeforeRetry(req, attempt, statusCode, retryAfter, error);
+      if (delay == Retries.NO_RETRY) {
+        return false;
+      }
+
+      return schedule(() -> attempt(attempt + 1), TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    private boolean schedule(Runnable task, long delayNanos) {
+      try {
+        inFlight.set(scheduler().schedule(task, delayNanos, TimeUnit.NANOSECONDS));
+        return true;
+      } catch (RejectedExecutionException e) {
+        // the client was closed
+        return false;
+      }
+    }
+  }
+
+  private synchronized ExecutorService decoder() {
+    if (decoder == null) {
+      // responses beyond this wait in the queue with their input suspended once their buffer fills
+      ThreadPoolExecutor pool =
+          new ThreadPoolExecutor(
+              DECODER_THREADS,
+              DECODER_THREADS,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              r -> {
+                Thread thread = new Thread(r, "vinyldns-async-decoder");
+                thread.setDaemon(true);
+                return thread;
+              });
+      pool.allowCoreThreadTimeOut(true);
+      decoder = pool;
+    }
+    return decoder;
+  }
+
+  private synchronized ScheduledExecutorService scheduler() {
+    if (scheduler == null) {
+      ScheduledThreadPoolExecutor pool =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                Thread thread = new Thread(r, "vinyldns-async-scheduler");
+                thread.setDaemon(true);
+                return thread;
+              });
+      // request deadlines are nearly always cancelled; don't keep them queued until they are due
+      pool.setRemoveOnCancelPolicy(true);
+      scheduler = pool;
+    }
+    return scheduler;
+  }
+
+  private <R> VinylDNSResponse<R> toVinylDNSResponse(
+      HttpResponse response, Class<R> responseType, MetricsRecorder recorder) throws IOException {
+    int statusCode = response.getStatusLine().getStatusCode();
+    boolean success = statusCode / 100 * 100 == 200;
+    HttpEntity entity = response.getEntity();
+    long start = recorder.deserializing();
+
+    if (success && !config.isRetainResponseBody()) {
+      R responseObject =
+          entity == null
+              ? null
+              : JsonResponseHandler.read(gson, recorder.measure(entity.getContent()), responseType);
+      recorder.deserialized(start);
+
+      return new VinylDNSSuccessResponse<>(responseObject, null, statusCode);
+    }
+
+    String messageBody =
+        entity == null
+            ? null
+            : EntityUtils.toString(
+                recorder.isEnabled() ? new MeasuredEntity(entity, recorder) : entity,
+                StandardCharsets.UTF_8);
+
+    if (success) {
+      R responseObject = gson.fromJson(messageBody, responseType);
+      recorder.deserialized(start);
+
+      return new VinylDNSSuccessResponse<>(responseObject, messageBody, statusCode);
+    } else {
+      recorder.deserialized(start);
+      return new VinylDNSFailureResponse<>(messageBody, statusCode);
+    }
+  }
+
+  private static class MeasuredEntity extends HttpEntityWrapper {
+    private final MetricsRecorder recorder;
+
+    MeasuredEntity(HttpEntity entity, MetricsRecorder recorder) {
+      super(entity);
+      this.recorder = recorder;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      return recorder.measure(super.getContent());
+    }
+  }
+
+  /**
+   * Translates a signed SDK request into an Apache request, encoding the URI the same way {@link
+   * com.amazonaws.http.AmazonHttpClient} does so the signature stays valid.
+   */
+  private static HttpUriRequest toHttpRequest(Request<String> request) throws IOException {
+    VinylDNSHttpRequest httpRequest = VinylDNSRequestFactory.toHttpRequest(request);
+    RequestBuilder builder =
+        RequestBuilder.create(httpRequest.getMethod()).setUri(httpRequest.getUri());
+
+    for (Map.Entry<String, String> header : httpRequest.getHeaders().entrySet()) {
+      builder.addHeader(header.getKey(), header.getValue());
+    }
+
+    if (httpRequest.getBody() != null) {
+      builder.setEntity(new ByteArrayEntity(httpRequest.getBody(), 0, httpRequest.getBodyLength()));
+    }
+
+    return builder.build();
+  }
+
+  private String getBaseUrl() {
+    if (config.getBaseUrl().endsWith("/")) {
+      return config.getBaseUrl();
+    } else {
+      return config.getBaseUrl() + "/";
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Submits any number of {@link ChangeInput}s as several {@link CreateBatchRequest}s that each stay
+ * within the server's batch size limit.
+ *
+ * <p>Changes are grouped by zone and a batch never mixes zones, so one zone failing validation does
+ * not reject changes to another. Within a zone, all changes to the same input name go into the same
+ * batch, which keeps a delete and add of a record together as an update. The batches are submitted
+ * concurrently, at most {@code parallelism} at a time.
+ *
+ * <p>The zone of a change is guessed from its input name by default (see {@link
+ * #parentDomain(ChangeInput)}); pass a zone resolver when zones are nested more deeply.
+ */
+public class VinylDNSBatchSubmitter {
+  /** Default VinylDNS limit on the number of changes in a single batch. */
+  public static final int DEFAULT_MAX_CHANGES_PER_BATCH = 1000;
+
+  private final VinylDNSClient client;
+  private final int maxChangesPerBatch;
+  private final int parallelism;
+  private final Function<ChangeInput, String> zoneResolver;
+
+  public VinylDNSBatchSubmitter(VinylDNSClient client, int parallelism) {
+    this(client, DEFAULT_MAX_CHANGES_PER_BATCH, parallelism);
+  }
+
+  public VinylDNSBatchSubmitter(VinylDNSClient client, int maxChangesPerBatch, int parallelism) {
+    this(client, maxChangesPerBatch, parallelism, VinylDNSBatchSubmitter::parentDomain);
+  }
+
+  public VinylDNSBatchSubmitter(
+      VinylDNSClient client,
+      int maxChangesPerBatch,
+      int parallelism,
+      Function<ChangeInput, String> zoneResolver) {
+    if (maxChangesPerBatch < 1) {
+      throw new IllegalArgumentException("maxChangesPerBatch must be positive");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    this.client = client;
+    this.maxChangesPerBatch = maxChangesPerBatch;
+    this.parallelism = parallelism;
+    this.zoneResolver = zoneResolver;
+  }
+
+  /** Submits the changes with no comments or owner group. */
+  public BulkBatchResult submit(List<? extends ChangeInput> changes) {
+    return submit(new CreateBatchRequest(new ArrayList<>(changes)));
+  }
+
+  /**
+   * Splits the changes of {@code request} into batches and submits them. Comments, owner group,
+   * scheduled time and manual review settings are copied to every batch. Blocks until every batch
+   * has been submitted.
+   *
+   * @throws IllegalArgumentException if one input name has more changes than fit in a batch
+   */
+  public BulkBatchResult submit(CreateBatchRequest request) {
+    List<CreateBatchRequest> batches = split(request);
+    List<BulkBatchResult.Entry> entries = new ArrayList<>(batches.size());
+    for (CreateBatchRequest batch : batches) {
+      entries.add(new BulkBatchResult.Entry(batch));
+    }
+
+    int workers = Math.min(parallelism, batches.size());
+    if (workers == 0) {
+      return new BulkBatchResult(entries);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      AtomicInteger next = new AtomicInteger();
+      CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+      for (int i = 0; i < workers; i++) {
+        futures[i] = CompletableFuture.runAsync(() -> drain(entries, next), executor);
+      }
+      CompletableFuture.allOf(futures).join();
+    } finally {
+      executor.shutdown();
+    }
+    return new BulkBatchResult(entries);
+  }
+
+  /**
+   * Splits the changes of {@code request} into the batches {@link #submit} would send.
+   *
+   * @throws IllegalArgumentException if one input name has more changes than fit in a batch
+   */
+  public List<CreateBatchRequest> split(CreateBatchRequest request) {
+    Map<String, Map<String, List<ChangeInput>>> byZone = new LinkedHashMap<>();
+    for (ChangeInput change : request.getChanges()) {
+      byZone
+          .computeIfAbsent(zoneResolver.apply(change), zone -> new LinkedHashMap<>())
+          .computeIfAbsent(normalize(change.getInputName()), name -> new ArrayList<>())
+          .add(change);
+    }
+
+    List<CreateBatchRequest> batches = new ArrayList<>();
+    for (Map<String, List<ChangeInput>> byName : byZone.values()) {
+      List<ChangeInput> current = new ArrayList<>();
+      for (List<ChangeInput> sameName : byName.values()) {
+        if (sameName.size() > maxChangesPerBatch) {
+          // splitting them would apply part of an update on its own
+          throw new IllegalArgumentException(
+              sameName.size()
+                  + " changes to "
+                  + sameName.get(0).getInputName()
+                  + " do not fit in a batch of "
+                  + maxChangesPerBatch);
+        }
+        if (!current.isEmpty() && current.size() + sameName.size() > maxChangesPerBatch) {
+          batches.add(copyOf(request, current));
+          current = new ArrayList<>();
+        }
+        current.addAll(sameName);
+      }
+      if (!current.isEmpty()) {
+        batches.add(copyOf(request, current));
+      }
+    }
+    return batches;
+  }
+
+  /**
+   * Default zone resolver: the input name without its first label, or for IP addresses (PTR
+   * changes) the address without its last component.
+   */
+  public static String parentDomain(ChangeInput change) {
+    String name = normalize(change.getInputName());
+    if (name.indexOf(':') >= 0) {
+      int end = name.lastIndexOf(':');
+      return name.substring(0, end);
+    }
+    if (!name.isEmpty() && name.chars().allMatch(c -> c == '.' || Character.isDigit(c))) {
+      int end = name.lastIndexOf('.');
+      return end < 0 ? name : name.substring(0, end);
+    }
+    int start = name.indexOf('.');
+    return start < 0 ? name : name.substring(start + 1);
+  }
+
+  private void drain(List<BulkBatchResult.Entry> entries, AtomicInteger next) {
+    int index;
+    while ((index = next.getAndIncrement()) < entries.size()) {
+      BulkBatchResult.Entry entry = entries.get(index);
+      try {
+        entry.response = client.createBatchChanges(entry.getRequest());
+      } catch (RuntimeException e) {
+        entry.error = e;
+      }
+    }
+  }
+
+  static CreateBatchRequest copyOf(CreateBatchRequest template, List<ChangeInput> changes) {
+    CreateBatchRequest batch =
+        new CreateBatchRequest(
+            template.getComments(),
+            Collections.unmodifiableList(changes),
+            template.getOwnerGroupId());
+    batch.setAllowManualReview(template.getAllowManualReview());
+    batch.setScheduledTime(template.getScheduledTime());
+    return batch;
+  }
+
+  private static String normalize(String name) {
+    if (name == null) {
+      return "";
+    }
+    String lower = name.toLowerCase(Locale.ROOT);
+    return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+  }
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.BatchChangeStatus;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.batch.SingleChangeStatus;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for many batch changes to finish, polling {@link VinylDNSClient#getBatchChanges(String)} on
+ * a shared scheduler.
+ *
+ * <p>Each batch has its own poll interval. It starts at {@code initialDelayMillis}, doubles every
+ * time a poll shows no progress, up to {@code maxDelayMillis}, and drops back to the initial delay
+ * when more single changes have finished since the last poll. Batches that are due at the same time
+ * are polled in the same pass of the scheduler.
+ *
+ * <p>The future returned by {@link #watch(String)} completes once the batch is {@code Complete},
+ * {@code Failed}, {@code PartialFailure}, {@code Cancelled} or {@code Rejected} and none of its
+ * single changes is still {@code Pending}. It completes exceptionally with a {@link
+ * VinylDNSException} if the API answers with a client error such as 404; server errors and I/O
+ * failures are retried with the same backoff. Cancelling the future stops watching the batch.
+ */
+public class VinylDNSBatchWatcher implements Closeable {
+  private static final Set<BatchChangeStatus> TERMINAL =
+      EnumSet.of(
+          BatchChangeStatus.Complete,
+          BatchChangeStatus.Failed,
+          BatchChangeStatus.PartialFailure,
+          BatchChangeStatus.Cancelled,
+          BatchChangeStatus.Rejected);
+
+  private final VinylDNSClient client;
+  private final long initialDelayNanos;
+  private final long maxDelayNanos;
+  private final ScheduledExecutorService scheduler;
+  private final boolean ownsScheduler;
+
+  private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+
+  private ScheduledFuture<?> nextTick;
+  private long nextTickAt;
+  private boolean closed;
+
+  /** Polls every second at first, backing off to every 30 seconds, on a private thread. */
+  public VinylDNSBatchWatcher(VinylDNSClient client) {
+    this(client, 1000, 30000, null);
+  }
+
+  /**
+   * @param scheduler scheduler that runs the polls, or null to use a private single thread. A
+   *     scheduler passed in is not shut down by {@link #close()}.
+   */
+  public VinylDNSBatchWatcher(
+      VinylDNSClient client,
+      long initialDelayMillis,
+      long maxDelayMillis,
+      ScheduledExecutorService scheduler) {
+    if (initialDelayMillis < 1 || maxDelayMillis < initialDelayMillis) {
+      throw new IllegalArgumentException(
+          "delays must satisfy 0 < initialDelayMillis <= maxDelayMillis");
+    }
+    this.client = client;
+    this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMillis);
+    this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    this.ownsScheduler = scheduler == null;
+    this.scheduler =
+        scheduler != null
+            ? scheduler
+            : Executors.newSingleThreadScheduledExecutor(
+                r -> {
+                  Thread thread = new Thread(r, "vinyldns-batch-watcher");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+  }
+
+  /**
+   * Starts watching a batch change, or returns the future of an existing watch of the same batch.
+   * The first poll happens after the initial delay.
+   */
+  public CompletableFuture<BatchResponse> watch(String batchId) {
+    Watch watch;
+    synchronized (this) {
+      if (closed) {
+        throw new IllegalStateException("watcher is closed");
+      }
+      watch = watches.get(batchId);
+      if (watch != null) {
+        return watch.future;
+      }
+      watch = new Watch(batchId, System.nanoTime() + initialDelayNanos);
+      watches.put(batchId, watch);
+      scheduleTick(watch.nextPollAt);
+    }
+
+    Watch added = watch;
+    watch.future.whenComplete((response, error) -> watches.remove(batchId, added));
+    return watch.future;
+  }
+
+  /** Number of batches still being watched. */
+  public int getWatchedCount() {
+    return watches.size();
+  }
+
+  /**
+   * Stops polling. Futures of batches that have not finished are cancelled, and a private scheduler
+   * is shut down.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      if (nextTick != null) {
+        nextTick.cancel(false);
+      }
+    }
+    for (Watch watch : new ArrayList<>(watches.values())) {
+      watch.future.cancel(false);
+    }
+    if (ownsScheduler) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private synchronized void scheduleTick(long at) {
+    if (closed) {
+      return;
+    }
+    if (nextTick != null && !nextTick.isDone() && nextTickAt - at <= 0) {
+      return;
+    }
+    if (nextTick != null) {
+      nextTick.cancel(false);
+    }
+    nextTickAt = at;
+    nextTick = scheduler.schedule(this::tick, at - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  private void tick() {
+    long now = System.nanoTime();
+    List<Watch> due = new ArrayList<>();
+    // nanoTime values may wrap, so they are only compared by their difference
+    boolean waiting = false;
+    long earliest = 0;
+
+    synchronized (this) {
+      nextTick = null;
+      for (Watch watch : watches.values()) {
+        if (watch.inFlight || watch.future.isDone()) {
+          continue;
+        }
+        if (watch.nextPollAt - now <= 0) {
+          watch.inFlight = true;
+          due.add(watch);
+        } else if (!waiting || watch.nextPollAt - earliest < 0) {
+          earliest = watch.nextPollAt;
+          waiting = true;
+        }
+      }
+      if (waiting) {
+        scheduleTick(earliest);
+      }
+    }
+
+    for (Watch watch : due) {
+      try {
+        scheduler.execute(() -> poll(watch));
+      } catch (RuntimeException e) {
+        watch.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private void poll(Watch watch) {
+    boolean progressed = false;
+    try {
+      VinylDNSResponse<BatchResponse> response = client.getBatchChanges(watch.batchId);
+      if (response instanceof ResponseMarker.Success) {
+        BatchResponse batch = response.getValue();
+        if (isFinished(batch)) {
+          watch.future.complete(batch);
+          return;
+        }
+        int finished = countFinished(batch);
+        progressed = finished > watch.finishedChanges;
+        watch.finishedChanges = finished;
+      } else if (response.getStatusCode() < 500) {
+        watch.future.completeExceptionally(new VinylDNSException(response));
+        return;
+      }
+    } catch (RuntimeException e) {
+      // Treated like a server error: try again after the next delay.
+    }
+
+    synchronized (this) {
+      watch.delayNanos =
+          progressed ? initialDelayNanos : Math.min(watch.delayNanos * 2, maxDelayNanos);
+      watch.nextPollAt = System.nanoTime() + watch.delayNanos;
+      watch.inFlight = false;
+      scheduleTick(watch.nextPollAt);
+    }
+  }
+
+  private static boolean isFinished(BatchResponse batch) {
+    if (batch == null || !TERMINAL.contains(batch.getStatus())) {
+      return false;
+    }
+    if (batch.getChanges() != null) {
+      for (SingleChange change : batch.getChanges()) {
+        if (change.getStatus() == SingleChangeStatus.Pending) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static int countFinished(BatchResponse batch) {
+    int finished = 0;
+    if (batch != null && batch.getChanges() != null) {
+      for (SingleChange change : batch.getChanges()) {
+        if (change.getStatus() != null
+            && change.getStatus() != SingleChangeStatus.Pending
+            && change.getStatus() != SingleChangeStatus.NeedsReview) {
+          finished++;
+        }
+      }
+    }
+    return finished;
+  }
+
+  private final class Watch {
+    private final String batchId;
+    private final CompletableFuture<BatchResponse> future = new CompletableFuture<>();
+    private long delayNanos = initialDelayNanos;
+    private long nextPollAt;
+    private boolean inFlight;
+    private int finishedChanges;
+
+    private Watch(String batchId, long nextPollAt) {
+      this.batchId = batchId;
+      this.nextPollAt = nextPollAt;
+    }
+  }
+}
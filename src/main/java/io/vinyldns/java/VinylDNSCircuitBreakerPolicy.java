@@ -0,0 +1,167 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+/**
+ * Settings for circuit breakers that fail requests locally while the API is failing or slow.
+ *
+ * <p>A closed breaker records the outcome of the last {@link #getWindowSize()} requests. Once at
+ * least {@link #getMinimumCalls()} are recorded and the share that failed with a 5xx or an I/O
+ * error reaches {@link #getFailureRateThreshold()}, or the share slower than {@link
+ * #getSlowCallDurationMillis()} reaches {@link #getSlowCallRateThreshold()}, the breaker opens.
+ * While open, requests return a {@link io.vinyldns.java.responses.VinylDNSFailureResponse} with
+ * status 503 without being sent. After {@link #getOpenMillis()} the breaker is half-open and lets
+ * {@link #getHalfOpenCalls()} requests through; it closes if they stay below both thresholds and
+ * opens again otherwise.
+ *
+ * <p>With several base URLs, a request whose breaker is open is sent to another endpoint if it may
+ * be resent, as with {@link VinylDNSLoadBalancingPolicy failover}.
+ */
+public class VinylDNSCircuitBreakerPolicy {
+  public enum Scope {
+    /** One breaker per base URL. */
+    ENDPOINT,
+    /** One breaker per {@link VinylDNSClient} method, shared by all base URLs. */
+    OPERATION
+  }
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  /** Notified when a breaker changes state, on the thread whose request caused the change. */
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * @param name the base URL or the operation the breaker guards, depending on the {@link Scope}
+     */
+    void stateChanged(String name, State from, State to);
+  }
+
+  private Scope scope = Scope.ENDPOINT;
+
+  private double failureRateThreshold = 0.5;
+
+  private double slowCallRateThreshold = 0.8;
+
+  private long slowCallDurationMillis = 10_000;
+
+  private int windowSize = 100;
+
+  private int minimumCalls = 20;
+
+  private long openMillis = 30_000;
+
+  private int halfOpenCalls = 5;
+
+  private Listener listener;
+
+  public Scope getScope() {
+    return scope;
+  }
+
+  public void setScope(Scope scope) {
+    this.scope = scope;
+  }
+
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  public void setFailureRateThreshold(double failureRateThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+  }
+
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+    this.slowCallRateThreshold = slowCallRateThreshold;
+  }
+
+  public long getSlowCallDurationMillis() {
+    return slowCallDurationMillis;
+  }
+
+  public void setSlowCallDurationMillis(long slowCallDurationMillis) {
+    this.slowCallDurationMillis = slowCallDurationMillis;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  /** Values above the {@link #getWindowSize() window size} count as the window size. */
+  public void setMinimumCalls(int minimumCalls) {
+    this.minimumCalls = minimumCalls;
+  }
+
+  public long getOpenMillis() {
+    return openMillis;
+  }
+
+  public void setOpenMillis(long openMillis) {
+    this.openMillis = openMillis;
+  }
+
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  /** Values above the {@link #getWindowSize() window size} count as the window size. */
+  public void setHalfOpenCalls(int halfOpenCalls) {
+    this.halfOpenCalls = halfOpenCalls;
+  }
+
+  public Listener getListener() {
+    return listener;
+  }
+
+  public void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSCircuitBreakerPolicy{"
+        + "scope="
+        + scope
+        + ", failureRateThreshold="
+        + failureRateThreshold
+        + ", slowCallRateThreshold="
+        + slowCallRateThreshold
+        + ", slowCallDurationMillis="
+        + slowCallDurationMillis
+        + ", windowSize="
+        + windowSize
+        + ", minimumCalls="
+        + minimumCalls
+        + ", openMillis="
+        + openMillis
+        + ", halfOpenCalls="
+        + halfOpenCalls
+        + '}';
+  }
+}
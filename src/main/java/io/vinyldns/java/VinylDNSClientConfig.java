@@ -15,29 +15,82 @@ package io.vinyldns.java;
 
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.Signer;
-import com.amazonaws.auth.SignerFactory;
+import io.vinyldns.java.metrics.VinylDNSInstrumentation;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 public class VinylDNSClientConfig {
   private String baseUrl;
 
+  private List<String> baseUrls;
+
   private AWSCredentials credentials;
 
   private Signer signer;
 
+  private VinylDNSTransportConfig transportConfig = new VinylDNSTransportConfig();
+
+  private VinylDNSTransport transport;
+
+  private boolean retainResponseBody = false;
+
+  private VinylDNSInstrumentation instrumentation;
+
+  private VinylDNSRetryPolicy retryPolicy = new VinylDNSRetryPolicy();
+
+  private Map<VinylDNSOperationClass, VinylDNSRateLimiter> rateLimiters =
+      new EnumMap<>(VinylDNSOperationClass.class);
+
+  private long rateLimitTimeoutMillis = -1;
+
+  private VinylDNSConcurrencyLimit concurrencyLimit;
+
+  private VinylDNSHedgingPolicy hedgingPolicy;
+
+  private VinylDNSLoadBalancingPolicy loadBalancingPolicy = new VinylDNSLoadBalancingPolicy();
+
+  private VinylDNSCircuitBreakerPolicy circuitBreakerPolicy;
+
   public VinylDNSClientConfig(String baseUrl, AWSCredentials credentials, Signer signer) {
-    this.baseUrl = baseUrl;
+    this(Collections.singletonList(baseUrl), credentials, signer);
+  }
+
+  /**
+   * Spreads requests over several VinylDNS API instances, as set out by the {@link
+   * #setLoadBalancingPolicy(VinylDNSLoadBalancingPolicy) load balancing policy}.
+   */
+  public VinylDNSClientConfig(List<String> baseUrls, AWSCredentials credentials, Signer signer) {
+    if (baseUrls.isEmpty()) {
+      throw new IllegalArgumentException("at least one base URL is required");
+    }
+
+    this.baseUrl = baseUrls.get(0);
+    this.baseUrls = Collections.unmodifiableList(new ArrayList<>(baseUrls));
     this.credentials = credentials;
     this.signer = signer;
   }
 
+  public VinylDNSClientConfig(List<String> baseUrls, AWSCredentials credentials) {
+    this(baseUrls, credentials, new VinylDNSSigner());
+  }
+
   public VinylDNSClientConfig(String baseUrl, AWSCredentials credentials) {
-    this(baseUrl, credentials, SignerFactory.getSigner("VinylDNS", "us/east"));
+    this(baseUrl, credentials, new VinylDNSSigner());
   }
 
+  /** The first of {@link #getBaseUrls()}. */
   public String getBaseUrl() {
     return baseUrl;
   }
 
+  public List<String> getBaseUrls() {
+    return baseUrls;
+  }
+
   public AWSCredentials getCredentials() {
     return credentials;
   }
@@ -45,4 +98,143 @@ public class VinylDNSClientConfig {
   public Signer getSigner() {
     return signer;
   }
+
+  public VinylDNSTransportConfig getTransportConfig() {
+    return transportConfig;
+  }
+
+  /**
+   * Sets the connection pool and socket settings. Must be set before the config is handed to a
+   * client, which reads it once on construction.
+   */
+  public void setTransportConfig(VinylDNSTransportConfig transportConfig) {
+    this.transportConfig = transportConfig;
+  }
+
+  public VinylDNSTransport getTransport() {
+    return transport;
+  }
+
+  /**
+   * Sets the HTTP engine of {@link VinylDNSClientImpl}. Null, the default, uses the AWS SDK's
+   * engine configured by {@link #setTransportConfig(VinylDNSTransportConfig)}; another transport is
+   * configured on its own and closed by the caller. {@link VinylDNSAsyncClientImpl} always uses its
+   * non-blocking engine.
+   */
+  public void setTransport(VinylDNSTransport transport) {
+    this.transport = transport;
+  }
+
+  public boolean isRetainResponseBody() {
+    return retainResponseBody;
+  }
+
+  /**
+   * When enabled, successful responses are buffered into a String and exposed through {@link
+   * io.vinyldns.java.responses.VinylDNSResponse#getMessageBody()}. By default the body is
+   * deserialized directly from the connection and {@code getMessageBody()} is null for successful
+   * responses; failure responses always carry their body.
+   */
+  public void setRetainResponseBody(boolean retainResponseBody) {
+    this.retainResponseBody = retainResponseBody;
+  }
+
+  public VinylDNSInstrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  /**
+   * Reports timings, payload sizes and connection pool usage of every request to {@code
+   * instrumentation}. Null, the default, disables measurement entirely.
+   */
+  public void setInstrumentation(VinylDNSInstrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  public VinylDNSRetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  /**
+   * Sets when failed requests are retried; {@link VinylDNSRetryPolicy#none()} or null disables
+   * retries. Read once when a client is constructed.
+   */
+  public void setRetryPolicy(VinylDNSRetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  public Map<VinylDNSOperationClass, VinylDNSRateLimiter> getRateLimiters() {
+    return rateLimiters;
+  }
+
+  /**
+   * Limits the rate of requests of one operation class, including retries. The limiter may be
+   * shared with other clients to enforce one quota across them. Read once when a client is
+   * constructed.
+   */
+  public void setRateLimiter(
+      VinylDNSOperationClass operationClass, VinylDNSRateLimiter rateLimiter) {
+    this.rateLimiters.put(operationClass, rateLimiter);
+  }
+
+  public long getRateLimitTimeoutMillis() {
+    return rateLimitTimeoutMillis;
+  }
+
+  /**
+   * How long a request may wait for a rate limit permit. A request that would wait longer is not
+   * sent and gets a {@link io.vinyldns.java.responses.VinylDNSFailureResponse} with status 429
+   * instead. 0 rejects immediately; the default of -1 waits as long as necessary.
+   */
+  public void setRateLimitTimeoutMillis(long rateLimitTimeoutMillis) {
+    this.rateLimitTimeoutMillis = rateLimitTimeoutMillis;
+  }
+
+  public VinylDNSConcurrencyLimit getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  /**
+   * Adapts the number of requests in flight to how the server copes with them. Null, the default,
+   * leaves it unbounded apart from the connection pool. Read once when a client is constructed.
+   */
+  public void setConcurrencyLimit(VinylDNSConcurrencyLimit concurrencyLimit) {
+    this.concurrencyLimit = concurrencyLimit;
+  }
+
+  public VinylDNSHedgingPolicy getHedgingPolicy() {
+    return hedgingPolicy;
+  }
+
+  /**
+   * Sends a second copy of GET requests that are slower than usual. Null, the default, disables
+   * hedging. Read once when a client is constructed.
+   */
+  public void setHedgingPolicy(VinylDNSHedgingPolicy hedgingPolicy) {
+    this.hedgingPolicy = hedgingPolicy;
+  }
+
+  public VinylDNSLoadBalancingPolicy getLoadBalancingPolicy() {
+    return loadBalancingPolicy;
+  }
+
+  /**
+   * Sets how requests are spread over the base URLs and when an instance is taken out of rotation.
+   * Has no effect with a single base URL. Read once when a client is constructed.
+   */
+  public void setLoadBalancingPolicy(VinylDNSLoadBalancingPolicy loadBalancingPolicy) {
+    this.loadBalancingPolicy = loadBalancingPolicy;
+  }
+
+  public VinylDNSCircuitBreakerPolicy getCircuitBreakerPolicy() {
+    return circuitBreakerPolicy;
+  }
+
+  /**
+   * Fails requests locally while the API keeps failing or is slow. Null, the default, disables
+   * circuit breaking. Read once when a client is constructed.
+   */
+  public void setCircuitBreakerPolicy(VinylDNSCircuitBreakerPolicy circuitBreakerPolicy) {
+    this.circuitBreakerPolicy = circuitBreakerPolicy;
+  }
 }
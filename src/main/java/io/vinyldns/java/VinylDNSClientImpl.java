@@ -13,18 +13,15 @@
  */
 package io.vinyldns.java;
 
+import com.amazonaws.AbortedException;
 import com.amazonaws.AmazonServiceException;
-import com.amazonaws.ClientConfiguration;
-import com.amazonaws.DefaultRequest;
 import com.amazonaws.Request;
-import com.amazonaws.Response;
+import com.amazonaws.SdkClientException;
 import com.amazonaws.auth.BasicAWSCredentials;
-import com.amazonaws.auth.SignerFactory;
-import com.amazonaws.http.AmazonHttpClient;
+import com.amazonaws.http.ExecutionContext;
+import com.amazonaws.util.IOUtils;
 import com.google.gson.Gson;
-import io.vinyldns.java.handlers.ErrorResponseHandler;
-import io.vinyldns.java.handlers.StringResponseHandler;
-import io.vinyldns.java.model.Methods;
+import io.vinyldns.java.handlers.JsonResponseHandler;
 import io.vinyldns.java.model.batch.*;
 import io.vinyldns.java.model.membership.*;
 import io.vinyldns.java.model.record.set.*;
@@ -33,20 +30,61 @@ import io.vinyldns.java.responses.VinylDNSFailureResponse;
 import io.vinyldns.java.responses.VinylDNSResponse;
 import io.vinyldns.java.responses.VinylDNSSuccessResponse;
 import io.vinyldns.java.serializers.SerializationFactory;
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSHttpResponse;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class VinylDNSClientImpl implements VinylDNSClient {
   private VinylDNSClientConfig config;
 
-  private AmazonHttpClient client;
+  private VinylDNSTransport transport;
+
+  private Retries retries;
+
+  private RateLimits rateLimits;
+
+  private ConcurrencyLimiter concurrencyLimiter;
+
+  private Hedging hedging;
+
+  Endpoints endpoints;
+
+  CircuitBreakers circuitBreakers;
+
+  /** Runs hedged requests; created on the first one. */
+  private ExecutorService hedgeExecutor;
 
   Gson gson = SerializationFactory.createGson();
 
   public VinylDNSClientImpl(VinylDNSClientConfig config) {
     this.config = config;
 
-    this.client = new AmazonHttpClient(new ClientConfiguration());
+    this.transport =
+        this.config.getTransport() != null
+            ? this.config.getTransport()
+            : new AmazonHttpTransport(this.config.getTransportConfig());
+    this.retries = new Retries(this.config.getRetryPolicy());
+    this.rateLimits = new RateLimits(this.config);
+    this.concurrencyLimiter = new ConcurrencyLimiter(this.config.getConcurrencyLimit());
+    this.hedging = new Hedging(this.config.getHedgingPolicy());
+    this.endpoints = new Endpoints(this.config.getBaseUrls(), this.config.getLoadBalancingPolicy());
+    this.circuitBreakers = new CircuitBreakers(this.config.getCircuitBreakerPolicy());
   }
 
   public VinylDNSClientImpl() {
@@ -56,435 +94,487 @@ public class VinylDNSClientImpl implements VinylDNSClient {
             new BasicAWSCredentials(
                 System.getenv("VINYLDNS_ACCESS_KEY_ID"),
                 System.getenv("VINYLDNS_SECRET_ACCESS_KEY")),
-            SignerFactory.getSigner("VinylDNS", "us/east"));
+            new VinylDNSSigner());
 
-    this.client = new AmazonHttpClient(new ClientConfiguration());
+    this.transport =
+        this.config.getTransport() != null
+            ? this.config.getTransport()
+            : new AmazonHttpTransport(this.config.getTransportConfig());
+    this.retries = new Retries(this.config.getRetryPolicy());
+    this.rateLimits = new RateLimits(this.config);
+    this.concurrencyLimiter = new ConcurrencyLimiter(this.config.getConcurrencyLimit());
+    this.hedging = new Hedging(this.config.getHedgingPolicy());
+    this.endpoints = new Endpoints(this.config.getBaseUrls(), this.config.getLoadBalancingPolicy());
+    this.circuitBreakers = new CircuitBreakers(this.config.getCircuitBreakerPolicy());
   }
 
   // Zone
   @Override
   public VinylDNSResponse<ListZonesResponse> listZones(ListZonesRequest request) {
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), "zones", null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    if (request.getNameFilter() != null) {
-      vinylDNSRequest.addParameter("nameFilter", request.getNameFilter());
-    }
-
-    return executeRequest(vinylDNSRequest, ListZonesResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listZones(getBaseUrl(), request), ListZonesResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ZoneResponse> createZone(Zone zone) {
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), "zones", zone),
-        ZoneResponse.class);
+        VinylDNSRequestFactory.createZone(getBaseUrl(), zone), ZoneResponse.class);
   }
 
   @Override
   public VinylDNSResponse<GetZoneResponse> getZone(ZoneRequest request) {
-    String path = "zones/" + request.getZoneId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null), GetZoneResponse.class);
+        VinylDNSRequestFactory.getZone(getBaseUrl(), request), GetZoneResponse.class);
   }
 
   @Override
   public VinylDNSResponse<GetZoneResponse> getZoneByName(String zoneName) {
-    String path = "zones/name/" + zoneName;
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null), GetZoneResponse.class);
+        VinylDNSRequestFactory.getZoneByName(getBaseUrl(), zoneName), GetZoneResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ZoneResponse> updateZone(Zone zone) {
-    String path = "zones/" + zone.getId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.PUT.name(), getBaseUrl(), path, zone), ZoneResponse.class);
+        VinylDNSRequestFactory.updateZone(getBaseUrl(), zone), ZoneResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ZoneResponse> deleteZone(ZoneRequest request) {
-    String path = "zones/" + request.getZoneId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.DELETE.name(), getBaseUrl(), path, null), ZoneResponse.class);
+        VinylDNSRequestFactory.deleteZone(getBaseUrl(), request), ZoneResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ListZoneChangesResponse> listZoneChanges(ListZoneChangesRequest request) {
-    String path = "zones/" + request.getZoneId() + "/changes";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListZoneChangesResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listZoneChanges(getBaseUrl(), request),
+        ListZoneChangesResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ZoneResponse> syncZone(ZoneRequest request) {
-    String path = "zones/" + request.getZoneId() + "/sync";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, null), ZoneResponse.class);
+        VinylDNSRequestFactory.syncZone(getBaseUrl(), request), ZoneResponse.class);
   }
 
   // RecordSet
   @Override
   public VinylDNSResponse<ListRecordSetsResponse> listRecordSets(ListRecordSetsRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsets";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    if (request.getRecordNameFilter() != null) {
-      vinylDNSRequest.addParameter("recordNameFilter", request.getRecordNameFilter());
-    }
-
-    return executeRequest(vinylDNSRequest, ListRecordSetsResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listRecordSets(getBaseUrl(), request), ListRecordSetsResponse.class);
   }
 
+  // Groups
   @Override
   public VinylDNSResponse<Group> getGroup(GetGroupRequest request) {
-    String path = "groups/" + request.getId();
-    return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null), Group.class);
+    return executeRequest(VinylDNSRequestFactory.getGroup(getBaseUrl(), request), Group.class);
   }
 
   @Override
   public VinylDNSResponse<Group> createGroup(CreateGroupRequest request) {
-    return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), "groups", request), Group.class);
+    return executeRequest(VinylDNSRequestFactory.createGroup(getBaseUrl(), request), Group.class);
   }
 
   @Override
   public VinylDNSResponse<Group> updateGroup(UpdateGroupRequest request) {
-    String path = "groups/" + request.getGroupId();
-    return executeRequest(
-        new VinylDNSRequest<>(Methods.PUT.name(), getBaseUrl(), path, request), Group.class);
+    return executeRequest(VinylDNSRequestFactory.updateGroup(getBaseUrl(), request), Group.class);
   }
 
   @Override
   public VinylDNSResponse<Group> deleteGroup(DeleteGroupRequest request) {
-    String path = "/groups/" + request.getId();
-    return executeRequest(
-        new VinylDNSRequest<>(Methods.DELETE.name(), getBaseUrl(), path, null), Group.class);
+    return executeRequest(VinylDNSRequestFactory.deleteGroup(getBaseUrl(), request), Group.class);
   }
 
   @Override
   public VinylDNSResponse<ListGroupsResponse> listGroups(ListGroupsRequest request) {
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), "groups", null);
-
-    if (request.getGroupNameFilter() != null) {
-      vinylDNSRequest.addParameter("groupNameFilter", request.getGroupNameFilter());
-    }
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListGroupsResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listGroups(getBaseUrl(), request), ListGroupsResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ListAdminsResponse> listAdmins(String groupId) {
-    String path = "groups/" + groupId + "/admins";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null),
-        ListAdminsResponse.class);
+        VinylDNSRequestFactory.listAdmins(getBaseUrl(), groupId), ListAdminsResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ListMembersResponse> listMembers(ListMembersRequest request) {
-    String path = "groups/" + request.getGroupId() + "/members";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListMembersResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listMembers(getBaseUrl(), request), ListMembersResponse.class);
   }
 
   @Override
   public VinylDNSResponse<ListGroupActivityResponse> listGroupActivity(
       ListGroupActivityRequest request) {
-    String path = "groups/" + request.getGroupId() + "/activity";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListGroupActivityResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listGroupActivity(getBaseUrl(), request),
+        ListGroupActivityResponse.class);
   }
 
   @Override
   public VinylDNSResponse<RecordSetChange> createRecordSet(CreateRecordSetRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsets";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, request),
-        RecordSetChange.class);
+        VinylDNSRequestFactory.createRecordSet(getBaseUrl(), request), RecordSetChange.class);
   }
 
   @Override
   public VinylDNSResponse<GetRecordSetResponse> getRecordSet(GetRecordSetRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getRecordSetId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null),
-        GetRecordSetResponse.class);
+        VinylDNSRequestFactory.getRecordSet(getBaseUrl(), request), GetRecordSetResponse.class);
   }
 
   @Override
   public VinylDNSResponse<RecordSetChange> updateRecordSet(UpdateRecordSetRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.PUT.name(), getBaseUrl(), path, request),
-        RecordSetChange.class);
+        VinylDNSRequestFactory.updateRecordSet(getBaseUrl(), request), RecordSetChange.class);
   }
 
   @Override
   public VinylDNSResponse<RecordSetChange> deleteRecordSet(DeleteRecordSetRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getRecordSetId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.DELETE.name(), getBaseUrl(), path, null),
-        RecordSetChange.class);
+        VinylDNSRequestFactory.deleteRecordSet(getBaseUrl(), request), RecordSetChange.class);
   }
 
   @Override
   public VinylDNSResponse<ListRecordSetChangesResponse> listRecordSetChanges(
       ListRecordSetChangesRequest request) {
-    String path = "zones/" + request.getZoneId() + "/recordsetchanges";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListRecordSetChangesResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listRecordSetChanges(getBaseUrl(), request),
+        ListRecordSetChangesResponse.class);
   }
 
   @Override
   public VinylDNSResponse<RecordSetChange> getRecordSetChange(GetRecordSetChangeRequest request) {
-    String path =
-        "zones/"
-            + request.getZoneId()
-            + "/recordsets/"
-            + request.getRecordSetId()
-            + "/changes/"
-            + request.getRecordSetChangeId();
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null), RecordSetChange.class);
+        VinylDNSRequestFactory.getRecordSetChange(getBaseUrl(), request), RecordSetChange.class);
   }
 
+  // Batch
   @Override
   public VinylDNSResponse<ListBatchChangesResponse> listBatchChanges(
       ListBatchChangesRequest request) {
-    String path = "zones/batchrecordchanges";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
-
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
-    }
-
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
-    }
-
-    if (request.getIgnoreAccess() != null) {
-      vinylDNSRequest.addParameter("ignoreAccess", request.getIgnoreAccess().toString());
-    }
-
-    if (request.getApprovalStatus() != null) {
-      vinylDNSRequest.addParameter("approvalStatus", request.getApprovalStatus().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, ListBatchChangesResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.listBatchChanges(getBaseUrl(), request),
+        ListBatchChangesResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> getBatchChanges(String id) {
-    String path = "zones/batchrecordchanges/" + id;
     return executeRequest(
-        new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null), BatchResponse.class);
+        VinylDNSRequestFactory.getBatchChanges(getBaseUrl(), id), BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> createBatchChanges(CreateBatchRequest request) {
-    String path = "zones/batchrecordchanges";
-
-    VinylDNSRequest<CreateBatchRequest> vinylDNSRequest =
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, request);
-
-    if (request.getAllowManualReview() != null) {
-      vinylDNSRequest.addParameter("allowManualReview", request.getAllowManualReview().toString());
-    }
-
-    return executeRequest(vinylDNSRequest, BatchResponse.class);
+    return executeRequest(
+        VinylDNSRequestFactory.createBatchChanges(getBaseUrl(), request), BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> approveBatchChanges(String id) {
-    String path = "zones/batchrecordchanges/" + id + "/approve";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, null), BatchResponse.class);
+        VinylDNSRequestFactory.approveBatchChanges(getBaseUrl(), id, null), BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> approveBatchChanges(String id, String reviewComment) {
-    String path = "zones/batchrecordchanges/" + id + "/approve";
     return executeRequest(
-        new VinylDNSRequest<>(
-            Methods.POST.name(), getBaseUrl(), path, new BatchChangeReview(reviewComment)),
+        VinylDNSRequestFactory.approveBatchChanges(
+            getBaseUrl(), id, new BatchChangeReview(reviewComment)),
         BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> rejectBatchChanges(String id) {
-    String path = "zones/batchrecordchanges/" + id + "/reject";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, null), BatchResponse.class);
+        VinylDNSRequestFactory.rejectBatchChanges(getBaseUrl(), id, null), BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> rejectBatchChanges(String id, String reviewComment) {
-    String path = "zones/batchrecordchanges/" + id + "/reject";
     return executeRequest(
-        new VinylDNSRequest<>(
-            Methods.POST.name(), getBaseUrl(), path, new BatchChangeReview(reviewComment)),
+        VinylDNSRequestFactory.rejectBatchChanges(
+            getBaseUrl(), id, new BatchChangeReview(reviewComment)),
         BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<BatchResponse> cancelBatchChanges(String id) {
-    String path = "zones/batchrecordchanges/" + id + "/cancel";
     return executeRequest(
-        new VinylDNSRequest<>(Methods.POST.name(), getBaseUrl(), path, null), BatchResponse.class);
+        VinylDNSRequestFactory.cancelBatchChanges(getBaseUrl(), id), BatchResponse.class);
   }
 
   @Override
   public VinylDNSResponse<SearchRecordSetsResponse> searchRecordSets(
-          SearchRecordSetsRequest request) {
-    String path = "recordsets";
-
-    VinylDNSRequest<Void> vinylDNSRequest =
-            new VinylDNSRequest<>(Methods.GET.name(), getBaseUrl(), path, null);
+      SearchRecordSetsRequest request) {
+    return executeRequest(
+        VinylDNSRequestFactory.searchRecordSets(getBaseUrl(), request),
+        SearchRecordSetsResponse.class);
+  }
 
-    if (request.getStartFrom() != null) {
-      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+  private <S, R> VinylDNSResponse<R> executeRequest(VinylDNSRequest<S> req, Class<R> responseType) {
+    if (!hedging.isHedged(req)) {
+      return executeWithRetries(req, responseType);
     }
 
-    if (request.getMaxItems() != null) {
-      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    long delay = hedging.delayNanos(req.getOperation());
+    if (delay < 0) {
+      return executeTimed(req, responseType);
     }
 
-    if (request.getRecordNameFilter() != null) {
-      vinylDNSRequest.addParameter("recordNameFilter", request.getRecordNameFilter());
-    }
+    CompletionService<VinylDNSResponse<R>> completion =
+        new ExecutorCompletionService<>(hedgeExecutor());
+    List<Future<VinylDNSResponse<R>>> requests = new ArrayList<>(2);
+    requests.add(completion.submit(() -> executeTimed(req, responseType)));
 
-    if (request.getNameSort() != null) {
-      vinylDNSRequest.addParameter( "nameSort", request.getNameSort().name());
+    try {
+      Future<VinylDNSResponse<R>> first = completion.poll(delay, TimeUnit.NANOSECONDS);
+      if (first == null && hedging.tryHedge()) {
+        requests.add(completion.submit(() -> executeTimed(req, responseType)));
+      }
+
+      // the first success wins; otherwise the outcome of the last one to finish
+      VinylDNSResponse<R> response = null;
+      Throwable error = null;
+      for (int i = 0; i < requests.size(); i++) {
+        Future<VinylDNSResponse<R>> done = i == 0 && first != null ? first : completion.take();
+        try {
+          response = done.get();
+          error = null;
+          if (response instanceof VinylDNSSuccessResponse) {
+            return response;
+          }
+        } catch (ExecutionException e) {
+          error = e.getCause();
+        }
+      }
+
+      if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      } else if (error instanceof Error) {
+        throw (Error) error;
+      } else if (error != null) {
+        throw new SdkClientException(error);
+      }
+      return response;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AbortedException(e);
+    } finally {
+      for (Future<VinylDNSResponse<R>> request : requests) {
+        request.cancel(true);
+      }
     }
+  }
 
-    if (request.getRecordOwnerGroupFilter() != null) {
-      vinylDNSRequest.addParameter( "recordOwnerGroupFilter",
-                                    request.getRecordOwnerGroupFilter());
+  /** Whether an attempt ended because its thread was interrupted, as a losing hedge is. */
+  private static boolean isInterrupted(SdkClientException error) {
+    if (Thread.currentThread().isInterrupted() || error instanceof AbortedException) {
+      return true;
     }
+    for (Throwable t = error; t != null; t = t.getCause()) {
+      if (t instanceof InterruptedException
+          || (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException))) {
+        return true;
+      }
+    }
+    return false;
+  }
 
-    return executeRequest(vinylDNSRequest, SearchRecordSetsResponse.class);
+  /** Executes the request, recording its latency for hedging if it succeeds. */
+  private <S, R> VinylDNSResponse<R> executeTimed(VinylDNSRequest<S> req, Class<R> responseType) {
+    long start = System.nanoTime();
+    VinylDNSResponse<R> response = executeWithRetries(req, responseType);
+    if (response instanceof VinylDNSSuccessResponse) {
+      hedging.record(req.getOperation(), System.nanoTime() - start);
+    }
+    return response;
+  }
+
+  private synchronized ExecutorService hedgeExecutor() {
+    if (hedgeExecutor == null) {
+      hedgeExecutor =
+          Executors.newCachedThreadPool(
+              r -> {
+                Thread thread = new Thread(r, "vinyldns-hedge");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return hedgeExecutor;
   }
 
-  private <S, R> VinylDNSResponse<R> executeRequest(VinylDNSRequest<S> req, Class<R> responseType) {
-    Request<String> request = new DefaultRequest<>("VinylDNS");
-    request.setEndpoint(req.getEndpoint());
-    request.setResourcePath(req.getResourcePath());
-    request.setHttpMethod(req.getHttpMethod());
-    request.setHeaders(req.getHeaders());
-    request.setParameters(req.getParameters());
+  private <S, R> VinylDNSResponse<R> executeWithRetries(
+      VinylDNSRequest<S> req, Class<R> responseType) {
+    Set<Endpoints.Endpoint> tried = new HashSet<>();
 
-    request.addHeader("Content-Type", "application/json");
+    for (int attempt = 1; ; ) {
+      VinylDNSResponse<R> failure = null;
+      RuntimeException error = null;
+      int statusCode = 0;
+      String retryAfter = null;
 
-    if (req.getPayload() != null) {
-      String content = gson.toJson(req.getPayload());
+      if (!rateLimits.acquire(req)) {
+        return RateLimits.rejected(req);
+      }
+      if (!concurrencyLimiter.acquire()) {
+        return ConcurrencyLimiter.shed();
+      }
 
+      Endpoints.Endpoint endpoint = endpoints.acquire(tried);
+      CircuitBreakers.Breaker breaker = circuitBreakers.get(req, endpoint);
+      if (!breaker.tryAcquire()) {
+        endpoints.cancel(endpoint);
+        concurrencyLimiter.release();
+        tried.add(endpoint);
+        if (retries.isResendable(req) && endpoints.canFailover(tried)) {
+          continue;
+        }
+        return CircuitBreakers.open(breaker);
+      }
+
+      long sent = System.nanoTime();
+      boolean answered = false;
+      boolean overloaded = false;
+      boolean endpointFailed = false;
       try {
-        request.setContent(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
-      } catch (Exception e) {
-        throw new RuntimeException(e);
+        VinylDNSResponse<R> response = executeAttempt(req, responseType, endpoint.getUri());
+        answered = true;
+        retries.succeeded();
+        return response;
+      } catch (AmazonServiceException e) {
+        answered = true;
+        statusCode = e.getStatusCode();
+        retryAfter = Retries.retryAfter(e.getHttpHeaders());
+        overloaded = ConcurrencyLimiter.isOverload(statusCode, null);
+        endpointFailed = Endpoints.isFailure(statusCode, null);
+        failure = new VinylDNSFailureResponse<>(e.getRawResponseContent(), statusCode);
+      } catch (SdkClientException e) {
+        if (isInterrupted(e)) {
+          // a cancelled hedge: the endpoint did nothing wrong, and the caller no longer waits
+          throw e;
+        }
+        answered = true;
+        overloaded = ConcurrencyLimiter.isOverload(0, e);
+        endpointFailed = Endpoints.isFailure(0, e);
+        error = e;
+      } finally {
+        if (answered) {
+          long elapsed = System.nanoTime() - sent;
+          breaker.record(endpointFailed, elapsed);
+          endpoints.release(endpoint, endpointFailed);
+          concurrencyLimiter.release(req.getOperation(), elapsed, overloaded);
+        } else {
+          // the request could not be built, was interrupted or its response could not be read
+          breaker.cancel();
+          endpoints.cancel(endpoint);
+          concurrencyLimiter.release();
+        }
+      }
+
+      tried.add(endpoint);
+      if (endpointFailed && retries.isResendable(req) && endpoints.canFailover(tried)) {
+        // another endpoint right away; this does not count as a retry
+        continue;
       }
+
+      long delay = retries.delayBeforeRetry(req, attempt, statusCode, retryAfter, error);
+      if (delay == Retries.NO_RETRY || !sleep(delay)) {
+        if (error != null) {
+          throw error;
+        }
+        return failure;
+      }
+      attempt++;
     }
+  }
 
-    config.getSigner().sign(request, config.getCredentials());
+  /** Executes the request once; failure responses are thrown as {@link AmazonServiceException}. */
+  private <S, R> VinylDNSResponse<R> executeAttempt(
+      VinylDNSRequest<S> req, Class<R> responseType, URI endpoint) {
+    MetricsRecorder recorder = MetricsRecorder.start(config, req);
+    ExecutionContext context =
+        transport instanceof AmazonHttpTransport ? recorder.executionContext() : null;
 
+    Request<String> request = null;
     try {
-      Response<String> response =
-          client
-              .requestExecutionBuilder()
-              .errorResponseHandler(new ErrorResponseHandler())
-              .request(request)
-              .execute(new StringResponseHandler());
-
-      int statusCode = response.getHttpResponse().getStatusCode();
-      String messageBody = response.getAwsResponse();
-
-      if (statusCode / 100 * 100 == 200) {
-        R responseObject = gson.fromJson(messageBody, responseType);
-
-        return new VinylDNSSuccessResponse<>(responseObject, messageBody, statusCode);
-      } else {
-        return new VinylDNSFailureResponse<>(messageBody, statusCode);
+      request = VinylDNSRequestFactory.toSignableRequest(req, gson, endpoint);
+      recorder.serialized(request);
+
+      config.getSigner().sign(request, config.getCredentials());
+      recorder.signed();
+
+      VinylDNSHttpRequest httpRequest = VinylDNSRequestFactory.toHttpRequest(request);
+      try (VinylDNSHttpResponse response =
+          context == null
+              ? transport.execute(httpRequest)
+              : ((AmazonHttpTransport) transport).execute(httpRequest, context)) {
+        recorder.poolStatistics(context);
+        return recorder.completed(toVinylDNSResponse(response, responseType, recorder));
       }
     } catch (AmazonServiceException e) {
-      return new VinylDNSFailureResponse<>(e.getRawResponseContent(), e.getStatusCode());
+      recorder.completed(e.getStatusCode());
+      throw e;
+    } catch (IOException e) {
+      SdkClientException error =
+          new SdkClientException("Unable to execute HTTP request: " + e.getMessage(), e);
+      recorder.failed(error);
+      throw error;
+    } catch (RuntimeException e) {
+      recorder.poolStatistics(context);
+      recorder.failed(e);
+      throw e;
+    } finally {
+      if (request != null) {
+        VinylDNSRequestFactory.release(request);
+      }
+    }
+  }
+
+  /** Waits before a retry; false if the thread was interrupted. */
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     }
   }
 
+  private <R> VinylDNSResponse<R> toVinylDNSResponse(
+      VinylDNSHttpResponse response, Class<R> responseType, MetricsRecorder recorder)
+      throws IOException {
+    int statusCode = response.getStatusCode();
+    boolean success = statusCode / 100 * 100 == 200;
+    InputStream content = recorder.measure(response.getContent());
+    long start = recorder.deserializing();
+
+    if (success && !config.isRetainResponseBody()) {
+      R responseObject = JsonResponseHandler.read(gson, content, responseType);
+      recorder.deserialized(start);
+
+      return new VinylDNSSuccessResponse<>(responseObject, null, statusCode);
+    }
+
+    String messageBody = content == null ? null : IOUtils.toString(content);
+
+    if (success) {
+      R responseObject = gson.fromJson(messageBody, responseType);
+      recorder.deserialized(start);
+
+      return new VinylDNSSuccessResponse<>(responseObject, messageBody, statusCode);
+    }
+
+    recorder.deserialized(start);
+    AmazonServiceException exception = new AmazonServiceException(messageBody);
+    exception.setStatusCode(statusCode);
+    exception.setRawResponseContent(messageBody);
+    exception.setHttpHeaders(response.getHeaders());
+    throw exception;
+  }
+
   private String getBaseUrl() {
     if (config.getBaseUrl().endsWith("/")) {
       return config.getBaseUrl();
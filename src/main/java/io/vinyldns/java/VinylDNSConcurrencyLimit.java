@@ -0,0 +1,132 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+/**
+ * Settings for the adaptive limit on requests in flight. The limit grows by one for every
+ * successful response while the client is using at least half of it, and is multiplied by {@link
+ * #getBackoffRatio()} when the server shows overload: a 429, 502, 503 or 504 response, an I/O
+ * error, or a round trip more than {@link #getRttTolerance()} times the moving average of recent
+ * round trips of the same operation, so slow listings and batch changes do not hold fast calls
+ * back.
+ *
+ * <p>Requests above the limit wait in a queue of at most {@link #getMaxQueueSize()} entries for up
+ * to {@link #getQueueTimeoutMillis()}. Requests that do not fit or time out are shed: they are not
+ * sent and get a {@link io.vinyldns.java.responses.VinylDNSFailureResponse} with status 503.
+ */
+public class VinylDNSConcurrencyLimit {
+  private int initialLimit = 20;
+
+  private int minLimit = 1;
+
+  private int maxLimit = 200;
+
+  private double backoffRatio = 0.9;
+
+  private double rttTolerance = 2.0;
+
+  /** Number of recent round trips of an operation its moving average is taken over. */
+  private int rttWindow = 100;
+
+  private int maxQueueSize = Integer.MAX_VALUE;
+
+  /** How long a request may wait in the queue. 0 sheds at once; -1 waits as long as necessary. */
+  private long queueTimeoutMillis = -1;
+
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  public void setInitialLimit(int initialLimit) {
+    this.initialLimit = initialLimit;
+  }
+
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  public void setMinLimit(int minLimit) {
+    this.minLimit = minLimit;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  public void setMaxLimit(int maxLimit) {
+    this.maxLimit = maxLimit;
+  }
+
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  public void setBackoffRatio(double backoffRatio) {
+    this.backoffRatio = backoffRatio;
+  }
+
+  public double getRttTolerance() {
+    return rttTolerance;
+  }
+
+  public void setRttTolerance(double rttTolerance) {
+    this.rttTolerance = rttTolerance;
+  }
+
+  public int getRttWindow() {
+    return rttWindow;
+  }
+
+  public void setRttWindow(int rttWindow) {
+    this.rttWindow = rttWindow;
+  }
+
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  public void setMaxQueueSize(int maxQueueSize) {
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  public long getQueueTimeoutMillis() {
+    return queueTimeoutMillis;
+  }
+
+  public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+    this.queueTimeoutMillis = queueTimeoutMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSConcurrencyLimit{"
+        + "initialLimit="
+        + initialLimit
+        + ", minLimit="
+        + minLimit
+        + ", maxLimit="
+        + maxLimit
+        + ", backoffRatio="
+        + backoffRatio
+        + ", rttTolerance="
+        + rttTolerance
+        + ", rttWindow="
+        + rttWindow
+        + ", maxQueueSize="
+        + maxQueueSize
+        + ", queueTimeoutMillis="
+        + queueTimeoutMillis
+        + '}';
+  }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.responses.VinylDNSResponse;
+
+/**
+ * Thrown by helpers that cannot hand back a {@link VinylDNSResponse}, such as the iterators of
+ * {@link VinylDNSPaginator}, when the VinylDNS API answers with a failure.
+ */
+public class VinylDNSException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  private final int statusCode;
+
+  private final String messageBody;
+
+  public VinylDNSException(VinylDNSResponse<?> response) {
+    super(
+        "VinylDNS request failed with status "
+            + response.getStatusCode()
+            + ": "
+            + response.getMessageBody());
+    this.statusCode = response.getStatusCode();
+    this.messageBody = response.getMessageBody();
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public String getMessageBody() {
+    return messageBody;
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Settings for hedged GET requests. When a GET has not completed within the {@link #getPercentile()
+ * percentile} of recent latencies of its operation, an identical request is sent and whichever
+ * succeeds first is used; the other one is cancelled. At most {@link #getMaxHedgeRate()} of
+ * requests are hedged, so a slow API does not receive twice the load.
+ *
+ * <p>Only GET requests are hedged. A hedge is a request of its own: it counts against rate and
+ * concurrency limits and gets its own retries.
+ */
+public class VinylDNSHedgingPolicy {
+  private double percentile = 0.95;
+
+  /** Lower bound of the hedge delay, so that fast responses are never hedged. */
+  private long minDelayMillis = 5;
+
+  private double maxHedgeRate = 0.05;
+
+  /** Latencies recorded per operation before it is hedged. */
+  private int minSamples = 20;
+
+  /** GET operations to hedge, by {@link VinylDNSClient} method name; empty hedges all of them. */
+  private Set<String> operations = Collections.emptySet();
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  public void setPercentile(double percentile) {
+    this.percentile = percentile;
+  }
+
+  public long getMinDelayMillis() {
+    return minDelayMillis;
+  }
+
+  public void setMinDelayMillis(long minDelayMillis) {
+    this.minDelayMillis = minDelayMillis;
+  }
+
+  public double getMaxHedgeRate() {
+    return maxHedgeRate;
+  }
+
+  public void setMaxHedgeRate(double maxHedgeRate) {
+    this.maxHedgeRate = maxHedgeRate;
+  }
+
+  public int getMinSamples() {
+    return minSamples;
+  }
+
+  public void setMinSamples(int minSamples) {
+    this.minSamples = minSamples;
+  }
+
+  public Set<String> getOperations() {
+    return operations;
+  }
+
+  public void setOperations(Set<String> operations) {
+    this.operations = operations;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSHedgingPolicy{"
+        + "percentile="
+        + percentile
+        + ", minDelayMillis="
+        + minDelayMillis
+        + ", maxHedgeRate="
+        + maxHedgeRate
+        + ", minSamples="
+        + minSamples
+        + ", operations="
+        + operations
+        + '}';
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+/**
+ * How requests are spread over the endpoints given to {@link
+ * VinylDNSClientConfig#VinylDNSClientConfig(java.util.List, com.amazonaws.auth.AWSCredentials)}.
+ *
+ * <p>An endpoint that fails {@link #getFailuresToEject()} requests in a row with a 5xx response or
+ * an I/O error is ejected for {@link #getEjectionMillis()}. After that a single request probes it,
+ * and it rejoins the rotation if the probe succeeds. When an endpoint fails a request that may be
+ * resent, a GET, PUT or DELETE or an operation listed in {@link
+ * VinylDNSRetryPolicy#getRetryNonIdempotentOperations()}, the request fails over to another healthy
+ * endpoint at once, without counting as a retry.
+ */
+public class VinylDNSLoadBalancingPolicy {
+  public enum Strategy {
+    /** Send to the endpoint with the fewest requests in flight. */
+    LEAST_OUTSTANDING,
+    /** Pick two endpoints at random and send to the one with fewer requests in flight. */
+    POWER_OF_TWO_CHOICES
+  }
+
+  private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+
+  private int failuresToEject = 5;
+
+  private long ejectionMillis = 30_000;
+
+  private boolean failover = true;
+
+  public Strategy getStrategy() {
+    return strategy;
+  }
+
+  public void setStrategy(Strategy strategy) {
+    this.strategy = strategy;
+  }
+
+  public int getFailuresToEject() {
+    return failuresToEject;
+  }
+
+  public void setFailuresToEject(int failuresToEject) {
+    this.failuresToEject = failuresToEject;
+  }
+
+  public long getEjectionMillis() {
+    return ejectionMillis;
+  }
+
+  public void setEjectionMillis(long ejectionMillis) {
+    this.ejectionMillis = ejectionMillis;
+  }
+
+  public boolean isFailover() {
+    return failover;
+  }
+
+  public void setFailover(boolean failover) {
+    this.failover = failover;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSLoadBalancingPolicy{"
+        + "strategy="
+        + strategy
+        + ", failuresToEject="
+        + failuresToEject
+        + ", ejectionMillis="
+        + ejectionMillis
+        + ", failover="
+        + failover
+        + '}';
+  }
+}
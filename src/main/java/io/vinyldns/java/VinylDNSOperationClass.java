@@ -0,0 +1,46 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.http.HttpMethodName;
+
+/** Groups of {@link VinylDNSClient} operations that share a rate limit. */
+public enum VinylDNSOperationClass {
+  /** Every GET request. */
+  READ,
+  /** createRecordSet, updateRecordSet and deleteRecordSet. */
+  RECORD_WRITE,
+  /** createBatchChanges. */
+  BATCH_SUBMIT,
+  /** syncZone. */
+  ZONE_SYNC,
+  /** All other changes: zones, groups and batch change reviews. */
+  OTHER_WRITE;
+
+  static VinylDNSOperationClass of(VinylDNSRequest<?> request) {
+    String operation = request.getOperation() == null ? "" : request.getOperation();
+    switch (operation) {
+      case "createRecordSet":
+      case "updateRecordSet":
+      case "deleteRecordSet":
+        return RECORD_WRITE;
+      case "createBatchChanges":
+        return BATCH_SUBMIT;
+      case "syncZone":
+        return ZONE_SYNC;
+      default:
+        return request.getHttpMethod() == HttpMethodName.GET ? READ : OTHER_WRITE;
+    }
+  }
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ListBatchChangesRequest;
+import io.vinyldns.java.model.batch.ListBatchChangesResponse;
+import io.vinyldns.java.model.membership.*;
+import io.vinyldns.java.model.record.set.*;
+import io.vinyldns.java.model.zone.*;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks every page of the VinylDNS list endpoints, following {@code nextId} until it is exhausted.
+ * Pages are fetched lazily as the returned {@link Iterable}s and {@link Stream}s are consumed, and
+ * each call to {@link Iterable#iterator()} starts over from the {@code startFrom} of the original
+ * request. The request objects passed in are never modified.
+ *
+ * <p>When constructed with a prefetch {@link Executor}, the next page is requested in the
+ * background as soon as the current one arrives, hiding the round trip while the current page is
+ * consumed.
+ *
+ * <p>A failure response from any page surfaces as a {@link VinylDNSException} from {@code
+ * hasNext()}.
+ */
+public class VinylDNSPaginator {
+  private final VinylDNSClient client;
+
+  private final Executor prefetchExecutor;
+
+  public VinylDNSPaginator(VinylDNSClient client) {
+    this(client, null);
+  }
+
+  public VinylDNSPaginator(VinylDNSClient client, Executor prefetchExecutor) {
+    this.client = client;
+    this.prefetchExecutor = prefetchExecutor;
+  }
+
+  // Zone
+  public Iterable<Zone> listAllZones(ListZonesRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom ->
+            client.listZones(
+                new ListZonesRequest(request.getNameFilter(), startFrom, request.getMaxItems())),
+        ListZonesResponse::getZones,
+        ListZonesResponse::getNextId);
+  }
+
+  public Stream<Zone> streamZones(ListZonesRequest request) {
+    return stream(listAllZones(request));
+  }
+
+  public Iterable<ZoneResponse> listAllZoneChanges(ListZoneChangesRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom ->
+            client.listZoneChanges(
+                new ListZoneChangesRequest(request.getZoneId(), startFrom, request.getMaxItems())),
+        ListZoneChangesResponse::getZoneChanges,
+        ListZoneChangesResponse::getNextId);
+  }
+
+  public Stream<ZoneResponse> streamZoneChanges(ListZoneChangesRequest request) {
+    return stream(listAllZoneChanges(request));
+  }
+
+  // RecordSet
+  public Iterable<RecordSet> listAllRecordSets(ListRecordSetsRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom ->
+            client.listRecordSets(
+                new ListRecordSetsRequest(
+                    request.getZoneId(),
+                    request.getRecordNameFilter(),
+                    startFrom,
+                    request.getMaxItems())),
+        ListRecordSetsResponse::getRecordSets,
+        ListRecordSetsResponse::getNextId);
+  }
+
+  public Stream<RecordSet> streamRecordSets(ListRecordSetsRequest request) {
+    return stream(listAllRecordSets(request));
+  }
+
+  public Iterable<RecordSetChange> listAllRecordSetChanges(ListRecordSetChangesRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom -> {
+          ListRecordSetChangesRequest page = new ListRecordSetChangesRequest(request.getZoneId());
+          page.setStartFrom(startFrom);
+          if (request.getMaxItems() != null) {
+            page.setMaxItems(request.getMaxItems());
+          }
+          return client.listRecordSetChanges(page);
+        },
+        ListRecordSetChangesResponse::getRecordSetChanges,
+        ListRecordSetChangesResponse::getNextId);
+  }
+
+  public Stream<RecordSetChange> streamRecordSetChanges(ListRecordSetChangesRequest request) {
+    return stream(listAllRecordSetChanges(request));
+  }
+
+  public Iterable<RecordSet> searchAllRecordSets(SearchRecordSetsRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom ->
+            client.searchRecordSets(
+                new SearchRecordSetsRequest(
+                    request.getRecordNameFilter(),
+                    request.getRecordOwnerGroupFilter(),
+                    request.getNameSort(),
+                    startFrom,
+                    request.getMaxItems())),
+        SearchRecordSetsResponse::getRecordSets,
+        SearchRecordSetsResponse::getNextId);
+  }
+
+  public Stream<RecordSet> streamSearchRecordSets(SearchRecordSetsRequest request) {
+    return stream(searchAllRecordSets(request));
+  }
+
+  // Groups
+  public Iterable<Group> listAllGroups(ListGroupsRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom -> {
+          ListGroupsRequest page = new ListGroupsRequest(request.getGroupNameFilter());
+          page.setStartFrom(startFrom);
+          if (request.getMaxItems() != null) {
+            page.setMaxItems(request.getMaxItems());
+          }
+          return client.listGroups(page);
+        },
+        ListGroupsResponse::getGroups,
+        ListGroupsResponse::getNextId);
+  }
+
+  public Stream<Group> streamGroups(ListGroupsRequest request) {
+    return stream(listAllGroups(request));
+  }
+
+  public Iterable<UserInfo> listAllMembers(ListMembersRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom -> {
+          ListMembersRequest page = new ListMembersRequest(request.getGroupId());
+          page.setStartFrom(startFrom);
+          if (request.getMaxItems() != null) {
+            page.setMaxItems(request.getMaxItems());
+          }
+          return client.listMembers(page);
+        },
+        ListMembersResponse::getMembers,
+        ListMembersResponse::getNextId);
+  }
+
+  public Stream<UserInfo> streamMembers(ListMembersRequest request) {
+    return stream(listAllMembers(request));
+  }
+
+  public Iterable<GroupChange> listAllGroupActivity(ListGroupActivityRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom ->
+            client.listGroupActivity(
+                new ListGroupActivityRequest(
+                    request.getGroupId(), startFrom, request.getMaxItems())),
+        ListGroupActivityResponse::getChanges,
+        ListGroupActivityResponse::getNextId);
+  }
+
+  public Stream<GroupChange> streamGroupActivity(ListGroupActivityRequest request) {
+    return stream(listAllGroupActivity(request));
+  }
+
+  // Batch
+  public Iterable<BatchResponse> listAllBatchChanges(ListBatchChangesRequest request) {
+    return paginate(
+        request.getStartFrom(),
+        startFrom -> {
+          ListBatchChangesRequest page =
+              new ListBatchChangesRequest(startFrom, request.getMaxItems());
+          page.setIgnoreAccess(request.getIgnoreAccess());
+          page.setApprovalStatus(request.getApprovalStatus());
+          return client.listBatchChanges(page);
+        },
+        ListBatchChangesResponse::getBatchChanges,
+        response -> response.getNextId() == null ? null : response.getNextId().toString());
+  }
+
+  public Stream<BatchResponse> streamBatchChanges(ListBatchChangesRequest request) {
+    return stream(listAllBatchChanges(request));
+  }
+
+  private <P, T> Iterable<T> paginate(
+      String startFrom,
+      Function<String, VinylDNSResponse<P>> fetchPage,
+      Function<P, ? extends Collection<T>> items,
+      Function<P, String> nextId) {
+    return () -> new PageIterator<>(startFrom, fetchPage, items, nextId, prefetchExecutor);
+  }
+
+  private static <T> Stream<T> stream(Iterable<T> iterable) {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterable.iterator(), Spliterator.ORDERED), false);
+  }
+
+  private static final class PageIterator<P, T> implements Iterator<T> {
+    private final Function<String, VinylDNSResponse<P>> fetchPage;
+    private final Function<P, ? extends Collection<T>> items;
+    private final Function<P, String> nextId;
+    private final Executor prefetchExecutor;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private Supplier<P> nextPage;
+
+    PageIterator(
+        String startFrom,
+        Function<String, VinylDNSResponse<P>> fetchPage,
+        Function<P, ? extends Collection<T>> items,
+        Function<P, String> nextId,
+        Executor prefetchExecutor) {
+      this.fetchPage = fetchPage;
+      this.items = items;
+      this.nextId = nextId;
+      this.prefetchExecutor = prefetchExecutor;
+      this.nextPage = request(startFrom);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext()) {
+        if (nextPage == null) {
+          return false;
+        }
+
+        P page = nextPage.get();
+        String next = nextId.apply(page);
+        nextPage = next == null || next.isEmpty() ? null : request(next);
+
+        Collection<T> pageItems = items.apply(page);
+        current = pageItems == null ? Collections.emptyIterator() : pageItems.iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+
+    private Supplier<P> request(String startFrom) {
+      if (prefetchExecutor == null) {
+        return () -> fetch(startFrom);
+      }
+
+      CompletableFuture<P> future =
+          CompletableFuture.supplyAsync(() -> fetch(startFrom), prefetchExecutor);
+      return () -> {
+        try {
+          return future.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw e;
+        }
+      };
+    }
+
+    private P fetch(String startFrom) {
+      VinylDNSResponse<P> response = fetchPage.apply(startFrom);
+      if (!(response instanceof ResponseMarker.Success)) {
+        throw new VinylDNSException(response);
+      }
+      return response.getValue();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket that hands out permits at a steady rate, allowing bursts of up to {@code burst}
+ * permits after a quiet period. Callers that have to wait reserve the next free slot in order, so
+ * the rate stays at the limit under contention rather than oscillating around it. Safe to share
+ * between threads and between clients.
+ */
+public class VinylDNSRateLimiter {
+  private final double permitsPerSecond;
+
+  private final double intervalNanos;
+
+  private final double maxStoredPermits;
+
+  private double storedPermits;
+
+  private long nextFreeNanos;
+
+  public VinylDNSRateLimiter(double permitsPerSecond) {
+    this(permitsPerSecond, 1);
+  }
+
+  /**
+   * @param permitsPerSecond sustained rate
+   * @param burst permits that can be taken at once after the limiter was idle
+   */
+  public VinylDNSRateLimiter(double permitsPerSecond, int burst) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("permitsPerSecond must be positive and burst at least 1");
+    }
+
+    this.permitsPerSecond = permitsPerSecond;
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    this.maxStoredPermits = burst;
+    this.storedPermits = burst;
+    this.nextFreeNanos = System.nanoTime();
+  }
+
+  public double getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /** Takes a permit, waiting as long as necessary. */
+  public void acquire() throws InterruptedException {
+    sleep(reserve(Long.MAX_VALUE));
+  }
+
+  /** Takes a permit if one is free right now. */
+  public boolean tryAcquire() {
+    return reserve(0) == 0;
+  }
+
+  /** Takes a permit if one becomes free within {@code timeout}. */
+  public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    long wait = reserve(unit.toNanos(timeout));
+    if (wait < 0) {
+      return false;
+    }
+
+    sleep(wait);
+    return true;
+  }
+
+  /**
+   * Reserves a permit if it becomes free within {@code maxWaitNanos}.
+   *
+   * @return nanoseconds the caller must wait before using the permit, or -1 if none was reserved
+   */
+  synchronized long reserve(long maxWaitNanos) {
+    long now = System.nanoTime();
+    if (now - nextFreeNanos > 0) {
+      storedPermits =
+          Math.min(maxStoredPermits, storedPermits + (now - nextFreeNanos) / intervalNanos);
+      nextFreeNanos = now;
+    }
+
+    if (storedPermits >= 1) {
+      storedPermits -= 1;
+      return 0;
+    }
+
+    long availableAt = nextFreeNanos + (long) ((1 - storedPermits) * intervalNanos);
+    long wait = availableAt - now;
+    if (wait > maxWaitNanos) {
+      return -1;
+    }
+
+    storedPermits = 0;
+    nextFreeNanos = availableAt;
+    return wait;
+  }
+
+  private static void sleep(long nanos) throws InterruptedException {
+    if (nanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSRateLimiter{"
+        + "permitsPerSecond="
+        + permitsPerSecond
+        + ", burst="
+        + (int) maxStoredPermits
+        + '}';
+  }
+}
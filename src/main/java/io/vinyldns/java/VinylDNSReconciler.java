@@ -0,0 +1,378 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.batch.DeleteRecordSetChangeInput;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AAAAData;
+import io.vinyldns.java.model.record.data.CNAMEData;
+import io.vinyldns.java.model.record.data.MXData;
+import io.vinyldns.java.model.record.data.NSData;
+import io.vinyldns.java.model.record.data.PTRData;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.data.SRVData;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.zone.Zone;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Brings a zone to a desired state with as few changes as possible.
+ *
+ * <p>{@link #plan} indexes the desired records and the live record sets by name and type in hash
+ * maps and compares each record set once, so planning takes time linear in the size of the zone.
+ * For each record set:
+ *
+ * <ul>
+ *   <li>only desired: one add per record;
+ *   <li>only live: one delete of the record set;
+ *   <li>both, same TTL: deletes of the records no longer wanted and adds of the missing ones;
+ *   <li>both, TTL changed: a delete of the record set and adds of every desired record, which
+ *       VinylDNS applies as an update.
+ * </ul>
+ *
+ * <p>Record data is compared the way the server compares it: domain names in the data ignore case
+ * and a trailing dot, and IPv6 addresses match in any textual form.
+ *
+ * <p>The returned {@link Plan} can be inspected before {@link #apply} submits it through {@link
+ * VinylDNSBatchSubmitter}, which keeps the changes to one name in the same batch. SOA record sets
+ * are ignored on both sides by default, since VinylDNS manages them; see {@link #setIgnoredTypes}.
+ */
+public class VinylDNSReconciler {
+  private final VinylDNSClient client;
+  private final int parallelism;
+  private Set<RecordType> ignoredTypes = EnumSet.of(RecordType.SOA);
+
+  public VinylDNSReconciler(VinylDNSClient client, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    this.client = client;
+    this.parallelism = parallelism;
+  }
+
+  public Set<RecordType> getIgnoredTypes() {
+    return ignoredTypes;
+  }
+
+  /** Sets the record types left alone on both sides; the default is SOA. */
+  public void setIgnoredTypes(Set<RecordType> ignoredTypes) {
+    this.ignoredTypes =
+        ignoredTypes.isEmpty() ? EnumSet.noneOf(RecordType.class) : EnumSet.copyOf(ignoredTypes);
+  }
+
+  /** Plans against the record sets {@link VinylDNSClient#listRecordSets} returns for the zone. */
+  public Plan plan(Zone zone, Iterable<? extends AddChangeInput> desired) {
+    return plan(
+        zone,
+        desired,
+        new VinylDNSPaginator(client).listAllRecordSets(new ListRecordSetsRequest(zone.getId())));
+  }
+
+  /**
+   * Plans against the given live record sets of the zone. Desired records name their record set
+   * with an absolute or zone-relative input name, and the plan uses absolute lower-case names; a
+   * record without a TTL accepts whatever TTL the live record set has.
+   *
+   * @throws IllegalArgumentException if two desired records of a record set have different TTLs
+   */
+  public Plan plan(
+      Zone zone, Iterable<? extends AddChangeInput> desired, Iterable<RecordSet> live) {
+    String origin = normalize(zone.getName());
+
+    Map<Key, Desired> wanted = new LinkedHashMap<>();
+    for (AddChangeInput change : desired) {
+      if (ignoredTypes.contains(change.getType())) {
+        continue;
+      }
+      Key key = new Key(absolute(change.getInputName(), origin), change.getType());
+      Desired set = wanted.get(key);
+      if (set == null) {
+        set = new Desired(change.getTtl());
+        wanted.put(key, set);
+      } else if (!Objects.equals(set.ttl, change.getTtl())) {
+        throw new IllegalArgumentException(
+            "Conflicting TTLs for " + change.getInputName() + " " + change.getType());
+      }
+      set.add(change.getRecord());
+    }
+
+    Map<Key, Live> current = new HashMap<>();
+    List<Key> currentOrder = new ArrayList<>();
+    for (RecordSet recordSet : live) {
+      if (ignoredTypes.contains(recordSet.getType())) {
+        continue;
+      }
+      Key key = new Key(absolute(recordSet.getName(), origin), recordSet.getType());
+      Live set = current.get(key);
+      if (set == null) {
+        set = new Live(recordSet.getTtl());
+        current.put(key, set);
+        currentOrder.add(key);
+      }
+      if (recordSet.getRecords() != null) {
+        for (RecordData record : recordSet.getRecords()) {
+          set.add(record);
+        }
+      }
+    }
+
+    Plan plan = new Plan();
+    for (Key key : currentOrder) {
+      Live have = current.get(key);
+      Desired want = wanted.remove(key);
+      if (want == null) {
+        plan.deleteRecordSet(key.inputName(), key.type);
+      } else if (want.ttl != null && want.ttl != have.ttl) {
+        plan.deleteRecordSet(key.inputName(), key.type);
+        for (RecordData record : want.records.values()) {
+          plan.add(key.inputName(), key.type, want.ttl, record);
+        }
+      } else {
+        for (Map.Entry<RecordData, RecordData> record : have.records.entrySet()) {
+          if (!want.records.containsKey(record.getKey())) {
+            plan.deleteRecord(key.inputName(), key.type, record.getValue());
+          }
+        }
+        for (Map.Entry<RecordData, RecordData> record : want.records.entrySet()) {
+          if (!have.records.containsKey(record.getKey())) {
+            plan.add(key.inputName(), key.type, want.ttl, record.getValue());
+          } else {
+            plan.unchanged++;
+          }
+        }
+      }
+    }
+    for (Map.Entry<Key, Desired> entry : wanted.entrySet()) {
+      Desired want = entry.getValue();
+      for (RecordData record : want.records.values()) {
+        plan.add(entry.getKey().inputName(), entry.getKey().type, want.ttl, record);
+      }
+    }
+    return plan;
+  }
+
+  /** Submits the plan with no comments or owner group. */
+  public BulkBatchResult apply(Plan plan) {
+    return apply(plan, new CreateBatchRequest(Collections.emptyList()));
+  }
+
+  /**
+   * Submits the changes of the plan as batch changes. Comments, owner group, scheduled time and
+   * manual review settings of {@code template} are copied to every batch; its changes are ignored.
+   */
+  public BulkBatchResult apply(Plan plan, CreateBatchRequest template) {
+    CreateBatchRequest request =
+        VinylDNSBatchSubmitter.copyOf(template, new ArrayList<>(plan.getChanges()));
+    return new VinylDNSBatchSubmitter(client, parallelism).submit(request);
+  }
+
+  /** The fully qualified name in lower case, without the trailing dot. */
+  private static String absolute(String name, String origin) {
+    String normalized = normalize(name);
+    if (normalized.equals("@") || normalized.equals(origin)) {
+      return origin;
+    }
+    if (name.endsWith(".") || normalized.endsWith("." + origin)) {
+      return normalized;
+    }
+    return origin.isEmpty() ? normalized : normalized + "." + origin;
+  }
+
+  private static String normalize(String name) {
+    String lower = name.toLowerCase(Locale.ROOT);
+    return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+  }
+
+  /**
+   * The record with the domain names in its data in absolute lower-case form and its IPv6 address
+   * in one textual form, so that records the server treats as equal compare equal.
+   */
+  private static RecordData canonical(RecordData record) {
+    if (record instanceof AAAAData) {
+      return new AAAAData(canonicalAddress(((AAAAData) record).getAddress()));
+    } else if (record instanceof CNAMEData) {
+      return new CNAMEData(canonicalName(((CNAMEData) record).getCname()));
+    } else if (record instanceof NSData) {
+      return new NSData(canonicalName(((NSData) record).getNsdname()));
+    } else if (record instanceof PTRData) {
+      return new PTRData(canonicalName(((PTRData) record).getPtrdname()));
+    } else if (record instanceof MXData) {
+      MXData mx = (MXData) record;
+      return new MXData(mx.getPreference(), canonicalName(mx.getExchange()));
+    } else if (record instanceof SRVData) {
+      SRVData srv = (SRVData) record;
+      return new SRVData(
+          srv.getPriority(), srv.getWeight(), srv.getPort(), canonicalName(srv.getTarget()));
+    }
+    return record;
+  }
+
+  private static String canonicalName(String name) {
+    if (name == null) {
+      return null;
+    }
+    String lower = name.toLowerCase(Locale.ROOT);
+    return lower.endsWith(".") ? lower : lower + ".";
+  }
+
+  private static String canonicalAddress(String address) {
+    // only literals reach getByName, so nothing is resolved
+    if (address == null || address.indexOf(':') < 0) {
+      return address;
+    }
+    try {
+      return InetAddress.getByName(address).getHostAddress();
+    } catch (UnknownHostException e) {
+      // not a valid address; the server will say so
+      return address;
+    }
+  }
+
+  /** The changes that bring a zone to its desired state. */
+  public static class Plan {
+    private final List<ChangeInput> changes = new ArrayList<>();
+    private int additions;
+    private int recordDeletions;
+    private int recordSetDeletions;
+    private int unchanged;
+
+    /** Deletes before adds for each record set, in the order the record sets were listed. */
+    public List<ChangeInput> getChanges() {
+      return Collections.unmodifiableList(changes);
+    }
+
+    public boolean isEmpty() {
+      return changes.isEmpty();
+    }
+
+    /** Number of records to add. */
+    public int getAdditions() {
+      return additions;
+    }
+
+    /** Number of single records to delete from record sets that stay. */
+    public int getRecordDeletions() {
+      return recordDeletions;
+    }
+
+    /** Number of whole record sets to delete, including those re-added with a new TTL. */
+    public int getRecordSetDeletions() {
+      return recordSetDeletions;
+    }
+
+    /** Number of desired records that are already live. */
+    public int getUnchanged() {
+      return unchanged;
+    }
+
+    private void add(String inputName, RecordType type, Long ttl, RecordData record) {
+      changes.add(new AddChangeInput(inputName, type, ttl, record));
+      additions++;
+    }
+
+    private void deleteRecord(String inputName, RecordType type, RecordData record) {
+      changes.add(new DeleteRecordSetChangeInput(inputName, type, record));
+      recordDeletions++;
+    }
+
+    private void deleteRecordSet(String inputName, RecordType type) {
+      changes.add(new DeleteRecordSetChangeInput(inputName, type));
+      recordSetDeletions++;
+    }
+
+    @Override
+    public String toString() {
+      return "Plan{"
+          + "additions="
+          + additions
+          + ", recordDeletions="
+          + recordDeletions
+          + ", recordSetDeletions="
+          + recordSetDeletions
+          + ", unchanged="
+          + unchanged
+          + '}';
+    }
+  }
+
+  private static final class Key {
+    private final String name;
+    private final RecordType type;
+    private final int hash;
+
+    Key(String name, RecordType type) {
+      this.name = name;
+      this.type = type;
+      this.hash = 31 * name.hashCode() + (type == null ? 0 : type.hashCode());
+    }
+
+    /** The absolute name with its trailing dot, as batch changes expect. */
+    String inputName() {
+      return name.isEmpty() ? "." : name + ".";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key that = (Key) o;
+      return hash == that.hash && type == that.type && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  /** The records of a record set by their {@link #canonical} form. */
+  private static class Records {
+    final Map<RecordData, RecordData> records = new LinkedHashMap<>();
+
+    void add(RecordData record) {
+      records.putIfAbsent(canonical(record), record);
+    }
+  }
+
+  private static final class Desired extends Records {
+    private final Long ttl;
+
+    Desired(Long ttl) {
+      this.ttl = ttl;
+    }
+  }
+
+  private static final class Live extends Records {
+    private final long ttl;
+
+    Live(long ttl) {
+      this.ttl = ttl;
+    }
+  }
+}
@@ -28,8 +28,18 @@ public class VinylDNSRequest<T> {
   private final HttpMethodName methodName;
   private final String resourcePath;
   private final T payload;
+  private final String operation;
 
   public VinylDNSRequest(String method, String url, String path, T payload) {
+    this(null, method, url, path, payload);
+  }
+
+  /**
+   * @param operation name of the {@link VinylDNSClient} method the request belongs to, such as
+   *     {@code listZones}; reported to {@link io.vinyldns.java.metrics.VinylDNSInstrumentation}
+   */
+  public VinylDNSRequest(String operation, String method, String url, String path, T payload) {
+    this.operation = operation;
     this.uri = URI.create(url);
     this.payload = payload;
     this.methodName = HttpMethodName.valueOf(method);
@@ -69,4 +79,8 @@ public class VinylDNSRequest<T> {
   public HttpMethodName getHttpMethod() {
     return methodName;
   }
+
+  public String getOperation() {
+    return operation;
+  }
 }
@@ -0,0 +1,417 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.SdkHttpUtils;
+import com.google.gson.Gson;
+import io.vinyldns.java.model.Methods;
+import io.vinyldns.java.model.batch.*;
+import io.vinyldns.java.model.membership.*;
+import io.vinyldns.java.model.record.set.*;
+import io.vinyldns.java.model.zone.*;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the {@link VinylDNSRequest} for every VinylDNS operation, so the blocking and the
+ * asynchronous clients share a single definition of paths and query parameters.
+ */
+final class VinylDNSRequestFactory {
+  private VinylDNSRequestFactory() {}
+
+  // Zone
+  static VinylDNSRequest<Void> listZones(String baseUrl, ListZonesRequest request) {
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listZones", Methods.GET.name(), baseUrl, "zones", null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    if (request.getNameFilter() != null) {
+      vinylDNSRequest.addParameter("nameFilter", request.getNameFilter());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Zone> createZone(String baseUrl, Zone zone) {
+    return new VinylDNSRequest<>("createZone", Methods.POST.name(), baseUrl, "zones", zone);
+  }
+
+  static VinylDNSRequest<Void> getZone(String baseUrl, ZoneRequest request) {
+    String path = "zones/" + request.getZoneId();
+    return new VinylDNSRequest<>("getZone", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> getZoneByName(String baseUrl, String zoneName) {
+    String path = "zones/name/" + zoneName;
+    return new VinylDNSRequest<>("getZoneByName", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Zone> updateZone(String baseUrl, Zone zone) {
+    String path = "zones/" + zone.getId();
+    return new VinylDNSRequest<>("updateZone", Methods.PUT.name(), baseUrl, path, zone);
+  }
+
+  static VinylDNSRequest<Void> deleteZone(String baseUrl, ZoneRequest request) {
+    String path = "zones/" + request.getZoneId();
+    return new VinylDNSRequest<>("deleteZone", Methods.DELETE.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> listZoneChanges(String baseUrl, ListZoneChangesRequest request) {
+    String path = "zones/" + request.getZoneId() + "/changes";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listZoneChanges", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Void> syncZone(String baseUrl, ZoneRequest request) {
+    String path = "zones/" + request.getZoneId() + "/sync";
+    return new VinylDNSRequest<>("syncZone", Methods.POST.name(), baseUrl, path, null);
+  }
+
+  // RecordSet
+  static VinylDNSRequest<Void> listRecordSets(String baseUrl, ListRecordSetsRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsets";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listRecordSets", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    if (request.getRecordNameFilter() != null) {
+      vinylDNSRequest.addParameter("recordNameFilter", request.getRecordNameFilter());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<CreateRecordSetRequest> createRecordSet(
+      String baseUrl, CreateRecordSetRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsets";
+    return new VinylDNSRequest<>("createRecordSet", Methods.POST.name(), baseUrl, path, request);
+  }
+
+  static VinylDNSRequest<Void> getRecordSet(String baseUrl, GetRecordSetRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getRecordSetId();
+    return new VinylDNSRequest<>("getRecordSet", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<UpdateRecordSetRequest> updateRecordSet(
+      String baseUrl, UpdateRecordSetRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getId();
+    return new VinylDNSRequest<>("updateRecordSet", Methods.PUT.name(), baseUrl, path, request);
+  }
+
+  static VinylDNSRequest<Void> deleteRecordSet(String baseUrl, DeleteRecordSetRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsets/" + request.getRecordSetId();
+    return new VinylDNSRequest<>("deleteRecordSet", Methods.DELETE.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> listRecordSetChanges(
+      String baseUrl, ListRecordSetChangesRequest request) {
+    String path = "zones/" + request.getZoneId() + "/recordsetchanges";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listRecordSetChanges", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Void> getRecordSetChange(
+      String baseUrl, GetRecordSetChangeRequest request) {
+    String path =
+        "zones/"
+            + request.getZoneId()
+            + "/recordsets/"
+            + request.getRecordSetId()
+            + "/changes/"
+            + request.getRecordSetChangeId();
+    return new VinylDNSRequest<>("getRecordSetChange", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> searchRecordSets(String baseUrl, SearchRecordSetsRequest request) {
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("searchRecordSets", Methods.GET.name(), baseUrl, "recordsets", null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    if (request.getRecordNameFilter() != null) {
+      vinylDNSRequest.addParameter("recordNameFilter", request.getRecordNameFilter());
+    }
+
+    if (request.getNameSort() != null) {
+      vinylDNSRequest.addParameter("nameSort", request.getNameSort().name());
+    }
+
+    if (request.getRecordOwnerGroupFilter() != null) {
+      vinylDNSRequest.addParameter("recordOwnerGroupFilter", request.getRecordOwnerGroupFilter());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  // Groups
+  static VinylDNSRequest<Void> getGroup(String baseUrl, GetGroupRequest request) {
+    String path = "groups/" + request.getId();
+    return new VinylDNSRequest<>("getGroup", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<CreateGroupRequest> createGroup(
+      String baseUrl, CreateGroupRequest request) {
+    return new VinylDNSRequest<>("createGroup", Methods.POST.name(), baseUrl, "groups", request);
+  }
+
+  static VinylDNSRequest<UpdateGroupRequest> updateGroup(
+      String baseUrl, UpdateGroupRequest request) {
+    String path = "groups/" + request.getGroupId();
+    return new VinylDNSRequest<>("updateGroup", Methods.PUT.name(), baseUrl, path, request);
+  }
+
+  static VinylDNSRequest<Void> deleteGroup(String baseUrl, DeleteGroupRequest request) {
+    String path = "/groups/" + request.getId();
+    return new VinylDNSRequest<>("deleteGroup", Methods.DELETE.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> listGroups(String baseUrl, ListGroupsRequest request) {
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listGroups", Methods.GET.name(), baseUrl, "groups", null);
+
+    if (request.getGroupNameFilter() != null) {
+      vinylDNSRequest.addParameter("groupNameFilter", request.getGroupNameFilter());
+    }
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Void> listAdmins(String baseUrl, String groupId) {
+    String path = "groups/" + groupId + "/admins";
+    return new VinylDNSRequest<>("listAdmins", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<Void> listMembers(String baseUrl, ListMembersRequest request) {
+    String path = "groups/" + request.getGroupId() + "/members";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listMembers", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Void> listGroupActivity(String baseUrl, ListGroupActivityRequest request) {
+    String path = "groups/" + request.getGroupId() + "/activity";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listGroupActivity", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  // Batch
+  static VinylDNSRequest<Void> listBatchChanges(String baseUrl, ListBatchChangesRequest request) {
+    String path = "zones/batchrecordchanges";
+
+    VinylDNSRequest<Void> vinylDNSRequest =
+        new VinylDNSRequest<>("listBatchChanges", Methods.GET.name(), baseUrl, path, null);
+
+    if (request.getStartFrom() != null) {
+      vinylDNSRequest.addParameter("startFrom", request.getStartFrom());
+    }
+
+    if (request.getMaxItems() != null) {
+      vinylDNSRequest.addParameter("maxItems", request.getMaxItems().toString());
+    }
+
+    if (request.getIgnoreAccess() != null) {
+      vinylDNSRequest.addParameter("ignoreAccess", request.getIgnoreAccess().toString());
+    }
+
+    if (request.getApprovalStatus() != null) {
+      vinylDNSRequest.addParameter("approvalStatus", request.getApprovalStatus().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<Void> getBatchChanges(String baseUrl, String id) {
+    String path = "zones/batchrecordchanges/" + id;
+    return new VinylDNSRequest<>("getBatchChanges", Methods.GET.name(), baseUrl, path, null);
+  }
+
+  static VinylDNSRequest<CreateBatchRequest> createBatchChanges(
+      String baseUrl, CreateBatchRequest request) {
+    String path = "zones/batchrecordchanges";
+
+    VinylDNSRequest<CreateBatchRequest> vinylDNSRequest =
+        new VinylDNSRequest<>("createBatchChanges", Methods.POST.name(), baseUrl, path, request);
+
+    if (request.getAllowManualReview() != null) {
+      vinylDNSRequest.addParameter("allowManualReview", request.getAllowManualReview().toString());
+    }
+
+    return vinylDNSRequest;
+  }
+
+  static VinylDNSRequest<BatchChangeReview> approveBatchChanges(
+      String baseUrl, String id, BatchChangeReview review) {
+    String path = "zones/batchrecordchanges/" + id + "/approve";
+    return new VinylDNSRequest<>("approveBatchChanges", Methods.POST.name(), baseUrl, path, review);
+  }
+
+  static VinylDNSRequest<BatchChangeReview> rejectBatchChanges(
+      String baseUrl, String id, BatchChangeReview review) {
+    String path = "zones/batchrecordchanges/" + id + "/reject";
+    return new VinylDNSRequest<>("rejectBatchChanges", Methods.POST.name(), baseUrl, path, review);
+  }
+
+  static VinylDNSRequest<Void> cancelBatchChanges(String baseUrl, String id) {
+    String path = "zones/batchrecordchanges/" + id + "/cancel";
+    return new VinylDNSRequest<>("cancelBatchChanges", Methods.POST.name(), baseUrl, path, null);
+  }
+
+  /**
+   * Converts a {@link VinylDNSRequest} into the unsigned SDK request that the configured {@link
+   * com.amazonaws.auth.Signer} operates on.
+   */
+  static Request<String> toSignableRequest(VinylDNSRequest<?> req, Gson gson) {
+    return toSignableRequest(req, gson, req.getEndpoint());
+  }
+
+  /** Like {@link #toSignableRequest(VinylDNSRequest, Gson)}, sending to another endpoint. */
+  static Request<String> toSignableRequest(VinylDNSRequest<?> req, Gson gson, URI endpoint) {
+    Request<String> request = new DefaultRequest<>("VinylDNS");
+    request.setEndpoint(endpoint);
+    request.setResourcePath(req.getResourcePath());
+    request.setHttpMethod(req.getHttpMethod());
+    request.setHeaders(req.getHeaders());
+    request.setParameters(req.getParameters());
+
+    request.addHeader("Content-Type", "application/json");
+
+    if (req.getPayload() != null) {
+      // release(request) hands the buffer back once the request is answered
+      request.setContent(SerializedPayload.serialize(gson, req.getPayload()));
+    }
+
+    return request;
+  }
+
+  /** The wire form of a signed request, for a {@link VinylDNSTransport}. */
+  static VinylDNSHttpRequest toHttpRequest(Request<String> request) throws IOException {
+    String uri =
+        SdkHttpUtils.appendUri(request.getEndpoint().toString(), request.getResourcePath(), true);
+    String query = SdkHttpUtils.encodeParameters(request);
+    if (query != null) {
+      uri += "?" + query;
+    }
+
+    Map<String, String> headers = new LinkedHashMap<>();
+    for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+      // the engine computes these from the target URI and the body
+      if (!"Host".equalsIgnoreCase(header.getKey())
+          && !"Content-Length".equalsIgnoreCase(header.getKey())) {
+        headers.put(header.getKey(), header.getValue());
+      }
+    }
+
+    if (request.getContent() instanceof SerializedPayload) {
+      SerializedPayload payload = (SerializedPayload) request.getContent();
+      return new VinylDNSHttpRequest(
+          request.getHttpMethod().name(),
+          URI.create(uri),
+          headers,
+          payload.array(),
+          payload.length());
+    }
+
+    return new VinylDNSHttpRequest(
+        request.getHttpMethod().name(),
+        URI.create(uri),
+        headers,
+        request.getContent() == null ? null : IOUtils.toByteArray(request.getContent()));
+  }
+
+  /** Returns the pooled payload buffer of a request built by {@link #toSignableRequest}. */
+  static void release(Request<?> request) {
+    if (request.getContent() instanceof SerializedPayload) {
+      ((SerializedPayload) request.getContent()).release();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * When and how often failed requests are retried. GET, PUT and DELETE requests are retried on the
+ * {@link #getRetryableStatusCodes() retryable status codes} and on I/O errors such as connection
+ * resets. POST requests create something on the server, so they are only retried if their operation
+ * is listed in {@link #getRetryNonIdempotentOperations()}.
+ *
+ * <p>Delays grow exponentially from {@link #getBaseDelayMillis()} with full jitter, unless the
+ * server sends {@code Retry-After}. Every retry takes {@link #getRetryCost()} tokens from a bucket
+ * of {@link #getBudgetCapacity()} tokens shared by all requests of a client, and every success puts
+ * one back, so retries stop once most requests are failing.
+ */
+public class VinylDNSRetryPolicy {
+  /** Total number of attempts per request, including the first one. 1 disables retries. */
+  private int maxAttempts = 3;
+
+  /** Upper bound of the delay before the first retry; doubles with every further retry. */
+  private long baseDelayMillis = 100;
+
+  /**
+   * Longest delay before a retry. A {@code Retry-After} asking for more than this is not retried.
+   */
+  private long maxDelayMillis = 20_000;
+
+  private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+
+  /**
+   * POST operations, by {@link VinylDNSClient} method name such as {@code createRecordSet} or
+   * {@code createBatchChanges}, that may be retried. A retried POST can apply a change twice if the
+   * first attempt reached the server.
+   */
+  private Set<String> retryNonIdempotentOperations = Collections.emptySet();
+
+  private int budgetCapacity = 100;
+
+  private int retryCost = 5;
+
+  /** A policy that never retries. */
+  public static VinylDNSRetryPolicy none() {
+    VinylDNSRetryPolicy policy = new VinylDNSRetryPolicy();
+    policy.setMaxAttempts(1);
+    return policy;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getBaseDelayMillis() {
+    return baseDelayMillis;
+  }
+
+  public void setBaseDelayMillis(long baseDelayMillis) {
+    this.baseDelayMillis = baseDelayMillis;
+  }
+
+  public long getMaxDelayMillis() {
+    return maxDelayMillis;
+  }
+
+  public void setMaxDelayMillis(long maxDelayMillis) {
+    this.maxDelayMillis = maxDelayMillis;
+  }
+
+  public Set<Integer> getRetryableStatusCodes() {
+    return retryableStatusCodes;
+  }
+
+  public void setRetryableStatusCodes(Set<Integer> retryableStatusCodes) {
+    this.retryableStatusCodes = retryableStatusCodes;
+  }
+
+  public Set<String> getRetryNonIdempotentOperations() {
+    return retryNonIdempotentOperations;
+  }
+
+  public void setRetryNonIdempotentOperations(Set<String> retryNonIdempotentOperations) {
+    this.retryNonIdempotentOperations = retryNonIdempotentOperations;
+  }
+
+  public int getBudgetCapacity() {
+    return budgetCapacity;
+  }
+
+  public void setBudgetCapacity(int budgetCapacity) {
+    this.budgetCapacity = budgetCapacity;
+  }
+
+  public int getRetryCost() {
+    return retryCost;
+  }
+
+  public void setRetryCost(int retryCost) {
+    this.retryCost = retryCost;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSRetryPolicy{"
+        + "maxAttempts="
+        + maxAttempts
+        + ", baseDelayMillis="
+        + baseDelayMillis
+        + ", maxDelayMillis="
+        + maxDelayMillis
+        + ", retryableStatusCodes="
+        + retryableStatusCodes
+        + ", retryNonIdempotentOperations="
+        + retryNonIdempotentOperations
+        + ", budgetCapacity="
+        + budgetCapacity
+        + ", retryCost="
+        + retryCost
+        + '}';
+  }
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSSessionCredentials;
+import com.amazonaws.auth.AnonymousAWSCredentials;
+import com.amazonaws.auth.Signer;
+import com.amazonaws.http.HttpMethodName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Signs requests with AWS Signature Version 4, producing the same headers as the SDK's {@code
+ * SignerFactory.getSigner("VinylDNS", "us/east")} without loading the SDK's signer registry and
+ * region metadata. The signing key is derived once per day and credentials and then reused.
+ *
+ * <p>That SDK signer ignores its region argument and falls back to {@code us-east-1} for hosts
+ * outside AWS, so that is the default region here too. The API checks the signature against the
+ * scope sent with it, so any region is accepted.
+ */
+public class VinylDNSSigner implements Signer {
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+
+  private static final String TERMINATOR = "aws4_request";
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private static final DateTimeFormatter DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  private static final ThreadLocal<Mac> HMAC =
+      ThreadLocal.withInitial(() -> newInstance(() -> Mac.getInstance("HmacSHA256")));
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(() -> newInstance(() -> MessageDigest.getInstance("SHA-256")));
+
+  private final String serviceName;
+
+  private final String regionName;
+
+  private final Clock clock;
+
+  /** The key of the last day and credentials used; replaced when either changes. */
+  private volatile SigningKey signingKey;
+
+  /** Signs for the VinylDNS API, as service {@code VinylDNS} in region {@code us-east-1}. */
+  public VinylDNSSigner() {
+    this("VinylDNS", "us-east-1");
+  }
+
+  public VinylDNSSigner(String serviceName, String regionName) {
+    this(serviceName, regionName, Clock.systemUTC());
+  }
+
+  VinylDNSSigner(String serviceName, String regionName, Clock clock) {
+    this.serviceName = serviceName;
+    this.regionName = regionName;
+    this.clock = clock;
+  }
+
+  @Override
+  public void sign(SignableRequest<?> request, AWSCredentials credentials) {
+    if (credentials == null || credentials instanceof AnonymousAWSCredentials) {
+      return;
+    }
+
+    String accessKey = trim(credentials.getAWSAccessKeyId());
+    String secretKey = trim(credentials.getAWSSecretKey());
+    if (credentials instanceof AWSSessionCredentials) {
+      request.addHeader(
+          "X-Amz-Security-Token", trim(((AWSSessionCredentials) credentials).getSessionToken()));
+    }
+
+    String dateTime = DATE_TIME.format(clock.instant().minusSeconds(request.getTimeOffset()));
+    String date = dateTime.substring(0, 8);
+    String scope = date + "/" + regionName + "/" + serviceName + "/" + TERMINATOR;
+
+    request.addHeader("Host", host(request.getEndpoint()));
+    request.addHeader("X-Amz-Date", dateTime);
+
+    String contentSha256 = contentSha256(request);
+    if ("required".equals(request.getHeaders().get("x-amz-content-sha256"))) {
+      request.addHeader("x-amz-content-sha256", contentSha256);
+    }
+
+    List<String> headerNames = signedHeaderNames(request.getHeaders());
+    StringBuilder signedHeaders = new StringBuilder();
+    for (String name : headerNames) {
+      if (signedHeaders.length() > 0) {
+        signedHeaders.append(';');
+      }
+      signedHeaders.append(name.toLowerCase());
+    }
+
+    String canonicalRequest =
+        request.getHttpMethod().name()
+            + "\n"
+            + canonicalPath(request)
+            + "\n"
+            + canonicalQuery(request)
+            + "\n"
+            + canonicalHeaders(request.getHeaders(), headerNames)
+            + "\n"
+            + signedHeaders
+            + "\n"
+            + contentSha256;
+
+    String stringToSign =
+        ALGORITHM
+            + "\n"
+            + dateTime
+            + "\n"
+            + scope
+            + "\n"
+            + hex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+    byte[] signature =
+        hmac(signingKey(secretKey, date), stringToSign.getBytes(StandardCharsets.UTF_8));
+
+    request.addHeader(
+        "Authorization",
+        ALGORITHM
+            + " Credential="
+            + accessKey
+            + "/"
+            + scope
+            + ", SignedHeaders="
+            + signedHeaders
+            + ", Signature="
+            + hex(signature));
+  }
+
+  private byte[] signingKey(String secretKey, String date) {
+    SigningKey cached = signingKey;
+    if (cached != null && cached.date.equals(date) && cached.secretKey.equals(secretKey)) {
+      return cached.key;
+    }
+
+    byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+    key = hmac(key, regionName);
+    key = hmac(key, serviceName);
+    key = hmac(key, TERMINATOR);
+
+    signingKey = new SigningKey(secretKey, date, key);
+    return key;
+  }
+
+  private static String host(URI endpoint) {
+    int port = endpoint.getPort();
+    boolean defaultPort =
+        port <= 0
+            || ("http".equalsIgnoreCase(endpoint.getScheme()) && port == 80)
+            || ("https".equalsIgnoreCase(endpoint.getScheme()) && port == 443);
+    return defaultPort ? endpoint.getHost() : endpoint.getHost() + ":" + port;
+  }
+
+  private static String canonicalPath(SignableRequest<?> request) {
+    String path = appendPath(request.getEndpoint().getPath(), request.getResourcePath());
+    if (path.isEmpty()) {
+      return "/";
+    }
+
+    String encoded = urlEncode(path, true);
+    return encoded.startsWith("/") ? encoded : "/" + encoded;
+  }
+
+  private static String appendPath(String base, String path) {
+    String result = base == null ? "" : base;
+    if (path != null && !path.isEmpty()) {
+      if (path.startsWith("/")) {
+        if (result.endsWith("/")) {
+          result = result.substring(0, result.length() - 1);
+        }
+      } else if (!result.endsWith("/")) {
+        result += "/";
+      }
+      return result + path;
+    }
+    return result.endsWith("/") ? result : result + "/";
+  }
+
+  /** A POST without a body is signed with its parameters as the payload. */
+  private static boolean parametersInPayload(SignableRequest<?> request) {
+    return request.getHttpMethod() == HttpMethodName.POST && request.getContent() == null;
+  }
+
+  private static String canonicalQuery(SignableRequest<?> request) {
+    if (parametersInPayload(request)) {
+      return "";
+    }
+
+    SortedMap<String, List<String>> sorted = new TreeMap<>();
+    for (Map.Entry<String, List<String>> parameter : request.getParameters().entrySet()) {
+      List<String> values = new ArrayList<>(parameter.getValue().size());
+      for (String value : parameter.getValue()) {
+        values.add(urlEncode(value, false));
+      }
+      Collections.sort(values);
+      sorted.put(urlEncode(parameter.getKey(), false), values);
+    }
+
+    StringBuilder query = new StringBuilder();
+    for (Map.Entry<String, List<String>> parameter : sorted.entrySet()) {
+      for (String value : parameter.getValue()) {
+        if (query.length() > 0) {
+          query.append('&');
+        }
+        query.append(parameter.getKey()).append('=').append(value);
+      }
+    }
+    return query.toString();
+  }
+
+  private static String contentSha256(SignableRequest<?> request) {
+    if (parametersInPayload(request)) {
+      return hex(sha256(formParameters(request).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    InputStream content = request.getContentUnwrapped();
+    if (content instanceof SerializedPayload) {
+      // hashed while it was serialized
+      return ((SerializedPayload) content).sha256();
+    }
+    if (content == null) {
+      return hex(sha256(new byte[0]));
+    }
+    if (!content.markSupported()) {
+      throw new IllegalArgumentException("request content must support mark and reset");
+    }
+
+    MessageDigest digest = SHA_256.get();
+    digest.reset();
+    try {
+      content.mark(-1);
+      byte[] buffer = new byte[8192];
+      for (int n; (n = content.read(buffer)) != -1; ) {
+        digest.update(buffer, 0, n);
+      }
+      content.reset();
+    } catch (IOException e) {
+      throw new IllegalStateException("unable to read request content", e);
+    }
+    return hex(digest.digest());
+  }
+
+  private static String formParameters(SignableRequest<?> request) {
+    StringBuilder form = new StringBuilder();
+    for (Map.Entry<String, List<String>> parameter : request.getParameters().entrySet()) {
+      for (String value : parameter.getValue()) {
+        if (form.length() > 0) {
+          form.append('&');
+        }
+        form.append(urlEncode(parameter.getKey(), false));
+        if (value != null) {
+          form.append('=').append(urlEncode(value, false));
+        }
+      }
+    }
+    return form.toString();
+  }
+
+  private static List<String> signedHeaderNames(Map<String, String> headers) {
+    List<String> names = new ArrayList<>(headers.size());
+    for (String name : headers.keySet()) {
+      String lower = name.toLowerCase();
+      if (!lower.equals("connection") && !lower.equals("x-amzn-trace-id")) {
+        names.add(name);
+      }
+    }
+    names.sort(String.CASE_INSENSITIVE_ORDER);
+    return names;
+  }
+
+  private static String canonicalHeaders(Map<String, String> headers, List<String> names) {
+    StringBuilder canonical = new StringBuilder();
+    for (String name : names) {
+      appendCompacted(canonical, name.toLowerCase());
+      canonical.append(':');
+      String value = headers.get(name);
+      if (value != null) {
+        appendCompacted(canonical, value.trim());
+      }
+      canonical.append('\n');
+    }
+    return canonical.toString();
+  }
+
+  /** Appends {@code value} with every run of whitespace replaced by a single space. */
+  private static void appendCompacted(StringBuilder destination, String value) {
+    boolean previousIsWhitespace = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      boolean whitespace =
+          c == ' ' || c == '\t' || c == '\n' || c == '\u000b' || c == '\r' || c == '\f';
+      if (!whitespace) {
+        destination.append(c);
+      } else if (!previousIsWhitespace) {
+        destination.append(' ');
+      }
+      previousIsWhitespace = whitespace;
+    }
+  }
+
+  /** RFC 3986 percent-encoding; with {@code path}, slashes are kept. */
+  private static String urlEncode(String value, boolean path) {
+    if (value == null) {
+      return "";
+    }
+
+    try {
+      String encoded =
+          URLEncoder.encode(value, "UTF-8")
+              .replace("+", "%20")
+              .replace("*", "%2A")
+              .replace("%7E", "~");
+      return path ? encoded.replace("%2F", "/") : encoded;
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String trim(String value) {
+    return value == null ? null : value.trim();
+  }
+
+  private static byte[] hmac(byte[] key, String data) {
+    return hmac(key, data.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] hmac(byte[] key, byte[] data) {
+    Mac mac = HMAC.get();
+    try {
+      mac.init(new SecretKeySpec(key, "HmacSHA256"));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+    return mac.doFinal(data);
+  }
+
+  private static byte[] sha256(byte[] data) {
+    MessageDigest digest = SHA_256.get();
+    digest.reset();
+    return digest.digest(data);
+  }
+
+  private static String hex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+  private interface Factory<T> {
+    T create() throws GeneralSecurityException;
+  }
+
+  private static <T> T newInstance(Factory<T> factory) {
+    try {
+      return factory.create();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class SigningKey {
+    private final String secretKey;
+
+    private final String date;
+
+    private final byte[] key;
+
+    SigningKey(String secretKey, String date, byte[] key) {
+      this.secretKey = secretKey;
+      this.date = date;
+      this.key = key;
+    }
+  }
+}
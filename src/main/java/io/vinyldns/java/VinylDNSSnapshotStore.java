@@ -0,0 +1,551 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.google.gson.Gson;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesRequest;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetChange;
+import io.vinyldns.java.model.record.set.RecordSetChangeStatus;
+import io.vinyldns.java.model.record.set.RecordSetChangeType;
+import io.vinyldns.java.model.zone.ListZoneChangesRequest;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.model.zone.ZoneChangeStatus;
+import io.vinyldns.java.model.zone.ZoneChangeType;
+import io.vinyldns.java.model.zone.ZoneResponse;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local copy of every zone the client can list and their record sets, kept in one file.
+ *
+ * <p>The file is memory-mapped: opening it reads only the zones and checkpoints, and the record
+ * sets of a zone are decoded when {@link #getRecordSets} asks for them. {@link #sync} brings the
+ * copy up to date: zones new to the snapshot are scanned with {@link
+ * VinylDNSClient#listRecordSets}, while known zones only read the pages of {@link
+ * VinylDNSClient#listRecordSetChanges} and {@link VinylDNSClient#listZoneChanges} that are newer
+ * than the checkpoints stored with them. A zone is scanned again when its change history no longer
+ * reaches back to its checkpoint or when it was synced with its DNS backend since the last run.
+ *
+ * <p>{@link #sync} writes a new file next to the old one and moves it into place, so readers and
+ * other processes always see a complete snapshot; the record sets of unchanged zones are copied
+ * without being decoded. Record sets are stored as the JSON the API returns, each prefixed with its
+ * length, and a snapshot is limited to 2 GiB.
+ */
+public class VinylDNSSnapshotStore {
+  private static final int MAGIC = 0x56444e53; // "VDNS"
+  private static final int VERSION = 1;
+  private static final int PAGE_SIZE = 100;
+  private static final int FRESH_PAGE_SIZE = 10;
+
+  private final VinylDNSClient client;
+  private final Path file;
+  private final int parallelism;
+  private final Gson gson = SerializationFactory.createGson();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Opens the snapshot in {@code file}, if there is one. Nothing is fetched until {@link #sync}.
+   */
+  public VinylDNSSnapshotStore(VinylDNSClient client, Path file, int parallelism)
+      throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    this.client = client;
+    this.file = file;
+    this.parallelism = parallelism;
+    this.snapshot = open(file);
+  }
+
+  /** The zones in the snapshot, in the order {@link VinylDNSClient#listZones} returned them. */
+  public List<Zone> getZones() {
+    List<Zone> zones = new ArrayList<>();
+    for (Section section : snapshot.sections.values()) {
+      zones.add(section.zone);
+    }
+    return zones;
+  }
+
+  /** The zone with the given id, or null if the snapshot does not have it. */
+  public Zone getZone(String zoneId) {
+    Section section = snapshot.sections.get(zoneId);
+    return section == null ? null : section.zone;
+  }
+
+  /** The zone with the given name, with or without the trailing dot, or null. */
+  public Zone getZoneByName(String name) {
+    String wanted = normalize(name);
+    for (Section section : snapshot.sections.values()) {
+      if (normalize(section.zone.getName()).equals(wanted)) {
+        return section.zone;
+      }
+    }
+    return null;
+  }
+
+  /** The record sets of a zone, decoded from the file, or an empty list for an unknown zone. */
+  public List<RecordSet> getRecordSets(String zoneId) {
+    Snapshot current = snapshot;
+    Section section = current.sections.get(zoneId);
+    if (section == null) {
+      return Collections.emptyList();
+    }
+    return new ArrayList<>(section.decode(current.buffer, gson).values());
+  }
+
+  /** Number of record sets across all zones of the snapshot. */
+  public long getRecordSetCount() {
+    long count = 0;
+    for (Section section : snapshot.sections.values()) {
+      count += section.recordSetCount;
+    }
+    return count;
+  }
+
+  /**
+   * Brings the snapshot up to date and writes it to the file. If a request fails, the previous
+   * snapshot is kept and the error is thrown.
+   */
+  public synchronized Result sync() throws IOException {
+    return sync(snapshot);
+  }
+
+  /** Scans every zone again, ignoring the checkpoints of the current snapshot. */
+  public synchronized Result rebuild() throws IOException {
+    return sync(Snapshot.EMPTY);
+  }
+
+  private Result sync(Snapshot previous) throws IOException {
+    Result result = new Result();
+    List<Zone> zones = new ArrayList<>();
+    for (Zone zone : new VinylDNSPaginator(client).listAllZones(new ListZonesRequest())) {
+      zones.add(zone);
+    }
+    for (String zoneId : previous.sections.keySet()) {
+      if (!containsZone(zones, zoneId)) {
+        result.removedZones++;
+      }
+    }
+
+    Path temp =
+        Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        ByteBuffer header = ByteBuffer.allocate(12);
+        header.putInt(MAGIC).putInt(VERSION).putInt(zones.size()).flip();
+        write(out, header);
+
+        // keep a bounded window of zones in flight so memory does not grow with the zone count
+        Deque<Future<Update>> window = new ArrayDeque<>();
+        Iterator<Zone> pending = zones.iterator();
+        while (pending.hasNext() || !window.isEmpty()) {
+          while (pending.hasNext() && window.size() < 2 * parallelism) {
+            Zone zone = pending.next();
+            Section old = previous.sections.get(zone.getId());
+            window.add(executor.submit(() -> update(zone, old, previous.buffer, result)));
+          }
+          write(out, await(window.poll()), previous.buffer);
+        }
+        out.force(true);
+      }
+      if (Files.size(temp) > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot of " + zones.size() + " zones is larger than 2 GiB");
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      executor.shutdownNow();
+      Files.deleteIfExists(temp);
+    }
+    snapshot = open(file);
+    result.zones = zones.size();
+    return result;
+  }
+
+  /** Fetches what changed in one zone and encodes its section, runs on the executor. */
+  private Update update(Zone zone, Section old, ByteBuffer buffer, Result result) {
+    byte[] zoneJson = gson.toJson(zone).getBytes(StandardCharsets.UTF_8);
+    if (old != null) {
+      Feed<ZoneResponse> zoneFeed = zoneChanges(zone.getId(), old.zoneCheckpoint, false);
+      boolean synced = false;
+      for (ZoneResponse change : zoneFeed.changes) {
+        synced |=
+            change.getChangeType() == ZoneChangeType.Sync
+                && (change.getStatus() == ZoneChangeStatus.Synced
+                    || change.getStatus() == ZoneChangeStatus.Complete);
+      }
+      if (zoneFeed.complete && !synced) {
+        Feed<RecordSetChange> recordSetFeed =
+            recordSetChanges(zone.getId(), old.recordSetCheckpoint, false);
+        if (recordSetFeed.complete) {
+          if (recordSetFeed.changes.isEmpty()) {
+            return new Update(zoneJson, recordSetFeed.checkpoint, zoneFeed.checkpoint, old, null);
+          }
+          Map<String, RecordSet> recordSets = old.decode(buffer, gson);
+          for (int i = recordSetFeed.changes.size() - 1; i >= 0; i--) {
+            RecordSetChange change = recordSetFeed.changes.get(i);
+            if (change.getStatus() != RecordSetChangeStatus.Complete) {
+              continue;
+            }
+            if (change.getChangeType() == RecordSetChangeType.Delete) {
+              recordSets.remove(change.getRecordSet().getId());
+            } else {
+              recordSets.put(change.getRecordSet().getId(), change.getRecordSet());
+            }
+            result.appliedChanges.incrementAndGet();
+          }
+          return new Update(
+              zoneJson, recordSetFeed.checkpoint, zoneFeed.checkpoint, null, recordSets.values());
+        }
+      }
+    }
+
+    // checkpoints first, so changes made during the scan are applied again by the next sync
+    String recordSetCheckpoint = recordSetChanges(zone.getId(), null, true).checkpoint;
+    String zoneCheckpoint = zoneChanges(zone.getId(), null, true).checkpoint;
+    List<RecordSet> recordSets = new ArrayList<>();
+    for (RecordSet recordSet :
+        new VinylDNSPaginator(client)
+            .listAllRecordSets(new ListRecordSetsRequest(zone.getId(), null, null, PAGE_SIZE))) {
+      recordSets.add(recordSet);
+    }
+    result.scannedZones.incrementAndGet();
+    return new Update(zoneJson, recordSetCheckpoint, zoneCheckpoint, null, recordSets);
+  }
+
+  /**
+   * Reads record set changes newest first until {@code checkpoint}, or all of them if it is null. A
+   * fresh feed only looks for the checkpoint to store with a zone about to be scanned.
+   */
+  private Feed<RecordSetChange> recordSetChanges(String zoneId, String checkpoint, boolean fresh) {
+    ListRecordSetChangesRequest request =
+        new ListRecordSetChangesRequest(zoneId, null, fresh ? FRESH_PAGE_SIZE : PAGE_SIZE);
+    Feed<RecordSetChange> feed = new Feed<>(checkpoint, fresh);
+    for (RecordSetChange change : new VinylDNSPaginator(client).listAllRecordSetChanges(request)) {
+      if (feed.add(change.getId(), isFinal(change.getStatus()), change)) {
+        break;
+      }
+    }
+    return feed;
+  }
+
+  /** Same as {@link #recordSetChanges}, for zone changes. */
+  private Feed<ZoneResponse> zoneChanges(String zoneId, String checkpoint, boolean fresh) {
+    ListZoneChangesRequest request =
+        new ListZoneChangesRequest(zoneId, null, fresh ? FRESH_PAGE_SIZE : PAGE_SIZE);
+    Feed<ZoneResponse> feed = new Feed<>(checkpoint, fresh);
+    for (ZoneResponse change : new VinylDNSPaginator(client).listAllZoneChanges(request)) {
+      if (feed.add(change.getId(), change.getStatus() != ZoneChangeStatus.Pending, change)) {
+        break;
+      }
+    }
+    return feed;
+  }
+
+  private static boolean isFinal(RecordSetChangeStatus status) {
+    return status == RecordSetChangeStatus.Complete || status == RecordSetChangeStatus.Failed;
+  }
+
+  private Update await(Future<Update> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while syncing the snapshot");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void write(FileChannel out, Update update, ByteBuffer previous) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream header = new DataOutputStream(bytes);
+    writeString(header, update.zoneJson);
+    writeString(header, update.recordSetCheckpoint);
+    writeString(header, update.zoneCheckpoint);
+
+    ByteBuffer records;
+    if (update.unchanged != null) {
+      header.writeInt(update.unchanged.recordSetCount);
+      records = update.unchanged.records(previous);
+    } else {
+      ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+      DataOutputStream data = new DataOutputStream(encoded);
+      for (RecordSet recordSet : update.recordSets) {
+        writeString(data, gson.toJson(recordSet).getBytes(StandardCharsets.UTF_8));
+      }
+      header.writeInt(update.recordSets.size());
+      records = ByteBuffer.wrap(encoded.toByteArray());
+    }
+
+    ByteBuffer length = ByteBuffer.allocate(4);
+    length.putInt(bytes.size() + records.remaining()).flip();
+    write(out, length);
+    write(out, ByteBuffer.wrap(bytes.toByteArray()));
+    write(out, records);
+  }
+
+  private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    writeString(out, value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void writeString(DataOutputStream out, byte[] value) throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private Snapshot open(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException(path + " is larger than 2 GiB");
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (NoSuchFileException e) {
+      return Snapshot.EMPTY;
+    }
+
+    try {
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new IOException(path + " is not a VinylDNS snapshot");
+      }
+      int zones = buffer.getInt();
+      Map<String, Section> sections = new LinkedHashMap<>();
+      for (int i = 0; i < zones; i++) {
+        int length = buffer.getInt();
+        int end = buffer.position() + length;
+        Section section = new Section();
+        section.zone = gson.fromJson(readString(buffer), Zone.class);
+        section.recordSetCheckpoint = emptyToNull(readString(buffer));
+        section.zoneCheckpoint = emptyToNull(readString(buffer));
+        section.recordSetCount = buffer.getInt();
+        section.recordsStart = buffer.position();
+        section.recordsEnd = end;
+        sections.put(section.zone.getId(), section);
+        buffer.position(end);
+      }
+      return new Snapshot(buffer, sections);
+    } catch (RuntimeException e) {
+      throw new IOException(path + " is corrupt", e);
+    }
+  }
+
+  private static boolean containsZone(List<Zone> zones, String zoneId) {
+    for (Zone zone : zones) {
+      if (zone.getId().equals(zoneId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String emptyToNull(String value) {
+    return value.isEmpty() ? null : value;
+  }
+
+  private static String normalize(String name) {
+    String lower = name.toLowerCase(Locale.ROOT);
+    return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+  }
+
+  /** Outcome of a sync. */
+  public static class Result {
+    private int zones;
+    private int removedZones;
+    private final AtomicLong scannedZones = new AtomicLong();
+    private final AtomicLong appliedChanges = new AtomicLong();
+
+    /** Number of zones in the new snapshot. */
+    public int getZones() {
+      return zones;
+    }
+
+    /** Number of zones that were listed in full, because they were new or had to be rescanned. */
+    public long getScannedZones() {
+      return scannedZones.get();
+    }
+
+    /** Number of zones dropped because they can no longer be listed. */
+    public int getRemovedZones() {
+      return removedZones;
+    }
+
+    /** Number of completed record set changes applied to known zones. */
+    public long getAppliedChanges() {
+      return appliedChanges.get();
+    }
+
+    @Override
+    public String toString() {
+      return "Result{"
+          + "zones="
+          + zones
+          + ", scannedZones="
+          + scannedZones.get()
+          + ", removedZones="
+          + removedZones
+          + ", appliedChanges="
+          + appliedChanges.get()
+          + '}';
+    }
+  }
+
+  /** The mapped file and the position of each zone in it. */
+  private static final class Snapshot {
+    static final Snapshot EMPTY =
+        new Snapshot(ByteBuffer.allocate(0), Collections.<String, Section>emptyMap());
+
+    final ByteBuffer buffer;
+    final Map<String, Section> sections;
+
+    Snapshot(ByteBuffer buffer, Map<String, Section> sections) {
+      this.buffer = buffer;
+      this.sections = sections;
+    }
+  }
+
+  private static final class Section {
+    Zone zone;
+    String recordSetCheckpoint;
+    String zoneCheckpoint;
+    int recordSetCount;
+    int recordsStart;
+    int recordsEnd;
+
+    /** A view of the encoded record sets; the shared buffer itself is never moved. */
+    ByteBuffer records(ByteBuffer buffer) {
+      ByteBuffer records = buffer.duplicate();
+      records.limit(recordsEnd).position(recordsStart);
+      return records;
+    }
+
+    Map<String, RecordSet> decode(ByteBuffer buffer, Gson gson) {
+      ByteBuffer records = records(buffer);
+      Map<String, RecordSet> recordSets = new LinkedHashMap<>();
+      for (int i = 0; i < recordSetCount; i++) {
+        RecordSet recordSet = gson.fromJson(readString(records), RecordSet.class);
+        recordSets.put(recordSet.getId(), recordSet);
+      }
+      return recordSets;
+    }
+  }
+
+  /** A new section: either the record sets of an unchanged zone or the new record sets. */
+  private static final class Update {
+    final byte[] zoneJson;
+    final String recordSetCheckpoint;
+    final String zoneCheckpoint;
+    final Section unchanged;
+    final Collection<RecordSet> recordSets;
+
+    Update(
+        byte[] zoneJson,
+        String recordSetCheckpoint,
+        String zoneCheckpoint,
+        Section unchanged,
+        Collection<RecordSet> recordSets) {
+      this.zoneJson = zoneJson;
+      this.recordSetCheckpoint = recordSetCheckpoint;
+      this.zoneCheckpoint = zoneCheckpoint;
+      this.unchanged = unchanged;
+      this.recordSets = recordSets;
+    }
+  }
+
+  /**
+   * Changes newer than a checkpoint, newest first. The new checkpoint does not move past a change
+   * that may still change status, so such a change is read again by the next sync.
+   */
+  private static final class Feed<T> {
+    final String previous;
+    final boolean fresh;
+    final List<T> changes = new ArrayList<>();
+    String checkpoint;
+    boolean complete;
+    private boolean searching = true;
+
+    Feed(String previous, boolean fresh) {
+      this.previous = previous;
+      this.fresh = fresh;
+      this.checkpoint = previous;
+      this.complete = previous == null;
+    }
+
+    /**
+     * Adds the next older change; returns true once the previous checkpoint is reached, or, for a
+     * fresh feed, once a checkpoint is found.
+     */
+    boolean add(String id, boolean isFinal, T change) {
+      if (id.equals(previous)) {
+        complete = true;
+        return true;
+      }
+      changes.add(change);
+      if (!isFinal) {
+        checkpoint = previous;
+        searching = true;
+      } else if (searching) {
+        checkpoint = id;
+        searching = false;
+        return fresh;
+      }
+      return false;
+    }
+  }
+}
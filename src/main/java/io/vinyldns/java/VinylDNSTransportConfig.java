@@ -0,0 +1,205 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+
+/**
+ * Connection pool and socket settings for the HTTP layer. The defaults match the ones the client
+ * used before these settings were configurable.
+ *
+ * <p>The non-blocking engine behind {@link VinylDNSAsyncClient} notices closed connections as soon
+ * as the peer closes them, so idle eviction and validate-after-inactivity only apply to {@link
+ * VinylDNSClientImpl}.
+ */
+public class VinylDNSTransportConfig {
+  /** Maximum number of open connections to the VinylDNS API. */
+  private int maxConnections = ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+
+  /**
+   * Maximum time in milliseconds a pooled connection is kept, regardless of activity. A negative
+   * value keeps connections until they are closed or evicted as idle.
+   */
+  private long connectionTtlMillis = ClientConfiguration.DEFAULT_CONNECTION_TTL;
+
+  /** Time in milliseconds after which an idle pooled connection may be closed. */
+  private long connectionMaxIdleMillis = ClientConfiguration.DEFAULT_CONNECTION_MAX_IDLE_MILLIS;
+
+  /** Whether a background thread closes idle and expired connections. */
+  private boolean idleConnectionEviction = ClientConfiguration.DEFAULT_USE_REAPER;
+
+  /** Time in milliseconds to wait for data on an established connection. 0 waits forever. */
+  private int socketTimeoutMillis = ClientConfiguration.DEFAULT_SOCKET_TIMEOUT;
+
+  /** Time in milliseconds to wait when opening a connection. 0 waits forever. */
+  private int connectionTimeoutMillis = ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT;
+
+  /** Time in milliseconds one attempt at a request may take, response included. 0 disables it. */
+  private int requestTimeoutMillis = ClientConfiguration.DEFAULT_REQUEST_TIMEOUT;
+
+  /** Whether to enable TCP keep-alive on pooled sockets. */
+  private boolean tcpKeepAlive = ClientConfiguration.DEFAULT_TCP_KEEP_ALIVE;
+
+  /**
+   * Time in milliseconds a pooled connection may sit unused before it is checked for staleness
+   * before reuse.
+   */
+  private int validateAfterInactivityMillis =
+      ClientConfiguration.DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS;
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public long getConnectionTtlMillis() {
+    return connectionTtlMillis;
+  }
+
+  public void setConnectionTtlMillis(long connectionTtlMillis) {
+    this.connectionTtlMillis = connectionTtlMillis;
+  }
+
+  public long getConnectionMaxIdleMillis() {
+    return connectionMaxIdleMillis;
+  }
+
+  public void setConnectionMaxIdleMillis(long connectionMaxIdleMillis) {
+    this.connectionMaxIdleMillis = connectionMaxIdleMillis;
+  }
+
+  public boolean isIdleConnectionEviction() {
+    return idleConnectionEviction;
+  }
+
+  public void setIdleConnectionEviction(boolean idleConnectionEviction) {
+    this.idleConnectionEviction = idleConnectionEviction;
+  }
+
+  public int getSocketTimeoutMillis() {
+    return socketTimeoutMillis;
+  }
+
+  public void setSocketTimeoutMillis(int socketTimeoutMillis) {
+    this.socketTimeoutMillis = socketTimeoutMillis;
+  }
+
+  public int getConnectionTimeoutMillis() {
+    return connectionTimeoutMillis;
+  }
+
+  public void setConnectionTimeoutMillis(int connectionTimeoutMillis) {
+    this.connectionTimeoutMillis = connectionTimeoutMillis;
+  }
+
+  public int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
+  public void setRequestTimeoutMillis(int requestTimeoutMillis) {
+    this.requestTimeoutMillis = requestTimeoutMillis;
+  }
+
+  public boolean isTcpKeepAlive() {
+    return tcpKeepAlive;
+  }
+
+  public void setTcpKeepAlive(boolean tcpKeepAlive) {
+    this.tcpKeepAlive = tcpKeepAlive;
+  }
+
+  public int getValidateAfterInactivityMillis() {
+    return validateAfterInactivityMillis;
+  }
+
+  public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+    this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+  }
+
+  /**
+   * Builds the SDK configuration used by the blocking client. The SDK's own retries are disabled;
+   * {@link VinylDNSRetryPolicy} decides instead.
+   */
+  ClientConfiguration toClientConfiguration() {
+    return new ClientConfiguration()
+        .withRetryPolicy(PredefinedRetryPolicies.NO_RETRY_POLICY)
+        .withMaxConnections(maxConnections)
+        .withConnectionTTL(connectionTtlMillis)
+        .withConnectionMaxIdleMillis(connectionMaxIdleMillis)
+        .withReaper(idleConnectionEviction)
+        .withSocketTimeout(socketTimeoutMillis)
+        .withConnectionTimeout(connectionTimeoutMillis)
+        .withRequestTimeout(requestTimeoutMillis)
+        .withTcpKeepAlive(tcpKeepAlive)
+        .withValidateAfterInactivityMillis(validateAfterInactivityMillis);
+  }
+
+  /** Builds the engine configuration used by the asynchronous client. */
+  HttpAsyncClientBuilder toAsyncClientBuilder() {
+    HttpAsyncClientBuilder builder =
+        HttpAsyncClients.custom()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnections)
+            .setDefaultIOReactorConfig(
+                IOReactorConfig.custom()
+                    .setSoKeepAlive(tcpKeepAlive)
+                    .setConnectTimeout(connectionTimeoutMillis)
+                    .setSoTimeout(socketTimeoutMillis)
+                    .build())
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectTimeout(connectionTimeoutMillis)
+                    .setSocketTimeout(socketTimeoutMillis)
+                    .build());
+
+    if (connectionTtlMillis > 0) {
+      builder.setConnectionTimeToLive(connectionTtlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return "VinylDNSTransportConfig{"
+        + "maxConnections="
+        + maxConnections
+        + ", connectionTtlMillis="
+        + connectionTtlMillis
+        + ", connectionMaxIdleMillis="
+        + connectionMaxIdleMillis
+        + ", idleConnectionEviction="
+        + idleConnectionEviction
+        + ", socketTimeoutMillis="
+        + socketTimeoutMillis
+        + ", connectionTimeoutMillis="
+        + connectionTimeoutMillis
+        + ", requestTimeoutMillis="
+        + requestTimeoutMillis
+        + ", tcpKeepAlive="
+        + tcpKeepAlive
+        + ", validateAfterInactivityMillis="
+        + validateAfterInactivityMillis
+        + '}';
+  }
+}
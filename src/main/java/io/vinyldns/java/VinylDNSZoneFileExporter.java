@@ -0,0 +1,333 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.zone.Zone;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writes the record sets of a zone as an RFC 1035 zone file, page by page as {@link
+ * VinylDNSClient#listRecordSets} returns them, through a pooled buffer. Only the record sets of one
+ * name are held at a time, so memory does not grow with the size of the zone.
+ *
+ * <p>The output starts with {@code $ORIGIN} and the apex record sets (SOA first), then follows the
+ * order in which VinylDNS lists names. Every line carries its owner, TTL and class; within a name,
+ * record sets are ordered SOA, NS, then by type name, and records by their text, so exports of the
+ * same zone compare equal. TXT and SPF strings are quoted, escaped and split into 255-byte strings.
+ * {@link RecordType#UNKNOWN} record sets cannot be expressed in a zone file and are written as
+ * comments.
+ *
+ * <p>A failure response surfaces as a {@link VinylDNSException}; what was written before it stays
+ * written.
+ */
+public class VinylDNSZoneFileExporter {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int POOL_SIZE = 4;
+
+  private static final Queue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+
+  private static final int MAX_STRING_LENGTH = 255;
+
+  private static final Comparator<RecordSet> TYPE_ORDER =
+      Comparator.comparingInt((RecordSet recordSet) -> typeRank(recordSet.getType()))
+          .thenComparing(recordSet -> String.valueOf(recordSet.getType()));
+
+  private final VinylDNSPaginator paginator;
+
+  public VinylDNSZoneFileExporter(VinylDNSClient client) {
+    this(new VinylDNSPaginator(client));
+  }
+
+  /** Pass a paginator with a prefetch executor to fetch the next page while one is written. */
+  public VinylDNSZoneFileExporter(VinylDNSPaginator paginator) {
+    this.paginator = paginator;
+  }
+
+  /**
+   * Writes the zone to {@code out} and flushes it; the stream is not closed. Returns the number of
+   * records written.
+   */
+  public long export(Zone zone, OutputStream out) throws IOException {
+    long records = export(zone, Channels.newChannel(out));
+    out.flush();
+    return records;
+  }
+
+  /**
+   * Writes the zone to {@code channel}, which is not closed. Returns the number of records written.
+   */
+  public long export(Zone zone, WritableByteChannel channel) throws IOException {
+    String origin = zone.getName().endsWith(".") ? zone.getName() : zone.getName() + ".";
+    Output out = new Output(channel);
+    try {
+      out.text("$ORIGIN ").text(origin).newline();
+
+      // the apex comes first wherever VinylDNS lists it, so it is fetched on its own
+      List<RecordSet> apex = new ArrayList<>();
+      for (RecordSet recordSet :
+          paginator.listAllRecordSets(new ListRecordSetsRequest(zone.getId(), origin))) {
+        if (isApex(recordSet.getName(), origin)) {
+          apex.add(recordSet);
+        }
+      }
+      long records = writeName(out, apex, origin);
+      boolean apexWritten = !apex.isEmpty();
+
+      List<RecordSet> group = new ArrayList<>();
+      String name = null;
+      for (RecordSet recordSet :
+          paginator.listAllRecordSets(new ListRecordSetsRequest(zone.getId()))) {
+        if (apexWritten && isApex(recordSet.getName(), origin)) {
+          continue;
+        }
+        if (!recordSet.getName().equalsIgnoreCase(name)) {
+          records += writeName(out, group, origin);
+          group.clear();
+          name = recordSet.getName();
+        }
+        group.add(recordSet);
+      }
+      records += writeName(out, group, origin);
+
+      out.flush();
+      return records;
+    } finally {
+      out.release();
+    }
+  }
+
+  /** Writes the record sets of one name in canonical order. */
+  private static long writeName(Output out, List<RecordSet> recordSets, String origin)
+      throws IOException {
+    if (recordSets.size() > 1) {
+      recordSets.sort(TYPE_ORDER);
+    }
+
+    long written = 0;
+    StringBuilder rdata = new StringBuilder();
+    for (RecordSet recordSet : recordSets) {
+      if (recordSet.getRecords() == null || recordSet.getRecords().isEmpty()) {
+        continue;
+      }
+
+      List<String> records = new ArrayList<>(recordSet.getRecords().size());
+      for (RecordData data : recordSet.getRecords()) {
+        rdata.setLength(0);
+        render(rdata, data);
+        records.add(rdata.toString());
+      }
+      if (records.size() > 1) {
+        Collections.sort(records);
+      }
+
+      boolean unknown = recordSet.getType() == null || recordSet.getType() == RecordType.UNKNOWN;
+      String owner = owner(recordSet.getName(), origin);
+      for (String record : records) {
+        if (unknown) {
+          out.text("; ");
+        }
+        out.text(owner).tab().number(recordSet.getTtl()).tab().text("IN").tab();
+        out.text(String.valueOf(recordSet.getType())).tab().text(record).newline();
+        if (!unknown) {
+          written++;
+        }
+      }
+    }
+    return written;
+  }
+
+  private static void render(StringBuilder out, RecordData data) {
+    if (data instanceof AData) {
+      out.append(((AData) data).getAddress());
+    } else if (data instanceof AAAAData) {
+      out.append(((AAAAData) data).getAddress());
+    } else if (data instanceof CNAMEData) {
+      out.append(((CNAMEData) data).getCname());
+    } else if (data instanceof PTRData) {
+      out.append(((PTRData) data).getPtrdname());
+    } else if (data instanceof NSData) {
+      out.append(((NSData) data).getNsdname());
+    } else if (data instanceof MXData) {
+      MXData mx = (MXData) data;
+      out.append(mx.getPreference()).append(' ').append(mx.getExchange());
+    } else if (data instanceof SOAData) {
+      SOAData soa = (SOAData) data;
+      out.append(soa.getMname()).append(' ').append(soa.getRname()).append(' ');
+      out.append(soa.getSerial()).append(' ').append(soa.getRefresh()).append(' ');
+      out.append(soa.getRetry()).append(' ').append(soa.getExpire()).append(' ');
+      out.append(soa.getMinimum());
+    } else if (data instanceof SRVData) {
+      SRVData srv = (SRVData) data;
+      out.append(srv.getPriority()).append(' ').append(srv.getWeight()).append(' ');
+      out.append(srv.getPort()).append(' ').append(srv.getTarget());
+    } else if (data instanceof SSHFPData) {
+      SSHFPData sshfp = (SSHFPData) data;
+      out.append(sshfp.getAlgorithm()).append(' ').append(sshfp.getType()).append(' ');
+      out.append(sshfp.getFingerprint());
+    } else if (data instanceof TXTData) {
+      quote(out, ((TXTData) data).getText());
+    } else if (data instanceof SPFData) {
+      quote(out, ((SPFData) data).getText());
+    } else if (data instanceof UNKNOWNData) {
+      out.append(((UNKNOWNData) data).getRawData());
+    } else {
+      out.append(data);
+    }
+  }
+
+  /**
+   * Writes text as quoted character strings of at most 255 bytes, escaping quotes, backslashes and
+   * bytes outside printable ASCII.
+   */
+  static void quote(StringBuilder out, String text) {
+    byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    int i = 0;
+    do {
+      if (i > 0) {
+        out.append(' ');
+      }
+      out.append('"');
+      int end = Math.min(bytes.length, i + MAX_STRING_LENGTH);
+      for (; i < end; i++) {
+        int b = bytes[i] & 0xff;
+        if (b == '"' || b == '\\') {
+          out.append('\\').append((char) b);
+        } else if (b < 0x20 || b > 0x7e) {
+          out.append('\\');
+          if (b < 100) {
+            out.append('0');
+          }
+          if (b < 10) {
+            out.append('0');
+          }
+          out.append(b);
+        } else {
+          out.append((char) b);
+        }
+      }
+      out.append('"');
+    } while (i < bytes.length);
+  }
+
+  private static String owner(String name, String origin) {
+    return isApex(name, origin) ? "@" : name;
+  }
+
+  private static boolean isApex(String name, String origin) {
+    return name.equals("@")
+        || name.equalsIgnoreCase(origin)
+        || name.length() == origin.length() - 1
+            && origin.regionMatches(true, 0, name, 0, name.length());
+  }
+
+  private static int typeRank(RecordType type) {
+    if (type == RecordType.SOA) {
+      return 0;
+    }
+    return type == RecordType.NS ? 1 : 2;
+  }
+
+  /** A pooled buffer in front of the channel. */
+  private static final class Output {
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer;
+
+    Output(WritableByteChannel channel) {
+      this.channel = channel;
+      ByteBuffer pooled = POOL.poll();
+      this.buffer = pooled == null ? ByteBuffer.allocate(BUFFER_SIZE) : pooled;
+    }
+
+    Output text(String text) throws IOException {
+      int length = text.length();
+      for (int i = 0; i < length; i++) {
+        if (text.charAt(i) >= 0x80) {
+          return bytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      for (int i = 0; i < length; i++) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        buffer.put((byte) text.charAt(i));
+      }
+      return this;
+    }
+
+    Output number(long value) throws IOException {
+      return text(Long.toString(value));
+    }
+
+    Output tab() throws IOException {
+      return put((byte) '\t');
+    }
+
+    Output newline() throws IOException {
+      return put((byte) '\n');
+    }
+
+    private Output put(byte b) throws IOException {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      buffer.put(b);
+      return this;
+    }
+
+    private Output bytes(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+      return this;
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    void release() {
+      buffer.clear();
+      if (POOL.size() < POOL_SIZE) {
+        POOL.offer(buffer);
+      }
+      buffer = null;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Imports a zone file into VinylDNS: records are read with {@link VinylDNSZoneFileReader} and sent
+ * through {@link VinylDNSClient#createBatchChanges} in batches of at most {@code
+ * maxChangesPerBatch} changes, while the file is still being read.
+ *
+ * <p>At most {@code parallelism} batches are in flight and only failed batches are kept, so memory
+ * does not grow with the size of the file. A batch never ends in the middle of consecutive records
+ * for the same name, which keeps the records of a record set together as long as the file lists
+ * them together (as BIND and most tools do). SOA records are skipped by default, since VinylDNS
+ * manages the SOA of its zones; see {@link #setFilter}.
+ */
+public class VinylDNSZoneFileImporter {
+  private final VinylDNSClient client;
+  private final int maxChangesPerBatch;
+  private final int parallelism;
+  private Predicate<? super AddChangeInput> filter = change -> change.getType() != RecordType.SOA;
+
+  public VinylDNSZoneFileImporter(VinylDNSClient client, int parallelism) {
+    this(client, VinylDNSBatchSubmitter.DEFAULT_MAX_CHANGES_PER_BATCH, parallelism);
+  }
+
+  public VinylDNSZoneFileImporter(VinylDNSClient client, int maxChangesPerBatch, int parallelism) {
+    if (maxChangesPerBatch < 1) {
+      throw new IllegalArgumentException("maxChangesPerBatch must be positive");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive");
+    }
+    this.client = client;
+    this.maxChangesPerBatch = maxChangesPerBatch;
+    this.parallelism = parallelism;
+  }
+
+  public Predicate<? super AddChangeInput> getFilter() {
+    return filter;
+  }
+
+  /** Sets which records are imported; the default skips SOA records. */
+  public void setFilter(Predicate<? super AddChangeInput> filter) {
+    this.filter = filter;
+  }
+
+  /** Imports the zone file with no comments or owner group. */
+  public Result importZone(Path file, String origin) throws IOException {
+    try (VinylDNSZoneFileReader reader = new VinylDNSZoneFileReader(file, origin)) {
+      return importZone(reader, new CreateBatchRequest(Collections.emptyList()));
+    }
+  }
+
+  /**
+   * Imports every record {@code reader} returns. Comments, owner group, scheduled time and manual
+   * review settings of {@code template} are copied to every batch; its changes are ignored. Blocks
+   * until every batch has been answered. If the file cannot be read, the batches already sent stay
+   * submitted and the error is thrown once they are answered.
+   */
+  public Result importZone(VinylDNSZoneFileReader reader, CreateBatchRequest template)
+      throws IOException {
+    Result result = new Result();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    Semaphore permits = new Semaphore(parallelism);
+    try {
+      List<ChangeInput> current = new ArrayList<>(maxChangesPerBatch);
+      String currentName = null;
+      int runStart = 0;
+
+      AddChangeInput change;
+      while ((change = reader.next()) != null) {
+        if (!filter.test(change)) {
+          continue;
+        }
+        result.records++;
+
+        boolean sameName = change.getInputName().equalsIgnoreCase(currentName);
+        if (current.size() == maxChangesPerBatch) {
+          if (sameName && runStart > 0) {
+            // move the records of this name to the next batch
+            List<ChangeInput> rest = new ArrayList<>(maxChangesPerBatch);
+            rest.addAll(current.subList(runStart, current.size()));
+            submit(
+                template, new ArrayList<>(current.subList(0, runStart)), result, executor, permits);
+            current = rest;
+          } else {
+            submit(template, current, result, executor, permits);
+            current = new ArrayList<>(maxChangesPerBatch);
+          }
+          runStart = 0;
+        }
+        if (!sameName) {
+          currentName = change.getInputName();
+          runStart = current.size();
+        }
+        current.add(change);
+      }
+
+      if (!current.isEmpty()) {
+        submit(template, current, result, executor, permits);
+      }
+    } finally {
+      executor.shutdown();
+      awaitAll(permits);
+    }
+    return result;
+  }
+
+  private void submit(
+      CreateBatchRequest template,
+      List<ChangeInput> changes,
+      Result result,
+      ExecutorService executor,
+      Semaphore permits)
+      throws InterruptedIOException {
+    BulkBatchResult.Entry entry =
+        new BulkBatchResult.Entry(VinylDNSBatchSubmitter.copyOf(template, changes));
+    acquire(permits, 1);
+    result.batches++;
+    executor.execute(
+        () -> {
+          try {
+            entry.response = client.createBatchChanges(entry.getRequest());
+          } catch (RuntimeException e) {
+            entry.error = e;
+          } finally {
+            if (entry.isSuccess()) {
+              result.submitted.addAndGet(changes.size());
+            } else {
+              result.failures.add(entry);
+            }
+            permits.release();
+          }
+        });
+  }
+
+  private void awaitAll(Semaphore permits) throws InterruptedIOException {
+    acquire(permits, parallelism);
+    permits.release(parallelism);
+  }
+
+  private static void acquire(Semaphore permits, int count) throws InterruptedIOException {
+    try {
+      permits.acquire(count);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while importing a zone file");
+    }
+  }
+
+  /** Outcome of an import. Only the batches that failed are kept. */
+  public static class Result {
+    private long records;
+    private long batches;
+    private final AtomicLong submitted = new AtomicLong();
+    private final Queue<BulkBatchResult.Entry> failures = new ConcurrentLinkedQueue<>();
+
+    /** Number of records read and passed by the filter. */
+    public long getRecords() {
+      return records;
+    }
+
+    /** Number of batches sent. */
+    public long getBatches() {
+      return batches;
+    }
+
+    /** Number of changes in the batches the API accepted. */
+    public long getSubmittedChanges() {
+      return submitted.get();
+    }
+
+    /** The batches that were rejected or could not be sent, with their changes. */
+    public List<BulkBatchResult.Entry> getFailures() {
+      return new ArrayList<>(failures);
+    }
+
+    /** Whether every batch was accepted by the API. */
+    public boolean isSuccess() {
+      return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "Result{"
+          + "records="
+          + records
+          + ", batches="
+          + batches
+          + ", submittedChanges="
+          + submitted.get()
+          + ", failures="
+          + failures.size()
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,653 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads an RFC 1035 master (zone) file one record at a time, as {@link AddChangeInput}s with
+ * absolute names. Only the current entry is held in memory, so files of any size can be read.
+ *
+ * <p>Supports {@code $ORIGIN}, {@code $TTL}, {@code $INCLUDE} (relative to the including file),
+ * {@code @}, relative names, omitted owners, TTLs with BIND-style units, class fields, comments,
+ * quoted strings and entries spanning lines in parentheses. A record without a TTL takes the {@code
+ * $TTL} value, or else the last explicit TTL. Types outside {@link RecordType} are read as {@link
+ * RecordType#UNKNOWN} with their record data text in {@link UNKNOWNData}.
+ *
+ * <p>Malformed input fails with an {@link IOException} naming the file and line.
+ */
+public class VinylDNSZoneFileReader implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int MAX_INCLUDE_DEPTH = 16;
+
+  private final Deque<Source> sources = new ArrayDeque<>();
+
+  private final List<String> tokens = new ArrayList<>();
+
+  private final List<Boolean> quoted = new ArrayList<>();
+
+  private final StringBuilder token = new StringBuilder();
+
+  private boolean leadingBlank;
+
+  private String origin;
+
+  private Long defaultTtl;
+
+  private Long lastTtl;
+
+  private String lastOwner;
+
+  /**
+   * @param origin the origin of relative names until a {@code $ORIGIN} directive, or null if the
+   *     file sets its own
+   */
+  public VinylDNSZoneFileReader(Path file, String origin) throws IOException {
+    this(open(file), file.toString(), file.toAbsolutePath().getParent(), origin);
+  }
+
+  /**
+   * Reads from {@code reader}; {@code $INCLUDE} paths are resolved against the working directory.
+   */
+  public VinylDNSZoneFileReader(Reader reader, String origin) {
+    this(reader, "<input>", null, origin);
+  }
+
+  private VinylDNSZoneFileReader(Reader reader, String name, Path directory, String origin) {
+    this.origin = origin == null ? null : origin.endsWith(".") ? origin : origin + ".";
+    sources.push(new Source(reader, name, directory));
+  }
+
+  /** Returns the next record, or null at the end of the file. */
+  public AddChangeInput next() throws IOException {
+    while (true) {
+      Source source = sources.peek();
+      if (source == null) {
+        return null;
+      }
+
+      if (!readEntry(source)) {
+        sources.pop().reader.close();
+        if (!sources.isEmpty()) {
+          origin = source.parentOrigin;
+          lastOwner = source.parentOwner;
+        }
+        continue;
+      }
+
+      if (!leadingBlank && !quoted.get(0) && tokens.get(0).startsWith("$")) {
+        directive(source);
+      } else {
+        return record(source);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException error = null;
+    while (!sources.isEmpty()) {
+      try {
+        sources.pop().reader.close();
+      } catch (IOException e) {
+        error = e;
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  private void directive(Source source) throws IOException {
+    String name = tokens.get(0).toUpperCase(Locale.ROOT);
+    switch (name) {
+      case "$ORIGIN":
+        expect(source, 1, 2, name);
+        origin = absolute(source, tokens.get(1));
+        break;
+      case "$TTL":
+        expect(source, 1, 2, name);
+        defaultTtl = ttl(source, tokens.get(1));
+        break;
+      case "$INCLUDE":
+        if (tokens.size() != 2 && tokens.size() != 3) {
+          throw error(source, "$INCLUDE takes a file name and an optional origin");
+        }
+        if (sources.size() > MAX_INCLUDE_DEPTH) {
+          throw error(source, "$INCLUDE nested too deeply");
+        }
+        Path file = source.resolve(unescape(tokens.get(1)));
+        String includeOrigin = tokens.size() == 3 ? absolute(source, tokens.get(2)) : origin;
+        Source included = new Source(open(file), file.toString(), file.getParent());
+        included.parentOrigin = origin;
+        included.parentOwner = lastOwner;
+        origin = includeOrigin;
+        sources.push(included);
+        break;
+      default:
+        throw error(source, "Unsupported directive " + tokens.get(0));
+    }
+  }
+
+  private AddChangeInput record(Source source) throws IOException {
+    int i = 0;
+    String owner;
+    if (leadingBlank) {
+      if (lastOwner == null) {
+        throw error(source, "Record without an owner name");
+      }
+      owner = lastOwner;
+    } else {
+      owner = absolute(source, tokens.get(i++));
+      lastOwner = owner;
+    }
+
+    Long ttl = null;
+    for (int fields = 0; fields < 2 && i < tokens.size(); fields++) {
+      String field = tokens.get(i);
+      if (isTtl(field)) {
+        ttl = ttl(source, field);
+        i++;
+      } else if (isClass(field)) {
+        i++;
+      } else {
+        break;
+      }
+    }
+
+    if (i >= tokens.size()) {
+      throw error(source, "Record without a type");
+    }
+    String typeName = tokens.get(i++).toUpperCase(Locale.ROOT);
+    RecordType type = recordType(typeName);
+    RecordData data = data(source, type, typeName, i);
+
+    if (ttl != null) {
+      lastTtl = ttl;
+    } else if (defaultTtl != null) {
+      ttl = defaultTtl;
+    } else if (lastTtl != null) {
+      ttl = lastTtl;
+    } else if (type == RecordType.SOA) {
+      ttl = ((SOAData) data).getMinimum();
+    } else {
+      throw error(source, "Record without a TTL and no $TTL");
+    }
+
+    return new AddChangeInput(owner, type, ttl, data);
+  }
+
+  private RecordData data(Source source, RecordType type, String typeName, int i)
+      throws IOException {
+    switch (type) {
+      case A:
+        expect(source, i, i + 1, typeName);
+        return new AData(tokens.get(i));
+      case AAAA:
+        expect(source, i, i + 1, typeName);
+        return new AAAAData(tokens.get(i));
+      case CNAME:
+        expect(source, i, i + 1, typeName);
+        return new CNAMEData(absolute(source, tokens.get(i)));
+      case PTR:
+        expect(source, i, i + 1, typeName);
+        return new PTRData(absolute(source, tokens.get(i)));
+      case NS:
+        expect(source, i, i + 1, typeName);
+        return new NSData(absolute(source, tokens.get(i)));
+      case MX:
+        expect(source, i, i + 2, typeName);
+        return new MXData(integer(source, tokens.get(i)), absolute(source, tokens.get(i + 1)));
+      case SOA:
+        expect(source, i, i + 7, typeName);
+        return new SOAData(
+            absolute(source, tokens.get(i)),
+            absolute(source, tokens.get(i + 1)),
+            number(source, tokens.get(i + 2)),
+            ttl(source, tokens.get(i + 3)),
+            ttl(source, tokens.get(i + 4)),
+            ttl(source, tokens.get(i + 5)),
+            ttl(source, tokens.get(i + 6)));
+      case SRV:
+        expect(source, i, i + 4, typeName);
+        return new SRVData(
+            integer(source, tokens.get(i)),
+            integer(source, tokens.get(i + 1)),
+            integer(source, tokens.get(i + 2)),
+            absolute(source, tokens.get(i + 3)));
+      case TXT:
+        return new TXTData(text(source, i, typeName));
+      case SPF:
+        return new SPFData(text(source, i, typeName));
+      case SSHFP:
+        if (tokens.size() < i + 3) {
+          throw error(source, "SSHFP needs an algorithm, a type and a fingerprint");
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (int j = i + 2; j < tokens.size(); j++) {
+          fingerprint.append(tokens.get(j));
+        }
+        return new SSHFPData(
+            integer(source, tokens.get(i)),
+            integer(source, tokens.get(i + 1)),
+            fingerprint.toString());
+      default:
+        StringBuilder raw = new StringBuilder();
+        for (int j = i; j < tokens.size(); j++) {
+          if (j > i) {
+            raw.append(' ');
+          }
+          if (quoted.get(j)) {
+            raw.append('"').append(tokens.get(j)).append('"');
+          } else {
+            raw.append(tokens.get(j));
+          }
+        }
+        return new UNKNOWNData(raw.toString());
+    }
+  }
+
+  /** The character strings of a TXT or SPF record, unescaped and joined. */
+  private String text(Source source, int i, String typeName) throws IOException {
+    if (i >= tokens.size()) {
+      throw error(source, typeName + " needs at least one string");
+    }
+    StringBuilder text = new StringBuilder();
+    for (int j = i; j < tokens.size(); j++) {
+      text.append(unescape(tokens.get(j)));
+    }
+    return text.toString();
+  }
+
+  /**
+   * Reads the tokens of the next entry into {@link #tokens}, joining lines inside parentheses.
+   * Returns false at the end of the source.
+   */
+  private boolean readEntry(Source source) throws IOException {
+    tokens.clear();
+    quoted.clear();
+    int depth = 0;
+    // entries always start at the beginning of a line
+    boolean lineStart = true;
+    boolean blank = false;
+
+    while (true) {
+      int c = source.read();
+      switch (c) {
+        case -1:
+          if (depth > 0) {
+            throw syntaxError(source, "Unbalanced parentheses");
+          }
+          return !tokens.isEmpty();
+        case '\n':
+          source.line++;
+          if (depth == 0) {
+            if (!tokens.isEmpty()) {
+              return true;
+            }
+            lineStart = true;
+            blank = false;
+          }
+          break;
+        case ' ':
+        case '\t':
+        case '\r':
+          if (lineStart && tokens.isEmpty()) {
+            blank = true;
+          }
+          break;
+        case ';':
+          source.skipLine();
+          break;
+        case '(':
+          lineStart = false;
+          depth++;
+          break;
+        case ')':
+          if (--depth < 0) {
+            throw syntaxError(source, "Unbalanced parentheses");
+          }
+          break;
+        case '"':
+          readQuoted(source);
+          addToken(source, blank);
+          quoted.set(quoted.size() - 1, true);
+          break;
+        default:
+          readBare(source, c);
+          addToken(source, blank);
+      }
+    }
+  }
+
+  private void addToken(Source source, boolean blank) {
+    if (tokens.isEmpty()) {
+      leadingBlank = blank;
+      source.entryLine = source.line;
+    }
+    tokens.add(token.toString());
+    quoted.add(false);
+  }
+
+  private void readBare(Source source, int first) throws IOException {
+    token.setLength(0);
+    int c = first;
+    while (true) {
+      token.append((char) c);
+      if (c == '\\') {
+        int escaped = source.read();
+        if (escaped == -1) {
+          return;
+        }
+        token.append((char) escaped);
+      }
+      c = source.peek();
+      if (c == -1 || c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == ';' || c == '('
+          || c == ')' || c == '"') {
+        return;
+      }
+      source.pos++;
+    }
+  }
+
+  /** Reads a quoted string, keeping escapes for {@link #unescape}. */
+  private void readQuoted(Source source) throws IOException {
+    token.setLength(0);
+    while (true) {
+      int c = source.read();
+      if (c == -1) {
+        throw syntaxError(source, "Unterminated quoted string");
+      }
+      if (c == '"') {
+        return;
+      }
+      if (c == '\n') {
+        source.line++;
+      }
+      token.append((char) c);
+      if (c == '\\') {
+        int escaped = source.read();
+        if (escaped == -1) {
+          throw syntaxError(source, "Unterminated quoted string");
+        }
+        token.append((char) escaped);
+      }
+    }
+  }
+
+  private String absolute(Source source, String name) throws IOException {
+    if (name.equals("@")) {
+      return requireOrigin(source);
+    }
+    if (isAbsolute(name)) {
+      return name;
+    }
+    String base = requireOrigin(source);
+    return base.equals(".") ? name + "." : name + "." + base;
+  }
+
+  private String requireOrigin(Source source) throws IOException {
+    if (origin == null) {
+      throw error(source, "Relative name without an origin");
+    }
+    return origin;
+  }
+
+  /** Whether the name ends with a dot that is not escaped. */
+  private static boolean isAbsolute(String name) {
+    if (!name.endsWith(".")) {
+      return false;
+    }
+    int backslashes = 0;
+    for (int i = name.length() - 2; i >= 0 && name.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 0;
+  }
+
+  /** Resolves {@code \X} and {@code \DDD} escapes; escaped bytes are decoded as UTF-8. */
+  static String unescape(String value) {
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\'
+          && i + 3 < value.length()
+          && isDigit(value.charAt(i + 1))
+          && isDigit(value.charAt(i + 2))
+          && isDigit(value.charAt(i + 3))) {
+        out.write(Integer.parseInt(value.substring(i + 1, i + 4)));
+        i += 3;
+        continue;
+      }
+      if (c == '\\' && i + 1 < value.length()) {
+        c = value.charAt(++i);
+      }
+      if (c < 0x80) {
+        out.write(c);
+      } else {
+        int codePoint = value.codePointAt(i);
+        byte[] bytes = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        i += Character.charCount(codePoint) - 1;
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isClass(String field) {
+    return field.equalsIgnoreCase("IN")
+        || field.equalsIgnoreCase("CH")
+        || field.equalsIgnoreCase("HS")
+        || field.equalsIgnoreCase("CS");
+  }
+
+  private static boolean isTtl(String field) {
+    if (!isDigit(field.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < field.length(); i++) {
+      char c = Character.toLowerCase(field.charAt(i));
+      if (!isDigit(c) && c != 'w' && c != 'd' && c != 'h' && c != 'm' && c != 's') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Parses seconds, or a BIND duration such as {@code 1h30m}. */
+  private static long ttl(Source source, String field) throws IOException {
+    if (!isTtl(field)) {
+      throw error(source, "Invalid TTL " + field);
+    }
+    long total = 0;
+    long value = 0;
+    boolean digits = false;
+    for (int i = 0; i < field.length(); i++) {
+      char c = Character.toLowerCase(field.charAt(i));
+      if (isDigit(c)) {
+        value = value * 10 + (c - '0');
+        digits = true;
+        continue;
+      }
+      if (!digits) {
+        throw error(source, "Invalid TTL " + field);
+      }
+      total += value * unit(c);
+      value = 0;
+      digits = false;
+    }
+    return total + value;
+  }
+
+  private static long unit(char c) {
+    switch (c) {
+      case 'w':
+        return 604800;
+      case 'd':
+        return 86400;
+      case 'h':
+        return 3600;
+      case 'm':
+        return 60;
+      default:
+        return 1;
+    }
+  }
+
+  private static long number(Source source, String field) throws IOException {
+    try {
+      return Long.parseLong(field);
+    } catch (NumberFormatException e) {
+      throw error(source, "Invalid number " + field);
+    }
+  }
+
+  private static int integer(Source source, String field) throws IOException {
+    try {
+      return Integer.parseInt(field);
+    } catch (NumberFormatException e) {
+      throw error(source, "Invalid number " + field);
+    }
+  }
+
+  private void expect(Source source, int from, int to, String what) throws IOException {
+    if (tokens.size() != to) {
+      throw error(
+          source, what + ": expected " + (to - from) + " fields, found " + (tokens.size() - from));
+    }
+  }
+
+  private static RecordType recordType(String name) {
+    switch (name) {
+      case "A":
+        return RecordType.A;
+      case "AAAA":
+        return RecordType.AAAA;
+      case "CNAME":
+        return RecordType.CNAME;
+      case "PTR":
+        return RecordType.PTR;
+      case "MX":
+        return RecordType.MX;
+      case "NS":
+        return RecordType.NS;
+      case "SOA":
+        return RecordType.SOA;
+      case "SRV":
+        return RecordType.SRV;
+      case "TXT":
+        return RecordType.TXT;
+      case "SSHFP":
+        return RecordType.SSHFP;
+      case "SPF":
+        return RecordType.SPF;
+      default:
+        return RecordType.UNKNOWN;
+    }
+  }
+
+  /** An error in the current entry, reported at the line it starts on. */
+  private static IOException error(Source source, String message) {
+    return new IOException(source.name + ":" + source.entryLine + ": " + message);
+  }
+
+  /** An error at the current position. */
+  private static IOException syntaxError(Source source, String message) {
+    return new IOException(source.name + ":" + source.line + ": " + message);
+  }
+
+  private static Reader open(Path file) throws IOException {
+    return new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8);
+  }
+
+  /** A file being read, with its own buffer and line count. */
+  private static final class Source {
+    private final Reader reader;
+    private final String name;
+    private final Path directory;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private int line = 1;
+    private int entryLine = 1;
+    private String parentOrigin;
+    private String parentOwner;
+
+    Source(Reader reader, String name, Path directory) {
+      this.reader = reader;
+      this.name = name;
+      this.directory = directory;
+    }
+
+    int read() throws IOException {
+      if (pos == limit && !fill()) {
+        return -1;
+      }
+      return buffer[pos++];
+    }
+
+    int peek() throws IOException {
+      if (pos == limit && !fill()) {
+        return -1;
+      }
+      return buffer[pos];
+    }
+
+    /** Skips to the end of the line, leaving the newline to be read. */
+    void skipLine() throws IOException {
+      int c;
+      while ((c = peek()) != -1 && c != '\n') {
+        pos++;
+      }
+    }
+
+    Path resolve(String file) {
+      return directory == null ? Paths.get(file) : directory.resolve(file);
+    }
+
+    private boolean fill() throws IOException {
+      int read = reader.read(buffer, 0, buffer.length);
+      if (read <= 0) {
+        return false;
+      }
+      pos = 0;
+      limit = read;
+      return true;
+    }
+  }
+}
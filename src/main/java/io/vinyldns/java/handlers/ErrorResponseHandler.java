@@ -17,6 +17,9 @@ import com.amazonaws.AmazonServiceException;
 import com.amazonaws.http.HttpResponse;
 import com.amazonaws.http.HttpResponseHandler;
 import com.amazonaws.util.IOUtils;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ErrorResponseHandler implements HttpResponseHandler<AmazonServiceException> {
   @Override
@@ -26,6 +29,13 @@ public class ErrorResponseHandler implements HttpResponseHandler<AmazonServiceEx
     AmazonServiceException exception = new AmazonServiceException(content);
     exception.setStatusCode(response.getStatusCode());
     exception.setRawResponseContent(content);
+    Map<String, String> headers = new HashMap<>();
+    for (Map.Entry<String, List<String>> header : response.getAllHeaders().entrySet()) {
+      if (!header.getValue().isEmpty()) {
+        headers.put(header.getKey(), header.getValue().get(0));
+      }
+    }
+    exception.setHttpHeaders(headers);
 
     return exception;
   }
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.handlers;
+
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.http.HttpResponseHandler;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deserializes the response body straight from the connection's input stream, without first
+ * buffering it into a {@link String}.
+ */
+public class JsonResponseHandler<T> implements HttpResponseHandler<T> {
+  private final Gson gson;
+
+  private final Class<T> responseType;
+
+  public JsonResponseHandler(Gson gson, Class<T> responseType) {
+    this.gson = gson;
+    this.responseType = responseType;
+  }
+
+  @Override
+  public T handle(HttpResponse response) throws Exception {
+    return read(gson, response.getContent(), responseType);
+  }
+
+  @Override
+  public boolean needsConnectionLeftOpen() {
+    return false;
+  }
+
+  /** Reads a single JSON document from {@code content}; an empty or missing body yields null. */
+  public static <T> T read(Gson gson, InputStream content, Class<T> responseType) {
+    if (content == null) {
+      return null;
+    }
+
+    JsonReader reader = new JsonReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+    return gson.fromJson(reader, responseType);
+  }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.metrics;
+
+/**
+ * Timings and sizes of a single request. Durations are in nanoseconds; sizes and pool figures that
+ * were not measured are -1.
+ */
+public final class RequestMetrics {
+  private final String operation;
+  private final String httpMethod;
+  private final int statusCode;
+  private final Throwable error;
+  private final long requestBytes;
+  private final long responseBytes;
+  private final long serializeNanos;
+  private final long signNanos;
+  private final long wireNanos;
+  private final long deserializeNanos;
+  private final long totalNanos;
+  private final int poolLeased;
+  private final int poolAvailable;
+  private final int poolPending;
+  private final int poolMax;
+
+  public RequestMetrics(
+      String operation,
+      String httpMethod,
+      int statusCode,
+      Throwable error,
+      long requestBytes,
+      long responseBytes,
+      long serializeNanos,
+      long signNanos,
+      long wireNanos,
+      long deserializeNanos,
+      long totalNanos,
+      int poolLeased,
+      int poolAvailable,
+      int poolPending,
+      int poolMax) {
+    this.operation = operation;
+    this.httpMethod = httpMethod;
+    this.statusCode = statusCode;
+    this.error = error;
+    this.requestBytes = requestBytes;
+    this.responseBytes = responseBytes;
+    this.serializeNanos = serializeNanos;
+    this.signNanos = signNanos;
+    this.wireNanos = wireNanos;
+    this.deserializeNanos = deserializeNanos;
+    this.totalNanos = totalNanos;
+    this.poolLeased = poolLeased;
+    this.poolAvailable = poolAvailable;
+    this.poolPending = poolPending;
+    this.poolMax = poolMax;
+  }
+
+  /** Name of the client method, such as {@code listZones}. */
+  public String getOperation() {
+    return operation;
+  }
+
+  public String getHttpMethod() {
+    return httpMethod;
+  }
+
+  /** HTTP status of the response, or 0 if none was received. */
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  /** The exception the request failed with before a response was received, otherwise null. */
+  public Throwable getError() {
+    return error;
+  }
+
+  public long getRequestBytes() {
+    return requestBytes;
+  }
+
+  public long getResponseBytes() {
+    return responseBytes;
+  }
+
+  /** Time spent turning the payload into JSON. */
+  public long getSerializeNanos() {
+    return serializeNanos;
+  }
+
+  public long getSignNanos() {
+    return signNanos;
+  }
+
+  /**
+   * Time from handing the signed request to the HTTP layer until the response was complete, minus
+   * {@link #getDeserializeNanos()}. Includes waiting for a pooled connection.
+   */
+  public long getWireNanos() {
+    return wireNanos;
+  }
+
+  /** Time spent reading and parsing the response body. */
+  public long getDeserializeNanos() {
+    return deserializeNanos;
+  }
+
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Connections in use just before this request asked the pool for one. Only measured by the
+   * blocking client.
+   */
+  public int getPoolLeased() {
+    return poolLeased;
+  }
+
+  /** Idle pooled connections at the same moment. Only measured by the blocking client. */
+  public int getPoolAvailable() {
+    return poolAvailable;
+  }
+
+  /** Requests already waiting for a connection at the same moment. */
+  public int getPoolPending() {
+    return poolPending;
+  }
+
+  /** The configured {@link io.vinyldns.java.VinylDNSTransportConfig#getMaxConnections()}. */
+  public int getPoolMax() {
+    return poolMax;
+  }
+
+  @Override
+  public String toString() {
+    return "RequestMetrics{"
+        + "operation='"
+        + operation
+        + '\''
+        + ", httpMethod='"
+        + httpMethod
+        + '\''
+        + ", statusCode="
+        + statusCode
+        + ", error="
+        + error
+        + ", requestBytes="
+        + requestBytes
+        + ", responseBytes="
+        + responseBytes
+        + ", serializeNanos="
+        + serializeNanos
+        + ", signNanos="
+        + signNanos
+        + ", wireNanos="
+        + wireNanos
+        + ", deserializeNanos="
+        + deserializeNanos
+        + ", totalNanos="
+        + totalNanos
+        + ", poolLeased="
+        + poolLeased
+        + ", poolAvailable="
+        + poolAvailable
+        + ", poolPending="
+        + poolPending
+        + ", poolMax="
+        + poolMax
+        + '}';
+  }
+}
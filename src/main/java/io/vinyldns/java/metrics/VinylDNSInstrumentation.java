@@ -0,0 +1,26 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.metrics;
+
+/**
+ * Receives one {@link RequestMetrics} sample per request executed by {@link
+ * io.vinyldns.java.VinylDNSClientImpl} or {@link io.vinyldns.java.VinylDNSAsyncClientImpl}. Set it
+ * with {@link io.vinyldns.java.VinylDNSClientConfig#setInstrumentation(VinylDNSInstrumentation)}.
+ *
+ * <p>Called on the thread that completed the request, which for the asynchronous client is an I/O
+ * thread, so implementations must be thread safe and should not block.
+ */
+public interface VinylDNSInstrumentation {
+  void requestCompleted(RequestMetrics metrics);
+}
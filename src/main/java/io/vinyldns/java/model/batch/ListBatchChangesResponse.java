@@ -18,6 +18,18 @@ import java.util.List;
 public class ListBatchChangesResponse {
   private List<BatchResponse> batchChanges;
 
+  /** startFrom sent in request, will not be returned if not provided */
+  private Integer startFrom;
+
+  /**
+   * nextId, used as startFrom parameter of next page request, will not be returned if batch changes
+   * are exhausted
+   */
+  private Integer nextId;
+
+  /** maxItems sent in request, default is 100 */
+  private Integer maxItems;
+
   public ListBatchChangesResponse() {}
 
   public ListBatchChangesResponse(List<BatchResponse> batchChanges) {
@@ -27,4 +39,28 @@ public class ListBatchChangesResponse {
   public List<BatchResponse> getBatchChanges() {
     return batchChanges;
   }
+
+  public Integer getStartFrom() {
+    return startFrom;
+  }
+
+  public void setStartFrom(Integer startFrom) {
+    this.startFrom = startFrom;
+  }
+
+  public Integer getNextId() {
+    return nextId;
+  }
+
+  public void setNextId(Integer nextId) {
+    this.nextId = nextId;
+  }
+
+  public Integer getMaxItems() {
+    return maxItems;
+  }
+
+  public void setMaxItems(Integer maxItems) {
+    this.maxItems = maxItems;
+  }
 }
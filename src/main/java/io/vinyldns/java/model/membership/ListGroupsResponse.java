@@ -57,6 +57,14 @@ public class ListGroupsResponse {
     this.startFrom = startFrom;
   }
 
+  public String getNextId() {
+    return nextId;
+  }
+
+  public void setNextId(String nextId) {
+    this.nextId = nextId;
+  }
+
   public Integer getMaxItems() {
     return maxItems;
   }
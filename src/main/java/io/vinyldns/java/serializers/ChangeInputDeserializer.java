@@ -20,9 +20,14 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
 import io.vinyldns.java.model.batch.SingleChange;
 import java.lang.reflect.Type;
 
+/** @deprecated replaced by {@link StreamingTypeAdapterFactory}. */
+@Deprecated
 public class ChangeInputDeserializer
     implements JsonDeserializer<SingleChange>, JsonSerializer<SingleChange> {
 
@@ -43,15 +48,19 @@ public class ChangeInputDeserializer
     }
 
     String type = typeElement.getAsString();
-
+    ChangeInputType changeType = null;
     try {
-      String thepackage = SingleChange.class.getPackage().getName() + ".";
-
-      return context.deserialize(
-          jsonObject, Class.forName(thepackage + type + SingleChange.class.getSimpleName()));
+      changeType = ChangeInputType.valueOf(type);
+    } catch (IllegalArgumentException e) {
+      // reported below
+    }
 
-    } catch (ClassNotFoundException cnfe) {
-      throw new JsonParseException("Unknown element changeType: " + type, cnfe);
+    if (changeType == ChangeInputType.Add) {
+      return context.deserialize(jsonObject, AddSingleChange.class);
+    }
+    if (changeType == ChangeInputType.DeleteRecordSet) {
+      return context.deserialize(jsonObject, DeleteRecordSetSingleChange.class);
     }
+    throw new JsonParseException("Unknown element changeType: " + type);
   }
 }
@@ -20,10 +20,13 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import io.vinyldns.java.model.record.RecordType;
 import io.vinyldns.java.model.record.data.RecordData;
 import io.vinyldns.java.model.record.data.UNKNOWNData;
 import java.lang.reflect.Type;
 
+/** @deprecated replaced by {@link StreamingTypeAdapterFactory}. */
+@Deprecated
 public class RecordDataDeserializer
     implements JsonDeserializer<RecordData>, JsonSerializer<RecordData> {
 
@@ -43,14 +46,16 @@ public class RecordDataDeserializer
     }
 
     String type = typeElement.getAsString();
-
+    Class<? extends RecordData> dataClass = null;
     try {
-      String thepackage = RecordData.class.getPackage().getName() + ".";
-
-      return context.deserialize(jsonObject, Class.forName(thepackage + type + "Data"));
+      dataClass = RecordDataTypeAdapter.dataClass(RecordType.valueOf(type));
+    } catch (IllegalArgumentException e) {
+      // not a record type
+    }
 
-    } catch (ClassNotFoundException cnfe) {
-      throw new JsonParseException("Unknown element type: " + type, cnfe);
+    if (dataClass == null) {
+      throw new JsonParseException("Unknown element type: " + type);
     }
+    return context.deserialize(jsonObject, dataClass);
   }
 }
@@ -0,0 +1,339 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.serializers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Streaming adapter for every {@link RecordData} implementation. The JSON for record data does not
+ * say which type it is, so readers that know the enclosing {@link RecordType} should use {@link
+ * #forType(RecordType)}; {@link #read(JsonReader)} only exists for payloads that carry their own
+ * {@code type} field.
+ */
+public final class RecordDataTypeAdapter extends TypeAdapter<RecordData> {
+  private static final Map<RecordType, Codec<?>> CODECS = new EnumMap<>(RecordType.class);
+  private static final Map<Class<?>, Codec<?>> CODECS_BY_CLASS = new HashMap<>();
+
+  static {
+    register(
+        RecordType.A,
+        AData.class,
+        AData::new,
+        new StringCodec<>("address", AData::getAddress, AData::setAddress));
+    register(
+        RecordType.AAAA,
+        AAAAData.class,
+        AAAAData::new,
+        new StringCodec<>("address", AAAAData::getAddress, AAAAData::setAddress));
+    register(
+        RecordType.CNAME,
+        CNAMEData.class,
+        CNAMEData::new,
+        new StringCodec<>("cname", CNAMEData::getCname, CNAMEData::setCname));
+    register(
+        RecordType.PTR,
+        PTRData.class,
+        PTRData::new,
+        new StringCodec<>("ptrdname", PTRData::getPtrdname, PTRData::setPtrdname));
+    register(RecordType.MX, MXData.class, MXData::new, new MXCodec());
+    register(
+        RecordType.NS,
+        NSData.class,
+        NSData::new,
+        new StringCodec<>("nsdname", NSData::getNsdname, NSData::setNsdname));
+    register(RecordType.SOA, SOAData.class, SOAData::new, new SOACodec());
+    register(RecordType.SRV, SRVData.class, SRVData::new, new SRVCodec());
+    register(
+        RecordType.TXT,
+        TXTData.class,
+        TXTData::new,
+        new StringCodec<>("text", TXTData::getText, TXTData::setText));
+    register(RecordType.SSHFP, SSHFPData.class, SSHFPData::new, new SSHFPCodec());
+    register(
+        RecordType.SPF,
+        SPFData.class,
+        SPFData::new,
+        new StringCodec<>("text", SPFData::getText, SPFData::setText));
+    register(
+        RecordType.UNKNOWN,
+        UNKNOWNData.class,
+        UNKNOWNData::new,
+        new StringCodec<>("rawData", UNKNOWNData::getRawData, UNKNOWNData::setRawData));
+  }
+
+  private static <T extends RecordData> void register(
+      RecordType type, Class<T> clazz, Supplier<T> factory, Codec<T> codec) {
+    codec.clazz = clazz;
+    codec.factory = factory;
+    CODECS.put(type, codec);
+    CODECS_BY_CLASS.put(clazz, codec);
+  }
+
+  /**
+   * Returns the adapter for the record data of the given type. Unrecognised types (including {@code
+   * null}) read as {@link UNKNOWNData}.
+   */
+  public static TypeAdapter<RecordData> forType(RecordType type) {
+    Codec<?> codec = type == null ? null : CODECS.get(type);
+    return codec == null ? CODECS.get(RecordType.UNKNOWN) : codec;
+  }
+
+  /** Returns the {@link RecordData} implementation for the given type, or null if unknown. */
+  static Class<? extends RecordData> dataClass(RecordType type) {
+    Codec<?> codec = CODECS.get(type);
+    return codec == null ? null : codec.clazz;
+  }
+
+  /** Returns the adapter for the given {@link RecordData} implementation, or null if unknown. */
+  static TypeAdapter<RecordData> forClass(Class<?> clazz) {
+    return CODECS_BY_CLASS.get(clazz);
+  }
+
+  @Override
+  public void write(JsonWriter out, RecordData value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+
+    Codec<?> codec = CODECS_BY_CLASS.get(value.getClass());
+    if (codec == null) {
+      throw new IllegalArgumentException("Unsupported record data: " + value.getClass());
+    }
+    codec.write(out, value);
+  }
+
+  @Override
+  public RecordData read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    JsonObject jsonObject = JsonParser.parseReader(in).getAsJsonObject();
+    JsonElement typeElement = jsonObject.get("type");
+    RecordType type = null;
+    if (typeElement != null && typeElement.isJsonPrimitive()) {
+      try {
+        type = RecordType.valueOf(typeElement.getAsString());
+      } catch (IllegalArgumentException e) {
+        // fall through to UNKNOWN
+      }
+    }
+    return forType(type).fromJsonTree(jsonObject);
+  }
+
+  /** Reads and writes the fields of one {@link RecordData} implementation. */
+  private abstract static class Codec<T extends RecordData> extends TypeAdapter<RecordData> {
+    private Class<T> clazz;
+    private Supplier<T> factory;
+
+    /** Reads the named field into {@code data}, returning false if it is not one of its fields. */
+    abstract boolean readField(T data, String name, JsonReader in) throws IOException;
+
+    abstract void writeFields(JsonWriter out, T data) throws IOException;
+
+    @Override
+    public final void write(JsonWriter out, RecordData value) throws IOException {
+      if (value == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginObject();
+      writeFields(out, clazz.cast(value));
+      out.endObject();
+    }
+
+    @Override
+    public final RecordData read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+
+      T data = factory.get();
+      in.beginObject();
+      while (in.hasNext()) {
+        String name = in.nextName();
+        if (in.peek() == JsonToken.NULL || !readField(data, name, in)) {
+          in.skipValue();
+        }
+      }
+      in.endObject();
+      return data;
+    }
+  }
+
+  /** Codec for the record data types that hold a single string. */
+  private static final class StringCodec<T extends RecordData> extends Codec<T> {
+    private final String field;
+    private final Function<T, String> getter;
+    private final BiConsumer<T, String> setter;
+
+    StringCodec(String field, Function<T, String> getter, BiConsumer<T, String> setter) {
+      this.field = field;
+      this.getter = getter;
+      this.setter = setter;
+    }
+
+    @Override
+    boolean readField(T data, String name, JsonReader in) throws IOException {
+      if (!field.equals(name)) {
+        return false;
+      }
+      setter.accept(data, in.nextString());
+      return true;
+    }
+
+    @Override
+    void writeFields(JsonWriter out, T data) throws IOException {
+      out.name(field).value(getter.apply(data));
+    }
+  }
+
+  private static final class MXCodec extends Codec<MXData> {
+    @Override
+    boolean readField(MXData data, String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "preference":
+          data.setPreference(in.nextInt());
+          return true;
+        case "exchange":
+          data.setExchange(in.nextString());
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    void writeFields(JsonWriter out, MXData data) throws IOException {
+      out.name("preference").value(data.getPreference());
+      out.name("exchange").value(data.getExchange());
+    }
+  }
+
+  private static final class SOACodec extends Codec<SOAData> {
+    @Override
+    boolean readField(SOAData data, String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "mname":
+          data.setMname(in.nextString());
+          return true;
+        case "rname":
+          data.setRname(in.nextString());
+          return true;
+        case "serial":
+          data.setSerial(in.nextLong());
+          return true;
+        case "refresh":
+          data.setRefresh(in.nextLong());
+          return true;
+        case "retry":
+          data.setRetry(in.nextLong());
+          return true;
+        case "expire":
+          data.setExpire(in.nextLong());
+          return true;
+        case "minimum":
+          data.setMinimum(in.nextLong());
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    void writeFields(JsonWriter out, SOAData data) throws IOException {
+      out.name("mname").value(data.getMname());
+      out.name("rname").value(data.getRname());
+      out.name("serial").value(data.getSerial());
+      out.name("refresh").value(data.getRefresh());
+      out.name("retry").value(data.getRetry());
+      out.name("expire").value(data.getExpire());
+      out.name("minimum").value(data.getMinimum());
+    }
+  }
+
+  private static final class SRVCodec extends Codec<SRVData> {
+    @Override
+    boolean readField(SRVData data, String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "priority":
+          data.setPriority(in.nextInt());
+          return true;
+        case "weight":
+          data.setWeight(in.nextInt());
+          return true;
+        case "port":
+          data.setPort(in.nextInt());
+          return true;
+        case "target":
+          data.setTarget(in.nextString());
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    void writeFields(JsonWriter out, SRVData data) throws IOException {
+      out.name("priority").value(data.getPriority());
+      out.name("weight").value(data.getWeight());
+      out.name("port").value(data.getPort());
+      out.name("target").value(data.getTarget());
+    }
+  }
+
+  private static final class SSHFPCodec extends Codec<SSHFPData> {
+    @Override
+    boolean readField(SSHFPData data, String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "algorithm":
+          data.setAlgorithm(in.nextInt());
+          return true;
+        case "type":
+          data.setType(in.nextInt());
+          return true;
+        case "fingerprint":
+          data.setFingerprint(in.nextString());
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    void writeFields(JsonWriter out, SSHFPData data) throws IOException {
+      out.name("algorithm").value(data.getAlgorithm());
+      out.name("type").value(data.getType());
+      out.name("fingerprint").value(data.getFingerprint());
+    }
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.serializers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetBase;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import org.joda.time.DateTime;
+
+/**
+ * Streaming adapter for {@link RecordSet} and {@link
+ * io.vinyldns.java.model.record.set.CreateRecordSetRequest}. Record data is read with the adapter
+ * for the record set's {@code type}; only when {@code records} comes before {@code type} in the
+ * payload is the array buffered until the type is known.
+ */
+final class RecordSetTypeAdapter<T extends RecordSetBase> extends TypeAdapter<T> {
+  private final Supplier<T> factory;
+  private final TypeAdapter<RecordType> recordTypeAdapter;
+  private final TypeAdapter<RecordSetStatus> statusAdapter;
+  private final TypeAdapter<DateTime> dateTimeAdapter;
+  private final TypeAdapter<RecordData> recordDataAdapter = new RecordDataTypeAdapter();
+
+  RecordSetTypeAdapter(Gson gson, Supplier<T> factory) {
+    this.factory = factory;
+    this.recordTypeAdapter = gson.getAdapter(RecordType.class);
+    this.statusAdapter = gson.getAdapter(RecordSetStatus.class);
+    this.dateTimeAdapter = gson.getAdapter(DateTime.class);
+  }
+
+  @Override
+  public void write(JsonWriter out, T value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    out.name("zoneId").value(value.getZoneId());
+    out.name("name").value(value.getName());
+    out.name("type");
+    recordTypeAdapter.write(out, value.getType());
+    out.name("ttl").value(value.getTtl());
+    out.name("records");
+    writeRecords(out, value.getRecords());
+    out.name("ownerGroupId").value(value.getOwnerGroupId());
+
+    if (value instanceof RecordSet) {
+      RecordSet recordSet = (RecordSet) value;
+      out.name("id").value(recordSet.getId());
+      out.name("status");
+      statusAdapter.write(out, recordSet.getStatus());
+      out.name("created");
+      dateTimeAdapter.write(out, recordSet.getCreated());
+      out.name("updated");
+      dateTimeAdapter.write(out, recordSet.getUpdated());
+    }
+    out.endObject();
+  }
+
+  @Override
+  public T read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    T value = factory.get();
+    RecordSet recordSet = value instanceof RecordSet ? (RecordSet) value : null;
+    boolean typeSeen = false;
+    JsonArray pendingRecords = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        continue;
+      }
+
+      switch (name) {
+        case "zoneId":
+          value.setZoneId(in.nextString());
+          break;
+        case "name":
+          value.setName(in.nextString());
+          break;
+        case "type":
+          value.setType(recordTypeAdapter.read(in));
+          typeSeen = true;
+          break;
+        case "ttl":
+          value.setTtl(in.nextLong());
+          break;
+        case "records":
+          if (typeSeen) {
+            value.setRecords(readRecords(in, value.getType()));
+          } else {
+            pendingRecords = JsonParser.parseReader(in).getAsJsonArray();
+          }
+          break;
+        case "ownerGroupId":
+          value.setOwnerGroupId(in.nextString());
+          break;
+        case "id":
+          if (recordSet == null) {
+            in.skipValue();
+          } else {
+            recordSet.setId(in.nextString());
+          }
+          break;
+        case "status":
+          if (recordSet == null) {
+            in.skipValue();
+          } else {
+            recordSet.setStatus(statusAdapter.read(in));
+          }
+          break;
+        case "created":
+          if (recordSet == null) {
+            in.skipValue();
+          } else {
+            recordSet.setCreated(dateTimeAdapter.read(in));
+          }
+          break;
+        case "updated":
+          if (recordSet == null) {
+            in.skipValue();
+          } else {
+            recordSet.setUpdated(dateTimeAdapter.read(in));
+          }
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (pendingRecords != null) {
+      TypeAdapter<RecordData> adapter = RecordDataTypeAdapter.forType(value.getType());
+      List<RecordData> records = new ArrayList<>(pendingRecords.size());
+      for (JsonElement element : pendingRecords) {
+        records.add(adapter.fromJsonTree(element));
+      }
+      value.setRecords(records);
+    }
+    return value;
+  }
+
+  private static List<RecordData> readRecords(JsonReader in, RecordType type) throws IOException {
+    TypeAdapter<RecordData> adapter = RecordDataTypeAdapter.forType(type);
+    List<RecordData> records = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      records.add(adapter.read(in));
+    }
+    in.endArray();
+    return records;
+  }
+
+  private void writeRecords(JsonWriter out, Collection<RecordData> records) throws IOException {
+    if (records == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginArray();
+    for (RecordData record : records) {
+      recordDataAdapter.write(out, record);
+    }
+    out.endArray();
+  }
+}
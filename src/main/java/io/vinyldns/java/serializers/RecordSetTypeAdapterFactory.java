@@ -25,6 +25,8 @@ import io.vinyldns.java.model.record.set.CreateRecordSetRequest;
 import io.vinyldns.java.model.record.set.RecordSet;
 import java.io.IOException;
 
+/** @deprecated replaced by {@link StreamingTypeAdapterFactory}. */
+@Deprecated
 public class RecordSetTypeAdapterFactory implements TypeAdapterFactory {
 
   public <T> TypeAdapter<T> create(final Gson gson, TypeToken<T> type) {
@@ -26,6 +26,8 @@ import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
 
 import java.io.IOException;
 
+/** @deprecated replaced by {@link StreamingTypeAdapterFactory}. */
+@Deprecated
 public class SingleChangeAdapterFactory implements TypeAdapterFactory {
 
     public <T> TypeAdapter<T> create(final Gson gson, TypeToken<T> type) {
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.serializers;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.batch.SingleChangeStatus;
+import io.vinyldns.java.model.batch.ValidationError;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.RecordData;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming adapter for {@link SingleChange} and its implementations. The concrete class is picked
+ * from {@code changeType} when reading the interface, and the record data is read with the adapter
+ * for the change's {@code type}; only a {@code record} that comes before {@code type} in the
+ * payload is buffered.
+ */
+final class SingleChangeTypeAdapter<T extends SingleChange> extends TypeAdapter<T> {
+  private final Class<T> target;
+  private final TypeAdapter<ChangeInputType> changeTypeAdapter;
+  private final TypeAdapter<RecordType> recordTypeAdapter;
+  private final TypeAdapter<SingleChangeStatus> statusAdapter;
+  private final TypeAdapter<List<ValidationError>> validationErrorsAdapter;
+  private final TypeAdapter<RecordData> recordDataAdapter = new RecordDataTypeAdapter();
+
+  @SuppressWarnings("unchecked")
+  SingleChangeTypeAdapter(Gson gson, Class<T> target) {
+    this.target = target;
+    this.changeTypeAdapter = gson.getAdapter(ChangeInputType.class);
+    this.recordTypeAdapter = gson.getAdapter(RecordType.class);
+    this.statusAdapter = gson.getAdapter(SingleChangeStatus.class);
+    // a parameterized token, not an anonymous subclass, so native images need no signature metadata
+    this.validationErrorsAdapter =
+        (TypeAdapter<List<ValidationError>>)
+            gson.getAdapter(TypeToken.getParameterized(List.class, ValidationError.class));
+  }
+
+  @Override
+  public void write(JsonWriter out, T value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    out.name("id").value(value.getId());
+    out.name("changeType");
+    changeTypeAdapter.write(out, value.getChangeType());
+    out.name("zoneId").value(value.getZoneId());
+    out.name("zoneName").value(value.getZoneName());
+    out.name("type");
+    recordTypeAdapter.write(out, value.getType());
+    out.name("recordName").value(value.getRecordName());
+    out.name("inputName").value(value.getInputName());
+    out.name("status");
+    statusAdapter.write(out, value.getStatus());
+    out.name("systemMessage").value(value.getSystemMessage());
+    out.name("recordChangeId").value(value.getRecordChangeId());
+    if (value instanceof AddSingleChange) {
+      out.name("recordSetId").value(((AddSingleChange) value).getRecordSetId());
+    } else if (value instanceof DeleteRecordSetSingleChange) {
+      out.name("recordSetId").value(((DeleteRecordSetSingleChange) value).getRecordSetId());
+    }
+    out.name("validationErrors");
+    validationErrorsAdapter.write(out, value.getValidationErrors());
+    out.name("record");
+    recordDataAdapter.write(out, value.getRecord());
+    if (value instanceof AddSingleChange) {
+      out.name("ttl").value(((AddSingleChange) value).getTtl());
+    }
+    out.endObject();
+  }
+
+  @Override
+  public T read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    Fields fields = new Fields();
+    JsonElement pendingRecord = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        continue;
+      }
+
+      switch (name) {
+        case "id":
+          fields.id = in.nextString();
+          break;
+        case "changeType":
+          fields.changeType = changeTypeAdapter.read(in);
+          break;
+        case "zoneId":
+          fields.zoneId = in.nextString();
+          break;
+        case "zoneName":
+          fields.zoneName = in.nextString();
+          break;
+        case "type":
+          fields.type = recordTypeAdapter.read(in);
+          fields.typeSeen = true;
+          break;
+        case "recordName":
+          fields.recordName = in.nextString();
+          break;
+        case "inputName":
+          fields.inputName = in.nextString();
+          break;
+        case "status":
+          fields.status = statusAdapter.read(in);
+          break;
+        case "systemMessage":
+          fields.systemMessage = in.nextString();
+          break;
+        case "recordChangeId":
+          fields.recordChangeId = in.nextString();
+          break;
+        case "recordSetId":
+          fields.recordSetId = in.nextString();
+          break;
+        case "validationErrors":
+          fields.validationErrors = validationErrorsAdapter.read(in);
+          break;
+        case "record":
+          if (fields.typeSeen) {
+            fields.record = RecordDataTypeAdapter.forType(fields.type).read(in);
+          } else {
+            pendingRecord = JsonParser.parseReader(in);
+          }
+          break;
+        case "ttl":
+          fields.ttl = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (pendingRecord != null) {
+      fields.record = RecordDataTypeAdapter.forType(fields.type).fromJsonTree(pendingRecord);
+    }
+    return target.cast(build(fields));
+  }
+
+  private SingleChange build(Fields fields) {
+    ChangeInputType changeType = fields.changeType;
+    if (target == AddSingleChange.class) {
+      changeType = ChangeInputType.Add;
+    } else if (target == DeleteRecordSetSingleChange.class) {
+      changeType = ChangeInputType.DeleteRecordSet;
+    } else if (changeType == null) {
+      throw new JsonParseException("Unknown element changeType: null");
+    }
+
+    switch (changeType) {
+      case Add:
+        return fields.toAddSingleChange();
+      case DeleteRecordSet:
+        return fields.toDeleteRecordSetSingleChange();
+      default:
+        throw new JsonParseException("Unknown element changeType: " + changeType);
+    }
+  }
+
+  /** Fields read so far; the concrete class is only known once the whole object is read. */
+  private static final class Fields {
+    private String id;
+    private ChangeInputType changeType;
+    private String zoneId;
+    private String zoneName;
+    private RecordType type;
+    private boolean typeSeen;
+    private String recordName;
+    private String inputName;
+    private SingleChangeStatus status;
+    private String systemMessage;
+    private String recordChangeId;
+    private String recordSetId;
+    private List<ValidationError> validationErrors;
+    private RecordData record;
+    private Long ttl;
+
+    private AddSingleChange toAddSingleChange() {
+      AddSingleChange change = new AddSingleChange();
+      change.setId(id);
+      change.setChangeType(changeType);
+      change.setZoneId(zoneId);
+      change.setZoneName(zoneName);
+      change.setType(type);
+      change.setRecordName(recordName);
+      change.setInputName(inputName);
+      change.setStatus(status);
+      change.setSystemMessage(systemMessage);
+      change.setRecordChangeId(recordChangeId);
+      change.setRecordSetId(recordSetId);
+      change.setValidationErrors(validationErrors);
+      change.setRecord(record);
+      change.setTtl(ttl);
+      return change;
+    }
+
+    private DeleteRecordSetSingleChange toDeleteRecordSetSingleChange() {
+      DeleteRecordSetSingleChange change = new DeleteRecordSetSingleChange();
+      change.setId(id);
+      change.setChangeType(changeType);
+      change.setZoneId(zoneId);
+      change.setZoneName(zoneName);
+      change.setType(type);
+      change.setRecordName(recordName);
+      change.setInputName(inputName);
+      change.setStatus(status);
+      change.setSystemMessage(systemMessage);
+      change.setRecordChangeId(recordChangeId);
+      change.setRecordSetId(recordSetId);
+      change.setValidationErrors(validationErrors);
+      change.setRecord(record);
+      return change;
+    }
+  }
+}
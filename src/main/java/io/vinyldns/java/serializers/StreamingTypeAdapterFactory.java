@@ -0,0 +1,60 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.serializers;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.set.CreateRecordSetRequest;
+import io.vinyldns.java.model.record.set.RecordSet;
+
+/**
+ * Supplies the hand-written streaming adapters for record sets, single changes and record data.
+ * These read straight from the {@link com.google.gson.stream.JsonReader} and pick the record data
+ * class from a table keyed by {@link io.vinyldns.java.model.record.RecordType}, instead of building
+ * a {@link com.google.gson.JsonElement} tree and looking the class up by name.
+ */
+public class StreamingTypeAdapterFactory implements TypeAdapterFactory {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    Class<? super T> rawType = type.getRawType();
+
+    if (rawType == RecordData.class) {
+      return (TypeAdapter<T>) new RecordDataTypeAdapter();
+    }
+    if (RecordData.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) RecordDataTypeAdapter.forClass(rawType);
+    }
+    if (rawType == RecordSet.class) {
+      return (TypeAdapter<T>) new RecordSetTypeAdapter<>(gson, RecordSet::new);
+    }
+    if (rawType == CreateRecordSetRequest.class) {
+      return (TypeAdapter<T>) new RecordSetTypeAdapter<>(gson, CreateRecordSetRequest::new);
+    }
+    if (rawType == SingleChange.class
+        || rawType == AddSingleChange.class
+        || rawType == DeleteRecordSetSingleChange.class) {
+      return (TypeAdapter<T>)
+          new SingleChangeTypeAdapter<>(gson, (Class<? extends SingleChange>) rawType);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.transport;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A signed request ready to be sent. The headers leave out {@code Host} and {@code Content-Length},
+ * which the engine derives from the URI and the body.
+ */
+public final class VinylDNSHttpRequest {
+  private final String method;
+
+  private final URI uri;
+
+  private final Map<String, String> headers;
+
+  private final byte[] body;
+
+  private final int bodyLength;
+
+  /** @param body the request body, or null if there is none */
+  public VinylDNSHttpRequest(String method, URI uri, Map<String, String> headers, byte[] body) {
+    this(method, uri, headers, body, body == null ? 0 : body.length);
+  }
+
+  /**
+   * @param body an array starting with the request body, or null if there is none
+   * @param bodyLength the number of bytes of {@code body} to send
+   */
+  public VinylDNSHttpRequest(
+      String method, URI uri, Map<String, String> headers, byte[] body, int bodyLength) {
+    this.method = method;
+    this.uri = uri;
+    this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    this.body = body;
+    this.bodyLength = bodyLength;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public URI getUri() {
+    return uri;
+  }
+
+  public Map<String, String> getHeaders() {
+    return headers;
+  }
+
+  /**
+   * The array holding the body, or null if there is none. Only the first {@link #getBodyLength()}
+   * bytes are sent; the array is shared and must not be modified.
+   */
+  public byte[] getBody() {
+    return body;
+  }
+
+  public int getBodyLength() {
+    return bodyLength;
+  }
+
+  @Override
+  public String toString() {
+    return method + " " + uri;
+  }
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * A response whose body has not been read yet. Closing it releases the connection, whether or not
+ * the body was read to the end.
+ */
+public interface VinylDNSHttpResponse extends Closeable {
+  int getStatusCode();
+
+  /** The response headers, one value per name; lookups ignore case. */
+  Map<String, String> getHeaders();
+
+  /** The body, or null if the response has none. */
+  InputStream getContent() throws IOException;
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The HTTP engine behind {@link io.vinyldns.java.VinylDNSClientImpl}. Requests arrive serialized
+ * and signed, so an implementation only moves bytes. Implementations must be thread safe.
+ *
+ * <p>By default the client uses the AWS SDK's {@code AmazonHttpClient}, configured by {@link
+ * io.vinyldns.java.VinylDNSTransportConfig}. A transport set with {@link
+ * io.vinyldns.java.VinylDNSClientConfig#setTransport(VinylDNSTransport)} belongs to the caller, who
+ * closes it once no client uses it.
+ */
+public interface VinylDNSTransport extends Closeable {
+  /**
+   * Sends {@code request} and returns once the status line and headers are received. The caller
+   * reads the body from the response and closes it.
+   *
+   * @throws IOException if the request could not be sent or no response was received
+   */
+  VinylDNSHttpResponse execute(VinylDNSHttpRequest request) throws IOException;
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.DeleteGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.zone.GetZoneResponse;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.model.zone.ZoneRequest;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class CachingVinylDNSClientTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl delegate;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    delegate =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void getZoneServedFromCache() {
+    stubZone("zoneId", "ok.");
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 10, 1, TimeUnit.MINUTES);
+
+    VinylDNSResponse<GetZoneResponse> first = client.getZone(new ZoneRequest("zoneId"));
+    VinylDNSResponse<GetZoneResponse> second = client.getZone(new ZoneRequest("zoneId"));
+
+    assertTrue(second instanceof ResponseMarker.Success);
+    assertEquals(second.getValue().getZone().getName(), "ok.");
+    assertSame(second, first);
+    assertEquals(client.getMissCount(), 1);
+    assertEquals(client.getHitCount(), 1);
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/zones/zoneId")));
+  }
+
+  @Test
+  public void failuresAreNotCached() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones/missing"))
+            .willReturn(aResponse().withStatus(404).withBody("not found")));
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 10, 1, TimeUnit.MINUTES);
+
+    client.getZone(new ZoneRequest("missing"));
+    VinylDNSResponse<GetZoneResponse> response = client.getZone(new ZoneRequest("missing"));
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(client.getMissCount(), 2);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/zones/missing")));
+  }
+
+  @Test
+  public void entriesExpireAfterTtl() {
+    stubZone("zoneId", "ok.");
+    AtomicLong now = new AtomicLong();
+    CachingVinylDNSClient client =
+        new CachingVinylDNSClient(delegate, 10, TimeUnit.SECONDS.toNanos(5), now::get);
+
+    client.getZone(new ZoneRequest("zoneId"));
+    now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    client.getZone(new ZoneRequest("zoneId"));
+
+    assertEquals(client.getMissCount(), 2);
+    assertEquals(client.getEvictionCount(), 1);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/zones/zoneId")));
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() {
+    stubZone("a", "a.");
+    stubZone("b", "b.");
+    stubZone("c", "c.");
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 2, 1, TimeUnit.MINUTES);
+
+    client.getZone(new ZoneRequest("a"));
+    client.getZone(new ZoneRequest("b"));
+    client.getZone(new ZoneRequest("a"));
+    client.getZone(new ZoneRequest("c"));
+    client.getZone(new ZoneRequest("a"));
+
+    assertEquals(client.getEvictionCount(), 1);
+    assertEquals(client.size(), 2);
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/zones/a")));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/zones/b")));
+  }
+
+  @Test
+  public void deleteZoneInvalidatesLookupsByIdAndName() {
+    stubZone("zoneId", "ok.");
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones/name/ok."))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(delegate.gson.toJson(new GetZoneResponse(zone("zoneId", "ok."))))));
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/zones/zoneId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{}")));
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 10, 1, TimeUnit.MINUTES);
+
+    client.getZone(new ZoneRequest("zoneId"));
+    client.getZoneByName("ok.");
+    client.deleteZone(new ZoneRequest("zoneId"));
+    client.getZone(new ZoneRequest("zoneId"));
+    client.getZoneByName("ok.");
+
+    assertEquals(client.getHitCount(), 0);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/zones/zoneId")));
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/zones/name/ok.")));
+  }
+
+  @Test
+  public void deleteGroupInvalidatesGroup() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 10, 1, TimeUnit.MINUTES);
+
+    client.getGroup(new GetGroupRequest("groupId"));
+    VinylDNSResponse<Group> cached = client.getGroup(new GetGroupRequest("groupId"));
+    client.deleteGroup(new DeleteGroupRequest("groupId"));
+    client.getGroup(new GetGroupRequest("groupId"));
+
+    assertEquals(cached.getValue().getId(), "groupId");
+    assertEquals(client.getHitCount(), 1);
+    assertEquals(client.getMissCount(), 2);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void lookupRacingAnInvalidationIsNotCached() throws Exception {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(300)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+    CachingVinylDNSClient client = new CachingVinylDNSClient(delegate, 10, 1, TimeUnit.MINUTES);
+
+    // the lookup is answered with the group as it was before the delete
+    CompletableFuture<VinylDNSResponse<Group>> slowLookup =
+        CompletableFuture.supplyAsync(() -> client.getGroup(new GetGroupRequest("groupId")));
+    Thread.sleep(100);
+    client.deleteGroup(new DeleteGroupRequest("groupId"));
+    assertTrue(slowLookup.get() instanceof ResponseMarker.Success);
+
+    assertEquals(client.size(), 0);
+    client.getGroup(new GetGroupRequest("groupId"));
+    assertEquals(client.getHitCount(), 0);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  private void stubZone(String id, String name) {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones/" + id))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(delegate.gson.toJson(new GetZoneResponse(zone(id, name))))));
+  }
+
+  private static Zone zone(String id, String name) {
+    Zone zone = new Zone();
+    zone.setId(id);
+    zone.setName(name);
+    return zone;
+  }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class ConcurrencyLimiterTest {
+  private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void growsWhileSaturated() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit(2));
+
+    assertTrue(limiter.acquire());
+    assertTrue(limiter.acquire());
+    limiter.release("getGroup", MILLI, false);
+
+    assertEquals(limiter.getLimit(), 3);
+    assertEquals(limiter.getInFlight(), 1);
+  }
+
+  @Test
+  public void doesNotGrowWhileIdle() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit(10));
+
+    assertTrue(limiter.acquire());
+    limiter.release("getGroup", MILLI, false);
+
+    assertEquals(limiter.getLimit(), 10);
+  }
+
+  @Test
+  public void backsOffOnOverload() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit(10));
+
+    assertTrue(limiter.acquire());
+    limiter.release("getGroup", MILLI, true);
+
+    assertEquals(limiter.getLimit(), 9);
+  }
+
+  @Test
+  public void backsOffWhenRoundTripsSlowDown() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit(10));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.acquire());
+      limiter.release("getGroup", MILLI, false);
+    }
+    assertEquals(limiter.getLimit(), 10);
+
+    assertTrue(limiter.acquire());
+    limiter.release("getGroup", 10 * MILLI, false);
+
+    assertEquals(limiter.getLimit(), 9);
+  }
+
+  @Test
+  public void slowOperationsKeepTheirOwnBaseline() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(limit(10));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(limiter.acquire());
+      limiter.release("getGroup", MILLI, false);
+    }
+
+    // listings are slower than gets by nature, not because the server is overloaded
+    for (int i = 0; i < 20; i++) {
+      assertTrue(limiter.acquire());
+      limiter.release("listRecordSets", 50 * MILLI, false);
+    }
+    assertEquals(limiter.getLimit(), 10);
+
+    assertTrue(limiter.acquire());
+    limiter.release("listRecordSets", 500 * MILLI, false);
+    assertEquals(limiter.getLimit(), 9);
+  }
+
+  @Test
+  public void neverLeavesBounds() {
+    VinylDNSConcurrencyLimit settings = limit(2);
+    settings.setMinLimit(2);
+    settings.setMaxLimit(2);
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(settings);
+
+    limiter.acquire();
+    limiter.release("getGroup", MILLI, true);
+    assertEquals(limiter.getLimit(), 2);
+
+    limiter.acquire();
+    limiter.acquire();
+    limiter.release("getGroup", MILLI, false);
+    assertEquals(limiter.getLimit(), 2);
+  }
+
+  @Test
+  public void queuesThenShedsExcessRequests() {
+    VinylDNSConcurrencyLimit settings = limit(1);
+    settings.setMaxQueueSize(1);
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(settings);
+    AtomicInteger ran = new AtomicInteger();
+
+    assertEquals(limiter.acquire(ran::incrementAndGet), ConcurrencyLimiter.Admission.GRANTED);
+    assertEquals(limiter.acquire(ran::incrementAndGet), ConcurrencyLimiter.Admission.QUEUED);
+    assertEquals(limiter.acquire(ran::incrementAndGet), ConcurrencyLimiter.Admission.SHED);
+    assertEquals(ran.get(), 1);
+
+    limiter.release("getGroup", MILLI, false);
+
+    assertEquals(ran.get(), 2);
+    assertEquals(limiter.getInFlight(), 1);
+  }
+
+  @Test
+  public void clientShedsRequestsAboveTheLimit() throws Exception {
+    stubSlowGroup(300);
+
+    VinylDNSConcurrencyLimit settings = limit(2);
+    settings.setQueueTimeoutMillis(0);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(settings));
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    List<Future<VinylDNSResponse<Group>>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(executor.submit(() -> client.getGroup(new GetGroupRequest("groupId"))));
+      Thread.sleep(50);
+    }
+
+    List<Integer> statuses = new ArrayList<>();
+    for (Future<VinylDNSResponse<Group>> future : futures) {
+      statuses.add(future.get().getStatusCode());
+    }
+    executor.shutdown();
+
+    assertEquals(statuses.get(0).intValue(), 200);
+    assertEquals(statuses.get(1).intValue(), 200);
+    assertEquals(statuses.get(2).intValue(), 503);
+    assertEquals(futures.get(2).get().getMessageBody(), "Client concurrency limit exceeded");
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void asyncClientQueuesRequestsAboveTheLimit() throws Exception {
+    stubSlowGroup(50);
+
+    VinylDNSConcurrencyLimit settings = limit(1);
+    settings.setMaxLimit(1);
+
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config(settings))) {
+      long start = System.nanoTime();
+      List<CompletableFuture<VinylDNSResponse<Group>>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(client.getGroup(new GetGroupRequest("groupId")));
+      }
+      for (CompletableFuture<VinylDNSResponse<Group>> future : futures) {
+        assertTrue(future.join() instanceof ResponseMarker.Success);
+      }
+
+      // one at a time
+      assertTrue(System.nanoTime() - start >= 200 * MILLI);
+    }
+  }
+
+  private void stubSlowGroup(int delayMillis) {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(delayMillis)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+  }
+
+  private static VinylDNSConcurrencyLimit limit(int initialLimit) {
+    VinylDNSConcurrencyLimit settings = new VinylDNSConcurrencyLimit();
+    settings.setInitialLimit(initialLimit);
+    return settings;
+  }
+
+  private VinylDNSClientConfig config(VinylDNSConcurrencyLimit settings) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setConcurrencyLimit(settings);
+    return config;
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static org.testng.Assert.*;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.vinyldns.java.model.record.RecordType;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.testng.annotations.Test;
+
+public class NativeImageConfigTest {
+  private static final String REFLECT_CONFIG =
+      "META-INF/native-image/io.vinyldns/vinyldns-java/reflect-config.json";
+
+  @Test
+  public void registersEveryModelClass() throws Exception {
+    Map<String, Map<String, Object>> config = reflectConfig();
+
+    assertEquals(config.keySet(), modelClasses());
+    for (Map.Entry<String, Map<String, Object>> entry : config.entrySet()) {
+      Class<?> clazz = Class.forName(entry.getKey());
+      Map<String, Object> flags = entry.getValue();
+      boolean instantiable =
+          !clazz.isInterface() && !clazz.isEnum() && !Modifier.isAbstract(clazz.getModifiers());
+
+      assertEquals(flags.get("allDeclaredFields"), true, entry.getKey());
+      assertEquals(flags.get("unsafeAllocated") != null, instantiable, entry.getKey());
+      assertEquals(flags.get("allDeclaredConstructors") != null, instantiable, entry.getKey());
+    }
+  }
+
+  /** Every class compiled into the model packages. */
+  private static Set<String> modelClasses() throws Exception {
+    Path classes =
+        Paths.get(RecordType.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    Path model = classes.resolve("io/vinyldns/java/model");
+    try (Stream<Path> files = Files.walk(model)) {
+      return files
+          .map(classes::relativize)
+          .map(Path::toString)
+          .filter(name -> name.endsWith(".class"))
+          .map(name -> name.substring(0, name.length() - 6).replace('/', '.').replace('\\', '.'))
+          .collect(Collectors.toCollection(TreeSet::new));
+    }
+  }
+
+  private static Map<String, Map<String, Object>> reflectConfig() throws Exception {
+    try (InputStream in =
+        NativeImageConfigTest.class.getClassLoader().getResourceAsStream(REFLECT_CONFIG)) {
+      assertNotNull(in, REFLECT_CONFIG);
+      List<Map<String, Object>> entries =
+          new Gson()
+              .fromJson(
+                  new InputStreamReader(in, StandardCharsets.UTF_8),
+                  new TypeToken<List<Map<String, Object>>>() {}.getType());
+      return entries
+          .stream()
+          .collect(Collectors.toMap(entry -> (String) entry.get("name"), entry -> entry));
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.google.gson.Gson;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class SerializedPayloadTest {
+  private final Gson gson = SerializationFactory.createGson();
+
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+  private VinylDNSAsyncClientImpl asyncClient;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    client = new VinylDNSClientImpl(config);
+    asyncClient = new VinylDNSAsyncClientImpl(config);
+  }
+
+  @AfterClass
+  public void afterAll() throws Exception {
+    asyncClient.close();
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void hashesWhatItSerializes() throws Exception {
+    CreateBatchRequest request = batch(2000);
+
+    SerializedPayload payload = SerializedPayload.serialize(gson, request);
+    byte[] expected = gson.toJson(request).getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(Arrays.copyOf(payload.array(), payload.length()), expected);
+    assertEquals(payload.available(), expected.length);
+    assertEquals(payload.sha256(), hex(MessageDigest.getInstance("SHA-256").digest(expected)));
+    payload.release();
+  }
+
+  @Test
+  public void reusesReleasedBuffers() {
+    SerializedPayload first = SerializedPayload.serialize(gson, batch(10));
+    byte[] array = first.array();
+    first.release();
+    first.release();
+
+    SerializedPayload second = SerializedPayload.serialize(gson, batch(1));
+    assertSame(second.array(), array);
+    assertEquals(
+        new String(second.array(), 0, second.length(), StandardCharsets.UTF_8),
+        gson.toJson(batch(1)));
+    second.release();
+  }
+
+  @Test
+  public void sendsLargeBatches() {
+    CreateBatchRequest request = batch(5000);
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batchId");
+    batchResponse.setChanges(new ArrayList<>());
+
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(equalTo(gson.toJson(request)))
+            .withHeader("Authorization", matching("AWS4-HMAC-SHA256 .*"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(gson.toJson(batchResponse))));
+
+    VinylDNSResponse<BatchResponse> response = client.createBatchChanges(request);
+    VinylDNSResponse<BatchResponse> asyncResponse = asyncClient.createBatchChanges(request).join();
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "batchId");
+    assertTrue(asyncResponse instanceof ResponseMarker.Success);
+    assertEquals(asyncResponse.getValue().getId(), "batchId");
+  }
+
+  private static CreateBatchRequest batch(int size) {
+    List<ChangeInput> changes = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      changes.add(
+          new AddChangeInput(
+              "host-" + i + ".example.", RecordType.A, 300L, new AData("10.0.0." + i % 256)));
+    }
+    return new CreateBatchRequest("bulk \u00e9", changes, null);
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+}
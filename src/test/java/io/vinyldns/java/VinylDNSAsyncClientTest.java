@@ -0,0 +1,271 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.membership.DeleteGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.model.zone.ListZonesResponse;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSAsyncClientTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSAsyncClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSAsyncClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() throws Exception {
+    client.close();
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void listZonesSuccessWithParams() {
+    ListZonesResponse listZonesResponse =
+        new ListZonesResponse(Collections.emptyList(), "someStart", "nextId", 55, "someFilter");
+
+    wireMockServer.stubFor(
+        get(urlMatching("/zones?(.*)"))
+            .withQueryParam("nameFilter", equalTo("someFilter"))
+            .withQueryParam("startFrom", equalTo("someStart"))
+            .withQueryParam("maxItems", equalTo("55"))
+            .withHeader("Authorization", matching("AWS4-HMAC-SHA256 .*"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(listZonesResponse))));
+
+    VinylDNSResponse<ListZonesResponse> vinylDNSResponse =
+        client.listZones(new ListZonesRequest("someFilter", "someStart", 55)).join();
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+    assertEquals(vinylDNSResponse.getStatusCode(), 200);
+    assertEquals(vinylDNSResponse.getValue(), listZonesResponse);
+  }
+
+  @Test
+  public void listZonesFailure() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones")).willReturn(aResponse().withStatus(500).withBody("server error")));
+
+    VinylDNSResponse<ListZonesResponse> vinylDNSResponse =
+        client.listZones(new ListZonesRequest()).join();
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Failure);
+    assertEquals(vinylDNSResponse.getStatusCode(), 500);
+    assertEquals(vinylDNSResponse.getMessageBody(), "server error");
+    assertNull(vinylDNSResponse.getValue());
+  }
+
+  @Test
+  public void createBatchChangesSendsSignedPayload() {
+    List<ChangeInput> changes =
+        Collections.singletonList(
+            new AddChangeInput("foo.bar.", RecordType.A, 300L, new AData("1.2.3.4")));
+    CreateBatchRequest request = new CreateBatchRequest(changes);
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batchId");
+    batchResponse.setChanges(new ArrayList<>());
+
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(equalToJson(client.gson.toJson(request)))
+            .withHeader("Authorization", matching("AWS4-HMAC-SHA256 .*"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(batchResponse))));
+
+    VinylDNSResponse<BatchResponse> vinylDNSResponse = client.createBatchChanges(request).join();
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+    assertEquals(vinylDNSResponse.getStatusCode(), 202);
+    assertEquals(vinylDNSResponse.getValue().getId(), "batchId");
+  }
+
+  @Test
+  public void manyRequestsInFlight() {
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(100)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+
+    List<CompletableFuture<VinylDNSResponse<Group>>> futures = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      futures.add(client.deleteGroup(new DeleteGroupRequest("groupId")));
+    }
+
+    for (CompletableFuture<VinylDNSResponse<Group>> future : futures) {
+      VinylDNSResponse<Group> vinylDNSResponse = future.join();
+      assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+      assertEquals(vinylDNSResponse.getValue().getId(), "groupId");
+    }
+  }
+
+  @Test
+  public void largeResponseStreamsThroughBoundedBuffer() {
+    List<Zone> zones = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      Zone zone = new Zone();
+      zone.setId("zone-" + i);
+      zone.setName("zone" + i + ".example.com.");
+      zones.add(zone);
+    }
+    ListZonesResponse listZonesResponse = new ListZonesResponse(zones, null, null, 5000, null);
+    String body = client.gson.toJson(listZonesResponse);
+    assertTrue(body.length() > 4 * StreamingResponseConsumer.BUFFER_SIZE);
+
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(body)
+                    .withChunkedDribbleDelay(20, 200)));
+
+    VinylDNSResponse<ListZonesResponse> vinylDNSResponse =
+        client.listZones(new ListZonesRequest()).join();
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+    List<Zone> decoded = new ArrayList<>(vinylDNSResponse.getValue().getZones());
+    assertEquals(decoded.size(), 5000);
+    assertEquals(decoded.get(0).getId(), "zone-0");
+    assertEquals(decoded.get(4999).getName(), "zone4999.example.com.");
+  }
+
+  @Test
+  public void responsesAreDecodedOffTheIoThreads() {
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+
+    String thread =
+        client
+            .deleteGroup(new DeleteGroupRequest("groupId"))
+            .thenApply(response -> Thread.currentThread().getName())
+            .join();
+
+    assertEquals(thread, "vinyldns-async-decoder");
+  }
+
+  @Test
+  public void abandonedBodyDoesNotHoldItsConnection() throws Exception {
+    // the decoder stops after the group and closes the body with most of it still unread
+    StringBuilder body = new StringBuilder("{\"id\":\"groupId\"}");
+    for (int i = 0; i < 5 * StreamingResponseConsumer.BUFFER_SIZE; i++) {
+      body.append(' ');
+    }
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(body.toString())));
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.getTransportConfig().setMaxConnections(1);
+    try (VinylDNSAsyncClientImpl pooled = new VinylDNSAsyncClientImpl(config)) {
+      for (int i = 0; i < 3; i++) {
+        VinylDNSResponse<Group> response =
+            pooled.getGroup(new GetGroupRequest("groupId")).get(5, TimeUnit.SECONDS);
+        assertEquals(response.getValue().getId(), "groupId");
+      }
+    }
+  }
+
+  @Test
+  public void requestTimeoutAbortsSlowExchange() throws Exception {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")
+                    .withFixedDelay(5_000)));
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setRetryPolicy(VinylDNSRetryPolicy.none());
+    config.getTransportConfig().setRequestTimeoutMillis(200);
+    try (VinylDNSAsyncClientImpl timed = new VinylDNSAsyncClientImpl(config)) {
+      CompletableFuture<VinylDNSResponse<Group>> response =
+          timed.getGroup(new GetGroupRequest("groupId"));
+
+      try {
+        response.get(3, TimeUnit.SECONDS);
+        fail("expected the request to time out");
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof SocketTimeoutException, e.getCause().toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.batch.DeleteRecordSetChangeInput;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSBatchSubmitterTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void splitKeepsZonesApartAndUpdatesTogether() {
+    List<ChangeInput> changes =
+        Arrays.asList(
+            add("a.foo.com."),
+            add("b.bar.com."),
+            new DeleteRecordSetChangeInput("c.foo.com.", RecordType.A),
+            add("d.foo.com."),
+            add("c.foo.com."));
+    CreateBatchRequest request = new CreateBatchRequest("comments", changes, "ownerGroupId");
+    request.setAllowManualReview(false);
+
+    List<CreateBatchRequest> batches = new VinylDNSBatchSubmitter(client, 2, 1).split(request);
+
+    assertEquals(batches.size(), 4);
+    assertEquals(names(batches.get(0)), Collections.singletonList("a.foo.com."));
+    assertEquals(names(batches.get(1)), Arrays.asList("c.foo.com.", "c.foo.com."));
+    assertEquals(names(batches.get(2)), Collections.singletonList("d.foo.com."));
+    assertEquals(names(batches.get(3)), Collections.singletonList("b.bar.com."));
+    for (CreateBatchRequest batch : batches) {
+      assertEquals(batch.getComments(), "comments");
+      assertEquals(batch.getOwnerGroupId(), "ownerGroupId");
+      assertEquals(batch.getAllowManualReview(), Boolean.FALSE);
+    }
+  }
+
+  @Test
+  public void splitGroupsReverseAddresses() {
+    List<CreateBatchRequest> batches =
+        new VinylDNSBatchSubmitter(client, 10, 1)
+            .split(
+                new CreateBatchRequest(
+                    Arrays.asList(add("10.1.1.1"), add("10.1.2.1"), add("10.1.1.2"))));
+
+    assertEquals(batches.size(), 2);
+    assertEquals(names(batches.get(0)), Arrays.asList("10.1.1.1", "10.1.1.2"));
+    assertEquals(names(batches.get(1)), Collections.singletonList("10.1.2.1"));
+  }
+
+  @Test
+  public void splitRejectsNameWithTooManyChanges() {
+    List<ChangeInput> changes =
+        Arrays.asList(add("a.foo.com."), add("b.foo.com."), add("b.foo.com."), add("b.foo.com."));
+
+    try {
+      new VinylDNSBatchSubmitter(client, 2, 1).split(new CreateBatchRequest(changes));
+      fail("expected the changes to b.foo.com. to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("b.foo.com."), e.getMessage());
+    }
+  }
+
+  @Test
+  public void submitAggregatesResponses() {
+    AddSingleChange singleChange = new AddSingleChange();
+    singleChange.setChangeType(ChangeInputType.Add);
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batchId");
+    batchResponse.setChanges(Collections.<SingleChange>singletonList(singleChange));
+
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(containing("foo.com."))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(batchResponse))));
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(containing("bar.com."))
+            .willReturn(aResponse().withStatus(400).withBody("Zone Discovery Failed")));
+
+    List<ChangeInput> changes = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      changes.add(add("host" + i + ".foo.com."));
+    }
+    changes.add(add("host.bar.com."));
+
+    BulkBatchResult result = new VinylDNSBatchSubmitter(client, 2, 3).submit(changes);
+
+    assertFalse(result.isSuccess());
+    assertEquals(result.getEntries().size(), 4);
+    assertEquals(result.getBatchResponses().size(), 3);
+    assertEquals(result.getChanges().size(), 3);
+    assertEquals(result.getFailures().size(), 1);
+    assertEquals(
+        result.getFailures().get(0).getResponse().getMessageBody(), "Zone Discovery Failed");
+    wireMockServer.verify(4, postRequestedFor(urlEqualTo("/zones/batchrecordchanges")));
+  }
+
+  private static AddChangeInput add(String name) {
+    return new AddChangeInput(name, RecordType.A, 300L, new AData("1.2.3.4"));
+  }
+
+  private static List<String> names(CreateBatchRequest request) {
+    List<String> names = new ArrayList<>();
+    for (ChangeInput change : request.getChanges()) {
+      names.add(change.getInputName());
+    }
+    return names;
+  }
+}
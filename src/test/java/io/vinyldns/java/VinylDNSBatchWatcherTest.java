@@ -0,0 +1,175 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.BatchChangeStatus;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInputType;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.batch.SingleChangeStatus;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class VinylDNSBatchWatcherTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+  private VinylDNSBatchWatcher watcher;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @BeforeMethod
+  public void beforeEach() {
+    watcher = new VinylDNSBatchWatcher(client, 10, 100, null);
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    watcher.close();
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void completesWhenBatchFinishes() throws Exception {
+    stubBatch(
+        "batchId",
+        STARTED,
+        "processing",
+        BatchChangeStatus.PendingProcessing,
+        SingleChangeStatus.Pending);
+    stubBatch(
+        "batchId",
+        "processing",
+        "done",
+        BatchChangeStatus.PendingProcessing,
+        SingleChangeStatus.Pending);
+    stubBatch("batchId", "done", "done", BatchChangeStatus.Complete, SingleChangeStatus.Complete);
+
+    CompletableFuture<BatchResponse> future = watcher.watch("batchId");
+
+    assertSame(watcher.watch("batchId"), future);
+    BatchResponse batch = future.get(5, TimeUnit.SECONDS);
+    assertEquals(batch.getStatus(), BatchChangeStatus.Complete);
+    wireMockServer.verify(3, getRequestedFor(urlEqualTo("/zones/batchrecordchanges/batchId")));
+    assertEquals(watcher.getWatchedCount(), 0);
+  }
+
+  @Test
+  public void watchesManyBatches() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      stubBatch(
+          "batch" + i,
+          STARTED,
+          STARTED,
+          BatchChangeStatus.PartialFailure,
+          SingleChangeStatus.Failed);
+    }
+
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[20];
+    for (int i = 0; i < 20; i++) {
+      futures[i] = watcher.watch("batch" + i);
+    }
+
+    CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+    for (CompletableFuture<?> future : futures) {
+      assertEquals(((BatchResponse) future.get()).getStatus(), BatchChangeStatus.PartialFailure);
+    }
+  }
+
+  @Test
+  public void failsOnClientError() throws Exception {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones/batchrecordchanges/missing"))
+            .willReturn(aResponse().withStatus(404).withBody("not found")));
+
+    try {
+      watcher.watch("missing").get(5, TimeUnit.SECONDS);
+      fail("expected failure");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof VinylDNSException);
+      assertEquals(((VinylDNSException) e.getCause()).getStatusCode(), 404);
+    }
+  }
+
+  @Test
+  public void closeCancelsPendingWatches() {
+    stubBatch(
+        "batchId",
+        STARTED,
+        STARTED,
+        BatchChangeStatus.PendingReview,
+        SingleChangeStatus.NeedsReview);
+
+    CompletableFuture<BatchResponse> future = watcher.watch("batchId");
+    watcher.close();
+
+    assertTrue(future.isCancelled());
+  }
+
+  private void stubBatch(
+      String id,
+      String state,
+      String nextState,
+      BatchChangeStatus status,
+      SingleChangeStatus changeStatus) {
+    AddSingleChange change = new AddSingleChange();
+    change.setChangeType(ChangeInputType.Add);
+    change.setStatus(changeStatus);
+
+    BatchResponse batch = new BatchResponse();
+    batch.setId(id);
+    batch.setStatus(status);
+    batch.setChanges(Collections.<SingleChange>singletonList(change));
+
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones/batchrecordchanges/" + id))
+            .inScenario(id)
+            .whenScenarioStateIs(state)
+            .willSetStateTo(nextState)
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(batch))));
+  }
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.VinylDNSCircuitBreakerPolicy.State;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSCircuitBreakerTest {
+  private static final String GROUP_JSON = "{\"id\":\"groupId\",\"name\":\"ok\"}";
+
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void opensAfterFailuresAndFailsFast() {
+    List<String> transitions = new CopyOnWriteArrayList<>();
+    VinylDNSCircuitBreakerPolicy policy = policy(transitions);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy));
+    stubGroup(500, 0);
+
+    for (int i = 0; i < 4; i++) {
+      assertEquals(client.getGroup(new GetGroupRequest("groupId")).getStatusCode(), 500);
+    }
+
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(response.getStatusCode(), CircuitBreakers.OPEN_STATUS);
+    assertTrue(response.getMessageBody().startsWith("Circuit breaker open for"));
+    assertEquals(wireMockServer.getAllServeEvents().size(), 4);
+    assertEquals(transitions.size(), 1);
+    assertTrue(transitions.get(0).endsWith("CLOSED->OPEN"));
+  }
+
+  @Test
+  public void closesAfterSuccessfulTrialCalls() throws Exception {
+    List<String> transitions = new CopyOnWriteArrayList<>();
+    VinylDNSCircuitBreakerPolicy policy = policy(transitions);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy));
+    stubGroup(503, 0);
+
+    for (int i = 0; i < 4; i++) {
+      client.getGroup(new GetGroupRequest("groupId"));
+    }
+    assertEquals(
+        client.getGroup(new GetGroupRequest("groupId")).getStatusCode(),
+        CircuitBreakers.OPEN_STATUS);
+
+    Thread.sleep(250);
+    stubGroup(200, 0);
+    for (int i = 0; i < 2; i++) {
+      assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    }
+
+    assertEquals(transitions.size(), 3);
+    assertTrue(transitions.get(1).endsWith("OPEN->HALF_OPEN"));
+    assertTrue(transitions.get(2).endsWith("HALF_OPEN->CLOSED"));
+  }
+
+  @Test
+  public void opensOnSlowCalls() {
+    VinylDNSCircuitBreakerPolicy policy = new VinylDNSCircuitBreakerPolicy();
+    policy.setMinimumCalls(3);
+    policy.setSlowCallDurationMillis(100);
+    policy.setSlowCallRateThreshold(0.5);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy));
+    stubGroup(200, 150);
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    }
+
+    assertEquals(
+        client.getGroup(new GetGroupRequest("groupId")).getStatusCode(),
+        CircuitBreakers.OPEN_STATUS);
+  }
+
+  @Test
+  public void asyncFailsFastWhileOpen() throws Exception {
+    VinylDNSCircuitBreakerPolicy policy = policy(new CopyOnWriteArrayList<>());
+    stubGroup(500, 0);
+
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config(policy))) {
+      for (int i = 0; i < 4; i++) {
+        assertEquals(client.getGroup(new GetGroupRequest("groupId")).join().getStatusCode(), 500);
+      }
+      assertEquals(
+          client.getGroup(new GetGroupRequest("groupId")).join().getStatusCode(),
+          CircuitBreakers.OPEN_STATUS);
+    }
+    assertEquals(wireMockServer.getAllServeEvents().size(), 4);
+  }
+
+  @Test
+  public void fastFailsLeaveEjectedEndpointEjected() throws Exception {
+    VinylDNSLoadBalancingPolicy loadBalancing = new VinylDNSLoadBalancingPolicy();
+    loadBalancing.setFailuresToEject(2);
+    loadBalancing.setEjectionMillis(60_000);
+    VinylDNSClientConfig config = config(policy(new CopyOnWriteArrayList<>()));
+    config.setLoadBalancingPolicy(loadBalancing);
+    stubGroup(500, 0);
+
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config);
+    Endpoints.Endpoint endpoint = client.endpoints.getEndpoints().get(0);
+    for (int i = 0; i < 4; i++) {
+      client.getGroup(new GetGroupRequest("groupId"));
+    }
+    assertTrue(client.endpoints.isEjected(endpoint));
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          client.getGroup(new GetGroupRequest("groupId")).getStatusCode(),
+          CircuitBreakers.OPEN_STATUS);
+    }
+    assertTrue(client.endpoints.isEjected(endpoint));
+
+    try (VinylDNSAsyncClientImpl asyncClient = new VinylDNSAsyncClientImpl(config)) {
+      Endpoints.Endpoint asyncEndpoint = asyncClient.endpoints.getEndpoints().get(0);
+      for (int i = 0; i < 4; i++) {
+        asyncClient.getGroup(new GetGroupRequest("groupId")).join();
+      }
+      assertTrue(asyncClient.endpoints.isEjected(asyncEndpoint));
+      for (int i = 0; i < 3; i++) {
+        assertEquals(
+            asyncClient.getGroup(new GetGroupRequest("groupId")).join().getStatusCode(),
+            CircuitBreakers.OPEN_STATUS);
+      }
+      assertTrue(asyncClient.endpoints.isEjected(asyncEndpoint));
+    }
+  }
+
+  @Test
+  public void unreadableResponseIsNotCountedAsSuccess() throws Exception {
+    VinylDNSLoadBalancingPolicy loadBalancing = new VinylDNSLoadBalancingPolicy();
+    loadBalancing.setFailuresToEject(1);
+    loadBalancing.setEjectionMillis(60_000);
+    VinylDNSClientConfig config = config(policy(new CopyOnWriteArrayList<>()));
+    config.setLoadBalancingPolicy(loadBalancing);
+
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config)) {
+      Endpoints.Endpoint endpoint = client.endpoints.getEndpoints().get(0);
+      stubGroup(500, 0);
+      client.getGroup(new GetGroupRequest("groupId")).join();
+      assertTrue(client.endpoints.isEjected(endpoint));
+
+      wireMockServer.stubFor(
+          get(urlEqualTo("/groups/groupId"))
+              .willReturn(
+                  aResponse()
+                      .withStatus(200)
+                      .withHeader("Content-Type", "application/json")
+                      .withBody("{\"id\":")));
+      assertTrue(
+          client.getGroup(new GetGroupRequest("groupId")).handle((r, e) -> e != null).join());
+      assertTrue(client.endpoints.isEjected(endpoint));
+    }
+  }
+
+  @Test
+  public void operationScopeKeepsOtherOperationsClosed() {
+    VinylDNSCircuitBreakerPolicy policy = new VinylDNSCircuitBreakerPolicy();
+    policy.setScope(VinylDNSCircuitBreakerPolicy.Scope.OPERATION);
+    policy.setMinimumCalls(1);
+    CircuitBreakers breakers = new CircuitBreakers(policy);
+    String baseUrl = "http://localhost:1";
+    Endpoints.Endpoint endpoint =
+        new Endpoints(Collections.singletonList(baseUrl), null).getEndpoints().get(0);
+
+    CircuitBreakers.Breaker getGroup =
+        breakers.get(VinylDNSRequestFactory.getGroup(baseUrl, new GetGroupRequest("g")), endpoint);
+    assertTrue(getGroup.tryAcquire());
+    getGroup.record(true, 0);
+
+    assertEquals(getGroup.getState(), State.OPEN);
+    assertFalse(getGroup.tryAcquire());
+    assertEquals(getGroup.getName(), "getGroup");
+  }
+
+  @Test
+  public void halfOpenLimitsTrialCalls() throws Exception {
+    VinylDNSCircuitBreakerPolicy policy = new VinylDNSCircuitBreakerPolicy();
+    policy.setMinimumCalls(1);
+    policy.setOpenMillis(50);
+    policy.setHalfOpenCalls(2);
+    CircuitBreakers.Breaker breaker = breaker(policy);
+
+    assertTrue(breaker.tryAcquire());
+    breaker.record(true, 0);
+    Thread.sleep(60);
+
+    assertTrue(breaker.tryAcquire());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    assertEquals(breaker.getState(), State.HALF_OPEN);
+
+    // a cancelled trial call frees its permit
+    breaker.cancel();
+    assertTrue(breaker.tryAcquire());
+
+    breaker.record(false, 0);
+    breaker.record(true, 0);
+    assertEquals(breaker.getState(), State.OPEN);
+  }
+
+  @Test
+  public void callCountsAreCappedAtWindowSize() throws Exception {
+    VinylDNSCircuitBreakerPolicy policy = new VinylDNSCircuitBreakerPolicy();
+    policy.setWindowSize(2);
+    policy.setMinimumCalls(5);
+    policy.setOpenMillis(50);
+    policy.setHalfOpenCalls(5);
+    CircuitBreakers.Breaker breaker = breaker(policy);
+
+    for (int i = 0; i < 2; i++) {
+      assertTrue(breaker.tryAcquire());
+      breaker.record(true, 0);
+    }
+    assertEquals(breaker.getState(), State.OPEN);
+    Thread.sleep(60);
+
+    assertTrue(breaker.tryAcquire());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+
+    breaker.record(false, 0);
+    breaker.record(false, 0);
+    assertEquals(breaker.getState(), State.CLOSED);
+  }
+
+  private static CircuitBreakers.Breaker breaker(VinylDNSCircuitBreakerPolicy policy) {
+    return new CircuitBreakers(policy)
+        .get(
+            VinylDNSRequestFactory.getGroup("http://localhost:1", new GetGroupRequest("g")),
+            new Endpoints(Collections.singletonList("http://localhost:1"), null)
+                .getEndpoints()
+                .get(0));
+  }
+
+  private static VinylDNSCircuitBreakerPolicy policy(List<String> transitions) {
+    VinylDNSCircuitBreakerPolicy policy = new VinylDNSCircuitBreakerPolicy();
+    policy.setMinimumCalls(4);
+    policy.setOpenMillis(200);
+    policy.setHalfOpenCalls(2);
+    policy.setListener((name, from, to) -> transitions.add(name + " " + from + "->" + to));
+    return policy;
+  }
+
+  private VinylDNSClientConfig config(VinylDNSCircuitBreakerPolicy policy) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setRetryPolicy(VinylDNSRetryPolicy.none());
+    config.setCircuitBreakerPolicy(policy);
+    return config;
+  }
+
+  private void stubGroup(int status, int delayMillis) {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(status)
+                    .withFixedDelay(delayMillis)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(status == 200 ? GROUP_JSON : "unavailable")));
+  }
+}
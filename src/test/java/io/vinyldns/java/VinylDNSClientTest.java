@@ -112,6 +112,48 @@ public class VinylDNSClientTest {
     assertEquals(vinylDNSResponse.getValue(), listZonesResponse);
   }
 
+  @Test
+  public void listZonesSuccessDoesNotRetainBodyByDefault() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(listZonesResponse))));
+
+    VinylDNSResponse<ListZonesResponse> vinylDNSResponse = client.listZones(new ListZonesRequest());
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+    assertEquals(vinylDNSResponse.getValue(), listZonesResponse);
+    assertNull(vinylDNSResponse.getMessageBody());
+  }
+
+  @Test
+  public void listZonesSuccessRetainsBodyWhenEnabled() {
+    String response = client.gson.toJson(listZonesResponse);
+
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(response)));
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setRetainResponseBody(true);
+
+    VinylDNSResponse<ListZonesResponse> vinylDNSResponse =
+        new VinylDNSClientImpl(config).listZones(new ListZonesRequest());
+
+    assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
+    assertEquals(vinylDNSResponse.getValue(), listZonesResponse);
+    assertEquals(vinylDNSResponse.getMessageBody(), response);
+  }
+
   @Test
   public void listZonesFailure() {
     wireMockServer.stubFor(
@@ -559,7 +601,7 @@ public class VinylDNSClientTest {
 
     assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
     assertEquals(vinylDNSResponse.getStatusCode(), 202);
-    assertTrue(vinylDNSResponse.getMessageBody().contains(ownerGroupId));
+    assertEquals(vinylDNSResponse.getValue().getRecordSet().getOwnerGroupId(), ownerGroupId);
     assertEquals(vinylDNSResponse.getValue(), recordSetChangeCreate);
   }
 
@@ -616,7 +658,7 @@ public class VinylDNSClientTest {
 
     assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
     assertEquals(vinylDNSResponse.getStatusCode(), 202);
-    assertFalse(vinylDNSResponse.getMessageBody().contains("ownerGroupId"));
+    assertNull(vinylDNSResponse.getValue().getRecordSet().getOwnerGroupId());
     assertEquals(vinylDNSResponse.getValue(), recordSetChangeCreateNoOwner);
   }
 
@@ -706,7 +748,7 @@ public class VinylDNSClientTest {
     assertTrue(vinylDNSResponse instanceof ResponseMarker.Success);
     assertEquals(vinylDNSResponse.getStatusCode(), 202);
     assertEquals(vinylDNSResponse.getValue(), recordSetChangeUpdateNoOwner);
-    assertFalse(vinylDNSResponse.getMessageBody().contains("ownerGroupId"));
+    assertNull(vinylDNSResponse.getValue().getRecordSet().getOwnerGroupId());
   }
 
   @Test
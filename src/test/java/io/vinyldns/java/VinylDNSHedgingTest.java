@@ -0,0 +1,267 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.DeleteGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.zone.ZoneRequest;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSHttpResponse;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSHedgingTest {
+  private static final String GROUP_JSON = "{\"id\":\"groupId\",\"name\":\"ok\"}";
+
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void hedgesSlowRequest() {
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy(1.0)));
+    warmUp(() -> client.getGroup(new GetGroupRequest("groupId")));
+    stubSlowThenFast(2000);
+
+    long start = System.nanoTime();
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "groupId");
+    assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void respectsHedgeRate() {
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy(0)));
+    warmUp(() -> client.getGroup(new GetGroupRequest("groupId")));
+    stubSlowThenFast(300);
+
+    long start = System.nanoTime();
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void asyncClientHedgesSlowRequest() throws Exception {
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config(policy(1.0)))) {
+      warmUp(() -> client.getGroup(new GetGroupRequest("groupId")).join());
+      stubSlowThenFast(2000);
+
+      long start = System.nanoTime();
+      VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId")).join();
+
+      assertTrue(response instanceof ResponseMarker.Success);
+      assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+      wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+    }
+  }
+
+  @Test
+  public void cancelledHedgeIsNotCountedAgainstItsEndpoint() throws Exception {
+    InterruptibleTransport transport = new InterruptibleTransport(6);
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            Arrays.asList("http://localhost:1", "http://localhost:2"),
+            new BasicAWSCredentials("fake", "fake"));
+    config.setTransport(transport);
+    config.setHedgingPolicy(policy(1.0));
+    VinylDNSLoadBalancingPolicy loadBalancing = new VinylDNSLoadBalancingPolicy();
+    loadBalancing.setFailuresToEject(1);
+    config.setLoadBalancingPolicy(loadBalancing);
+    VinylDNSCircuitBreakerPolicy breakers = new VinylDNSCircuitBreakerPolicy();
+    breakers.setWindowSize(1);
+    breakers.setMinimumCalls(1);
+    config.setCircuitBreakerPolicy(breakers);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config);
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    }
+    // the sixth request hangs until the hedge wins and interrupts it
+    assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    assertTrue(transport.interrupted.await(5, TimeUnit.SECONDS));
+    Thread.sleep(200);
+
+    assertEquals(
+        transport.calls.get(), 7, "the cancelled attempt is neither retried nor failed over");
+    VinylDNSRequest<Void> request =
+        VinylDNSRequestFactory.getGroup("http://localhost:1/", new GetGroupRequest("groupId"));
+    for (Endpoints.Endpoint endpoint : client.endpoints.getEndpoints()) {
+      assertFalse(client.endpoints.isEjected(endpoint));
+      assertEquals(
+          client.circuitBreakers.get(request, endpoint).getState(),
+          VinylDNSCircuitBreakerPolicy.State.CLOSED);
+    }
+  }
+
+  @Test
+  public void hedgesOnlyConfiguredGetOperations() {
+    VinylDNSHedgingPolicy policy = policy(1.0);
+    Hedging hedging = new Hedging(policy);
+    String baseUrl = "http://localhost/";
+
+    assertTrue(
+        hedging.isHedged(VinylDNSRequestFactory.getGroup(baseUrl, new GetGroupRequest("g"))));
+    assertFalse(
+        hedging.isHedged(VinylDNSRequestFactory.deleteGroup(baseUrl, new DeleteGroupRequest("g"))));
+
+    policy.setOperations(Collections.singleton("getZone"));
+    assertFalse(
+        hedging.isHedged(VinylDNSRequestFactory.getGroup(baseUrl, new GetGroupRequest("g"))));
+    assertFalse(
+        new Hedging(null).isHedged(VinylDNSRequestFactory.getZone(baseUrl, new ZoneRequest("z"))));
+  }
+
+  private void warmUp(Runnable request) {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON)));
+    for (int i = 0; i < 5; i++) {
+      request.run();
+    }
+    wireMockServer.resetAll();
+  }
+
+  private void stubSlowThenFast(int delayMillis) {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .inScenario("hedge")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(delayMillis)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON))
+            .willSetStateTo("fast"));
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .inScenario("hedge")
+            .whenScenarioStateIs("fast")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON)));
+  }
+
+  private static VinylDNSHedgingPolicy policy(double maxHedgeRate) {
+    VinylDNSHedgingPolicy policy = new VinylDNSHedgingPolicy();
+    policy.setMinSamples(5);
+    policy.setMaxHedgeRate(maxHedgeRate);
+    return policy;
+  }
+
+  private VinylDNSClientConfig config(VinylDNSHedgingPolicy policy) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setHedgingPolicy(policy);
+    return config;
+  }
+
+  /**
+   * Answers every call at once except call number {@code blockedCall}, which waits until its thread
+   * is interrupted and then fails as {@code JdkHttpTransport} does.
+   */
+  private static final class InterruptibleTransport implements VinylDNSTransport {
+    private final int blockedCall;
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    InterruptibleTransport(int blockedCall) {
+      this.blockedCall = blockedCall;
+    }
+
+    @Override
+    public VinylDNSHttpResponse execute(VinylDNSHttpRequest request) throws InterruptedIOException {
+      if (calls.incrementAndGet() == blockedCall) {
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          interrupted.countDown();
+          throw new InterruptedIOException("request interrupted");
+        }
+      }
+      return new VinylDNSHttpResponse() {
+        @Override
+        public int getStatusCode() {
+          return 200;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() {
+          return Collections.singletonMap("Content-Type", "application/json");
+        }
+
+        @Override
+        public InputStream getContent() {
+          return new ByteArrayInputStream(GROUP_JSON.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {}
+      };
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.metrics.RequestMetrics;
+import io.vinyldns.java.model.membership.CreateGroupRequest;
+import io.vinyldns.java.model.membership.DeleteGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.membership.MemberId;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSInstrumentationTest {
+  private static final String GROUP_JSON = "{\"id\":\"groupId\",\"name\":\"ok\"}";
+
+  private WireMockServer wireMockServer;
+  private List<RequestMetrics> samples = new CopyOnWriteArrayList<>();
+  private VinylDNSClientImpl client;
+  private VinylDNSAsyncClientImpl asyncClient;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setInstrumentation(samples::add);
+
+    client = new VinylDNSClientImpl(config);
+    asyncClient = new VinylDNSAsyncClientImpl(config);
+  }
+
+  @AfterClass
+  public void afterAll() throws Exception {
+    asyncClient.close();
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+    samples.clear();
+  }
+
+  @Test
+  public void recordsSuccessfulRequest() {
+    wireMockServer.stubFor(
+        post(urlEqualTo("/groups"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON)));
+
+    CreateGroupRequest request =
+        new CreateGroupRequest(
+            "ok",
+            "test@test.com",
+            Collections.singleton(new MemberId("id")),
+            Collections.singleton(new MemberId("id")));
+    VinylDNSResponse<Group> response = client.createGroup(request);
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(samples.size(), 1);
+
+    RequestMetrics metrics = samples.get(0);
+    assertEquals(metrics.getOperation(), "createGroup");
+    assertEquals(metrics.getHttpMethod(), "POST");
+    assertEquals(metrics.getStatusCode(), 200);
+    assertNull(metrics.getError());
+    assertEquals(
+        metrics.getRequestBytes(),
+        client.gson.toJson(request).getBytes(StandardCharsets.UTF_8).length);
+    assertEquals(metrics.getResponseBytes(), GROUP_JSON.length());
+    assertTrue(metrics.getSignNanos() > 0);
+    assertTrue(metrics.getWireNanos() > 0);
+    assertTrue(metrics.getDeserializeNanos() > 0);
+    assertTrue(
+        metrics.getTotalNanos()
+            >= metrics.getSerializeNanos()
+                + metrics.getSignNanos()
+                + metrics.getWireNanos()
+                + metrics.getDeserializeNanos());
+    assertEquals(metrics.getPoolMax(), new VinylDNSTransportConfig().getMaxConnections());
+    assertEquals(metrics.getPoolLeased(), 0);
+    assertTrue(metrics.getPoolAvailable() >= 0);
+    assertEquals(metrics.getPoolPending(), 0);
+  }
+
+  @Test
+  public void recordsFailedRequest() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones")).willReturn(aResponse().withStatus(404).withBody("not found")));
+
+    VinylDNSResponse<?> response = client.listZones(new ListZonesRequest());
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(samples.size(), 1);
+
+    RequestMetrics metrics = samples.get(0);
+    assertEquals(metrics.getOperation(), "listZones");
+    assertEquals(metrics.getHttpMethod(), "GET");
+    assertEquals(metrics.getStatusCode(), 404);
+    assertEquals(metrics.getRequestBytes(), 0);
+    assertEquals(metrics.getResponseBytes(), "not found".length());
+  }
+
+  @Test
+  public void recordsAsyncRequest() {
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON)));
+
+    VinylDNSResponse<Group> response =
+        asyncClient.deleteGroup(new DeleteGroupRequest("groupId")).join();
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(samples.size(), 1);
+
+    RequestMetrics metrics = samples.get(0);
+    assertEquals(metrics.getOperation(), "deleteGroup");
+    assertEquals(metrics.getHttpMethod(), "DELETE");
+    assertEquals(metrics.getStatusCode(), 200);
+    assertEquals(metrics.getResponseBytes(), GROUP_JSON.length());
+    assertEquals(metrics.getPoolLeased(), -1);
+  }
+
+  @Test
+  public void instrumentationErrorsDoNotFailRequests() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(GROUP_JSON)));
+
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setInstrumentation(
+        metrics -> {
+          throw new IllegalStateException("boom");
+        });
+
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config).getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "groupId");
+  }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.CreateGroupRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSLoadBalancingTest {
+  private static final String GROUP_JSON = "{\"id\":\"groupId\",\"name\":\"ok\"}";
+
+  private WireMockServer healthy;
+  private WireMockServer failing;
+
+  @BeforeClass
+  public void beforeAll() {
+    healthy = new WireMockServer(wireMockConfig().dynamicPort());
+    healthy.start();
+    failing = new WireMockServer(wireMockConfig().dynamicPort());
+    failing.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    healthy.shutdown();
+    failing.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    healthy.resetAll();
+    failing.resetAll();
+  }
+
+  @Test
+  public void spreadsRequestsOverEndpoints() {
+    stubGroup(healthy, 200);
+    stubGroup(failing, 200);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(new VinylDNSLoadBalancingPolicy()));
+
+    for (int i = 0; i < 40; i++) {
+      assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    }
+
+    assertTrue(healthy.getAllServeEvents().size() > 5);
+    assertTrue(failing.getAllServeEvents().size() > 5);
+  }
+
+  @Test
+  public void failsOverGetToHealthyEndpoint() {
+    stubGroup(healthy, 200);
+    stubGroup(failing, 503);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(new VinylDNSLoadBalancingPolicy()));
+
+    for (int i = 0; i < 10; i++) {
+      VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+      assertTrue(response instanceof ResponseMarker.Success);
+      assertEquals(response.getValue().getId(), "groupId");
+    }
+    assertEquals(healthy.getAllServeEvents().size(), 10);
+  }
+
+  @Test
+  public void doesNotFailOverPost() {
+    healthy.stubFor(post(urlEqualTo("/groups")).willReturn(aResponse().withStatus(200)));
+    failing.stubFor(post(urlEqualTo("/groups")).willReturn(aResponse().withStatus(500)));
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(new VinylDNSLoadBalancingPolicy()));
+
+    int failures = 0;
+    for (int i = 0; i < 20; i++) {
+      VinylDNSResponse<Group> response =
+          client.createGroup(
+              new CreateGroupRequest(
+                  "ok", "ok@example.com", Collections.emptySet(), Collections.emptySet()));
+      if (response.getStatusCode() == 500) {
+        failures++;
+      }
+    }
+
+    // every POST sent to the failing endpoint surfaces its error instead of being resent
+    assertEquals(failures, failing.getAllServeEvents().size());
+    assertEquals(healthy.getAllServeEvents().size() + failures, 20);
+  }
+
+  @Test
+  public void ejectsFailingEndpointAndProbesItLater() throws Exception {
+    VinylDNSLoadBalancingPolicy policy = new VinylDNSLoadBalancingPolicy();
+    policy.setFailuresToEject(2);
+    policy.setEjectionMillis(200);
+    Endpoints endpoints =
+        new Endpoints(Arrays.asList("http://localhost:1", "http://localhost:2"), policy);
+    Endpoints.Endpoint bad = endpoints.getEndpoints().get(0);
+    Endpoints.Endpoint good = endpoints.getEndpoints().get(1);
+
+    Set<Endpoints.Endpoint> tried = new HashSet<>(Collections.singleton(good));
+    for (int i = 0; i < 2; i++) {
+      assertSame(endpoints.acquire(tried), bad);
+      endpoints.release(bad, true);
+    }
+    assertTrue(endpoints.isEjected(bad));
+
+    // while ejected, every request goes to the healthy endpoint
+    for (int i = 0; i < 10; i++) {
+      Endpoints.Endpoint endpoint = endpoints.acquire(Collections.emptySet());
+      assertSame(endpoint, good);
+      endpoints.release(endpoint, false);
+    }
+
+    Thread.sleep(250);
+
+    // a single probe is sent once the ejection ends; a failed probe ejects it again at once
+    assertSame(endpoints.acquire(tried), bad);
+    assertSame(endpoints.acquire(tried), good);
+    endpoints.release(bad, true);
+    assertTrue(endpoints.isEjected(bad));
+
+    Thread.sleep(250);
+    assertSame(endpoints.acquire(tried), bad);
+    endpoints.release(bad, false);
+    assertFalse(endpoints.isEjected(bad));
+  }
+
+  @Test
+  public void cancelledProbeKeepsEndpointEjected() throws Exception {
+    VinylDNSLoadBalancingPolicy policy = new VinylDNSLoadBalancingPolicy();
+    policy.setFailuresToEject(1);
+    policy.setEjectionMillis(50);
+    Endpoints endpoints =
+        new Endpoints(Arrays.asList("http://localhost:1", "http://localhost:2"), policy);
+    Endpoints.Endpoint bad = endpoints.getEndpoints().get(0);
+    Endpoints.Endpoint good = endpoints.getEndpoints().get(1);
+    Set<Endpoints.Endpoint> tried = new HashSet<>(Collections.singleton(good));
+
+    assertSame(endpoints.acquire(tried), bad);
+    endpoints.release(bad, true);
+    Thread.sleep(60);
+
+    // the probe is cancelled before it is sent: still ejected, and the probe can be sent again
+    assertSame(endpoints.acquire(tried), bad);
+    endpoints.cancel(bad);
+    assertTrue(endpoints.isEjected(bad));
+    assertSame(endpoints.acquire(tried), bad);
+  }
+
+  @Test
+  public void prefersLeastOutstandingEndpoint() {
+    Endpoints endpoints =
+        new Endpoints(
+            Arrays.asList("http://localhost:1", "http://localhost:2"),
+            new VinylDNSLoadBalancingPolicy());
+
+    Endpoints.Endpoint first = endpoints.acquire(Collections.emptySet());
+    for (int i = 0; i < 10; i++) {
+      Endpoints.Endpoint next = endpoints.acquire(Collections.emptySet());
+      assertNotSame(next, first);
+      endpoints.release(next, false);
+    }
+  }
+
+  @Test
+  public void asyncFailsOverGetToHealthyEndpoint() throws Exception {
+    stubGroup(healthy, 200);
+    stubGroup(failing, 502);
+
+    try (VinylDNSAsyncClientImpl client =
+        new VinylDNSAsyncClientImpl(config(new VinylDNSLoadBalancingPolicy()))) {
+      for (int i = 0; i < 10; i++) {
+        VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId")).join();
+        assertTrue(response instanceof ResponseMarker.Success);
+      }
+    }
+    assertEquals(healthy.getAllServeEvents().size(), 10);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsEmptyEndpointList() {
+    new VinylDNSClientConfig(Collections.emptyList(), new BasicAWSCredentials("fake", "fake"));
+  }
+
+  private VinylDNSClientConfig config(VinylDNSLoadBalancingPolicy policy) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            Arrays.asList(
+                "http://localhost:" + healthy.port(), "http://localhost:" + failing.port()),
+            new BasicAWSCredentials("fake", "fake"));
+    config.setRetryPolicy(VinylDNSRetryPolicy.none());
+    config.setLoadBalancingPolicy(policy);
+    return config;
+  }
+
+  private static void stubGroup(WireMockServer server, int status) {
+    server.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(status)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(status == 200 ? GROUP_JSON : "unavailable")));
+  }
+}
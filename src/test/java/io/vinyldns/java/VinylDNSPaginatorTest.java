@@ -0,0 +1,157 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.model.zone.ListZonesResponse;
+import io.vinyldns.java.model.zone.Zone;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSPaginatorTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+  private ExecutorService executor;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    executor.shutdownNow();
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void listAllZonesFollowsNextId() {
+    stubZonesPages();
+
+    List<String> names = new ArrayList<>();
+    for (Zone zone :
+        new VinylDNSPaginator(client).listAllZones(new ListZonesRequest("z", null, 2))) {
+      names.add(zone.getName());
+    }
+
+    assertEquals(names, Arrays.asList("a.", "b.", "c."));
+    wireMockServer.verify(2, getRequestedFor(urlMatching("/zones?(.*)")));
+  }
+
+  @Test
+  public void streamZonesIsLazy() {
+    stubZonesPages();
+
+    List<String> names =
+        new VinylDNSPaginator(client)
+            .streamZones(new ListZonesRequest("z", null, 2))
+            .limit(1)
+            .map(Zone::getName)
+            .collect(Collectors.toList());
+
+    assertEquals(names, Collections.singletonList("a."));
+    wireMockServer.verify(1, getRequestedFor(urlMatching("/zones?(.*)")));
+  }
+
+  @Test
+  public void streamZonesWithPrefetch() {
+    stubZonesPages();
+
+    List<String> names =
+        new VinylDNSPaginator(client, executor)
+            .streamZones(new ListZonesRequest("z", null, 2))
+            .map(Zone::getName)
+            .collect(Collectors.toList());
+
+    assertEquals(names, Arrays.asList("a.", "b.", "c."));
+  }
+
+  @Test
+  public void listAllZonesFailure() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/zones")).willReturn(aResponse().withStatus(500).withBody("server error")));
+
+    try {
+      new VinylDNSPaginator(client).streamZones(new ListZonesRequest()).count();
+      fail("expected VinylDNSException");
+    } catch (VinylDNSException e) {
+      assertEquals(e.getStatusCode(), 500);
+      assertEquals(e.getMessageBody(), "server error");
+    }
+  }
+
+  private void stubZonesPages() {
+    wireMockServer.stubFor(
+        get(urlMatching("/zones?(.*)"))
+            .withQueryParam("nameFilter", equalTo("z"))
+            .withQueryParam("maxItems", equalTo("2"))
+            .withQueryParam("startFrom", absent())
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        client.gson.toJson(
+                            new ListZonesResponse(
+                                Arrays.asList(zone("a."), zone("b.")), null, "page2", 2, "z")))));
+
+    wireMockServer.stubFor(
+        get(urlMatching("/zones?(.*)"))
+            .withQueryParam("nameFilter", equalTo("z"))
+            .withQueryParam("maxItems", equalTo("2"))
+            .withQueryParam("startFrom", equalTo("page2"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        client.gson.toJson(
+                            new ListZonesResponse(
+                                Collections.singletonList(zone("c.")), "page2", null, 2, "z")))));
+  }
+
+  private static Zone zone(String name) {
+    Zone zone = new Zone();
+    zone.setName(name);
+    return zone;
+  }
+}
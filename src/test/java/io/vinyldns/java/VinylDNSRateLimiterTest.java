@@ -0,0 +1,196 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.record.set.DeleteRecordSetRequest;
+import io.vinyldns.java.model.record.set.RecordSetChange;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSRateLimiterTest {
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void allowsBurstThenRejects() {
+    VinylDNSRateLimiter limiter = new VinylDNSRateLimiter(0.1, 3);
+
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertTrue(limiter.tryAcquire());
+    assertFalse(limiter.tryAcquire());
+  }
+
+  @Test
+  public void sharedLimiterHoldsRateAcrossThreads() throws Exception {
+    VinylDNSRateLimiter limiter = new VinylDNSRateLimiter(50, 1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    long start = System.nanoTime();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int j = 0; j < 5; j++) {
+                  limiter.acquire();
+                }
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // 20 permits at 50 per second: the first is free, the other 19 are 20ms apart
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    assertTrue(elapsedMillis >= 360, "took " + elapsedMillis + "ms");
+    assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + "ms");
+  }
+
+  @Test
+  public void rejectsWithoutWaitingWhenTimeoutIsZero() {
+    stubDeleteRecordSet();
+
+    VinylDNSClientConfig config = config();
+    config.setRateLimiter(VinylDNSOperationClass.RECORD_WRITE, new VinylDNSRateLimiter(0.1, 1));
+    config.setRateLimitTimeoutMillis(0);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config);
+
+    VinylDNSResponse<RecordSetChange> first =
+        client.deleteRecordSet(new DeleteRecordSetRequest("zoneId", "rsId"));
+    VinylDNSResponse<RecordSetChange> second =
+        client.deleteRecordSet(new DeleteRecordSetRequest("zoneId", "rsId"));
+
+    assertTrue(first instanceof ResponseMarker.Success);
+    assertTrue(second instanceof ResponseMarker.Failure);
+    assertEquals(second.getStatusCode(), 429);
+    assertEquals(second.getMessageBody(), "Client rate limit exceeded for RECORD_WRITE");
+    wireMockServer.verify(1, deleteRequestedFor(urlEqualTo("/zones/zoneId/recordsets/rsId")));
+  }
+
+  @Test
+  public void limitsOnlyTheConfiguredOperationClass() {
+    stubDeleteRecordSet();
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+
+    VinylDNSClientConfig config = config();
+    config.setRateLimiter(VinylDNSOperationClass.RECORD_WRITE, new VinylDNSRateLimiter(0.1, 1));
+    config.setRateLimitTimeoutMillis(0);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config);
+
+    client.deleteRecordSet(new DeleteRecordSetRequest("zoneId", "rsId"));
+    for (int i = 0; i < 5; i++) {
+      assertTrue(client.getGroup(new GetGroupRequest("groupId")) instanceof ResponseMarker.Success);
+    }
+  }
+
+  @Test
+  public void asyncClientWaitsForPermits() throws Exception {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"groupId\"}")));
+
+    VinylDNSClientConfig config = config();
+    config.setRateLimiter(VinylDNSOperationClass.READ, new VinylDNSRateLimiter(20, 1));
+
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config)) {
+      long start = System.nanoTime();
+      List<CompletableFuture<VinylDNSResponse<Group>>> futures = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        futures.add(client.getGroup(new GetGroupRequest("groupId")));
+      }
+      for (CompletableFuture<VinylDNSResponse<Group>> future : futures) {
+        assertTrue(future.join() instanceof ResponseMarker.Success);
+      }
+
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(190));
+    }
+  }
+
+  @Test
+  public void classifiesOperations() {
+    String baseUrl = "http://localhost/";
+    assertEquals(
+        VinylDNSOperationClass.of(
+            VinylDNSRequestFactory.getGroup(baseUrl, new GetGroupRequest("g"))),
+        VinylDNSOperationClass.READ);
+    assertEquals(
+        VinylDNSOperationClass.of(
+            VinylDNSRequestFactory.deleteRecordSet(baseUrl, new DeleteRecordSetRequest("z", "r"))),
+        VinylDNSOperationClass.RECORD_WRITE);
+    assertEquals(
+        VinylDNSOperationClass.of(VinylDNSRequestFactory.cancelBatchChanges(baseUrl, "id")),
+        VinylDNSOperationClass.OTHER_WRITE);
+  }
+
+  private void stubDeleteRecordSet() {
+    wireMockServer.stubFor(
+        delete(urlEqualTo("/zones/zoneId/recordsets/rsId"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"id\":\"changeId\"}")));
+  }
+
+  private VinylDNSClientConfig config() {
+    return new VinylDNSClientConfig(
+        "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+  }
+}
@@ -0,0 +1,268 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.batch.DeleteRecordSetChangeInput;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AAAAData;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.data.CNAMEData;
+import io.vinyldns.java.model.record.data.MXData;
+import io.vinyldns.java.model.record.data.NSData;
+import io.vinyldns.java.model.record.data.RecordData;
+import io.vinyldns.java.model.record.data.SOAData;
+import io.vinyldns.java.model.record.data.SRVData;
+import io.vinyldns.java.model.record.data.TXTData;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.Zone;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSReconcilerTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void plansMinimalChanges() {
+    List<AddChangeInput> desired =
+        Arrays.asList(
+            add("www", RecordType.A, 300L, new AData("192.0.2.1")),
+            add("www.example.com.", RecordType.A, 300L, new AData("192.0.2.3")),
+            add("mail", RecordType.A, 300L, new AData("192.0.2.9")),
+            add("alias", RecordType.CNAME, 60L, new CNAMEData("www.example.com.")),
+            add("NEW.example.com.", RecordType.TXT, 60L, new TXTData("hello")),
+            add("@", RecordType.NS, 3600L, new NSData("ns1.example.com.")));
+    List<RecordSet> live =
+        Arrays.asList(
+            recordSet(
+                "example.com.",
+                RecordType.SOA,
+                3600,
+                new SOAData("ns1.example.com.", "admin.example.com.", 1L, 2L, 3L, 4L, 5L)),
+            recordSet("example.com.", RecordType.NS, 3600, new NSData("ns1.example.com.")),
+            recordSet("www", RecordType.A, 300, new AData("192.0.2.1"), new AData("192.0.2.2")),
+            recordSet("mail", RecordType.A, 300, new AData("192.0.2.9")),
+            recordSet("alias", RecordType.CNAME, 300, new CNAMEData("www.example.com.")),
+            recordSet("old", RecordType.A, 300, new AData("192.0.2.5")));
+
+    VinylDNSReconciler.Plan plan = new VinylDNSReconciler(client, 1).plan(zone(), desired, live);
+
+    assertEquals(
+        plan.getChanges(),
+        Arrays.<ChangeInput>asList(
+            new DeleteRecordSetChangeInput(
+                "www.example.com.", RecordType.A, new AData("192.0.2.2")),
+            add("www.example.com.", RecordType.A, 300L, new AData("192.0.2.3")),
+            new DeleteRecordSetChangeInput("alias.example.com.", RecordType.CNAME),
+            add("alias.example.com.", RecordType.CNAME, 60L, new CNAMEData("www.example.com.")),
+            new DeleteRecordSetChangeInput("old.example.com.", RecordType.A),
+            add("new.example.com.", RecordType.TXT, 60L, new TXTData("hello"))));
+    assertEquals(plan.getAdditions(), 3);
+    assertEquals(plan.getRecordDeletions(), 1);
+    assertEquals(plan.getRecordSetDeletions(), 2);
+    assertEquals(plan.getUnchanged(), 3);
+  }
+
+  @Test
+  public void emptyPlanWhenInSync() {
+    List<AddChangeInput> desired =
+        Arrays.asList(
+            add("www", RecordType.A, 300L, new AData("192.0.2.1")),
+            add("www", RecordType.A, null, new AData("192.0.2.1")));
+    List<RecordSet> live =
+        Collections.singletonList(recordSet("www", RecordType.A, 300, new AData("192.0.2.1")));
+
+    VinylDNSReconciler reconciler = new VinylDNSReconciler(client, 1);
+
+    assertTrue(reconciler.plan(zone(), desired.subList(0, 1), live).isEmpty());
+    assertTrue(reconciler.plan(zone(), desired.subList(1, 2), live).isEmpty());
+  }
+
+  @Test
+  public void equivalentRecordDataIsUnchanged() {
+    List<AddChangeInput> desired =
+        Arrays.asList(
+            add("alias", RecordType.CNAME, 300L, new CNAMEData("WWW.Example.com")),
+            add("@", RecordType.NS, 300L, new NSData("ns1.example.com")),
+            add("@", RecordType.MX, 300L, new MXData(10, "Mail.example.com.")),
+            add("_sip._tcp", RecordType.SRV, 300L, new SRVData(1, 2, 5060, "SIP.example.com")),
+            add("v6", RecordType.AAAA, 300L, new AAAAData("2001:DB8::1")));
+    List<RecordSet> live =
+        Arrays.asList(
+            recordSet("alias", RecordType.CNAME, 300, new CNAMEData("www.example.com.")),
+            recordSet("example.com.", RecordType.NS, 300, new NSData("NS1.example.com.")),
+            recordSet("example.com.", RecordType.MX, 300, new MXData(10, "mail.example.com")),
+            recordSet(
+                "_sip._tcp", RecordType.SRV, 300, new SRVData(1, 2, 5060, "sip.example.com.")),
+            recordSet("v6", RecordType.AAAA, 300, new AAAAData("2001:0db8:0:0:0:0:0:0001")));
+
+    VinylDNSReconciler.Plan plan = new VinylDNSReconciler(client, 1).plan(zone(), desired, live);
+
+    assertTrue(plan.isEmpty(), plan.getChanges().toString());
+    assertEquals(plan.getUnchanged(), 5);
+  }
+
+  @Test
+  public void changedRecordDataKeepsItsOwnSpelling() {
+    List<AddChangeInput> desired =
+        Collections.singletonList(add("v6", RecordType.AAAA, 300L, new AAAAData("2001:DB8::2")));
+    List<RecordSet> live =
+        Collections.singletonList(
+            recordSet("v6", RecordType.AAAA, 300, new AAAAData("2001:0db8::0001")));
+
+    VinylDNSReconciler.Plan plan = new VinylDNSReconciler(client, 1).plan(zone(), desired, live);
+
+    assertEquals(
+        plan.getChanges(),
+        Arrays.<ChangeInput>asList(
+            new DeleteRecordSetChangeInput(
+                "v6.example.com.", RecordType.AAAA, new AAAAData("2001:0db8::0001")),
+            add("v6.example.com.", RecordType.AAAA, 300L, new AAAAData("2001:DB8::2"))));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsConflictingTtls() {
+    new VinylDNSReconciler(client, 1)
+        .plan(
+            zone(),
+            Arrays.asList(
+                add("www", RecordType.A, 300L, new AData("192.0.2.1")),
+                add("www", RecordType.A, 60L, new AData("192.0.2.2"))),
+            Collections.<RecordSet>emptyList());
+  }
+
+  @Test
+  public void ignoredTypesAreLeftAlone() {
+    VinylDNSReconciler reconciler = new VinylDNSReconciler(client, 1);
+    reconciler.setIgnoredTypes(EnumSet.of(RecordType.NS));
+    List<RecordSet> live =
+        Collections.singletonList(
+            recordSet("example.com.", RecordType.NS, 3600, new NSData("ns1.example.com.")));
+
+    assertTrue(reconciler.plan(zone(), Collections.<AddChangeInput>emptyList(), live).isEmpty());
+  }
+
+  @Test
+  public void fetchesLiveStateAndAppliesPlan() {
+    RecordSet old = recordSet("old", RecordType.A, 300, new AData("192.0.2.5"));
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/zones/zoneId/recordsets"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        client.gson.toJson(
+                            new ListRecordSetsResponse(
+                                Collections.singletonList(old), null, null, 100, null)))));
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batchId");
+    batchResponse.setChanges(new ArrayList<>());
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(batchResponse))));
+
+    VinylDNSReconciler reconciler = new VinylDNSReconciler(client, 2);
+    VinylDNSReconciler.Plan plan =
+        reconciler.plan(
+            zone(),
+            Collections.singletonList(add("new", RecordType.A, 300L, new AData("192.0.2.6"))));
+    CreateBatchRequest template = new CreateBatchRequest(Collections.emptyList());
+    template.setComments("reconcile");
+    BulkBatchResult result = reconciler.apply(plan, template);
+
+    assertTrue(result.isSuccess());
+    assertEquals(plan.getChanges().size(), 2);
+    wireMockServer.verify(
+        postRequestedFor(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(
+                equalToJson(
+                    client.gson.toJson(
+                        new CreateBatchRequest(
+                            "reconcile", new ArrayList<>(plan.getChanges()), null)),
+                    true,
+                    false)));
+  }
+
+  private static AddChangeInput add(String name, RecordType type, Long ttl, RecordData record) {
+    return new AddChangeInput(name, type, ttl, record);
+  }
+
+  private static Zone zone() {
+    Zone zone = new Zone();
+    zone.setId("zoneId");
+    zone.setName("example.com.");
+    return zone;
+  }
+
+  private static RecordSet recordSet(
+      String name, RecordType type, long ttl, RecordData... records) {
+    return new RecordSet(
+        "zoneId",
+        name,
+        type,
+        ttl,
+        Arrays.asList(records),
+        name + type,
+        null,
+        RecordSetStatus.Active,
+        null,
+        null);
+  }
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.http.Fault;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import java.util.Collections;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSRetryTest {
+  private static final String GROUP_JSON = "{\"id\":\"groupId\",\"name\":\"ok\"}";
+
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void retriesIdempotentRequestOnTransientStatus() {
+    failThenSucceed(get(urlEqualTo("/groups/groupId")), aResponse().withStatus(503), GROUP_JSON);
+
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "groupId");
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void retriesConnectionReset() {
+    failThenSucceed(
+        get(urlEqualTo("/groups/groupId")),
+        aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER),
+        GROUP_JSON);
+
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void givesUpAfterMaxAttempts() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(aResponse().withStatus(502).withBody("bad gateway")));
+
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(response.getStatusCode(), 502);
+    assertEquals(response.getMessageBody(), "bad gateway");
+    wireMockServer.verify(3, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void doesNotRetryOtherStatusCodes() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId")).willReturn(aResponse().withStatus(500)));
+
+    new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void retriesPostOnlyWhenOptedIn() {
+    CreateBatchRequest request =
+        new CreateBatchRequest(
+            Collections.singletonList(
+                new AddChangeInput("foo.bar.", RecordType.A, 300L, new AData("1.2.3.4"))));
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges")).willReturn(aResponse().withStatus(503)));
+
+    new VinylDNSClientImpl(config(fastPolicy())).createBatchChanges(request);
+    wireMockServer.verify(1, postRequestedFor(urlEqualTo("/zones/batchrecordchanges")));
+
+    wireMockServer.resetAll();
+    failThenSucceed(
+        post(urlEqualTo("/zones/batchrecordchanges")),
+        aResponse().withStatus(503),
+        "{\"id\":\"batchId\",\"changes\":[]}");
+
+    VinylDNSRetryPolicy policy = fastPolicy();
+    policy.setRetryNonIdempotentOperations(Collections.singleton("createBatchChanges"));
+    VinylDNSResponse<BatchResponse> response =
+        new VinylDNSClientImpl(config(policy)).createBatchChanges(request);
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "batchId");
+    wireMockServer.verify(2, postRequestedFor(urlEqualTo("/zones/batchrecordchanges")));
+  }
+
+  @Test
+  public void honorsRetryAfter() {
+    failThenSucceed(
+        get(urlEqualTo("/groups/groupId")),
+        aResponse().withStatus(429).withHeader("Retry-After", "1"),
+        GROUP_JSON);
+
+    long start = System.nanoTime();
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertTrue(System.nanoTime() - start >= 1_000_000_000L);
+  }
+
+  @Test
+  public void doesNotWaitLongerThanMaxDelay() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId"))
+            .willReturn(aResponse().withStatus(503).withHeader("Retry-After", "120")));
+
+    VinylDNSResponse<Group> response =
+        new VinylDNSClientImpl(config(fastPolicy())).getGroup(new GetGroupRequest("groupId"));
+
+    assertEquals(response.getStatusCode(), 503);
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void retryBudgetStopsRetries() {
+    wireMockServer.stubFor(
+        get(urlEqualTo("/groups/groupId")).willReturn(aResponse().withStatus(503)));
+
+    VinylDNSRetryPolicy policy = fastPolicy();
+    policy.setBudgetCapacity(10);
+    VinylDNSClientImpl client = new VinylDNSClientImpl(config(policy));
+
+    // the first request spends the whole budget on two retries, the second gets none
+    client.getGroup(new GetGroupRequest("groupId"));
+    client.getGroup(new GetGroupRequest("groupId"));
+
+    wireMockServer.verify(4, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void successRefundsOneToken() {
+    VinylDNSRetryPolicy policy = fastPolicy();
+    policy.setBudgetCapacity(10);
+    Retries retries = new Retries(policy);
+    VinylDNSRequest<Void> request =
+        VinylDNSRequestFactory.getGroup("http://localhost", new GetGroupRequest("groupId"));
+
+    assertTrue(retries.delayBeforeRetry(request, 1, 503, null, null) >= 0);
+    assertEquals(retries.getAvailableTokens(), 10 - policy.getRetryCost());
+
+    // a retried success is refunded like any other, so failures keep draining the budget
+    retries.succeeded();
+    assertEquals(retries.getAvailableTokens(), 11 - policy.getRetryCost());
+    for (int i = 0; i < 20; i++) {
+      retries.succeeded();
+    }
+    assertEquals(retries.getAvailableTokens(), 10);
+  }
+
+  @Test
+  public void asyncClientRetries() throws Exception {
+    failThenSucceed(get(urlEqualTo("/groups/groupId")), aResponse().withStatus(504), GROUP_JSON);
+
+    try (VinylDNSAsyncClientImpl client = new VinylDNSAsyncClientImpl(config(fastPolicy()))) {
+      VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId")).join();
+
+      assertTrue(response instanceof ResponseMarker.Success);
+      assertEquals(response.getValue().getId(), "groupId");
+    }
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/groups/groupId")));
+  }
+
+  @Test
+  public void parsesRetryAfter() {
+    assertEquals(Retries.parseRetryAfter("3"), 3000);
+    assertEquals(Retries.parseRetryAfter(null), -1);
+    assertEquals(Retries.parseRetryAfter("soon"), -1);
+    assertEquals(Retries.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"), 0);
+  }
+
+  private void failThenSucceed(
+      MappingBuilder request, ResponseDefinitionBuilder failure, String body) {
+    wireMockServer.stubFor(
+        request
+            .inScenario("retry")
+            .whenScenarioStateIs(STARTED)
+            .willReturn(failure)
+            .willSetStateTo("recovered"));
+    wireMockServer.stubFor(
+        request
+            .inScenario("retry")
+            .whenScenarioStateIs("recovered")
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(body)));
+  }
+
+  private static VinylDNSRetryPolicy fastPolicy() {
+    VinylDNSRetryPolicy policy = new VinylDNSRetryPolicy();
+    policy.setBaseDelayMillis(5);
+    policy.setMaxDelayMillis(2000);
+    return policy;
+  }
+
+  private VinylDNSClientConfig config(VinylDNSRetryPolicy policy) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(
+            "http://localhost:" + wireMockServer.port(), new BasicAWSCredentials("fake", "fake"));
+    config.setRetryPolicy(policy);
+    return config;
+  }
+}
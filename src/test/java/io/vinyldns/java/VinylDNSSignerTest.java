@@ -0,0 +1,224 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static org.testng.Assert.*;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.amazonaws.auth.SignerFactory;
+import com.amazonaws.http.HttpMethodName;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.set.ListRecordSetsRequest;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.serializers.SerializationFactory;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.function.Supplier;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class VinylDNSSignerTest {
+  private static final Instant NOW = Instant.parse("2024-03-09T23:59:58Z");
+
+  private static final AWSCredentials CREDENTIALS =
+      new BasicAWSCredentials(" access-key ", "secret-key");
+
+  @DataProvider
+  public Object[][] requests() {
+    return new Object[][] {
+      {"get", (Supplier<Request<?>>) () -> get("http://localhost:9000", "zones/zone-id")},
+      {"default port", (Supplier<Request<?>>) () -> get("https://vinyldns.example:443", "zones")},
+      {
+        "endpoint path",
+        (Supplier<Request<?>>) () -> get("https://vinyldns.example/api/", "/groups/a b")
+      },
+      {
+        "query",
+        (Supplier<Request<?>>)
+            () ->
+                signable(
+                    VinylDNSRequestFactory.listZones(
+                        "http://localhost:9000/", new ListZonesRequest("a b+c/*~", "start", 5)))
+      },
+      {
+        "repeated parameter",
+        (Supplier<Request<?>>)
+            () -> {
+              Request<?> request = get("http://localhost:9000", "zones");
+              request.addParameters("b", Arrays.asList("2", "1"));
+              request.addParameter("a", "x");
+              return request;
+            }
+      },
+      {
+        "body",
+        (Supplier<Request<?>>)
+            () -> {
+              Request<?> request = get("http://localhost:9000", "zones/batchrecordchanges");
+              request.setHttpMethod(HttpMethodName.POST);
+              request.setContent(
+                  new ByteArrayInputStream("{\"changes\":[]}".getBytes(StandardCharsets.UTF_8)));
+              return request;
+            }
+      },
+      {
+        "serialized batch",
+        (Supplier<Request<?>>)
+            () ->
+                signable(
+                    VinylDNSRequestFactory.createBatchChanges(
+                        "http://localhost:9000/",
+                        new CreateBatchRequest(
+                            "comment \u00e9",
+                            Collections.singletonList(
+                                new AddChangeInput(
+                                    "foo.bar.", RecordType.A, 300L, new AData("1.2.3.4"))),
+                            null)))
+      },
+      {
+        "post without body",
+        (Supplier<Request<?>>)
+            () -> {
+              Request<?> request = get("http://localhost:9000", "zones/zone-id/sync");
+              request.setHttpMethod(HttpMethodName.POST);
+              request.addParameter("force", "true");
+              return request;
+            }
+      },
+      {
+        "headers",
+        (Supplier<Request<?>>)
+            () -> {
+              Request<?> request = get("http://localhost:9000", "zones");
+              request.addHeader("X-Custom", "  a   b\tc ");
+              request.addHeader("Connection", "keep-alive");
+              return request;
+            }
+      },
+      {
+        "record sets",
+        (Supplier<Request<?>>)
+            () ->
+                signable(
+                    VinylDNSRequestFactory.listRecordSets(
+                        "http://localhost:9000/",
+                        new ListRecordSetsRequest("zone-id", "www*", "start", 100)))
+      }
+    };
+  }
+
+  @Test(dataProvider = "requests")
+  public void matchesSdkSigner(String name, Supplier<Request<?>> requests) {
+    Request<?> expected = requests.get();
+    AWS4Signer sdkSigner = (AWS4Signer) SignerFactory.getSigner("VinylDNS", "us/east");
+    sdkSigner.setOverrideDate(Date.from(NOW));
+    sdkSigner.sign(expected, CREDENTIALS);
+
+    Request<?> actual = requests.get();
+    signer().sign(actual, CREDENTIALS);
+
+    assertEquals(actual.getHeaders(), expected.getHeaders(), name);
+  }
+
+  @Test
+  public void matchesSdkSignerWithSessionCredentials() {
+    AWSCredentials credentials = new BasicSessionCredentials("access-key", "secret-key", "token");
+    Request<?> expected = get("http://localhost:9000", "zones");
+    AWS4Signer sdkSigner = (AWS4Signer) SignerFactory.getSigner("VinylDNS", "us/east");
+    sdkSigner.setOverrideDate(Date.from(NOW));
+    sdkSigner.sign(expected, credentials);
+
+    Request<?> actual = get("http://localhost:9000", "zones");
+    signer().sign(actual, credentials);
+
+    assertEquals(actual.getHeaders(), expected.getHeaders());
+    assertEquals(actual.getHeaders().get("X-Amz-Security-Token"), "token");
+  }
+
+  @Test
+  public void derivesNewKeyOnNextDay() {
+    MutableClock clock = new MutableClock(NOW);
+    VinylDNSSigner signer = new VinylDNSSigner("VinylDNS", "us-east-1", clock);
+
+    Request<?> today = get("http://localhost:9000", "zones");
+    signer.sign(today, CREDENTIALS);
+    clock.now = NOW.plusSeconds(5);
+    Request<?> tomorrow = get("http://localhost:9000", "zones");
+    signer.sign(tomorrow, CREDENTIALS);
+
+    AWS4Signer sdkSigner = (AWS4Signer) SignerFactory.getSigner("VinylDNS", "us/east");
+    sdkSigner.setOverrideDate(Date.from(NOW.plusSeconds(5)));
+    Request<?> expected = get("http://localhost:9000", "zones");
+    sdkSigner.sign(expected, CREDENTIALS);
+
+    assertTrue(today.getHeaders().get("Authorization").contains("/20240309/us-east-1/VinylDNS/"));
+    assertEquals(tomorrow.getHeaders(), expected.getHeaders());
+  }
+
+  private static VinylDNSSigner signer() {
+    return new VinylDNSSigner("VinylDNS", "us-east-1", Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  private static Request<?> get(String endpoint, String resourcePath) {
+    Request<?> request = new DefaultRequest<>("VinylDNS");
+    request.setEndpoint(URI.create(endpoint));
+    request.setResourcePath(resourcePath);
+    request.setHttpMethod(HttpMethodName.GET);
+    request.addHeader("Content-Type", "application/json");
+    return request;
+  }
+
+  private static Request<?> signable(VinylDNSRequest<?> request) {
+    return VinylDNSRequestFactory.toSignableRequest(request, SerializationFactory.createGson());
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,321 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.AData;
+import io.vinyldns.java.model.record.set.ListRecordSetChangesResponse;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetChange;
+import io.vinyldns.java.model.record.set.RecordSetChangeStatus;
+import io.vinyldns.java.model.record.set.RecordSetChangeType;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.ListZoneChangesResponse;
+import io.vinyldns.java.model.zone.ListZonesResponse;
+import io.vinyldns.java.model.zone.Zone;
+import io.vinyldns.java.model.zone.ZoneChangeStatus;
+import io.vinyldns.java.model.zone.ZoneChangeType;
+import io.vinyldns.java.model.zone.ZoneResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class VinylDNSSnapshotStoreTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+  private Path file;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @BeforeMethod
+  public void beforeEach() throws IOException {
+    file = Files.createTempDirectory("snapshot").resolve("zones.snapshot");
+  }
+
+  @AfterMethod
+  public void afterEach() throws IOException {
+    wireMockServer.resetAll();
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(file.getParent());
+  }
+
+  @Test
+  public void buildsAndReopensSnapshot() throws IOException {
+    stubZones(zone("z1", "example.com."), zone("z2", "example.org."));
+    stubRecordSets("z1", recordSet("z1", "rs1", "www", "192.0.2.1"));
+    stubRecordSets("z2", recordSet("z2", "rs2", "mail", "192.0.2.2"));
+    stubRecordSetChanges("z1", change("c1", recordSet("z1", "rs1", "www", "192.0.2.1")));
+    stubRecordSetChanges("z2");
+    stubZoneChanges("z1");
+    stubZoneChanges("z2");
+
+    VinylDNSSnapshotStore.Result result = new VinylDNSSnapshotStore(client, file, 2).sync();
+
+    assertEquals(result.getZones(), 2);
+    assertEquals(result.getScannedZones(), 2);
+    wireMockServer.resetAll();
+
+    VinylDNSSnapshotStore store = new VinylDNSSnapshotStore(client, file, 2);
+    assertEquals(names(store.getZones()), Arrays.asList("example.com.", "example.org."));
+    assertEquals(store.getZoneByName("EXAMPLE.org").getId(), "z2");
+    assertEquals(store.getRecordSetCount(), 2);
+    assertEquals(ids(store.getRecordSets("z1")), Collections.singletonList("rs1"));
+    assertEquals(
+        store.getRecordSets("z2").get(0).getRecords(),
+        Collections.singletonList(new AData("192.0.2.2")));
+    assertTrue(store.getRecordSets("unknown").isEmpty());
+    assertEquals(wireMockServer.getAllServeEvents().size(), 0);
+  }
+
+  @Test
+  public void appliesChangesSinceCheckpoint() throws IOException {
+    stubZones(zone("z1", "example.com."), zone("z2", "example.org."));
+    stubRecordSets(
+        "z1",
+        recordSet("z1", "rs1", "www", "192.0.2.1"),
+        recordSet("z1", "rs2", "old", "192.0.2.2"));
+    stubRecordSets("z2", recordSet("z2", "rs9", "mail", "192.0.2.9"));
+    stubRecordSetChanges("z1", change("c1", recordSet("z1", "rs1", "www", "192.0.2.1")));
+    stubRecordSetChanges("z2");
+    stubZoneChanges("z1");
+    stubZoneChanges("z2");
+    VinylDNSSnapshotStore store = new VinylDNSSnapshotStore(client, file, 2);
+    store.sync();
+    wireMockServer.resetAll();
+
+    RecordSetChange pending = change("c5", recordSet("z1", "rs5", "later", "192.0.2.5"));
+    pending.setStatus(RecordSetChangeStatus.Pending);
+    RecordSetChange delete = change("c2", recordSet("z1", "rs2", "old", "192.0.2.2"));
+    delete.setChangeType(RecordSetChangeType.Delete);
+    stubZones(zone("z1", "example.com."));
+    stubRecordSetChanges(
+        "z1",
+        pending,
+        change("c4", recordSet("z1", "rs1", "www", "192.0.2.4")),
+        change("c3", recordSet("z1", "rs3", "new", "192.0.2.3")),
+        delete,
+        change("c1", recordSet("z1", "rs1", "www", "192.0.2.1")));
+    stubZoneChanges("z1");
+
+    VinylDNSSnapshotStore.Result result = store.sync();
+
+    assertEquals(result.getZones(), 1);
+    assertEquals(result.getRemovedZones(), 1);
+    assertEquals(result.getScannedZones(), 0);
+    assertEquals(result.getAppliedChanges(), 3);
+    assertNull(store.getZone("z2"));
+    assertEquals(ids(store.getRecordSets("z1")), Arrays.asList("rs1", "rs3"));
+    assertEquals(
+        store.getRecordSets("z1").get(0).getRecords(),
+        Collections.singletonList(new AData("192.0.2.4")));
+    wireMockServer.verify(0, getRequestedFor(urlPathEqualTo("/zones/z1/recordsets")));
+
+    // the pending change holds the checkpoint back, so it is read again once complete
+    wireMockServer.resetAll();
+    pending.setStatus(RecordSetChangeStatus.Complete);
+    stubZones(zone("z1", "example.com."));
+    stubRecordSetChanges(
+        "z1",
+        pending,
+        change("c4", recordSet("z1", "rs1", "www", "192.0.2.4")),
+        change("c3", recordSet("z1", "rs3", "new", "192.0.2.3")),
+        delete,
+        change("c1", recordSet("z1", "rs1", "www", "192.0.2.1")));
+    stubZoneChanges("z1");
+
+    result = store.sync();
+
+    assertEquals(result.getAppliedChanges(), 1);
+    assertEquals(ids(store.getRecordSets("z1")), Arrays.asList("rs1", "rs3", "rs5"));
+  }
+
+  @Test
+  public void rescansZoneWhenHistoryIsIncompleteOrSynced() throws IOException {
+    stubZones(zone("z1", "example.com."), zone("z2", "example.org."));
+    stubRecordSets("z1", recordSet("z1", "rs1", "www", "192.0.2.1"));
+    stubRecordSets("z2", recordSet("z2", "rs2", "mail", "192.0.2.2"));
+    stubRecordSetChanges("z1", change("c1", recordSet("z1", "rs1", "www", "192.0.2.1")));
+    stubRecordSetChanges("z2");
+    stubZoneChanges("z1");
+    stubZoneChanges("z2", zoneChange("zc1", ZoneChangeType.Create));
+    VinylDNSSnapshotStore store = new VinylDNSSnapshotStore(client, file, 1);
+    store.sync();
+    wireMockServer.resetAll();
+
+    stubZones(zone("z1", "example.com."), zone("z2", "example.org."));
+    stubRecordSets("z1", recordSet("z1", "rs7", "www", "192.0.2.7"));
+    stubRecordSets("z2", recordSet("z2", "rs8", "mail", "192.0.2.8"));
+    // c1 has aged out of the history of z1
+    stubRecordSetChanges("z1", change("c7", recordSet("z1", "rs7", "www", "192.0.2.7")));
+    stubRecordSetChanges("z2");
+    stubZoneChanges("z1");
+    stubZoneChanges(
+        "z2", zoneChange("zc2", ZoneChangeType.Sync), zoneChange("zc1", ZoneChangeType.Create));
+
+    VinylDNSSnapshotStore.Result result = store.sync();
+
+    assertEquals(result.getScannedZones(), 2);
+    assertEquals(ids(store.getRecordSets("z1")), Collections.singletonList("rs7"));
+    assertEquals(ids(store.getRecordSets("z2")), Collections.singletonList("rs8"));
+  }
+
+  @Test
+  public void keepsSnapshotWhenSyncFails() throws IOException {
+    stubZones(zone("z1", "example.com."));
+    stubRecordSets("z1", recordSet("z1", "rs1", "www", "192.0.2.1"));
+    stubRecordSetChanges("z1");
+    stubZoneChanges("z1");
+    VinylDNSSnapshotStore store = new VinylDNSSnapshotStore(client, file, 1);
+    store.sync();
+    wireMockServer.resetAll();
+
+    stubZones(zone("z1", "example.com."));
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/zones/z1/changes"))
+            .willReturn(aResponse().withStatus(500).withBody("server error")));
+
+    assertThrows(VinylDNSException.class, store::sync);
+    assertEquals(ids(store.getRecordSets("z1")), Collections.singletonList("rs1"));
+    assertEquals(
+        ids(new VinylDNSSnapshotStore(client, file, 1).getRecordSets("z1")),
+        Collections.singletonList("rs1"));
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertEquals(files.count(), 1);
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void rejectsForeignFile() throws IOException {
+    Files.write(file, "not a snapshot".getBytes("UTF-8"));
+    new VinylDNSSnapshotStore(client, file, 1);
+  }
+
+  private void stubZones(Zone... zones) {
+    stubJson("/zones", new ListZonesResponse(Arrays.asList(zones), null, null, 100, null));
+  }
+
+  private void stubRecordSets(String zoneId, RecordSet... recordSets) {
+    stubJson(
+        "/zones/" + zoneId + "/recordsets",
+        new ListRecordSetsResponse(Arrays.asList(recordSets), null, null, 100, null));
+  }
+
+  private void stubRecordSetChanges(String zoneId, RecordSetChange... changes) {
+    stubJson(
+        "/zones/" + zoneId + "/recordsetchanges",
+        new ListRecordSetChangesResponse(zoneId, Arrays.asList(changes), null, null, 100));
+  }
+
+  private void stubZoneChanges(String zoneId, ZoneResponse... changes) {
+    stubJson(
+        "/zones/" + zoneId + "/changes", new ListZoneChangesResponse(Arrays.asList(changes), 100));
+  }
+
+  private void stubJson(String path, Object body) {
+    wireMockServer.stubFor(
+        get(urlPathEqualTo(path))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(body))));
+  }
+
+  private static Zone zone(String id, String name) {
+    Zone zone = new Zone();
+    zone.setId(id);
+    zone.setName(name);
+    zone.setEmail("admin@" + name);
+    return zone;
+  }
+
+  private static RecordSet recordSet(String zoneId, String id, String name, String address) {
+    return new RecordSet(
+        zoneId,
+        name,
+        RecordType.A,
+        300,
+        Collections.singletonList(new AData(address)),
+        id,
+        null,
+        RecordSetStatus.Active,
+        null,
+        null);
+  }
+
+  private static RecordSetChange change(String id, RecordSet recordSet) {
+    return new RecordSetChange(
+        id,
+        null,
+        recordSet,
+        "user",
+        RecordSetChangeType.Create,
+        RecordSetChangeStatus.Complete,
+        null,
+        null,
+        null);
+  }
+
+  private static ZoneResponse zoneChange(String id, ZoneChangeType type) {
+    return new ZoneResponse(null, "user", type, ZoneChangeStatus.Synced, null, id);
+  }
+
+  private static List<String> names(List<Zone> zones) {
+    List<String> names = new ArrayList<>();
+    for (Zone zone : zones) {
+      names.add(zone.getName());
+    }
+    return names;
+  }
+
+  private static List<String> ids(List<RecordSet> recordSets) {
+    List<String> ids = new ArrayList<>();
+    for (RecordSet recordSet : recordSets) {
+      ids.add(recordSet.getId());
+    }
+    return ids;
+  }
+}
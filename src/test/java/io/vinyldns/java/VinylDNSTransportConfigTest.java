@@ -0,0 +1,106 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static org.testng.Assert.*;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.testng.annotations.Test;
+
+public class VinylDNSTransportConfigTest {
+  @Test
+  public void mapsSettingsToClientConfiguration() {
+    ClientConfiguration configuration = custom().toClientConfiguration();
+
+    assertSame(configuration.getRetryPolicy(), PredefinedRetryPolicies.NO_RETRY_POLICY);
+    assertEquals(configuration.getMaxConnections(), 7);
+    assertEquals(configuration.getConnectionTTL(), 60_000L);
+    assertEquals(configuration.getConnectionMaxIdleMillis(), 30_000L);
+    assertFalse(configuration.useReaper());
+    assertEquals(configuration.getSocketTimeout(), 1_500);
+    assertEquals(configuration.getConnectionTimeout(), 2_500);
+    assertEquals(configuration.getRequestTimeout(), 5_000);
+    assertTrue(configuration.useTcpKeepAlive());
+    assertEquals(configuration.getValidateAfterInactivityMillis(), 4_000);
+  }
+
+  @Test
+  public void defaultsMatchClientConfiguration() {
+    ClientConfiguration configuration = new VinylDNSTransportConfig().toClientConfiguration();
+    ClientConfiguration defaults = new ClientConfiguration();
+
+    assertEquals(configuration.getMaxConnections(), defaults.getMaxConnections());
+    assertEquals(configuration.getConnectionTTL(), defaults.getConnectionTTL());
+    assertEquals(configuration.getSocketTimeout(), defaults.getSocketTimeout());
+    assertEquals(configuration.getConnectionTimeout(), defaults.getConnectionTimeout());
+    assertEquals(configuration.getRequestTimeout(), defaults.getRequestTimeout());
+    assertEquals(configuration.useTcpKeepAlive(), defaults.useTcpKeepAlive());
+  }
+
+  @Test
+  public void mapsSettingsToAsyncClientBuilder() throws Exception {
+    HttpAsyncClientBuilder builder = custom().toAsyncClientBuilder();
+
+    assertEquals(field(builder, "maxConnTotal"), 7);
+    assertEquals(field(builder, "maxConnPerRoute"), 7);
+    assertEquals(field(builder, "connTimeToLive"), 60_000L);
+    assertEquals(field(builder, "connTimeToLiveTimeUnit"), TimeUnit.MILLISECONDS);
+
+    IOReactorConfig reactor = (IOReactorConfig) field(builder, "defaultIOReactorConfig");
+    assertTrue(reactor.isSoKeepalive());
+    assertEquals(reactor.getConnectTimeout(), 2_500);
+    assertEquals(reactor.getSoTimeout(), 1_500);
+
+    RequestConfig request = (RequestConfig) field(builder, "defaultRequestConfig");
+    assertEquals(request.getConnectTimeout(), 2_500);
+    assertEquals(request.getSocketTimeout(), 1_500);
+  }
+
+  @Test
+  public void asyncClientBuilderKeepsConnectionsWithoutTtl() throws Exception {
+    VinylDNSTransportConfig config = new VinylDNSTransportConfig();
+    config.setConnectionTtlMillis(-1);
+
+    HttpAsyncClientBuilder builder = config.toAsyncClientBuilder();
+
+    assertEquals(field(builder, "connTimeToLive"), -1L);
+  }
+
+  private static VinylDNSTransportConfig custom() {
+    VinylDNSTransportConfig config = new VinylDNSTransportConfig();
+    config.setMaxConnections(7);
+    config.setConnectionTtlMillis(60_000);
+    config.setConnectionMaxIdleMillis(30_000);
+    config.setIdleConnectionEviction(false);
+    config.setSocketTimeoutMillis(1_500);
+    config.setConnectionTimeoutMillis(2_500);
+    config.setRequestTimeoutMillis(5_000);
+    config.setTcpKeepAlive(true);
+    config.setValidateAfterInactivityMillis(4_000);
+    return config;
+  }
+
+  /** The builder has no getters, so its settings are read back from its fields. */
+  private static Object field(HttpAsyncClientBuilder builder, String name) throws Exception {
+    Field field = HttpAsyncClientBuilder.class.getDeclaredField(name);
+    field.setAccessible(true);
+    return field.get(builder);
+  }
+}
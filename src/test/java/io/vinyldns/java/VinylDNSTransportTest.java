@@ -0,0 +1,195 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.vinyldns.java.model.membership.Group;
+import io.vinyldns.java.model.zone.ListZonesRequest;
+import io.vinyldns.java.model.zone.ListZonesResponse;
+import io.vinyldns.java.responses.ResponseMarker;
+import io.vinyldns.java.responses.VinylDNSResponse;
+import io.vinyldns.java.transport.VinylDNSHttpRequest;
+import io.vinyldns.java.transport.VinylDNSHttpResponse;
+import io.vinyldns.java.transport.VinylDNSTransport;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSTransportTest {
+  private WireMockServer wireMockServer;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void customTransportReceivesSignedRequest() {
+    FakeTransport transport = new FakeTransport();
+    transport.responses.add(new FakeResponse(200, "{\"id\":\"groupId\",\"name\":\"ok\"}"));
+    VinylDNSClientImpl client =
+        new VinylDNSClientImpl(config("http://vinyldns.example", transport));
+
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue().getId(), "groupId");
+    VinylDNSHttpRequest request = transport.requests.get(0);
+    assertEquals(request.getMethod(), "GET");
+    assertEquals(request.getUri().toString(), "http://vinyldns.example/groups/groupId");
+    assertTrue(request.getHeaders().get("Authorization").startsWith("AWS4-HMAC-SHA256 "));
+    assertFalse(request.getHeaders().containsKey("Host"));
+    assertNull(request.getBody());
+  }
+
+  @Test
+  public void retriesIOExceptionFromTransport() {
+    FakeTransport transport = new FakeTransport();
+    transport.responses.add(null);
+    transport.responses.add(new FakeResponse(200, "{\"id\":\"groupId\",\"name\":\"ok\"}"));
+    VinylDNSClientImpl client =
+        new VinylDNSClientImpl(config("http://vinyldns.example", transport));
+
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(transport.requests.size(), 2);
+  }
+
+  @Test
+  public void errorResponseFromTransportIsFailure() {
+    FakeTransport transport = new FakeTransport();
+    transport.responses.add(new FakeResponse(404, "not found"));
+    VinylDNSClientImpl client =
+        new VinylDNSClientImpl(config("http://vinyldns.example", transport));
+
+    VinylDNSResponse<Group> response = client.getGroup(new GetGroupRequest("groupId"));
+
+    assertTrue(response instanceof ResponseMarker.Failure);
+    assertEquals(response.getStatusCode(), 404);
+    assertEquals(response.getMessageBody(), "not found");
+    assertTrue(transport.responses.isEmpty());
+  }
+
+  @Test
+  public void defaultTransportKeepsQueryEncoding() {
+    ListZonesResponse listZonesResponse =
+        new ListZonesResponse(Collections.emptyList(), null, null, 10, "a b+c/*");
+    VinylDNSClientImpl client =
+        new VinylDNSClientImpl(config("http://localhost:" + wireMockServer.port(), null));
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/zones"))
+            .withQueryParam("nameFilter", equalTo("a b+c/*"))
+            .withQueryParam("maxItems", equalTo("10"))
+            .withHeader("Authorization", matching("AWS4-HMAC-SHA256 .*"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(listZonesResponse))));
+
+    VinylDNSResponse<ListZonesResponse> response =
+        client.listZones(new ListZonesRequest("a b+c/*", null, 10));
+
+    assertTrue(response instanceof ResponseMarker.Success);
+    assertEquals(response.getValue(), listZonesResponse);
+  }
+
+  private static VinylDNSClientConfig config(String baseUrl, VinylDNSTransport transport) {
+    VinylDNSClientConfig config =
+        new VinylDNSClientConfig(baseUrl, new BasicAWSCredentials("fake", "fake"));
+    VinylDNSRetryPolicy retryPolicy = new VinylDNSRetryPolicy();
+    retryPolicy.setBaseDelayMillis(1);
+    config.setRetryPolicy(retryPolicy);
+    config.setTransport(transport);
+    return config;
+  }
+
+  /** Answers with queued responses; a null entry fails the request as a refused connection. */
+  private static class FakeTransport implements VinylDNSTransport {
+    private final List<VinylDNSHttpRequest> requests = new ArrayList<>();
+
+    private final List<FakeResponse> responses = new ArrayList<>();
+
+    @Override
+    public synchronized VinylDNSHttpResponse execute(VinylDNSHttpRequest request)
+        throws IOException {
+      requests.add(request);
+      FakeResponse response = responses.remove(0);
+      if (response == null) {
+        throw new ConnectException("Connection refused");
+      }
+      return response;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  private static class FakeResponse implements VinylDNSHttpResponse {
+    private final int statusCode;
+
+    private final String body;
+
+    FakeResponse(int statusCode, String body) {
+      this.statusCode = statusCode;
+      this.body = body;
+    }
+
+    @Override
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+      return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    @Override
+    public InputStream getContent() {
+      return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {}
+  }
+}
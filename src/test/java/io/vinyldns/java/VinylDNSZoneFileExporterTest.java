@@ -0,0 +1,222 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import io.vinyldns.java.model.record.set.ListRecordSetsResponse;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import io.vinyldns.java.model.zone.Zone;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class VinylDNSZoneFileExporterTest {
+  private static final String LONG_TEXT = repeat('a', 300) + "\"\u00e9";
+
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void writesCanonicalZoneFile() throws IOException {
+    stubZone();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long records = new VinylDNSZoneFileExporter(client).export(zone(), out);
+
+    String expected =
+        String.join(
+                "\n",
+                "$ORIGIN example.com.",
+                "@\t3600\tIN\tSOA\tns1.example.com. admin.example.com. 7 7200 900 604800 300",
+                "@\t3600\tIN\tNS\tns1.example.com.",
+                "@\t3600\tIN\tNS\tns2.example.com.",
+                "mail\t300\tIN\tMX\t10 mx.example.com.",
+                "www\t300\tIN\tA\t192.0.2.1",
+                "www\t300\tIN\tA\t192.0.2.2",
+                "www\t300\tIN\tAAAA\t2001:db8::1",
+                "www\t300\tIN\tTXT\t\"web\"",
+                "_sip._tcp\t60\tIN\tSRV\t0 5 5060 sip.example.com.",
+                "ssh\t60\tIN\tSSHFP\t1 1 abcdef",
+                "alias\t60\tIN\tCNAME\twww.example.com.",
+                "1\t60\tIN\tPTR\thost.example.com.",
+                "spf\t60\tIN\tSPF\t\"v=spf1 -all\"",
+                "txt\t60\tIN\tTXT\t\""
+                    + repeat('a', 255)
+                    + "\" \""
+                    + repeat('a', 45)
+                    + "\\\"\\195\\169\"",
+                "; odd\t60\tIN\tUNKNOWN\t0 issue \"ca.example.net\"")
+            + "\n";
+    assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), expected);
+    assertEquals(records, 14);
+  }
+
+  @Test
+  public void readsBackWhatItWrites() throws IOException {
+    stubZone();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new VinylDNSZoneFileExporter(client).export(zone(), out);
+
+    List<AddChangeInput> read = new ArrayList<>();
+    try (VinylDNSZoneFileReader reader =
+        new VinylDNSZoneFileReader(
+            new StringReader(new String(out.toByteArray(), StandardCharsets.UTF_8)), null)) {
+      AddChangeInput record;
+      while ((record = reader.next()) != null) {
+        read.add(record);
+      }
+    }
+
+    assertEquals(read.size(), 14);
+    assertEquals(
+        read.get(0),
+        new AddChangeInput(
+            "example.com.",
+            RecordType.SOA,
+            3600L,
+            new SOAData("ns1.example.com.", "admin.example.com.", 7L, 7200L, 900L, 604800L, 300L)));
+    assertEquals(
+        read.get(13),
+        new AddChangeInput("txt.example.com.", RecordType.TXT, 60L, new TXTData(LONG_TEXT)));
+  }
+
+  @Test(expectedExceptions = VinylDNSException.class)
+  public void failsOnErrorResponse() throws IOException {
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/zones/zoneId/recordsets"))
+            .willReturn(aResponse().withStatus(404).withBody("Zone not found")));
+
+    new VinylDNSZoneFileExporter(client).export(zone(), new ByteArrayOutputStream());
+  }
+
+  private void stubZone() {
+    stub(
+        get(urlPathEqualTo("/zones/zoneId/recordsets"))
+            .withQueryParam("recordNameFilter", equalTo("example.com.")),
+        null,
+        recordSet(
+            "example.com.",
+            RecordType.NS,
+            3600,
+            new NSData("ns2.example.com."),
+            new NSData("ns1.example.com.")),
+        recordSet(
+            "example.com.",
+            RecordType.SOA,
+            3600,
+            new SOAData("ns1.example.com.", "admin.example.com.", 7L, 7200L, 900L, 604800L, 300L)));
+    stub(
+        get(urlPathEqualTo("/zones/zoneId/recordsets"))
+            .withQueryParam("recordNameFilter", absent())
+            .withQueryParam("startFrom", absent()),
+        "page2",
+        recordSet("example.com.", RecordType.NS, 3600, new NSData("ns1.example.com.")),
+        recordSet("mail", RecordType.MX, 300, new MXData(10, "mx.example.com.")),
+        recordSet("www", RecordType.AAAA, 300, new AAAAData("2001:db8::1")),
+        recordSet("www", RecordType.A, 300, new AData("192.0.2.2"), new AData("192.0.2.1")));
+    stub(
+        get(urlPathEqualTo("/zones/zoneId/recordsets"))
+            .withQueryParam("recordNameFilter", absent())
+            .withQueryParam("startFrom", equalTo("page2")),
+        null,
+        recordSet("www", RecordType.TXT, 300, new TXTData("web")),
+        recordSet("_sip._tcp", RecordType.SRV, 60, new SRVData(0, 5, 5060, "sip.example.com.")),
+        recordSet("ssh", RecordType.SSHFP, 60, new SSHFPData(1, 1, "abcdef")),
+        recordSet("alias", RecordType.CNAME, 60, new CNAMEData("www.example.com.")),
+        recordSet("1", RecordType.PTR, 60, new PTRData("host.example.com.")),
+        recordSet("spf", RecordType.SPF, 60, new SPFData("v=spf1 -all")),
+        recordSet("txt", RecordType.TXT, 60, new TXTData(LONG_TEXT)),
+        recordSet("odd", RecordType.UNKNOWN, 60, new UNKNOWNData("0 issue \"ca.example.net\"")));
+  }
+
+  private void stub(MappingBuilder request, String nextId, RecordSet... recordSets) {
+    wireMockServer.stubFor(
+        request.willReturn(
+            aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(
+                    client.gson.toJson(
+                        new ListRecordSetsResponse(
+                            Arrays.asList(recordSets), null, nextId, 100, null)))));
+  }
+
+  private static Zone zone() {
+    Zone zone = new Zone();
+    zone.setId("zoneId");
+    zone.setName("example.com.");
+    return zone;
+  }
+
+  private static RecordSet recordSet(
+      String name, RecordType type, long ttl, RecordData... records) {
+    return new RecordSet(
+        "zoneId",
+        name,
+        type,
+        ttl,
+        Arrays.asList(records),
+        name + type,
+        null,
+        RecordSetStatus.Active,
+        null,
+        null);
+  }
+
+  private static String repeat(char c, int count) {
+    char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+}
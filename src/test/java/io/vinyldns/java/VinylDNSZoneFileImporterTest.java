@@ -0,0 +1,274 @@
+/**
+ * Copyright 2018 Comcast Cable Communications Management, LLC
+ *
+ * <p>Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * <p>http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * <p>Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vinyldns.java;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.testng.Assert.*;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.vinyldns.java.model.batch.AddChangeInput;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.ChangeInput;
+import io.vinyldns.java.model.batch.CreateBatchRequest;
+import io.vinyldns.java.model.record.RecordType;
+import io.vinyldns.java.model.record.data.*;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class VinylDNSZoneFileImporterTest {
+  private WireMockServer wireMockServer;
+  private VinylDNSClientImpl client;
+
+  @BeforeClass
+  public void beforeAll() {
+    wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    wireMockServer.start();
+
+    client =
+        new VinylDNSClientImpl(
+            new VinylDNSClientConfig(
+                "http://localhost:" + wireMockServer.port(),
+                new BasicAWSCredentials("fake", "fake")));
+  }
+
+  @AfterClass
+  public void afterAll() {
+    wireMockServer.shutdown();
+  }
+
+  @AfterMethod
+  public void afterEach() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  public void readsDirectivesAndEveryType() throws IOException {
+    Path directory = Files.createTempDirectory("zonefile");
+    Path zone =
+        write(
+            directory.resolve("example.com.zone"),
+            "$ORIGIN example.com.",
+            "$TTL 1h",
+            "@   IN  SOA ns1 hostmaster (",
+            "        2024010101 ; serial",
+            "        2h 15m 1w 300 )",
+            "    IN  NS  ns1",
+            "    IN  NS  ns2.example.net.",
+            "; a comment line",
+            "",
+            "ns1 300 IN A 192.0.2.1",
+            "www A 192.0.2.2",
+            "    AAAA 2001:db8::2",
+            "mail IN 600 MX 10 mx",
+            "alias CNAME www",
+            "_sip._tcp SRV 0 5 5060 sip",
+            "txt TXT \"v=spf1 \\\"quoted\\\"\" \" more; not a comment\" \\065",
+            "spf SPF \"v=spf1 -all\"",
+            "ssh SSHFP 1 1 ( 0123456789abcdef",
+            "                0123456789abcdef )",
+            "caa CAA 0 issue \"ca.example.net\"",
+            "$INCLUDE sub.inc sub",
+            "after A 192.0.2.9");
+    write(directory.resolve("sub.inc"), "host 120 A 192.0.2.10", "4 PTR @");
+
+    List<AddChangeInput> records = new ArrayList<>();
+    try (VinylDNSZoneFileReader reader = new VinylDNSZoneFileReader(zone, null)) {
+      AddChangeInput record;
+      while ((record = reader.next()) != null) {
+        records.add(record);
+      }
+    }
+
+    assertEquals(
+        records,
+        Arrays.asList(
+            add(
+                "example.com.",
+                RecordType.SOA,
+                3600,
+                new SOAData(
+                    "ns1.example.com.",
+                    "hostmaster.example.com.",
+                    2024010101L,
+                    7200L,
+                    900L,
+                    604800L,
+                    300L)),
+            add("example.com.", RecordType.NS, 3600, new NSData("ns1.example.com.")),
+            add("example.com.", RecordType.NS, 3600, new NSData("ns2.example.net.")),
+            add("ns1.example.com.", RecordType.A, 300, new AData("192.0.2.1")),
+            add("www.example.com.", RecordType.A, 3600, new AData("192.0.2.2")),
+            add("www.example.com.", RecordType.AAAA, 3600, new AAAAData("2001:db8::2")),
+            add("mail.example.com.", RecordType.MX, 600, new MXData(10, "mx.example.com.")),
+            add("alias.example.com.", RecordType.CNAME, 3600, new CNAMEData("www.example.com.")),
+            add(
+                "_sip._tcp.example.com.",
+                RecordType.SRV,
+                3600,
+                new SRVData(0, 5, 5060, "sip.example.com.")),
+            add(
+                "txt.example.com.",
+                RecordType.TXT,
+                3600,
+                new TXTData("v=spf1 \"quoted\" more; not a commentA")),
+            add("spf.example.com.", RecordType.SPF, 3600, new SPFData("v=spf1 -all")),
+            add(
+                "ssh.example.com.",
+                RecordType.SSHFP,
+                3600,
+                new SSHFPData(1, 1, "0123456789abcdef0123456789abcdef")),
+            add(
+                "caa.example.com.",
+                RecordType.UNKNOWN,
+                3600,
+                new UNKNOWNData("0 issue \"ca.example.net\"")),
+            add("host.sub.example.com.", RecordType.A, 120, new AData("192.0.2.10")),
+            add("4.sub.example.com.", RecordType.PTR, 3600, new PTRData("sub.example.com.")),
+            add("after.example.com.", RecordType.A, 3600, new AData("192.0.2.9"))));
+  }
+
+  @DataProvider
+  public Object[][] malformed() {
+    return new Object[][] {
+      {"$TTL 60\nwww.example.com. A\n", "<input>:2: A: expected 1 fields, found 0"},
+      {"$TTL 60\nwww A 192.0.2.1 (\n", "<input>:3: Unbalanced parentheses"},
+      {"$TTL 60\nwww.example.com. CNAME target\n", "<input>:2: Relative name without an origin"},
+      {"$GENERATE 1-2 host$ A 192.0.2.$\n", "<input>:1: Unsupported directive $GENERATE"},
+      {"www.example.com. A 192.0.2.1\n", "<input>:1: Record without a TTL and no $TTL"},
+      {"$TTL 60\n  A 192.0.2.1\n", "<input>:2: Record without an owner name"}
+    };
+  }
+
+  @Test(dataProvider = "malformed")
+  public void reportsWhereInputIsMalformed(String zone, String message) {
+    try (VinylDNSZoneFileReader reader = new VinylDNSZoneFileReader(new StringReader(zone), null)) {
+      while (reader.next() != null) {
+        // read to the end
+      }
+      fail("expected " + message);
+    } catch (IOException e) {
+      assertEquals(e.getMessage(), message);
+    }
+  }
+
+  @Test
+  public void importsInBatchesThatKeepNamesTogether() throws IOException {
+    stubBatches();
+    String zone =
+        String.join(
+            "\n",
+            "$TTL 300",
+            "@ SOA ns hostmaster 1 2 3 4 5",
+            "a A 192.0.2.1",
+            "b A 192.0.2.2",
+            "  A 192.0.2.3",
+            "  A 192.0.2.4",
+            "c A 192.0.2.5");
+
+    CreateBatchRequest template = new CreateBatchRequest("import", new ArrayList<>(), "groupId");
+    VinylDNSZoneFileImporter.Result result =
+        new VinylDNSZoneFileImporter(client, 3, 1)
+            .importZone(
+                new VinylDNSZoneFileReader(new StringReader(zone), "example.com"), template);
+
+    assertTrue(result.isSuccess());
+    assertEquals(result.getRecords(), 5);
+    assertEquals(result.getBatches(), 3);
+    assertEquals(result.getSubmittedChanges(), 5);
+
+    List<List<String>> batches = new ArrayList<>();
+    for (LoggedRequest request :
+        wireMockServer.findAll(postRequestedFor(urlEqualTo("/zones/batchrecordchanges")))) {
+      CreateBatchRequest batch =
+          client.gson.fromJson(request.getBodyAsString(), CreateBatchRequest.class);
+      assertEquals(batch.getComments(), "import");
+      assertEquals(batch.getOwnerGroupId(), "groupId");
+      List<String> names = new ArrayList<>();
+      for (ChangeInput change : batch.getChanges()) {
+        names.add(change.getInputName());
+      }
+      batches.add(names);
+    }
+    assertEquals(
+        batches,
+        Arrays.asList(
+            Arrays.asList("a.example.com."),
+            Arrays.asList("b.example.com.", "b.example.com.", "b.example.com."),
+            Arrays.asList("c.example.com.")));
+  }
+
+  @Test
+  public void keepsOnlyFailedBatches() throws IOException {
+    stubBatches();
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .withRequestBody(containing("bad.example.com."))
+            .willReturn(aResponse().withStatus(400).withBody("Zone Discovery Failed")));
+
+    StringBuilder zone = new StringBuilder("$ORIGIN example.com.\n$TTL 300\n");
+    for (int i = 0; i < 100; i++) {
+      zone.append("host").append(i).append(" A 192.0.2.").append(i).append('\n');
+    }
+    zone.append("bad A 192.0.2.200\n");
+
+    VinylDNSZoneFileImporter.Result result =
+        new VinylDNSZoneFileImporter(client, 10, 4)
+            .importZone(
+                new VinylDNSZoneFileReader(new StringReader(zone.toString()), null),
+                new CreateBatchRequest(new ArrayList<>()));
+
+    assertFalse(result.isSuccess());
+    assertEquals(result.getRecords(), 101);
+    assertEquals(result.getBatches(), 11);
+    assertEquals(result.getSubmittedChanges(), 100);
+    assertEquals(result.getFailures().size(), 1);
+    assertEquals(result.getFailures().get(0).getRequest().getChanges().size(), 1);
+    assertEquals(
+        result.getFailures().get(0).getResponse().getMessageBody(), "Zone Discovery Failed");
+  }
+
+  private void stubBatches() {
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setId("batchId");
+    wireMockServer.stubFor(
+        post(urlEqualTo("/zones/batchrecordchanges"))
+            .willReturn(
+                aResponse()
+                    .withStatus(202)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(client.gson.toJson(batchResponse))));
+  }
+
+  private static AddChangeInput add(String name, RecordType type, long ttl, RecordData data) {
+    return new AddChangeInput(name, type, ttl, data);
+  }
+
+  private static Path write(Path file, String... lines) throws IOException {
+    return Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+  }
+}
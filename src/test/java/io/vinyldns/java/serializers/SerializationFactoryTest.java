@@ -16,7 +16,21 @@ package io.vinyldns.java.serializers;
 import static org.testng.Assert.*;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import io.vinyldns.java.model.batch.AddSingleChange;
+import io.vinyldns.java.model.batch.BatchResponse;
+import io.vinyldns.java.model.batch.DeleteRecordSetSingleChange;
+import io.vinyldns.java.model.batch.SingleChange;
+import io.vinyldns.java.model.record.RecordType;
 import io.vinyldns.java.model.record.data.*;
+import io.vinyldns.java.model.record.set.CreateRecordSetRequest;
+import io.vinyldns.java.model.record.set.RecordSet;
+import io.vinyldns.java.model.record.set.RecordSetStatus;
+import java.util.Arrays;
+import java.util.Collections;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.testng.annotations.Test;
 
 public class SerializationFactoryTest {
@@ -38,6 +52,119 @@ public class SerializationFactoryTest {
     testSerialization(new UNKNOWNData("someRawUnknownData"), UNKNOWNData.class);
   }
 
+  @Test
+  public void testRecordSetOfEveryType() {
+    testRecordSet(RecordType.A, new AData("192.168.1.1"), new AData("192.168.1.2"));
+    testRecordSet(RecordType.AAAA, new AAAAData("2001:0db8:85a3:0000:0000:8a2e:0370:7334"));
+    testRecordSet(RecordType.CNAME, new CNAMEData("name"));
+    testRecordSet(RecordType.MX, new MXData(1, "exchange"));
+    testRecordSet(RecordType.NS, new NSData("ns"));
+    testRecordSet(RecordType.PTR, new PTRData("ptrdname"));
+    testRecordSet(RecordType.SOA, new SOAData("mname", "rname", 11L, 22L, 33L, 44L, 55L));
+    testRecordSet(RecordType.SPF, new SPFData("SPFData"));
+    testRecordSet(RecordType.SRV, new SRVData(0, 100, 80, "SPFData"));
+    testRecordSet(RecordType.SSHFP, new SSHFPData(2, 1, "fingerprint"));
+    testRecordSet(RecordType.TXT, new TXTData("text"));
+    testRecordSet(RecordType.UNKNOWN, new UNKNOWNData("someRawUnknownData"));
+  }
+
+  @Test
+  public void testRecordSetWithRecordsBeforeType() {
+    RecordSet recordSet =
+        gson.fromJson(
+            "{\"records\":[{\"preference\":10,\"exchange\":\"mx.\"}],\"type\":\"MX\",\"ttl\":300}",
+            RecordSet.class);
+
+    assertEquals(recordSet.getType(), RecordType.MX);
+    assertEquals(recordSet.getTtl(), 300);
+    assertEquals(recordSet.getRecords(), Collections.singletonList(new MXData(10, "mx.")));
+  }
+
+  @Test
+  public void testCreateRecordSetRequest() {
+    CreateRecordSetRequest request =
+        new CreateRecordSetRequest(
+            "zoneId",
+            "name",
+            RecordType.TXT,
+            300,
+            Collections.singletonList(new TXTData("text")),
+            "ownerGroupId");
+
+    assertEquals(gson.fromJson(gson.toJson(request), CreateRecordSetRequest.class), request);
+  }
+
+  @Test
+  public void testSingleChangeDispatch() {
+    AddSingleChange add = new AddSingleChange();
+    add.setId("add");
+    add.setChangeType(io.vinyldns.java.model.batch.ChangeInputType.Add);
+    add.setType(RecordType.SSHFP);
+    add.setRecord(new SSHFPData(2, 1, "fingerprint"));
+    add.setTtl(300L);
+
+    DeleteRecordSetSingleChange delete = new DeleteRecordSetSingleChange();
+    delete.setId("delete");
+    delete.setChangeType(io.vinyldns.java.model.batch.ChangeInputType.DeleteRecordSet);
+    delete.setType(RecordType.A);
+
+    BatchResponse batchResponse = new BatchResponse();
+    batchResponse.setChanges(Arrays.<SingleChange>asList(add, delete));
+
+    BatchResponse read = gson.fromJson(gson.toJson(batchResponse), BatchResponse.class);
+
+    assertEquals(read.getChanges().get(0), add);
+    assertEquals(read.getChanges().get(1), delete);
+  }
+
+  @Test(expectedExceptions = JsonParseException.class)
+  public void testSingleChangeWithoutChangeType() {
+    gson.fromJson("{\"id\":\"id\"}", SingleChange.class);
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testDeprecatedDeserializersDispatchByType() {
+    Gson legacy =
+        new GsonBuilder()
+            .registerTypeAdapter(RecordData.class, new RecordDataDeserializer())
+            .registerTypeAdapter(SingleChange.class, new ChangeInputDeserializer())
+            .create();
+
+    assertEquals(
+        legacy.fromJson("{\"type\":\"SRV\",\"port\":53,\"target\":\"t.\"}", RecordData.class),
+        new SRVData(0, 0, 53, "t."));
+    assertTrue(
+        legacy.fromJson("{\"changeType\":\"DeleteRecordSet\"}", SingleChange.class)
+            instanceof DeleteRecordSetSingleChange);
+    assertThrows(
+        JsonParseException.class, () -> legacy.fromJson("{\"type\":\"Bogus\"}", RecordData.class));
+    assertThrows(
+        JsonParseException.class,
+        () -> legacy.fromJson("{\"changeType\":\"Bogus\"}", SingleChange.class));
+  }
+
+  private void testRecordSet(RecordType type, RecordData... records) {
+    RecordSet recordSet =
+        new RecordSet(
+            "zoneId",
+            "name",
+            type,
+            300,
+            Arrays.asList(records),
+            "id",
+            "ownerGroupId",
+            RecordSetStatus.Active,
+            new DateTime(2019, 1, 1, 0, 0, DateTimeZone.UTC),
+            null);
+
+    String json = gson.toJson(recordSet);
+    RecordSet read = gson.fromJson(json, RecordSet.class);
+
+    assertEquals(read.getRecords(), recordSet.getRecords());
+    assertEquals(gson.toJson(read), json);
+  }
+
   private <T> void testSerialization(T original, Class<T> clazz) {
     assertEquals(gson.fromJson(gson.toJson(original), clazz), original);
   }